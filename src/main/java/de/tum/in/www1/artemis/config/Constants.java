@@ -151,6 +151,8 @@ public final class Constants {
 
     public static final int HAZELCAST_QUIZ_EXERCISE_CACHE_SERIALIZER_ID = 1;
 
+    public static final int HAZELCAST_COMPACT_QUIZ_SUBMISSION_SERIALIZER_ID = 2;
+
     private Constants() {
     }
 }
@@ -56,7 +56,7 @@ import de.tum.in.www1.artemis.security.AuthoritiesConstants;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.ExerciseService;
 import de.tum.in.www1.artemis.service.ParticipationService;
-import de.tum.in.www1.artemis.service.UserService;
+import de.tum.in.www1.artemis.service.SubscriptionAuthorizationCache;
 import de.tum.in.www1.artemis.validation.InetSocketAddressValidator;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
@@ -80,7 +80,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
 
     private AuthorizationCheckService authorizationCheckService;
 
-    private UserService userService;
+    private SubscriptionAuthorizationCache subscriptionAuthorizationCache;
 
     private ExerciseService exerciseService;
 
@@ -97,14 +97,15 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
     private String brokerPassword;
 
     public WebsocketConfiguration(Environment env, MappingJackson2HttpMessageConverter springMvcJacksonConverter, TaskScheduler messageBrokerTaskScheduler,
-            TaskScheduler taskScheduler, AuthorizationCheckService authorizationCheckService, @Lazy ExerciseService exerciseService, UserService userService) {
+            TaskScheduler taskScheduler, AuthorizationCheckService authorizationCheckService, @Lazy ExerciseService exerciseService,
+            SubscriptionAuthorizationCache subscriptionAuthorizationCache) {
         this.env = env;
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
         this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
         this.taskScheduler = taskScheduler;
         this.authorizationCheckService = authorizationCheckService;
         this.exerciseService = exerciseService;
-        this.userService = userService;
+        this.subscriptionAuthorizationCache = subscriptionAuthorizationCache;
     }
 
     @Autowired
@@ -290,6 +291,15 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
          * @return flag whether subscription is allowed
          */
         private boolean allowSubscription(Principal principal, String destination) {
+            if (!isParticipationTeamDestination(destination) && !isResultNonPersonalDestination(destination)) {
+                return true;
+            }
+            // Clients subscribe to the same destinations again after every reconnect, therefore the decision is cached for a short time
+            return subscriptionAuthorizationCache.isSubscriptionAllowed(principal.getName(), destination,
+                    () -> isSubscriptionToProtectedDestinationAllowed(principal, destination));
+        }
+
+        private boolean isSubscriptionToProtectedDestinationAllowed(Principal principal, String destination) {
             if (isParticipationTeamDestination(destination)) {
                 Long participationId = getParticipationIdFromDestination(destination);
                 return isParticipationOwnedByUser(principal, participationId);
@@ -306,7 +316,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
                     return isUserTAOrHigherForExercise(principal, exercise);
                 }
             }
-            return true;
+            return false;
         }
 
         private void logUnauthorizedDestinationAccess(Principal principal, String destination) {
@@ -325,12 +335,12 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
     }
 
     private boolean isUserInstructorOrHigherForExercise(Principal principal, Exercise exercise) {
-        User user = userService.getUserWithGroupsAndAuthorities(principal.getName());
+        User user = subscriptionAuthorizationCache.getUserWithGroupsAndAuthorities(principal.getName());
         return authorizationCheckService.isAtLeastInstructorInCourse(exercise.getCourseViaExerciseGroupOrCourseMember(), user);
     }
 
     private boolean isUserTAOrHigherForExercise(Principal principal, Exercise exercise) {
-        User user = userService.getUserWithGroupsAndAuthorities(principal.getName());
+        User user = subscriptionAuthorizationCache.getUserWithGroupsAndAuthorities(principal.getName());
         return authorizationCheckService.isAtLeastTeachingAssistantForExercise(exercise, user);
     }
 }
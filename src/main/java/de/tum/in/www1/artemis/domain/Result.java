@@ -25,6 +25,7 @@ import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 
 /**
@@ -450,6 +451,21 @@ public class Result extends DomainObject {
         }
     }
 
+    /**
+     * Updates the attributes "score" and "successful" by evaluating its quiz submission with the compiled scoring model of the quiz exercise, the submission is only scored once
+     *
+     * @param scoringModel the compiled scoring model of the quiz exercise this result belongs to
+     */
+    public void evaluateSubmission(QuizScoringModel scoringModel) {
+        if (submission instanceof QuizSubmission) {
+            double scoreInPoints = scoringModel.getScoreInPointsForSubmission((QuizSubmission) submission);
+            // update score (mapped to the 0 to 100 scale)
+            setScore(Math.round(100.0 * scoreInPoints / scoringModel.getMaxTotalScore()));
+            // update result string
+            setResultString(scoreInPoints, scoringModel.getMaxTotalScore());
+        }
+    }
+
     /**
      * Removes the assessor from the result, can be invoked to make sure that sensitive information is not sent to the client. E.g. students should not see information about
      * their assessor.
@@ -10,6 +10,8 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
+
 /**
  * A DragAndDropQuestionStatistic.
  */
@@ -74,11 +76,12 @@ public class DragAndDropQuestionStatistic extends QuizQuestionStatistic {
      * @param submittedAnswer the submittedAnswer object which contains all selected answers
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
     @Override
-    public void addResult(SubmittedAnswer submittedAnswer, boolean rated) {
+    public void addResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel) {
 
-        changeStatisticBasedOnResult(submittedAnswer, rated, 1);
+        changeStatisticBasedOnResult(submittedAnswer, rated, 1, scoringModel);
     }
 
     /**
@@ -87,11 +90,12 @@ public class DragAndDropQuestionStatistic extends QuizQuestionStatistic {
      * @param submittedAnswer the submittedAnswer object which contains all selected answers
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
     @Override
-    public void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated) {
+    public void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel) {
 
-        changeStatisticBasedOnResult(submittedAnswer, rated, -1);
+        changeStatisticBasedOnResult(submittedAnswer, rated, -1, scoringModel);
     }
 
     /**
@@ -102,8 +106,9 @@ public class DragAndDropQuestionStatistic extends QuizQuestionStatistic {
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
      * @param change          the int-value, which will be added to the Counter and participants
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
-    private void changeStatisticBasedOnResult(SubmittedAnswer submittedAnswer, boolean rated, int change) {
+    private void changeStatisticBasedOnResult(SubmittedAnswer submittedAnswer, boolean rated, int change, QuizScoringModel scoringModel) {
 
         if (submittedAnswer == null) {
             return;
@@ -124,7 +129,7 @@ public class DragAndDropQuestionStatistic extends QuizQuestionStatistic {
                 }
             }
             // change rated correctCounter if answer is complete correct
-            if (getQuizQuestion().isAnswerCorrect(ddSubmittedAnswer)) {
+            if (scoringModel.isAnswerCorrect(getQuizQuestion(), ddSubmittedAnswer)) {
                 setRatedCorrectCounter(getRatedCorrectCounter() + change);
             }
         }
@@ -142,7 +147,7 @@ public class DragAndDropQuestionStatistic extends QuizQuestionStatistic {
                 }
             }
             // change unrated correctCounter if answer is complete correct
-            if (getQuizQuestion().isAnswerCorrect(ddSubmittedAnswer)) {
+            if (scoringModel.isAnswerCorrect(getQuizQuestion(), ddSubmittedAnswer)) {
                 setUnRatedCorrectCounter(getUnRatedCorrectCounter() + change);
             }
         }
@@ -10,6 +10,8 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
+
 /**
  * A MultipleChoiceQuestionStatistic.
  */
@@ -72,10 +74,11 @@ public class MultipleChoiceQuestionStatistic extends QuizQuestionStatistic {
      * @param submittedAnswer the submittedAnswer object which contains all selected answers
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
     @Override
-    public void addResult(SubmittedAnswer submittedAnswer, boolean rated) {
-        changeStatisticBasedOnResult(submittedAnswer, rated, 1);
+    public void addResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel) {
+        changeStatisticBasedOnResult(submittedAnswer, rated, 1, scoringModel);
     }
 
     /**
@@ -84,10 +87,11 @@ public class MultipleChoiceQuestionStatistic extends QuizQuestionStatistic {
      * @param submittedAnswer the submittedAnswer object which contains all selected answers
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
     @Override
-    public void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated) {
-        changeStatisticBasedOnResult(submittedAnswer, rated, -1);
+    public void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel) {
+        changeStatisticBasedOnResult(submittedAnswer, rated, -1, scoringModel);
     }
 
     /**
@@ -97,8 +101,9 @@ public class MultipleChoiceQuestionStatistic extends QuizQuestionStatistic {
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
      * @param change          the int-value, which will be added to the Counter and participants
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
-    private void changeStatisticBasedOnResult(SubmittedAnswer submittedAnswer, boolean rated, int change) {
+    private void changeStatisticBasedOnResult(SubmittedAnswer submittedAnswer, boolean rated, int change, QuizScoringModel scoringModel) {
 
         if (submittedAnswer == null) {
             return;
@@ -118,7 +123,7 @@ public class MultipleChoiceQuestionStatistic extends QuizQuestionStatistic {
                 }
             }
             // change rated correctCounter if answer is complete correct
-            if (getQuizQuestion().isAnswerCorrect(mcSubmittedAnswer)) {
+            if (scoringModel.isAnswerCorrect(getQuizQuestion(), mcSubmittedAnswer)) {
                 setRatedCorrectCounter(getRatedCorrectCounter() + change);
             }
         }
@@ -137,7 +142,7 @@ public class MultipleChoiceQuestionStatistic extends QuizQuestionStatistic {
             }
 
             // change unrated correctCounter if answer is complete correct
-            if (getQuizQuestion().isAnswerCorrect(mcSubmittedAnswer)) {
+            if (scoringModel.isAnswerCorrect(getQuizQuestion(), mcSubmittedAnswer)) {
                 setUnRatedCorrectCounter(getUnRatedCorrectCounter() + change);
             }
         }
@@ -11,6 +11,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
+
 @Entity
 @DiscriminatorValue(value = "Q")
 @DiscriminatorOptions(force = true)
@@ -54,9 +56,23 @@ public abstract class QuizQuestionStatistic extends QuizStatistic {
         this.quizQuestion = quizQuestion;
     }
 
-    public abstract void addResult(SubmittedAnswer submittedAnswer, boolean rated);
-
-    public abstract void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated);
+    /**
+     * add the submitted answer to the statistic
+     *
+     * @param submittedAnswer the submitted answer of the result, can be null
+     * @param rated           specify if the Result was rated
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
+     */
+    public abstract void addResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel);
+
+    /**
+     * remove the submitted answer from the statistic
+     *
+     * @param submittedAnswer the submitted answer of the result, can be null
+     * @param rated           specify if the Result was rated
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
+     */
+    public abstract void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel);
 
     public abstract void resetStatistic();
 }
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 
 import de.tum.in.www1.artemis.domain.Submission;
 import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 
 /**
@@ -116,6 +117,27 @@ public class QuizSubmission extends Submission {
         setScoreInPoints(quizExercise.getScoreInPointsForSubmission(this));
     }
 
+    /**
+     * calculates the scores for this submission and all its submitted answers with the compiled scoring model of the quiz and saves them in scoreInPoints. Every submitted answer
+     * is only scored once, the total score is the sum of the scores of the submitted answers.
+     *
+     * @param scoringModel the compiled scoring model of the quiz this submission belongs to
+     */
+    public void calculateAndUpdateScores(QuizScoringModel scoringModel) {
+        double scoreInPoints = 0.0;
+        for (QuizQuestion quizQuestion : scoringModel.getQuizQuestions()) {
+            // search for submitted answer for this quizQuestion
+            SubmittedAnswer submittedAnswer = getSubmittedAnswerForQuestion(quizQuestion);
+            if (submittedAnswer != null) {
+                double score = scoringModel.calculateScore(quizQuestion, submittedAnswer);
+                submittedAnswer.setScoreInPoints(score);
+                scoreInPoints += score;
+            }
+        }
+        // set total score
+        setScoreInPoints(scoreInPoints);
+    }
+
     @Override
     public String toString() {
         return "QuizSubmission{" + "id=" + getId() + ", scoreInPoints='" + getScoreInPoints() + ", submittedAnswers='" + getSubmittedAnswers() + "'" + "}";
@@ -10,6 +10,8 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
+
 /**
  * A ShortAnswerQuestionStatistic.
  */
@@ -68,13 +70,13 @@ public class ShortAnswerQuestionStatistic extends QuizQuestionStatistic {
     }
 
     @Override
-    public void addResult(SubmittedAnswer submittedAnswer, boolean rated) {
-        changeStatisticBasedOnResult(submittedAnswer, rated, 1);
+    public void addResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel) {
+        changeStatisticBasedOnResult(submittedAnswer, rated, 1, scoringModel);
     }
 
     @Override
-    public void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated) {
-        changeStatisticBasedOnResult(submittedAnswer, rated, -1);
+    public void removeOldResult(SubmittedAnswer submittedAnswer, boolean rated, QuizScoringModel scoringModel) {
+        changeStatisticBasedOnResult(submittedAnswer, rated, -1, scoringModel);
     }
 
     @Override
@@ -97,8 +99,9 @@ public class ShortAnswerQuestionStatistic extends QuizQuestionStatistic {
      * @param rated           specify if the Result was rated ( participated during the releaseDate and the dueDate of the quizExercise) or unrated ( participated after the dueDate
      *                        of the quizExercise)
      * @param change          the int-value, which will be added to the Counter and participants
+     * @param scoringModel    the compiled scoring model of the quiz exercise, which decides if the answer is completely correct
      */
-    private void changeStatisticBasedOnResult(SubmittedAnswer submittedAnswer, boolean rated, int change) {
+    private void changeStatisticBasedOnResult(SubmittedAnswer submittedAnswer, boolean rated, int change, QuizScoringModel scoringModel) {
         if (submittedAnswer == null) {
             return;
         }
@@ -132,7 +135,7 @@ public class ShortAnswerQuestionStatistic extends QuizQuestionStatistic {
                 }
             }
             // change rated correctCounter if answer is complete correct
-            if (getQuizQuestion().isAnswerCorrect(shortAnswerSubmittedAnswer)) {
+            if (scoringModel.isAnswerCorrect(getQuizQuestion(), shortAnswerSubmittedAnswer)) {
                 setRatedCorrectCounter(getRatedCorrectCounter() + change);
             }
         }
@@ -161,7 +164,7 @@ public class ShortAnswerQuestionStatistic extends QuizQuestionStatistic {
                 }
             }
             // change unrated correctCounter if answer is complete correct
-            if (getQuizQuestion().isAnswerCorrect(shortAnswerSubmittedAnswer)) {
+            if (scoringModel.isAnswerCorrect(getQuizQuestion(), shortAnswerSubmittedAnswer)) {
                 setUnRatedCorrectCounter(getUnRatedCorrectCounter() + change);
             }
         }
@@ -0,0 +1,488 @@
+package de.tum.in.www1.artemis.domain.quiz.scoring;
+
+import java.util.*;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.TempIdObject;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import me.xdrop.fuzzywuzzy.FuzzySearch;
+
+/**
+ * The answer keys of all questions of one quiz exercise, compiled once into bitsets and lookup tables, so that many submissions (e.g. all submissions at the end of a quiz) can
+ * be scored without searching through the answer options, mappings and solutions of the questions for every submitted answer.
+ * <p>
+ * The model calculates exactly the same scores as the {@link ScoringStrategy} of the questions: answer options, drop locations, drag items, spots and solutions are identified
+ * like in their equals methods, and the submitted texts of short answer questions are marked as correct or incorrect as well. The model reflects the quiz exercise at the time
+ * of the compilation, therefore it has to be compiled again after the quiz exercise was changed. Questions that are not part of the compiled quiz exercise (compared by
+ * identity) are scored with their {@link ScoringStrategy}.
+ */
+public class QuizScoringModel {
+
+    private final List<QuizQuestion> quizQuestions;
+
+    private final Map<QuizQuestion, CompiledQuestion> compiledQuestions = new IdentityHashMap<>();
+
+    private final double maxTotalScore;
+
+    private QuizScoringModel(QuizExercise quizExercise) {
+        this.quizQuestions = new ArrayList<>(quizExercise.getQuizQuestions());
+        this.maxTotalScore = quizExercise.getMaxTotalScore();
+        for (QuizQuestion quizQuestion : quizQuestions) {
+            CompiledQuestion compiledQuestion = compileQuestion(quizQuestion);
+            if (compiledQuestion != null) {
+                compiledQuestions.put(quizQuestion, compiledQuestion);
+            }
+        }
+    }
+
+    /**
+     * Compiles the answer keys of all questions of the given quiz exercise.
+     *
+     * @param quizExercise the quiz exercise with its questions (including the answer options, mappings and solutions)
+     * @return the scoring model of the quiz exercise
+     */
+    public static QuizScoringModel compile(QuizExercise quizExercise) {
+        return new QuizScoringModel(quizExercise);
+    }
+
+    /**
+     * Calculate the score for the given answer to the given question, see {@link ScoringStrategy#calculateScore(QuizQuestion, SubmittedAnswer)}
+     *
+     * @param quizQuestion    the question to score
+     * @param submittedAnswer the answer to score
+     * @return the resulting score (usually between 0.0 and quizQuestion.getScore())
+     */
+    public double calculateScore(QuizQuestion quizQuestion, SubmittedAnswer submittedAnswer) {
+        CompiledQuestion compiledQuestion = compiledQuestions.get(quizQuestion);
+        if (compiledQuestion == null) {
+            return quizQuestion.scoreForAnswer(submittedAnswer);
+        }
+        // return maximal Score if the quizQuestion is invalid
+        if (compiledQuestion.invalid) {
+            return compiledQuestion.score;
+        }
+        return compiledQuestion.calculateScore(submittedAnswer);
+    }
+
+    /**
+     * Checks if the given answer is 100 % correct, see {@link QuizQuestion#isAnswerCorrect(SubmittedAnswer)}
+     *
+     * @param quizQuestion    the question the answer belongs to
+     * @param submittedAnswer the answer to check
+     * @return true, if the answer is 100% correct, false otherwise
+     */
+    public boolean isAnswerCorrect(QuizQuestion quizQuestion, SubmittedAnswer submittedAnswer) {
+        return calculateScore(quizQuestion, submittedAnswer) == quizQuestion.getScore();
+    }
+
+    /**
+     * Get the score for the given submission as the number of points, see {@link QuizExercise#getScoreInPointsForSubmission(QuizSubmission)}
+     *
+     * @param quizSubmission the submission that should be evaluated
+     * @return the resulting score
+     */
+    public double getScoreInPointsForSubmission(QuizSubmission quizSubmission) {
+        double score = 0.0;
+        for (QuizQuestion quizQuestion : quizQuestions) {
+            SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(quizQuestion);
+            if (submittedAnswer != null) {
+                score += calculateScore(quizQuestion, submittedAnswer);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return the questions of the compiled quiz exercise in their order
+     */
+    public List<QuizQuestion> getQuizQuestions() {
+        return quizQuestions;
+    }
+
+    /**
+     * @return the maximal score of the compiled quiz exercise, see {@link QuizExercise#getMaxTotalScore()}
+     */
+    public double getMaxTotalScore() {
+        return maxTotalScore;
+    }
+
+    private static CompiledQuestion compileQuestion(QuizQuestion quizQuestion) {
+        ScoringType scoringType = quizQuestion.getScoringType();
+        if (scoringType != ScoringType.ALL_OR_NOTHING && scoringType != ScoringType.PROPORTIONAL_WITH_PENALTY) {
+            // the scoring strategy reports the unknown scoring type when the question is scored
+            return null;
+        }
+        boolean proportional = scoringType == ScoringType.PROPORTIONAL_WITH_PENALTY;
+        if (quizQuestion instanceof MultipleChoiceQuestion) {
+            return new CompiledMultipleChoiceQuestion((MultipleChoiceQuestion) quizQuestion, proportional);
+        }
+        else if (quizQuestion instanceof DragAndDropQuestion) {
+            return new CompiledDragAndDropQuestion((DragAndDropQuestion) quizQuestion, proportional);
+        }
+        else if (quizQuestion instanceof ShortAnswerQuestion) {
+            return new CompiledShortAnswerQuestion((ShortAnswerQuestion) quizQuestion, proportional);
+        }
+        return null;
+    }
+
+    /**
+     * The answer key of one question.
+     */
+    private abstract static class CompiledQuestion {
+
+        final Integer score;
+
+        final boolean invalid;
+
+        final boolean proportional;
+
+        CompiledQuestion(QuizQuestion quizQuestion, boolean proportional) {
+            this.score = quizQuestion.getScore();
+            this.invalid = quizQuestion.isInvalid();
+            this.proportional = proportional;
+        }
+
+        /**
+         * Calculates the score of the answer to the valid question.
+         *
+         * @param submittedAnswer the answer to score
+         * @return the resulting score, 0.0 if the type of the answer does not fit the question
+         */
+        abstract double calculateScore(SubmittedAnswer submittedAnswer);
+
+        /**
+         * Calculates the proportional score like all scoring strategies: every correct element increases the score by x and every incorrect element decreases the score by x
+         * where x = maxScore / total, if the result is negative, a score of 0 is given instead.
+         */
+        double proportionalScore(double correct, double incorrect, double total) {
+            double fraction = ((correct / total) - (incorrect / total));
+            return Math.max(0, score * fraction);
+        }
+    }
+
+    /**
+     * The answer options are numbered by their position in the question, the correct and the invalid options are stored as bitsets. The selected options of an answer are wrong
+     * where they differ from the correct options (selected XOR correct), apart from the invalid options.
+     */
+    private static final class CompiledMultipleChoiceQuestion extends CompiledQuestion {
+
+        private final Map<Long, Integer> answerOptionPositions = new HashMap<>();
+
+        private final int numberOfAnswerOptions;
+
+        private final BitSet correctAnswerOptions = new BitSet();
+
+        private final BitSet validAnswerOptions = new BitSet();
+
+        CompiledMultipleChoiceQuestion(MultipleChoiceQuestion question, boolean proportional) {
+            super(question, proportional);
+            List<AnswerOption> answerOptions = question.getAnswerOptions();
+            numberOfAnswerOptions = answerOptions.size();
+            for (int i = 0; i < numberOfAnswerOptions; i++) {
+                AnswerOption answerOption = answerOptions.get(i);
+                // the selected options are compared by their id only, see MultipleChoiceSubmittedAnswer#isSelected
+                answerOptionPositions.putIfAbsent(answerOption.getId(), i);
+                correctAnswerOptions.set(i, Boolean.TRUE.equals(answerOption.isIsCorrect()));
+                validAnswerOptions.set(i, !answerOption.isInvalid());
+            }
+        }
+
+        @Override
+        double calculateScore(SubmittedAnswer submittedAnswer) {
+            if (!(submittedAnswer instanceof MultipleChoiceSubmittedAnswer)) {
+                // the submitted answer's type doesn't fit the quizQuestion's type => it cannot be correct
+                return 0.0;
+            }
+            BitSet wrongAnswerOptions = new BitSet(numberOfAnswerOptions);
+            Set<AnswerOption> selectedOptions = ((MultipleChoiceSubmittedAnswer) submittedAnswer).getSelectedOptions();
+            if (selectedOptions != null) {
+                for (AnswerOption selectedOption : selectedOptions) {
+                    Integer position = answerOptionPositions.get(selectedOption.getId());
+                    if (position != null) {
+                        wrongAnswerOptions.set(position);
+                    }
+                }
+            }
+            wrongAnswerOptions.xor(correctAnswerOptions);
+            // invalid answer options are treated as if they were answered correctly
+            wrongAnswerOptions.and(validAnswerOptions);
+            if (proportional) {
+                double incorrectSelections = wrongAnswerOptions.cardinality();
+                return proportionalScore(numberOfAnswerOptions - incorrectSelections, incorrectSelections, numberOfAnswerOptions);
+            }
+            return wrongAnswerOptions.isEmpty() ? score : 0.0;
+        }
+    }
+
+    /**
+     * The drop locations and drag items are numbered by their position in the question, the correct drag items of every drop location are stored as a bitset. The mappings of
+     * an answer are turned into a table of the selected drag item per drop location with one pass.
+     */
+    private static final class CompiledDragAndDropQuestion extends CompiledQuestion {
+
+        private final EntityIndex dropLocations;
+
+        private final EntityIndex dragItems;
+
+        private final boolean[] invalidDropLocations;
+
+        private final boolean[] mappedDropLocations;
+
+        private final BitSet[] correctDragItems;
+
+        private final int numberOfMappedDropLocations;
+
+        CompiledDragAndDropQuestion(DragAndDropQuestion question, boolean proportional) {
+            super(question, proportional);
+            dropLocations = new EntityIndex(question.getDropLocations());
+            // the correct mappings could reference drag items that are not part of the question (anymore), they are numbered after the drag items of the question
+            List<DragItem> allDragItems = new ArrayList<>(question.getDragItems());
+            question.getCorrectMappings().stream().map(DragAndDropMapping::getDragItem).filter(Objects::nonNull).forEach(allDragItems::add);
+            dragItems = new EntityIndex(allDragItems);
+            invalidDropLocations = new boolean[dropLocations.size()];
+            mappedDropLocations = new boolean[dropLocations.size()];
+            correctDragItems = new BitSet[dropLocations.size()];
+            int mapped = 0;
+            for (int i = 0; i < dropLocations.size(); i++) {
+                DropLocation dropLocation = question.getDropLocations().get(i);
+                Set<DragItem> correctDragItemsForDropLocation = question.getCorrectDragItemsForDropLocation(dropLocation);
+                invalidDropLocations[i] = dropLocation.isInvalid();
+                // drop locations without correct drag items are meant to stay empty
+                mappedDropLocations[i] = !correctDragItemsForDropLocation.isEmpty();
+                correctDragItems[i] = new BitSet();
+                for (DragItem dragItem : correctDragItemsForDropLocation) {
+                    int position = dragItems.indexOf(dragItem);
+                    if (position >= 0) {
+                        correctDragItems[i].set(position);
+                    }
+                }
+                if (mappedDropLocations[i]) {
+                    mapped++;
+                }
+            }
+            numberOfMappedDropLocations = mapped;
+        }
+
+        @Override
+        double calculateScore(SubmittedAnswer submittedAnswer) {
+            if (!(submittedAnswer instanceof DragAndDropSubmittedAnswer)) {
+                // the submitted answer's type doesn't fit the quizQuestion's type => it cannot be correct
+                return 0.0;
+            }
+            // only the first mapping of a drop location counts, see DragAndDropSubmittedAnswer#getSelectedDragItemForDropLocation
+            DragItem[] selectedDragItems = new DragItem[dropLocations.size()];
+            BitSet dropLocationsWithMapping = new BitSet(dropLocations.size());
+            Set<DragAndDropMapping> mappings = ((DragAndDropSubmittedAnswer) submittedAnswer).getMappings();
+            if (mappings != null) {
+                for (DragAndDropMapping mapping : mappings) {
+                    int position = dropLocations.indexOf(mapping.getDropLocation());
+                    if (position >= 0 && !dropLocationsWithMapping.get(position)) {
+                        dropLocationsWithMapping.set(position);
+                        selectedDragItems[position] = mapping.getDragItem();
+                    }
+                }
+            }
+            double correctMappings = 0;
+            double incorrectMappings = 0;
+            for (int i = 0; i < selectedDragItems.length; i++) {
+                DragItem selectedDragItem = selectedDragItems[i];
+                boolean correct;
+                // invalid drop location or invalid drag item => always correct
+                if (invalidDropLocations[i] || (selectedDragItem != null && selectedDragItem.isInvalid())) {
+                    correct = true;
+                }
+                else if (selectedDragItem == null) {
+                    correct = !mappedDropLocations[i];
+                }
+                else {
+                    int position = dragItems.indexOf(selectedDragItem);
+                    correct = position >= 0 && correctDragItems[i].get(position);
+                }
+                if (!correct) {
+                    if (!proportional) {
+                        return 0.0;
+                    }
+                    // wrong mappings always deduct points
+                    incorrectMappings++;
+                }
+                else if (mappedDropLocations[i]) {
+                    // points are only given for drop locations that were meant to not stay empty
+                    correctMappings++;
+                }
+            }
+            if (proportional) {
+                return proportionalScore(correctMappings, incorrectMappings, numberOfMappedDropLocations);
+            }
+            // the user wasn't wrong about a single drop location => the answer is 100% correct
+            return score;
+        }
+    }
+
+    /**
+     * The spots and solutions are numbered by their position in the question, the correct solutions of every spot are stored with their normalized text. The solutions used by
+     * an answer are tracked in a bitset, because every solution can only be used once.
+     */
+    private static final class CompiledShortAnswerQuestion extends CompiledQuestion {
+
+        private final EntityIndex spots;
+
+        private final boolean[] invalidSpots;
+
+        /**
+         * The positions of the correct solutions of every spot in the solutions of the question (in the iteration order of
+         * {@link ShortAnswerQuestion#getCorrectSolutionForSpot(ShortAnswerSpot)}), -1 for solutions that are not part of the question
+         */
+        private final int[][] correctSolutions;
+
+        /**
+         * The normalized texts of the correct solutions of every spot, see {@link ShortAnswerSubmittedText#isSubmittedTextCorrect(String, String)}
+         */
+        private final String[][] correctSolutionTexts;
+
+        private final int numberOfSolutions;
+
+        CompiledShortAnswerQuestion(ShortAnswerQuestion question, boolean proportional) {
+            super(question, proportional);
+            spots = new EntityIndex(question.getSpots());
+            EntityIndex solutions = new EntityIndex(question.getSolutions());
+            numberOfSolutions = solutions.size();
+            invalidSpots = new boolean[spots.size()];
+            correctSolutions = new int[spots.size()][];
+            correctSolutionTexts = new String[spots.size()][];
+            for (int i = 0; i < spots.size(); i++) {
+                ShortAnswerSpot spot = question.getSpots().get(i);
+                invalidSpots[i] = Boolean.TRUE.equals(spot.isInvalid());
+                Set<ShortAnswerSolution> solutionsForSpot = question.getCorrectSolutionForSpot(spot);
+                correctSolutions[i] = new int[solutionsForSpot.size()];
+                correctSolutionTexts[i] = new String[solutionsForSpot.size()];
+                int j = 0;
+                for (ShortAnswerSolution solution : solutionsForSpot) {
+                    correctSolutions[i][j] = solutions.indexOf(solution);
+                    correctSolutionTexts[i][j] = solution.getText() != null ? normalize(solution.getText()) : null;
+                    j++;
+                }
+            }
+        }
+
+        @Override
+        double calculateScore(SubmittedAnswer submittedAnswer) {
+            if (!(submittedAnswer instanceof ShortAnswerSubmittedAnswer)) {
+                // the submitted answer's type doesn't fit the quizQuestion's type => it cannot be correct
+                return 0.0;
+            }
+            // only the first submitted text of a spot counts, see ShortAnswerSubmittedAnswer#getSubmittedTextForSpot
+            ShortAnswerSubmittedText[] submittedTexts = new ShortAnswerSubmittedText[spots.size()];
+            for (ShortAnswerSubmittedText submittedText : ((ShortAnswerSubmittedAnswer) submittedAnswer).getSubmittedTexts()) {
+                int position = spots.indexOf(submittedText.getSpot());
+                if (position >= 0 && submittedTexts[position] == null) {
+                    submittedTexts[position] = submittedText;
+                }
+            }
+            BitSet usedSolutions = new BitSet(numberOfSolutions);
+            int correctSolutionsCount = 0;
+            int incorrectSolutionsCount = 0;
+            for (int i = 0; i < submittedTexts.length; i++) {
+                if (invalidSpots[i]) {
+                    correctSolutionsCount++;
+                    continue;
+                }
+                ShortAnswerSubmittedText submittedText = submittedTexts[i];
+                if (submittedText == null) {
+                    continue;
+                }
+                submittedText.setIsCorrect(false);
+                String text = normalize(submittedText.getText());
+                boolean foundCorrectSolution = false;
+                for (int j = 0; j < correctSolutions[i].length && !foundCorrectSolution; j++) {
+                    int solution = correctSolutions[i][j];
+                    // the cheap check whether the solution is still unused comes first
+                    if (solution >= 0 && !usedSolutions.get(solution) && correctSolutionTexts[i][j] != null && isTextCorrect(text, correctSolutionTexts[i][j])) {
+                        usedSolutions.set(solution);
+                        submittedText.setIsCorrect(true);
+                        correctSolutionsCount++;
+                        foundCorrectSolution = true;
+                    }
+                }
+                if (!foundCorrectSolution) {
+                    incorrectSolutionsCount++;
+                }
+            }
+            if (proportional) {
+                return proportionalScore(correctSolutionsCount, incorrectSolutionsCount, spots.size());
+            }
+            return correctSolutionsCount == spots.size() ? score : 0.0;
+        }
+
+        private static String normalize(String text) {
+            return text.toLowerCase().trim();
+        }
+
+        private static boolean isTextCorrect(String normalizedText, String normalizedSolution) {
+            // equal texts always have the ratio 100, except for empty texts which have the ratio 0
+            if (!normalizedText.isEmpty() && normalizedText.equals(normalizedSolution)) {
+                return true;
+            }
+            return FuzzySearch.ratio(normalizedText, normalizedSolution) > 85;
+        }
+    }
+
+    /**
+     * Numbers the entities of a question by their position. Entities are identified like in {@link TempIdObject#equals(Object)} and {@link DomainObject#equals(Object)}: by their
+     * class and their temporary id or their database id.
+     */
+    private static final class EntityIndex {
+
+        private final List<? extends DomainObject> entities;
+
+        private final Map<Long, Integer> positionsById = new HashMap<>();
+
+        private final Map<Long, Integer> positionsByTempId = new HashMap<>();
+
+        EntityIndex(List<? extends DomainObject> entities) {
+            this.entities = entities;
+            for (int i = 0; i < entities.size(); i++) {
+                DomainObject entity = entities.get(i);
+                if (entity == null) {
+                    continue;
+                }
+                if (entity.getId() != null) {
+                    positionsById.putIfAbsent(entity.getId(), i);
+                }
+                if (entity instanceof TempIdObject && ((TempIdObject) entity).getTempID() != null) {
+                    positionsByTempId.putIfAbsent(((TempIdObject) entity).getTempID(), i);
+                }
+            }
+        }
+
+        int size() {
+            return entities.size();
+        }
+
+        /**
+         * @param entity the entity to search for, can be null
+         * @return the first position of an entity that is equal to the given entity, -1 if there is none
+         */
+        int indexOf(DomainObject entity) {
+            if (entity == null) {
+                return -1;
+            }
+            int position = positionOf(positionsById, entity.getId(), entity);
+            if (entity instanceof TempIdObject) {
+                int tempIdPosition = positionOf(positionsByTempId, ((TempIdObject) entity).getTempID(), entity);
+                if (tempIdPosition >= 0 && (position < 0 || tempIdPosition < position)) {
+                    position = tempIdPosition;
+                }
+            }
+            return position;
+        }
+
+        private int positionOf(Map<Long, Integer> positions, Long id, DomainObject entity) {
+            if (id == null) {
+                return -1;
+            }
+            Integer position = positions.get(id);
+            return position != null && entities.get(position).getClass() == entity.getClass() ? position : -1;
+        }
+    }
+}
@@ -43,6 +43,15 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
      */
     long countByResult_Participation_Exercise_Course_IdAndComplaintType(Long courseId, ComplaintType complaintType);
 
+    /**
+     * Counts the complaints and their responses associated to a course id in one query, grouped by the complaint type
+     *
+     * @param courseId - the id of the course we want to filter by
+     * @return one array per complaint type with the complaint type, the number of complaints and the number of complaint responses
+     */
+    @Query("SELECT c.complaintType, COUNT(c), COUNT(cr) FROM Complaint c JOIN c.result r JOIN r.participation p JOIN p.exercise e LEFT JOIN ComplaintResponse cr ON cr.complaint = c WHERE e.course.id = :#{#courseId} GROUP BY c.complaintType")
+    List<Object[]> countComplaintsAndComplaintResponsesByCourseIdGroupedByComplaintType(@Param("courseId") Long courseId);
+
     @Query("SELECT c FROM Complaint c LEFT JOIN FETCH c.result r LEFT JOIN FETCH r.assessor LEFT JOIN FETCH r.participation p LEFT JOIN FETCH p.exercise e LEFT JOIN FETCH r.submission WHERE e.id = :#{#exerciseId} AND c.complaintType = :#{#complaintType}")
     List<Complaint> findByResult_Participation_Exercise_Id_ComplaintTypeWithEagerSubmissionAndEagerAssessor(@Param("exerciseId") Long exerciseId,
             @Param("complaintType") ComplaintType complaintType);
@@ -3,6 +3,7 @@ package de.tum.in.www1.artemis.repository;
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -52,4 +53,16 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 
     Optional<Course> findById(long courseId);
 
+    @Query("select distinct exercise.course.id from Exercise exercise where exercise.id in :#{#exerciseIds} and exercise.course is not null")
+    Set<Long> findIdsByExerciseIds(@Param("exerciseIds") Collection<Long> exerciseIds);
+
+    @Query("select distinct participation.exercise.course.id from Participation participation where participation.id in :#{#participationIds} and participation.exercise.course is not null")
+    Set<Long> findIdsByParticipationIds(@Param("participationIds") Collection<Long> participationIds);
+
+    @Query("select distinct result.participation.exercise.course.id from Result result where result.id in :#{#resultIds} and result.participation.exercise.course is not null")
+    Set<Long> findIdsByResultIds(@Param("resultIds") Collection<Long> resultIds);
+
+    @Query("select distinct complaint.result.participation.exercise.course.id from Complaint complaint where complaint.id in :#{#complaintIds} and complaint.result.participation.exercise.course is not null")
+    Set<Long> findIdsByComplaintIds(@Param("complaintIds") Collection<Long> complaintIds);
+
 }
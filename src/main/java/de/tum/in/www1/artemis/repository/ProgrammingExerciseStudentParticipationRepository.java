@@ -6,6 +6,7 @@ import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -42,6 +43,9 @@ public interface ProgrammingExerciseStudentParticipationRepository extends JpaRe
 
     List<ProgrammingExerciseStudentParticipation> findByExerciseId(Long exerciseId);
 
+    @Query("select p.id from ProgrammingExerciseStudentParticipation p where p.exercise.id = :#{#exerciseId}")
+    Set<Long> findIdsByExerciseId(@Param("exerciseId") Long exerciseId);
+
     /**
      * Will return the participations matching the provided participation ids, but only if they belong to the given exercise.
      *
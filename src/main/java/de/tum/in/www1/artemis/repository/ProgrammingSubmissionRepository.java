@@ -2,8 +2,10 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -13,6 +15,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 
 /**
  * Spring Data JPA repository for the ProgrammingSubmission entity.
@@ -43,6 +46,15 @@ public interface ProgrammingSubmissionRepository extends JpaRepository<Programmi
     @Query("select s from ProgrammingSubmission s where s.participation.id = :#{#participationId} order by s.submissionDate desc")
     List<ProgrammingSubmission> findLatestSubmissionForParticipation(@Param("participationId") Long participationId, Pageable pageable);
 
+    /**
+     * Get the latest submission of every participation of the given exercise, if this submission does not have a result yet.
+     *
+     * @param exerciseId the id of the programming exercise.
+     * @return the pending submissions of the participations (can be empty!)
+     */
+    @Query("select s from ProgrammingSubmission s left join s.result r where s.participation.exercise.id = :#{#exerciseId} and r is null and s.submissionDate = (select max(s2.submissionDate) from ProgrammingSubmission s2 where s2.participation.id = s.participation.id)")
+    List<ProgrammingSubmission> findLatestPendingSubmissionsByExerciseId(@Param("exerciseId") Long exerciseId);
+
     @EntityGraph(type = LOAD, attributePaths = { "result.feedbacks" })
     List<ProgrammingSubmission> findByParticipationIdAndResultIsNullOrderBySubmissionDateDesc(Long participationId);
 
@@ -56,4 +68,16 @@ public interface ProgrammingSubmissionRepository extends JpaRepository<Programmi
     Optional<ProgrammingSubmission> findWithEagerBuildLogEntriesById(Long submissionId);
 
     Optional<ProgrammingSubmission> findByResultId(long resultId);
+
+    /**
+     * Get the ids of all participations of the given exercise that have a submission of the given type which was created at or after the given date.
+     *
+     * @param exerciseId     the id of the programming exercise.
+     * @param submissionType the type of the submissions.
+     * @param submissionDate the earliest submission date.
+     * @return the ids of the participations (can be empty!)
+     */
+    @Query("select distinct s.participation.id from ProgrammingSubmission s where s.participation.exercise.id = :#{#exerciseId} and s.type = :#{#submissionType} and s.submissionDate >= :#{#submissionDate}")
+    Set<Long> findParticipationIdsByExerciseIdAndTypeAndSubmissionDateAfter(@Param("exerciseId") Long exerciseId, @Param("submissionType") SubmissionType submissionType,
+            @Param("submissionDate") ZonedDateTime submissionDate);
 }
@@ -1,6 +1,9 @@
 package de.tum.in.www1.artemis.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.quiz.QuizQuestionStatistic;
@@ -8,8 +11,10 @@ import de.tum.in.www1.artemis.domain.quiz.QuizQuestionStatistic;
 /**
  * Spring Data JPA repository for the QuizQuestionStatistic entity.
  */
-@SuppressWarnings("unused")
 @Repository
 public interface QuizQuestionStatisticRepository extends JpaRepository<QuizQuestionStatistic, Long> {
 
+    @Modifying
+    @Query("update QuizQuestionStatistic statistic set statistic.ratedCorrectCounter = statistic.ratedCorrectCounter + :#{#ratedChange}, statistic.unRatedCorrectCounter = statistic.unRatedCorrectCounter + :#{#unRatedChange} where statistic.id = :#{#statisticId}")
+    void changeCorrectCounters(@Param("statisticId") Long statisticId, @Param("ratedChange") int ratedChange, @Param("unRatedChange") int unRatedChange);
 }
@@ -0,0 +1,20 @@
+package de.tum.in.www1.artemis.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizStatisticCounter;
+
+/**
+ * Spring Data JPA repository for the QuizStatisticCounter entity.
+ */
+@Repository
+public interface QuizStatisticCounterRepository extends JpaRepository<QuizStatisticCounter, Long> {
+
+    @Modifying
+    @Query("update QuizStatisticCounter counter set counter.ratedCounter = counter.ratedCounter + :#{#ratedChange}, counter.unRatedCounter = counter.unRatedCounter + :#{#unRatedChange} where counter.id = :#{#counterId}")
+    void changeCounters(@Param("counterId") Long counterId, @Param("ratedChange") int ratedChange, @Param("unRatedChange") int unRatedChange);
+}
@@ -0,0 +1,20 @@
+package de.tum.in.www1.artemis.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizStatistic;
+
+/**
+ * Spring Data JPA repository for the QuizStatistic entity.
+ */
+@Repository
+public interface QuizStatisticRepository extends JpaRepository<QuizStatistic, Long> {
+
+    @Modifying
+    @Query("update QuizStatistic statistic set statistic.participantsRated = statistic.participantsRated + :#{#ratedChange}, statistic.participantsUnrated = statistic.participantsUnrated + :#{#unratedChange} where statistic.id = :#{#statisticId}")
+    void changeParticipants(@Param("statisticId") Long statisticId, @Param("ratedChange") int ratedChange, @Param("unratedChange") int unratedChange);
+}
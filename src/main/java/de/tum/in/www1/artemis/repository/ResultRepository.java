@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,9 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     @EntityGraph(type = LOAD, attributePaths = "submission")
     List<Result> findAllByParticipationIdOrderByCompletionDateDesc(Long participationId);
 
+    @EntityGraph(type = LOAD, attributePaths = "submission")
+    List<Result> findAllByParticipationIdIn(Collection<Long> participationIds);
+
     @EntityGraph(type = LOAD, attributePaths = "submission")
     List<Result> findByParticipationExerciseIdOrderByCompletionDateAsc(Long exerciseId);
 
@@ -70,6 +74,15 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
 
     Long countByAssessorIsNotNullAndParticipation_Exercise_CourseIdAndRatedAndCompletionDateIsNotNull(long courseId, boolean rated);
 
+    /**
+     * Counts the completed assessments of a course in one query, see {@link #countByAssessorIsNotNullAndParticipation_Exercise_CourseIdAndRatedAndCompletionDateIsNotNull}
+     *
+     * @param courseId the id of the course
+     * @return one array per value of the rated flag with the rated flag and the number of assessments
+     */
+    @Query("SELECT r.rated, COUNT(r) FROM Result r WHERE r.assessor IS NOT NULL AND r.completionDate IS NOT NULL AND r.participation.exercise.course.id = :#{#courseId} GROUP BY r.rated")
+    List<Object[]> countAssessmentsByCourseIdGroupedByRated(@Param("courseId") long courseId);
+
     Long countByAssessor_IdAndParticipation_Exercise_CourseIdAndRatedAndCompletionDateIsNotNull(long assessorId, long courseId, boolean rated);
 
     List<Result> findAllByParticipation_Exercise_CourseId(Long courseId);
@@ -37,6 +37,15 @@ public interface StudentExamRepository extends JpaRepository<StudentExam, Long>
     @Query("select se from StudentExam se where se.exam.id = :#{#examId} and se.testRun = false")
     List<StudentExam> findByExamId(@Param("examId") Long examId);
 
+    /**
+     * Get the id and the submitted flag of every student exam (without test runs) of an exam, ordered by id. Used to detect changes of the student exams.
+     *
+     * @param examId the id of the exam
+     * @return the id and the submitted flag of every student exam
+     */
+    @Query("select se.id, se.submitted from StudentExam se where se.exam.id = :#{#examId} and se.testRun = false order by se.id")
+    List<Object[]> findIdAndSubmittedByExamId(@Param("examId") Long examId);
+
     @Query("select se from StudentExam se where se.exam.id = :#{#examId} and se.testRun = true")
     List<StudentExam> findAllTestRunsByExamId(@Param("examId") Long examId);
 
@@ -49,6 +58,15 @@ public interface StudentExamRepository extends JpaRepository<StudentExam, Long>
     @Query("select distinct se from StudentExam se where se.testRun = false and se.exam.id = :#{#examId} and se.user.id = :#{#userId} ")
     Optional<StudentExam> findByExamIdAndUserId(@Param("examId") long examId, @Param("userId") long userId);
 
+    /**
+     * Get the ids of the exercises of a student exam without loading the exercises
+     *
+     * @param studentExamId the id of the student exam
+     * @return the ids of the exercises in the order of the student exam
+     */
+    @Query("select e.id from StudentExam se join se.exercises e where se.id = :#{#studentExamId} order by index(e)")
+    List<Long> findExerciseIdsById(@Param("studentExamId") long studentExamId);
+
     @Query("select distinct se from StudentExam se left join fetch se.exercises e where se.testRun = false and e.id = :#{#exerciseId} and se.user.id = :#{#userId}")
     Optional<StudentExam> findByExerciseIdAndUserId(@Param("exerciseId") Long exerciseId, @Param("userId") Long userId);
 
@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -177,6 +178,18 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
     @Query("select distinct p from StudentParticipation p left join fetch p.submissions s left join fetch s.result r where p.student.id = :#{#studentId} and p.exercise in :#{#exercises}")
     List<StudentParticipation> findByStudentIdAndIndividualExercisesWithEagerSubmissionsResult(@Param("studentId") Long studentId, @Param("exercises") List<Exercise> exercises);
 
+    /**
+     * Get the participations of a student in the given (individual) exercises with their submissions and results. In contrast to
+     * {@link #findByStudentIdAndIndividualExercisesWithEagerSubmissionsResult(Long, List)}, the exercises and their exercise groups are fetched in the same query.
+     *
+     * @param studentId   the id of the student
+     * @param exerciseIds the ids of the exercises
+     * @return the participations of the student in the exercises
+     */
+    @Query("select distinct p from StudentParticipation p join fetch p.exercise e left join fetch e.exerciseGroup eg left join fetch eg.exam left join fetch p.submissions s left join fetch s.result r where p.student.id = :#{#studentId} and e.id in :#{#exerciseIds}")
+    List<StudentParticipation> findByStudentIdAndIndividualExerciseIdsWithEagerExerciseSubmissionsResult(@Param("studentId") Long studentId,
+            @Param("exerciseIds") Collection<Long> exerciseIds);
+
     @Query("select distinct p from StudentParticipation p left join fetch p.submissions s left join fetch s.result r left join fetch p.team t left join fetch t.students teamStudent where teamStudent.id = :#{#studentId} and p.exercise in :#{#exercises}")
     List<StudentParticipation> findByStudentIdAndTeamExercisesWithEagerSubmissionsResult(@Param("studentId") Long studentId, @Param("exercises") List<Exercise> exercises);
 
@@ -26,6 +26,17 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Query("select distinct submission from Submission submission left join fetch submission.result r left join fetch r.feedbacks where submission.exampleSubmission = true and submission.id = :#{#submissionId}")
     Optional<Submission> findExampleSubmissionByIdWithEagerResult(long submissionId);
 
+    /**
+     * Get the state of every submission of an exam and of its result (if any) that is relevant for the exam scores, ordered by the submission id. The submission date is
+     * updated whenever a submission is saved by a student, therefore it detects changes of the submission content. Results do not have a modification date, therefore their
+     * score, rated flag and completion date are included directly.
+     *
+     * @param examId the id of the exam
+     * @return submission id, submission date, submission type, result id, score, rated and completion date of every submission of the exam
+     */
+    @Query("select s.id, s.submissionDate, s.type, r.id, r.score, r.rated, r.completionDate from Submission s left join s.result r where s.participation.exercise.exerciseGroup.exam.id = :#{#examId} order by s.id")
+    List<Object[]> findScoreRelevantStateByExamId(@Param("examId") Long examId);
+
     /* Get all submissions from a participation_id and load result at the same time */
     @EntityGraph(type = LOAD, attributePaths = { "result" })
     List<Submission> findAllByParticipationId(Long participationId);
@@ -77,6 +88,16 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Query("SELECT COUNT (DISTINCT submission) FROM Submission submission WHERE TYPE(submission) IN (ModelingSubmission, TextSubmission, FileUploadSubmission) AND submission.participation.exercise.course.id = :#{#courseId} AND submission.submitted = TRUE AND submission.participation.exercise.dueDate IS NOT NULL AND submission.submissionDate > submission.participation.exercise.dueDate")
     long countByCourseIdSubmittedAfterDueDate(@Param("courseId") long courseId);
 
+    /**
+     * Counts the in-time and late submissions of a course in one query, see {@link #countByCourseIdSubmittedBeforeDueDate(long)} and
+     * {@link #countByCourseIdSubmittedAfterDueDate(long)}
+     *
+     * @param courseId the course id we are interested in
+     * @return a list with one array that contains the number of in-time and the number of late submissions (both are null if there are no submissions)
+     */
+    @Query("SELECT SUM(CASE WHEN submission.submissionDate <= exercise.dueDate OR exercise.dueDate IS NULL THEN 1 ELSE 0 END), SUM(CASE WHEN exercise.dueDate IS NOT NULL AND submission.submissionDate > exercise.dueDate THEN 1 ELSE 0 END) FROM Submission submission JOIN submission.participation participation JOIN participation.exercise exercise WHERE TYPE(submission) IN (ModelingSubmission, TextSubmission, FileUploadSubmission) AND exercise.course.id = :#{#courseId} AND submission.submitted = TRUE")
+    List<Object[]> countInTimeAndLateSubmissionsByCourseId(@Param("courseId") long courseId);
+
     /**
      * @param exerciseId the exercise id we are interested in
      * @return the number of submissions belonging to the exercise id, which have the submitted flag set to true and the submission date before the exercise due date, or no
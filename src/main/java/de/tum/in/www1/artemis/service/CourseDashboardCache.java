@@ -0,0 +1,314 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ExerciseMode;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.service.util.AfterCommitInvalidation;
+import de.tum.in.www1.artemis.service.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the participations (with submissions and results) that are shown on the course dashboard of a user, because the course dashboard is requested very often and loading
+ * the participations is expensive.
+ * <p>
+ * The participations of a user in a course are cached as JSON on every instance, so that every request works on its own copy of the participations (they are modified when the
+ * dashboard is prepared) and the size of the cache can be limited. Only the versions of the cached participations are distributed between the instances by Hazelcast: there is a
+ * version for every user (changed when a participation of the user is created or changed), for every team exercise (changed when a team or a team participation of the exercise
+ * changes) and for every participation (changed when a submission or a result of the participation changes and its students are not known). The versions are changed by the
+ * {@link DashboardCacheInvalidationListener} once the transaction that changed the participations has been committed.
+ */
+@Service
+public class CourseDashboardCache {
+
+    private final Logger log = LoggerFactory.getLogger(CourseDashboardCache.class);
+
+    private final ParticipationService participationService;
+
+    private final IMap<String, Long> versions;
+
+    private final AfterCommitInvalidation<String> afterCommitInvalidation = new AfterCommitInvalidation<>(this::invalidate);
+
+    private final ObjectReader participationReader;
+
+    private final ObjectWriter participationWriter;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    @Value("${artemis.course-dashboard.cache.max-size:67108864}")
+    private long maxSize;
+
+    @Value("${artemis.course-dashboard.cache.expiration:300}")
+    private long expirationInSeconds;
+
+    private LruCache<String, CachedParticipations> participationCache;
+
+    public CourseDashboardCache(ParticipationService participationService, HazelcastInstance hazelcastInstance, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.participationService = participationService;
+        ObjectMapper participationMapper = objectMapper.copy().addMixIn(Participation.class, CachedParticipationMixin.class);
+        TypeReference<List<StudentParticipation>> participationsType = new TypeReference<>() {
+        };
+        this.participationReader = participationMapper.readerFor(participationsType);
+        this.participationWriter = participationMapper.writerFor(participationsType);
+        // The map will automatically be distributed between all instances by Hazelcast.
+        this.versions = hazelcastInstance.getMap("course-dashboard-versions");
+        this.hitCounter = Counter.builder("artemis.course-dashboard.cache.hits").description("Number of course dashboards whose participations were found in the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("artemis.course-dashboard.cache.misses").description("Number of course dashboards whose participations had to be loaded")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        participationCache = new LruCache<>(maxSize, cachedParticipations -> cachedParticipations.participations.length);
+    }
+
+    /**
+     * Get the participations of the user in the exercises of the given courses with their submissions and results. The participations of courses that were not cached (or
+     * whose participations changed) are loaded from the database with two queries.
+     *
+     * @param courses the courses with their exercises for which the participations should be found
+     * @param user    the user for which the participations should be found
+     * @return the participations, every call returns new participation objects that can be modified
+     */
+    public List<StudentParticipation> findParticipationsWithSubmissionsAndResults(List<Course> courses, User user) {
+        List<StudentParticipation> participations = new ArrayList<>();
+        List<Course> coursesToLoad = new ArrayList<>();
+        for (Course course : courses) {
+            Optional<List<StudentParticipation>> cachedParticipations = getCachedParticipations(course, user);
+            if (cachedParticipations.isPresent()) {
+                hitCounter.increment();
+                participations.addAll(cachedParticipations.get());
+            }
+            else {
+                missCounter.increment();
+                coursesToLoad.add(course);
+            }
+        }
+        if (!coursesToLoad.isEmpty()) {
+            participations.addAll(loadParticipations(coursesToLoad, user));
+        }
+        return participations;
+    }
+
+    /**
+     * Changes the version of the given user after the commit of the current transaction, the cached participations of the user in all courses are not used anymore.
+     *
+     * @param userId the id of the user
+     */
+    public void invalidateUser(long userId) {
+        afterCommitInvalidation.add(userKey(userId));
+    }
+
+    /**
+     * Changes the version of the given team exercise after the commit of the current transaction, the cached participations of all users in the course of the exercise are not
+     * used anymore.
+     *
+     * @param exerciseId the id of the team exercise
+     */
+    public void invalidateExercise(long exerciseId) {
+        afterCommitInvalidation.add(exerciseKey(exerciseId));
+    }
+
+    /**
+     * Changes the version of the given participation after the commit of the current transaction, the cached participations that include the participation are not used anymore.
+     *
+     * @param participationId the id of the participation
+     */
+    public void invalidateParticipation(long participationId) {
+        afterCommitInvalidation.add(participationKey(participationId));
+    }
+
+    private void invalidate(Set<String> keys) {
+        // A random version is sufficient to detect the change and does not need a read on the distributed map. The version has to live longer than the cached participations:
+        // if it expired before them, the cached participations would be valid again.
+        for (String key : keys) {
+            versions.set(key, ThreadLocalRandom.current().nextLong(), 2 * expirationInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private Optional<List<StudentParticipation>> getCachedParticipations(Course course, User user) {
+        String cacheKey = cacheKey(course, user);
+        CachedParticipations cachedParticipations = participationCache.get(cacheKey);
+        if (cachedParticipations == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - cachedParticipations.createdAt > expirationInSeconds * 1000 || !cachedParticipations.exerciseIds.equals(exerciseIds(course))
+                || !cachedParticipations.versions.equals(getVersions(cachedParticipations.versions.keySet()))) {
+            participationCache.remove(cacheKey);
+            return Optional.empty();
+        }
+        try {
+            List<StudentParticipation> participations = participationReader.readValue(cachedParticipations.participations);
+            // Use the current exercises instead of cached copies, the exercises might have changed (e.g. their due date).
+            Map<Long, Exercise> exercisesById = course.getExercises().stream().collect(Collectors.toMap(Exercise::getId, Function.identity()));
+            for (StudentParticipation participation : participations) {
+                participation.setExercise(exercisesById.get(cachedParticipations.exerciseIdsByParticipationId.get(participation.getId())));
+                restoreAssociations(participation);
+            }
+            return Optional.of(participations);
+        }
+        catch (IOException ex) {
+            log.warn("Could not deserialize the cached participations of user " + user.getLogin() + " in course " + course.getId() + ": " + ex.getMessage());
+            participationCache.remove(cacheKey);
+            return Optional.empty();
+        }
+    }
+
+    private List<StudentParticipation> loadParticipations(List<Course> courses, User user) {
+        List<Exercise> exercises = courses.stream().flatMap(course -> course.getExercises().stream()).collect(Collectors.toList());
+        Map<ExerciseMode, List<Exercise>> exercisesByMode = exercises.stream().collect(Collectors.groupingBy(Exercise::getMode));
+        List<Exercise> individualExercises = exercisesByMode.getOrDefault(ExerciseMode.INDIVIDUAL, List.of());
+        List<Exercise> teamExercises = exercisesByMode.getOrDefault(ExerciseMode.TEAM, List.of());
+        if (individualExercises.isEmpty() && teamExercises.isEmpty()) {
+            return List.of();
+        }
+
+        // The versions of the user and the team exercises have to be retrieved first, so that participations that are created while loading invalidate the loaded participations.
+        Map<Long, Map<String, Long>> versionsByCourse = new HashMap<>();
+        for (Course course : courses) {
+            Set<String> keys = new HashSet<>();
+            keys.add(userKey(user.getId()));
+            course.getExercises().stream().filter(exercise -> exercise.getMode() == ExerciseMode.TEAM).forEach(exercise -> keys.add(exerciseKey(exercise.getId())));
+            versionsByCourse.put(course.getId(), getVersions(keys));
+        }
+
+        // Note: we need two database calls here, because of performance reasons: the entity structure for team is significantly different and a combined database call
+        // would lead to a SQL statement that cannot be optimized
+
+        // 1st: fetch participations, submissions and results for individual exercises
+        List<StudentParticipation> individualParticipations = individualExercises.isEmpty() ? List.of()
+                : participationService.findByStudentIdAndIndividualExercisesWithEagerSubmissionsResult(user.getId(), individualExercises);
+
+        // 2nd: fetch participations, submissions and results for team exercises
+        List<StudentParticipation> teamParticipations = teamExercises.isEmpty() ? List.of()
+                : participationService.findByStudentIdAndTeamExercisesWithEagerSubmissionsResult(user.getId(), teamExercises);
+
+        // 3rd: merge both into one list for further processing
+        List<StudentParticipation> participations = Stream.concat(individualParticipations.stream(), teamParticipations.stream()).collect(Collectors.toList());
+
+        Map<Long, Long> courseIdsByExerciseId = new HashMap<>();
+        courses.forEach(course -> course.getExercises().forEach(exercise -> courseIdsByExerciseId.put(exercise.getId(), course.getId())));
+        Map<Long, List<StudentParticipation>> participationsByCourse = participations.stream()
+                .collect(Collectors.groupingBy(participation -> courseIdsByExerciseId.get(participation.getExercise().getId())));
+        for (Course course : courses) {
+            List<StudentParticipation> courseParticipations = participationsByCourse.getOrDefault(course.getId(), List.of());
+            Map<String, Long> courseVersions = new HashMap<>(versionsByCourse.get(course.getId()));
+            courseVersions.putAll(getVersions(courseParticipations.stream().map(participation -> participationKey(participation.getId())).collect(Collectors.toSet())));
+            try {
+                Map<Long, Long> exerciseIdsByParticipationId = courseParticipations.stream()
+                        .collect(Collectors.toMap(StudentParticipation::getId, participation -> participation.getExercise().getId()));
+                participationCache.put(cacheKey(course, user),
+                        new CachedParticipations(participationWriter.writeValueAsBytes(courseParticipations), exerciseIds(course), exerciseIdsByParticipationId, courseVersions));
+            }
+            catch (IOException ex) {
+                log.warn("Could not serialize the participations of user " + user.getLogin() + " in course " + course.getId() + ": " + ex.getMessage());
+            }
+        }
+        return participations;
+    }
+
+    private Map<String, Long> getVersions(Set<String> keys) {
+        // Keys without a version are included with the version 0, so that the versions of the cached participations can be compared with the current versions.
+        Map<String, Long> currentVersions = keys.stream().collect(Collectors.toMap(Function.identity(), key -> 0L));
+        currentVersions.putAll(versions.getAll(keys));
+        return currentVersions;
+    }
+
+    private static Set<Long> exerciseIds(Course course) {
+        return course.getExercises().stream().map(Exercise::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Restores the references from the submissions and results to their participation (and from the results to their submission) that are not included in the JSON, so that
+     * the participations look like the ones loaded from the database.
+     */
+    private static void restoreAssociations(StudentParticipation participation) {
+        for (Submission submission : participation.getSubmissions()) {
+            submission.setParticipation(participation);
+            if (submission.getResult() != null) {
+                submission.getResult().setSubmission(submission);
+                submission.getResult().setParticipation(participation);
+            }
+        }
+    }
+
+    private static String cacheKey(Course course, User user) {
+        return user.getId() + "-" + course.getId();
+    }
+
+    private static String userKey(long userId) {
+        return "user-" + userId;
+    }
+
+    private static String exerciseKey(long exerciseId) {
+        return "exercise-" + exerciseId;
+    }
+
+    private static String participationKey(long participationId) {
+        return "participation-" + participationId;
+    }
+
+    private static final class CachedParticipations {
+
+        private final byte[] participations;
+
+        private final Set<Long> exerciseIds;
+
+        private final Map<Long, Long> exerciseIdsByParticipationId;
+
+        private final Map<String, Long> versions;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        private CachedParticipations(byte[] participations, Set<Long> exerciseIds, Map<Long, Long> exerciseIdsByParticipationId, Map<String, Long> versions) {
+            this.participations = participations;
+            this.exerciseIds = exerciseIds;
+            this.exerciseIdsByParticipationId = exerciseIdsByParticipationId;
+            this.versions = versions;
+        }
+    }
+
+    /**
+     * Changes the JSON of the cached participations: the results of the submissions are included, the exercises are not (the current exercises of the course are used instead)
+     * and the results of the participations are not loaded by the queries.
+     */
+    private abstract static class CachedParticipationMixin {
+
+        @JsonIgnore
+        private Exercise exercise;
+
+        @JsonIgnore
+        private Set<Result> results;
+
+        @JsonIgnoreProperties("participation")
+        private Set<Submission> submissions;
+    }
+}
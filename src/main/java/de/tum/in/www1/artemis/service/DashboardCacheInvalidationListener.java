@@ -0,0 +1,187 @@
+package de.tum.in.www1.artemis.service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.service.util.HibernateUtils;
+
+/**
+ * Invalidates the cached course dashboards in the {@link CourseDashboardCache} when participations, submissions, results or teams are created, changed or deleted and the cached
+ * statistics in the {@link InstructorDashboardStatsService} when results, submissions, complaints or complaint responses are created, changed or deleted.
+ * <p>
+ * The listener registers itself for the Hibernate events, so that the domain classes do not depend on the caches of the service layer. The events are received while the
+ * changes are flushed, the caches only invalidate the collected keys once the transaction has been committed. The listener must not load any lazy associations: if the
+ * students of a participation are not loaded, only the participation (or for teams the exercise) is invalidated in the course dashboards; if the course of a changed entity
+ * is not loaded, the statistics service looks it up after the commit.
+ */
+@Component
+public class DashboardCacheInvalidationListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CourseDashboardCache courseDashboardCache;
+
+    private final InstructorDashboardStatsService instructorDashboardStatsService;
+
+    public DashboardCacheInvalidationListener(EntityManagerFactory entityManagerFactory, CourseDashboardCache courseDashboardCache,
+            InstructorDashboardStatsService instructorDashboardStatsService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.courseDashboardCache = courseDashboardCache;
+        this.instructorDashboardStatsService = instructorDashboardStatsService;
+    }
+
+    /**
+     * Registers the listener for the Hibernate events of all entities.
+     */
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        // the caches are invalidated after the commit anyway, see AfterCommitInvalidation
+        return false;
+    }
+
+    private void onChange(Object entity) {
+        if (entity instanceof Result) {
+            onParticipationChange(((Result) entity).getParticipation(), false);
+            invalidateStatsOfParticipation(((Result) entity).getParticipation());
+        }
+        else if (entity instanceof Submission) {
+            onParticipationChange(((Submission) entity).getParticipation(), false);
+            invalidateStatsOfParticipation(((Submission) entity).getParticipation());
+        }
+        else if (entity instanceof Participation) {
+            onParticipationChange((Participation) entity, true);
+        }
+        else if (entity instanceof Team) {
+            onTeamChange((Team) entity);
+        }
+        else if (entity instanceof Complaint) {
+            invalidateStatsOfComplaint((Complaint) entity);
+        }
+        else if (entity instanceof ComplaintResponse) {
+            invalidateStatsOfComplaint(((ComplaintResponse) entity).getComplaint());
+        }
+    }
+
+    private void onCollectionChange(Object owner) {
+        // the students of a team are stored in a collection, changing them does not update the team itself
+        if (owner instanceof Team) {
+            onTeamChange((Team) owner);
+        }
+    }
+
+    private void onTeamChange(Team team) {
+        Long exerciseId = HibernateUtils.getId(team.getExercise());
+        if (exerciseId != null) {
+            courseDashboardCache.invalidateExercise(exerciseId);
+        }
+    }
+
+    private void onParticipationChange(Participation participation, boolean participationChanged) {
+        Long participationId = HibernateUtils.getId(participation);
+        if (participationId == null) {
+            return;
+        }
+        if (!Hibernate.isInitialized(participation) || !(Hibernate.unproxy(participation) instanceof StudentParticipation)) {
+            courseDashboardCache.invalidateParticipation(participationId);
+            return;
+        }
+        StudentParticipation studentParticipation = HibernateUtils.unproxy(participation);
+        if (studentParticipation.getStudent().isPresent()) {
+            courseDashboardCache.invalidateUser(HibernateUtils.getId(studentParticipation.getStudent().get()));
+        }
+        else if (studentParticipation.getTeam().isPresent()) {
+            Team team = studentParticipation.getTeam().get();
+            if (!participationChanged && Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getStudents())) {
+                team.getStudents().forEach(student -> courseDashboardCache.invalidateUser(HibernateUtils.getId(student)));
+            }
+            else if (studentParticipation.getExercise() != null) {
+                // New team participations are not included in the cached participations of the team members yet, therefore the whole exercise has to be invalidated.
+                courseDashboardCache.invalidateExercise(HibernateUtils.getId(studentParticipation.getExercise()));
+            }
+        }
+    }
+
+    private void invalidateStatsOfComplaint(Complaint complaint) {
+        Long complaintId = HibernateUtils.getId(complaint);
+        if (complaintId == null) {
+            return;
+        }
+        if (!Hibernate.isInitialized(complaint)) {
+            instructorDashboardStatsService.invalidateCourseOfComplaint(complaintId);
+            return;
+        }
+        Result result = complaint.getResult();
+        if (result != null && !Hibernate.isInitialized(result)) {
+            instructorDashboardStatsService.invalidateCourseOfResult(HibernateUtils.getId(result));
+        }
+        else if (result != null) {
+            invalidateStatsOfParticipation(result.getParticipation());
+        }
+    }
+
+    private void invalidateStatsOfParticipation(Participation participation) {
+        Long participationId = HibernateUtils.getId(participation);
+        if (participationId == null) {
+            // e.g. example submissions, they are not included in the statistics
+            return;
+        }
+        if (!Hibernate.isInitialized(participation)) {
+            instructorDashboardStatsService.invalidateCourseOfParticipation(participationId);
+            return;
+        }
+        Exercise exercise = participation.getExercise();
+        if (exercise != null && !Hibernate.isInitialized(exercise)) {
+            instructorDashboardStatsService.invalidateCourseOfExercise(HibernateUtils.getId(exercise));
+        }
+        else if (exercise != null && exercise.getCourse() != null) {
+            // Exam exercises do not have a course and are not included in the statistics
+            instructorDashboardStatsService.invalidateCourse(HibernateUtils.getId(exercise.getCourse()));
+        }
+    }
+}
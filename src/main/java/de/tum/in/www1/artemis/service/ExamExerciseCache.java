@@ -0,0 +1,219 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.service.util.AfterCommitInvalidation;
+import de.tum.in.www1.artemis.service.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the exercises of exams for their conduction. All students of an exam request their student exam at the start of the exam and the student exams share their exercises,
+ * therefore every exercise (e.g. a quiz exercise with its questions) is only loaded once.
+ * <p>
+ * The exercises are cached in a serialized form on every instance, so that every request works on its own copy of the exercises (they are modified when the student exam is
+ * prepared). Only the versions of the exercises are distributed between the instances by Hazelcast. The services that change or delete exam exercises (including the
+ * questions and answer options of quiz exercises, which do not update the exercise itself) have to call {@link #invalidateExercise(Exercise)}.
+ */
+@Service
+public class ExamExerciseCache {
+
+    private final Logger log = LoggerFactory.getLogger(ExamExerciseCache.class);
+
+    private final ExerciseRepository exerciseRepository;
+
+    private final QuizExerciseService quizExerciseService;
+
+    private final IMap<Long, Long> versions;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final AfterCommitInvalidation<Long> afterCommitInvalidation = new AfterCommitInvalidation<>(this::invalidate);
+
+    @Value("${artemis.exam.exercise-cache.max-size:67108864}")
+    private long maxSize;
+
+    @Value("${artemis.exam.exercise-cache.expiration:300}")
+    private long expirationInSeconds;
+
+    private LruCache<String, CachedExercise> exerciseCache;
+
+    public ExamExerciseCache(ExerciseRepository exerciseRepository, QuizExerciseService quizExerciseService, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.exerciseRepository = exerciseRepository;
+        this.quizExerciseService = quizExerciseService;
+        // The map will automatically be distributed between all instances by Hazelcast.
+        this.versions = hazelcastInstance.getMap("exam-exercise-versions");
+        this.hitCounter = Counter.builder("artemis.exam.exercise-cache.hits").description("Number of exam exercises that were found in the cache").register(meterRegistry);
+        this.missCounter = Counter.builder("artemis.exam.exercise-cache.misses").description("Number of exam exercises that had to be loaded").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        exerciseCache = new LruCache<>(maxSize, cachedExercise -> cachedExercise.exercise.length);
+    }
+
+    /**
+     * Get the exercises with the given ids for the conduction of an exam. Quiz exercises include their questions. The course and the exercise group of the exercises are not
+     * included, because they are not needed during the conduction.
+     *
+     * @param exerciseIds          the ids of the exercises in the order in which they should be returned
+     * @param filterQuizSolutions  whether the solutions of quiz questions should be removed, see {@link QuizExercise#filterForStudentsDuringQuiz()}
+     * @return the exercises in the given order (exercises that do not exist anymore are left out), every call returns new exercise objects that can be modified
+     */
+    public List<Exercise> getExercisesForConduction(List<Long> exerciseIds, boolean filterQuizSolutions) {
+        // The versions have to be retrieved before the exercises are loaded, so that changes while loading invalidate the loaded exercises.
+        final Map<Long, Long> currentVersions = getVersions(exerciseIds);
+        final Map<Long, Exercise> exercisesById = new HashMap<>();
+        final List<Long> exerciseIdsToLoad = new ArrayList<>();
+        for (Long exerciseId : exerciseIds) {
+            Optional<Exercise> cachedExercise = getCachedExercise(exerciseId, filterQuizSolutions, currentVersions.get(exerciseId));
+            if (cachedExercise.isPresent()) {
+                hitCounter.increment();
+                exercisesById.put(exerciseId, cachedExercise.get());
+            }
+            else {
+                missCounter.increment();
+                exerciseIdsToLoad.add(exerciseId);
+            }
+        }
+        if (!exerciseIdsToLoad.isEmpty()) {
+            for (Exercise exercise : loadExercises(exerciseIdsToLoad, filterQuizSolutions)) {
+                try {
+                    exerciseCache.put(cacheKey(exercise.getId(), filterQuizSolutions), new CachedExercise(serialize(exercise), currentVersions.get(exercise.getId())));
+                }
+                catch (IOException ex) {
+                    log.warn("Could not serialize the exam exercise " + exercise.getId() + ": " + ex.getMessage());
+                }
+                exercisesById.put(exercise.getId(), exercise);
+            }
+        }
+        return exerciseIds.stream().map(exercisesById::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Changes the version of the given exercise after the commit of the current transaction, the cached exercise is not used anymore. Only exam exercises are cached, the
+     * call is ignored for course exercises.
+     *
+     * @param exercise the exercise that was changed or deleted
+     */
+    public void invalidateExercise(Exercise exercise) {
+        if (exercise.getId() != null && exercise.hasExerciseGroup()) {
+            invalidateExercise(exercise.getId());
+        }
+    }
+
+    /**
+     * Changes the version of the given exercise after the commit of the current transaction, the cached exercise is not used anymore.
+     *
+     * @param exerciseId the id of the exercise
+     */
+    public void invalidateExercise(long exerciseId) {
+        afterCommitInvalidation.add(exerciseId);
+    }
+
+    private void invalidate(Set<Long> exerciseIds) {
+        // A random version is sufficient to detect the change and does not need a read on the distributed map. The version has to live longer than the cached exercises:
+        // if it expired before them, the cached exercises would be valid again.
+        for (Long exerciseId : exerciseIds) {
+            versions.set(exerciseId, ThreadLocalRandom.current().nextLong(), 2 * expirationInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private Optional<Exercise> getCachedExercise(long exerciseId, boolean filterQuizSolutions, long currentVersion) {
+        final String cacheKey = cacheKey(exerciseId, filterQuizSolutions);
+        final CachedExercise cachedExercise = exerciseCache.get(cacheKey);
+        if (cachedExercise == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - cachedExercise.createdAt > expirationInSeconds * 1000 || cachedExercise.version != currentVersion) {
+            exerciseCache.remove(cacheKey);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(deserialize(cachedExercise.exercise));
+        }
+        catch (IOException | ClassNotFoundException ex) {
+            log.warn("Could not deserialize the cached exam exercise " + exerciseId + ": " + ex.getMessage());
+            exerciseCache.remove(cacheKey);
+            return Optional.empty();
+        }
+    }
+
+    private List<Exercise> loadExercises(List<Long> exerciseIds, boolean filterQuizSolutions) {
+        List<Exercise> exercises = new ArrayList<>();
+        for (Exercise exercise : exerciseRepository.findAllById(exerciseIds)) {
+            if (exercise instanceof QuizExercise) {
+                // the quiz questions cannot be loaded in a generic way
+                var quizExercise = quizExerciseService.findOneWithQuestions(exercise.getId());
+                if (filterQuizSolutions) {
+                    quizExercise.filterForStudentsDuringQuiz();
+                }
+                exercise = quizExercise;
+            }
+            // not needed during the conduction
+            exercise.setCourse(null);
+            exercise.setExerciseGroup(null);
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+
+    private Map<Long, Long> getVersions(List<Long> exerciseIds) {
+        // Exercises without a version are included with the version 0, so that the versions of the cached exercises can be compared with the current versions.
+        Map<Long, Long> currentVersions = exerciseIds.stream().distinct().collect(Collectors.toMap(Function.identity(), exerciseId -> 0L));
+        currentVersions.putAll(versions.getAll(currentVersions.keySet()));
+        return currentVersions;
+    }
+
+    private static byte[] serialize(Exercise exercise) throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(); var objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(exercise);
+            objectOutputStream.flush();
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+
+    private static Exercise deserialize(byte[] exercise) throws IOException, ClassNotFoundException {
+        try (var objectInputStream = new ObjectInputStream(new ByteArrayInputStream(exercise))) {
+            return (Exercise) objectInputStream.readObject();
+        }
+    }
+
+    private static String cacheKey(long exerciseId, boolean filterQuizSolutions) {
+        return exerciseId + (filterQuizSolutions ? "-filtered" : "");
+    }
+
+    private static final class CachedExercise {
+
+        private final byte[] exercise;
+
+        private final long version;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        private CachedExercise(byte[] exercise, long version) {
+            this.exercise = exercise;
+            this.version = version;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
 import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
@@ -80,6 +81,8 @@ public class ExamQuizService {
     private Set<Result> evaluateSubmissions(@NotNull QuizExercise quizExercise) {
         Set<Result> createdResults = new HashSet<>();
         List<StudentParticipation> studentParticipations = studentParticipationRepository.findAllWithEagerSubmissionsAndEagerResultsByExerciseId(quizExercise.getId());
+        // the answer keys of the quiz are compiled once for all submissions
+        QuizScoringModel scoringModel = QuizScoringModel.compile(quizExercise);
 
         for (var participation : studentParticipations) {
             try {
@@ -123,8 +126,8 @@ public class ExamQuizService {
                 result.setSubmission(quizSubmission);
 
                 // calculate scores and update result and submission accordingly
-                quizSubmission.calculateAndUpdateScores(quizExercise);
-                result.evaluateSubmission();
+                quizSubmission.calculateAndUpdateScores(scoringModel);
+                result.evaluateSubmission(scoringModel);
 
                 // add result to participation
                 participation.addResult(result);
@@ -1,9 +1,13 @@
 package de.tum.in.www1.artemis.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
@@ -15,6 +19,7 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,6 +37,7 @@ import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
+import de.tum.in.www1.artemis.repository.SubmissionRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.messaging.InstanceMessageSendService;
@@ -68,9 +74,22 @@ public class ExamService {
 
     private final InstanceMessageSendService instanceMessageSendService;
 
+    private final SubmissionRepository submissionRepository;
+
+    /**
+     * Note: The key is the exam id
+     */
+    private final Map<Long, CachedExamScores> examScoresCache = new ConcurrentHashMap<>();
+
+    /**
+     * The time in seconds after which cached exam scores are calculated again, even if no relevant changes were detected (e.g. to reflect changed user data)
+     */
+    @Value("${artemis.exam.scores-cache-expiration:3600}")
+    private long examScoresCacheExpiration;
+
     public ExamService(ExamRepository examRepository, StudentExamRepository studentExamRepository, UserService userService, ParticipationService participationService,
             ProgrammingExerciseService programmingExerciseService, ExamQuizService examQuizService, ExerciseService exerciseService,
-            InstanceMessageSendService instanceMessageSendService, QuizExerciseService quizExerciseService) {
+            InstanceMessageSendService instanceMessageSendService, QuizExerciseService quizExerciseService, SubmissionRepository submissionRepository) {
         this.examRepository = examRepository;
         this.studentExamRepository = studentExamRepository;
         this.userService = userService;
@@ -80,6 +99,7 @@ public class ExamService {
         this.instanceMessageSendService = instanceMessageSendService;
         this.exerciseService = exerciseService;
         this.quizExerciseService = quizExerciseService;
+        this.submissionRepository = submissionRepository;
     }
 
     @Autowired
@@ -242,22 +262,48 @@ public class ExamService {
 
     /**
      * Puts students, result and exerciseGroups together for ExamScoresDTO
+     * <p>
+     * The scores are cached per exam together with a digest of the data they were calculated from: the exam structure (exercise groups and exercises), the submissions and
+     * results, and the student exams of the exam. The cached scores are only reused if the digest did not change, so that the (expensive) calculation only happens after
+     * relevant changes.
      *
      * @param examId the id of the exam
-     * @return return ExamScoresDTO with students, scores and exerciseGroups for exam
+     * @return return ExamScoresDTO with students, scores and exerciseGroups for exam, every call returns a new object that can be modified
      */
     public ExamScoresDTO getExamScore(Long examId) {
         Exam exam = examRepository.findWithExerciseGroupsAndExercisesById(examId).orElseThrow(() -> new EntityNotFoundException("Exam with id: \"" + examId + "\" does not exist"));
 
+        // the digest is calculated before the scores, so that changes during the calculation invalidate the cached scores
+        final byte[] digest = calculateExamScoresDigest(exam);
+        final long now = System.currentTimeMillis();
+        CachedExamScores cachedExamScores = examScoresCache.get(examId);
+        if (cachedExamScores != null && Arrays.equals(cachedExamScores.digest, digest) && now - cachedExamScores.calculatedAt < examScoresCacheExpiration * 1000) {
+            return copyOf(cachedExamScores.scores);
+        }
+
+        ExamScoresDTO scores = calculateExamScore(exam);
+        // remove expired entries, so that the cache does not grow with every exam that was ever requested
+        examScoresCache.values().removeIf(cached -> now - cached.calculatedAt >= examScoresCacheExpiration * 1000);
+        examScoresCache.put(examId, new CachedExamScores(copyOf(scores), digest, now));
+        return scores;
+    }
+
+    private ExamScoresDTO calculateExamScore(Exam exam) {
+        final Long examId = exam.getId();
         // TODO: Check that this doesn't break the applications server
         List<StudentParticipation> studentParticipations = participationService.findByExamIdWithSubmissionRelevantResult(examId);
 
         // Adding exam information to DTO
         ExamScoresDTO scores = new ExamScoresDTO(exam.getId(), exam.getTitle(), exam.getMaxPoints());
 
-        // Counts how many participants each exercise has
-        Map<Long, Long> exerciseIdToNumberParticipations = studentParticipations.stream()
-                .collect(Collectors.groupingBy(studentParticipation -> studentParticipation.getExercise().getId(), Collectors.counting()));
+        // Counts how many participants each exercise has and groups the participations by student, so that we only iterate over all participations once
+        Map<Long, Long> exerciseIdToNumberParticipations = new HashMap<>();
+        Map<Long, List<StudentParticipation>> studentIdToParticipations = new HashMap<>();
+        for (StudentParticipation studentParticipation : studentParticipations) {
+            exerciseIdToNumberParticipations.merge(studentParticipation.getExercise().getId(), 1L, Long::sum);
+            studentParticipation.getStudent()
+                    .ifPresent(student -> studentIdToParticipations.computeIfAbsent(student.getId(), studentId -> new ArrayList<>()).add(studentParticipation));
+        }
 
         // Adding exercise group information to DTO
         for (ExerciseGroup exerciseGroup : exam.getExerciseGroups()) {
@@ -270,11 +316,8 @@ public class ExamService {
             // Add information about exercise groups and exercises
             var exerciseGroupDTO = new ExamScoresDTO.ExerciseGroup(exerciseGroup.getId(), exerciseGroup.getTitle(), maxPointsGroup);
             for (Exercise exercise : exerciseGroup.getExercises()) {
-                Long participantsForExercise = exerciseIdToNumberParticipations.get(exercise.getId());
                 // If no participation exists for an exercise then no entry exists in the map
-                if (participantsForExercise == null) {
-                    participantsForExercise = 0L;
-                }
+                Long participantsForExercise = exerciseIdToNumberParticipations.getOrDefault(exercise.getId(), 0L);
                 numberOfExeciseGroupParticipants += participantsForExercise;
                 exerciseGroupDTO.containedExercises
                         .add(new ExamScoresDTO.ExerciseGroup.ExerciseInfo(exercise.getId(), exercise.getTitle(), exercise.getMaxScore(), participantsForExercise));
@@ -292,8 +335,7 @@ public class ExamService {
                     studentExam.isSubmitted());
 
             // Adding student results information to DTO
-            List<StudentParticipation> participationsOfStudent = studentParticipations.stream()
-                    .filter(studentParticipation -> studentParticipation.getStudent().get().getId().equals(studentResult.userId)).collect(Collectors.toList());
+            List<StudentParticipation> participationsOfStudent = studentIdToParticipations.getOrDefault(studentResult.userId, List.of());
 
             studentResult.overallPointsAchieved = 0.0;
             for (StudentParticipation studentParticipation : participationsOfStudent) {
@@ -331,6 +373,78 @@ public class ExamService {
         return scores;
     }
 
+    /**
+     * Calculates a SHA-256 digest of the data the exam scores are calculated from: the exam itself, its exercise groups and their exercises, the state of all submissions and
+     * their results, and the submitted flags of the student exams. Unlike a sum of the values, the digest changes with every change of a single value, even if several values
+     * change at the same time. Changes of the users (e.g. their names) are not included, they are reflected after the expiration of the cached scores.
+     *
+     * @param exam the exam with exercise groups and exercises
+     * @return the digest of the data the exam scores depend on
+     */
+    private byte[] calculateExamScoresDigest(Exam exam) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        updateDigest(digest, exam.getId(), exam.getTitle(), exam.getMaxPoints());
+        for (ExerciseGroup exerciseGroup : exam.getExerciseGroups()) {
+            updateDigest(digest, exerciseGroup.getId(), exerciseGroup.getTitle());
+            for (Exercise exercise : exerciseGroup.getExercises()) {
+                updateDigest(digest, exercise.getId(), exercise.getTitle(), exercise.getMaxScore());
+            }
+        }
+        for (Object[] submissionState : submissionRepository.findScoreRelevantStateByExamId(exam.getId())) {
+            updateDigest(digest, submissionState);
+        }
+        for (Object[] studentExamState : studentExamRepository.findIdAndSubmittedByExamId(exam.getId())) {
+            updateDigest(digest, studentExamState);
+        }
+        return digest.digest();
+    }
+
+    private static void updateDigest(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            // the separators keep the values of a row and the rows apart, e.g. ("1", "23") and ("12", "3")
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) 1);
+    }
+
+    /**
+     * Creates a deep copy of the exam scores, so that the cached scores are never modified by the callers.
+     *
+     * @param scores the exam scores to copy
+     * @return the copy of the exam scores
+     */
+    private static ExamScoresDTO copyOf(ExamScoresDTO scores) {
+        ExamScoresDTO copy = new ExamScoresDTO(scores.examId, scores.title, scores.maxPoints);
+        copy.averagePointsAchieved = scores.averagePointsAchieved;
+        for (ExamScoresDTO.ExerciseGroup exerciseGroup : scores.exerciseGroups) {
+            var exerciseGroupCopy = new ExamScoresDTO.ExerciseGroup(exerciseGroup.id, exerciseGroup.title, exerciseGroup.maxPoints);
+            exerciseGroupCopy.numberOfParticipants = exerciseGroup.numberOfParticipants;
+            for (ExamScoresDTO.ExerciseGroup.ExerciseInfo exercise : exerciseGroup.containedExercises) {
+                exerciseGroupCopy.containedExercises
+                        .add(new ExamScoresDTO.ExerciseGroup.ExerciseInfo(exercise.exerciseId, exercise.title, exercise.maxPoints, exercise.numberOfParticipants));
+            }
+            copy.exerciseGroups.add(exerciseGroupCopy);
+        }
+        for (ExamScoresDTO.StudentResult studentResult : scores.studentResults) {
+            var studentResultCopy = new ExamScoresDTO.StudentResult(studentResult.userId, studentResult.name, studentResult.eMail, studentResult.login,
+                    studentResult.registrationNumber, studentResult.submitted);
+            studentResultCopy.overallPointsAchieved = studentResult.overallPointsAchieved;
+            studentResultCopy.overallScoreAchieved = studentResult.overallScoreAchieved;
+            studentResult.exerciseGroupIdToExerciseResult.forEach((exerciseGroupId, result) -> studentResultCopy.exerciseGroupIdToExerciseResult.put(exerciseGroupId,
+                    new ExamScoresDTO.ExerciseResult(result.exerciseId, result.title, result.maxScore, result.achievedScore, result.achievedPoints, result.hasNonEmptySubmission)));
+            copy.studentResults.add(studentResultCopy);
+        }
+        return copy;
+    }
+
     /**
      * Checks whether one of the submissions is not empty
      *
@@ -872,4 +986,21 @@ public class ExamService {
         return examRepository.isUserRegisteredForExam(examId, userId);
     }
 
+    /**
+     * Exam scores together with the digest of the data they were calculated from
+     */
+    private static class CachedExamScores {
+
+        private final ExamScoresDTO scores;
+
+        private final byte[] digest;
+
+        private final long calculatedAt;
+
+        CachedExamScores(ExamScoresDTO scores, byte[] digest, long calculatedAt) {
+            this.scores = scores;
+            this.digest = digest;
+            this.calculatedAt = calculatedAt;
+        }
+    }
 }
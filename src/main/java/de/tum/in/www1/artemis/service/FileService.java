@@ -9,6 +9,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -18,6 +19,8 @@ import java.util.concurrent.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+
 import org.apache.commons.io.Charsets;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -27,16 +30,25 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
 import com.ibm.icu.text.CharsetDetector;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.FileUploadSubmission;
 import de.tum.in.www1.artemis.exception.FilePathParsingException;
+import de.tum.in.www1.artemis.service.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class FileService implements DisposableBean {
@@ -47,6 +59,54 @@ public class FileService implements DisposableBean {
 
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
 
+    @Value("${artemis.file-serving.cache.max-file-size:262144}")
+    private long smallFileMaxSize;
+
+    @Value("${artemis.file-serving.cache.max-size:67108864}")
+    private long smallFileCacheMaxSize;
+
+    private LruCache<String, InMemoryFileResource> smallFileCache;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Only the paths of changed files are sent to the other cluster members, the cached files themselves are never distributed
+     */
+    private ITopic<String> cachedFileInvalidations;
+
+    private Counter heapHitCounter;
+
+    private Counter heapMissCounter;
+
+    private Counter diskHitCounter;
+
+    @Autowired
+    // the domain classes create their own instances of this service without a cache, therefore the dependencies of the cache are not passed to a constructor
+    public void setCacheDependencies(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates the cache for small files, it is only needed if the files are served by this service.
+     */
+    @PostConstruct
+    public void init() {
+        smallFileCache = new LruCache<>(smallFileCacheMaxSize, InMemoryFileResource::contentLength);
+        heapHitCounter = Counter.builder("artemis.file-serving.cache.hits").tag("tier", "heap").description("Number of small files that were served from the in-memory cache")
+                .register(meterRegistry);
+        heapMissCounter = Counter.builder("artemis.file-serving.cache.misses").tag("tier", "heap").description("Number of small files that had to be loaded from the disk")
+                .register(meterRegistry);
+        diskHitCounter = Counter.builder("artemis.file-serving.cache.hits").tag("tier", "disk")
+                .description("Number of large files that were streamed from the disk (usually from the page cache of the operating system)").register(meterRegistry);
+        Gauge.builder("artemis.file-serving.cache.size", smallFileCache, LruCache::weight).baseUnit("bytes").tag("tier", "heap")
+                .description("Size of the files in the in-memory cache").register(meterRegistry);
+        cachedFileInvalidations = hazelcastInstance.getTopic("file-serving-cache-invalidations");
+        cachedFileInvalidations.addMessageListener(message -> smallFileCache.remove(message.getMessageObject()));
+    }
+
     @Override
     public void destroy() {
         futures.values().forEach(future -> future.cancel(true));
@@ -54,21 +114,51 @@ public class FileService implements DisposableBean {
     }
 
     /**
-     * Get the file for the given path as a byte[]
+     * Get the file for the given path as a resource that can be streamed to the client, so that the file does not have to be loaded into memory. Small files are kept in a
+     * bounded in-memory cache instead, because they are typically requested very often (e.g. the images of drag and drop questions). A cached file is reloaded as soon as the
+     * last modification date or the size of the file changes.
      *
      * @param path the path for the file to load
-     * @return file contents as a byte[], or null, if the file doesn't exist
+     * @return the file as resource, or null, if the file doesn't exist
      * @throws IOException if the file can't be accessed.
      */
-    @Cacheable(value = "files", unless = "#result == null")
-    public byte[] getFileForPath(String path) throws IOException {
-        File file = new File(path);
-        if (file.exists()) {
-            return Files.readAllBytes(file.toPath());
-        }
-        else {
+    public Resource getResourceForPath(String path) throws IOException {
+        Path filePath = Paths.get(path);
+        if (!Files.isRegularFile(filePath)) {
             return null;
         }
+        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (attributes.size() > smallFileMaxSize) {
+            diskHitCounter.increment();
+            return new FileSystemResource(filePath);
+        }
+        String cacheKey = cacheKeyForPath(path);
+        InMemoryFileResource cachedFile = smallFileCache.get(cacheKey);
+        if (cachedFile != null && cachedFile.lastModified() == lastModified && cachedFile.contentLength() == attributes.size()) {
+            heapHitCounter.increment();
+            return cachedFile;
+        }
+        heapMissCounter.increment();
+        InMemoryFileResource file = new InMemoryFileResource(Files.readAllBytes(filePath), filePath.getFileName().toString(), lastModified);
+        smallFileCache.put(cacheKey, file);
+        return file;
+    }
+
+    /**
+     * Removes the file from the in-memory cache of all cluster members, e.g. because it was replaced by a file with the same size within the same second. Only the path is
+     * sent to the other cluster members.
+     *
+     * @param path the actual path of the file
+     */
+    public void evictCachedFile(String path) {
+        String cacheKey = cacheKeyForPath(path);
+        smallFileCache.remove(cacheKey);
+        cachedFileInvalidations.publish(cacheKey);
+    }
+
+    private static String cacheKeyForPath(String path) {
+        return Paths.get(path).toAbsolutePath().normalize().toString();
     }
 
     /**
@@ -652,4 +742,30 @@ public class FileService implements DisposableBean {
 
         futures.put(path, future);
     }
+
+    /**
+     * A file that was loaded into memory, it keeps the name and the last modification date of the file, so that it can be served like a file on the disk.
+     */
+    private static final class InMemoryFileResource extends ByteArrayResource {
+
+        private final String filename;
+
+        private final long lastModified;
+
+        private InMemoryFileResource(byte[] content, String filename, long lastModified) {
+            super(content);
+            this.filename = filename;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+    }
 }
@@ -0,0 +1,336 @@
+package de.tum.in.www1.artemis.service;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
+import de.tum.in.www1.artemis.repository.ComplaintRepository;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.repository.SubmissionRepository;
+import de.tum.in.www1.artemis.service.util.AfterCommitInvalidation;
+import de.tum.in.www1.artemis.web.rest.dto.DueDateStat;
+import de.tum.in.www1.artemis.web.rest.dto.StatsForInstructorDashboardDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Computes the statistics of a course for the instructor dashboard. The statistics are computed with a few combined queries and cached on every instance, because the
+ * dashboard is polled by all instructors and tutors of a course.
+ * <p>
+ * The cached statistics are invalidated by the {@link DashboardCacheInvalidationListener} when results, submissions, complaints or complaint responses of the course change:
+ * once the transaction has been committed, the version of the course is changed in a map that is distributed by Hazelcast. If only the id of the changed participation,
+ * exercise, result or complaint is known, its course is looked up after the commit. Invalidated (or expired) statistics are still returned for a limited time, while they are
+ * recomputed in the background. The returned statistics contain the time at which they were computed.
+ */
+@Service
+public class InstructorDashboardStatsService {
+
+    private final Logger log = LoggerFactory.getLogger(InstructorDashboardStatsService.class);
+
+    private final ComplaintRepository complaintRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final SubmissionRepository submissionRepository;
+
+    private final ResultRepository resultRepository;
+
+    private final CourseService courseService;
+
+    private final ProgrammingExerciseService programmingExerciseService;
+
+    private final TutorLeaderboardService tutorLeaderboardService;
+
+    private final TransactionTemplate lookupTransactionTemplate;
+
+    private final IMap<String, Long> versions;
+
+    private final AfterCommitInvalidation<Long> courseInvalidation = new AfterCommitInvalidation<>(this::invalidateCourses);
+
+    private final AfterCommitInvalidation<Long> exerciseInvalidation = new AfterCommitInvalidation<>(
+            exerciseIds -> invalidateCoursesOf(() -> courseRepository.findIdsByExerciseIds(exerciseIds)));
+
+    private final AfterCommitInvalidation<Long> participationInvalidation = new AfterCommitInvalidation<>(
+            participationIds -> invalidateCoursesOf(() -> courseRepository.findIdsByParticipationIds(participationIds)));
+
+    private final AfterCommitInvalidation<Long> resultInvalidation = new AfterCommitInvalidation<>(
+            resultIds -> invalidateCoursesOf(() -> courseRepository.findIdsByResultIds(resultIds)));
+
+    private final AfterCommitInvalidation<Long> complaintInvalidation = new AfterCommitInvalidation<>(
+            complaintIds -> invalidateCoursesOf(() -> courseRepository.findIdsByComplaintIds(complaintIds)));
+
+    private final Counter hitCounter;
+
+    private final Counter staleCounter;
+
+    private final Counter missCounter;
+
+    private final Map<Long, CachedStats> statsCache = new ConcurrentHashMap<>();
+
+    private final Set<Long> refreshingCourses = ConcurrentHashMap.newKeySet();
+
+    @Value("${artemis.instructor-dashboard.stats.expiration:60}")
+    private long expirationInSeconds;
+
+    @Value("${artemis.instructor-dashboard.stats.max-stale:600}")
+    private long maxStaleInSeconds;
+
+    private ExecutorService executor;
+
+    public InstructorDashboardStatsService(ComplaintRepository complaintRepository, CourseRepository courseRepository, SubmissionRepository submissionRepository,
+            ResultRepository resultRepository, CourseService courseService, ProgrammingExerciseService programmingExerciseService, TutorLeaderboardService tutorLeaderboardService,
+            TransactionTemplate transactionTemplate, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.complaintRepository = complaintRepository;
+        this.courseRepository = courseRepository;
+        this.submissionRepository = submissionRepository;
+        this.resultRepository = resultRepository;
+        this.courseService = courseService;
+        this.programmingExerciseService = programmingExerciseService;
+        this.tutorLeaderboardService = tutorLeaderboardService;
+        // The courses of changed entities are looked up after the commit of their transaction, this requires a new transaction.
+        this.lookupTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.lookupTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lookupTransactionTemplate.setReadOnly(true);
+        // The map will automatically be distributed between all instances by Hazelcast.
+        this.versions = hazelcastInstance.getMap("instructor-dashboard-stats-versions");
+        this.hitCounter = Counter.builder("artemis.instructor-dashboard.stats.cache.hits").description("Number of requests that were answered with up-to-date statistics")
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("artemis.instructor-dashboard.stats.cache.stale")
+                .description("Number of requests that were answered with outdated statistics while they were recomputed").register(meterRegistry);
+        this.missCounter = Counter.builder("artemis.instructor-dashboard.stats.cache.misses").description("Number of requests that had to wait for the statistics to be computed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("instructor-dashboard-stats-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get the statistics of the given course for the instructor dashboard. The number of assessment locks is not included, because it depends on the user.
+     *
+     * @param course the course for which the statistics should be returned
+     * @return the statistics of the course, every call returns a new object that can be modified
+     */
+    public StatsForInstructorDashboardDTO getStatsForInstructorDashboard(Course course) {
+        final Map<String, Long> currentVersions = getVersions(course.getId());
+        final CachedStats cachedStats = statsCache.get(course.getId());
+        if (cachedStats != null) {
+            final long age = System.currentTimeMillis() - cachedStats.startedAt;
+            if (age <= expirationInSeconds * 1000 && cachedStats.versions.equals(currentVersions)) {
+                hitCounter.increment();
+                return copyOf(cachedStats.stats);
+            }
+            if (age <= maxStaleInSeconds * 1000) {
+                staleCounter.increment();
+                refreshInBackground(course);
+                return copyOf(cachedStats.stats);
+            }
+        }
+        missCounter.increment();
+        return copyOf(computeStats(course, currentVersions).stats);
+    }
+
+    /**
+     * Changes the version of the given course after the commit of the current transaction, the cached statistics of the course are recomputed on the next request.
+     *
+     * @param courseId the id of the course
+     */
+    public void invalidateCourse(long courseId) {
+        courseInvalidation.add(courseId);
+    }
+
+    /**
+     * Changes the version of the course of the given exercise after the commit of the current transaction, e.g. if the exercise is not loaded.
+     *
+     * @param exerciseId the id of the exercise
+     */
+    public void invalidateCourseOfExercise(long exerciseId) {
+        exerciseInvalidation.add(exerciseId);
+    }
+
+    /**
+     * Changes the version of the course of the given participation after the commit of the current transaction, e.g. if the participation is not loaded.
+     *
+     * @param participationId the id of the participation
+     */
+    public void invalidateCourseOfParticipation(long participationId) {
+        participationInvalidation.add(participationId);
+    }
+
+    /**
+     * Changes the version of the course of the given result after the commit of the current transaction, e.g. if the result of a complaint is not loaded.
+     *
+     * @param resultId the id of the result
+     */
+    public void invalidateCourseOfResult(long resultId) {
+        resultInvalidation.add(resultId);
+    }
+
+    /**
+     * Changes the version of the course of the given complaint after the commit of the current transaction, e.g. if the complaint of a complaint response is not loaded.
+     *
+     * @param complaintId the id of the complaint
+     */
+    public void invalidateCourseOfComplaint(long complaintId) {
+        complaintInvalidation.add(complaintId);
+    }
+
+    private void invalidateCourses(Set<Long> courseIds) {
+        // A random version is sufficient to detect the change and does not need a read on the distributed map. Statistics are never considered up-to-date after their
+        // expiration, therefore the version only has to live longer than that.
+        for (Long courseId : courseIds) {
+            versions.set(courseKey(courseId), ThreadLocalRandom.current().nextLong(), 2 * expirationInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void invalidateCoursesOf(Supplier<Set<Long>> courseIds) {
+        // The courses are looked up synchronously, so that the next request after the change does not get outdated statistics.
+        try {
+            invalidateCourses(lookupTransactionTemplate.execute(status -> courseIds.get()));
+        }
+        catch (Exception ex) {
+            log.warn("Could not look up the courses whose instructor dashboard statistics have to be invalidated: " + ex.getMessage());
+        }
+    }
+
+    private void refreshInBackground(Course course) {
+        if (!refreshingCourses.add(course.getId())) {
+            // the statistics of the course are already recomputed
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    computeStats(course, getVersions(course.getId()));
+                }
+                catch (Exception ex) {
+                    log.warn("Could not recompute the instructor dashboard statistics of course " + course.getId() + ": " + ex.getMessage());
+                }
+                finally {
+                    refreshingCourses.remove(course.getId());
+                }
+            });
+        }
+        catch (RejectedExecutionException ex) {
+            refreshingCourses.remove(course.getId());
+        }
+    }
+
+    /**
+     * Computes the statistics of the course and caches them. The versions have to be retrieved before the statistics are computed, so that changes during the computation
+     * invalidate the computed statistics.
+     */
+    private CachedStats computeStats(Course course, Map<String, Long> courseVersions) {
+        final long start = System.currentTimeMillis();
+        final long courseId = course.getId();
+        StatsForInstructorDashboardDTO stats = new StatsForInstructorDashboardDTO();
+
+        long numberOfComplaints = 0L;
+        long numberOfComplaintResponses = 0L;
+        long numberOfMoreFeedbackRequests = 0L;
+        long numberOfMoreFeedbackResponses = 0L;
+        for (Object[] complaintCounts : complaintRepository.countComplaintsAndComplaintResponsesByCourseIdGroupedByComplaintType(courseId)) {
+            if (complaintCounts[0] == ComplaintType.COMPLAINT) {
+                numberOfComplaints = toLong(complaintCounts[1]);
+                numberOfComplaintResponses = toLong(complaintCounts[2]);
+            }
+            else if (complaintCounts[0] == ComplaintType.MORE_FEEDBACK) {
+                numberOfMoreFeedbackRequests = toLong(complaintCounts[1]);
+                numberOfMoreFeedbackResponses = toLong(complaintCounts[2]);
+            }
+        }
+        stats.setNumberOfComplaints(numberOfComplaints);
+        stats.setNumberOfOpenComplaints(numberOfComplaints - numberOfComplaintResponses);
+        stats.setNumberOfMoreFeedbackRequests(numberOfMoreFeedbackRequests);
+        stats.setNumberOfOpenMoreFeedbackRequests(numberOfMoreFeedbackRequests - numberOfMoreFeedbackResponses);
+
+        stats.setNumberOfStudents(courseService.countNumberOfStudentsForCourse(course));
+
+        final Object[] submissionCounts = submissionRepository.countInTimeAndLateSubmissionsByCourseId(courseId).get(0);
+        final long numberOfInTimeSubmissions = toLong(submissionCounts[0]) + programmingExerciseService.countSubmissionsByCourseIdSubmitted(courseId);
+        final long numberOfLateSubmissions = toLong(submissionCounts[1]);
+        stats.setNumberOfSubmissions(new DueDateStat(numberOfInTimeSubmissions, numberOfLateSubmissions));
+
+        Map<Object, Long> numberOfAssessments = resultRepository.countAssessmentsByCourseIdGroupedByRated(courseId).stream()
+                .collect(Collectors.toMap(assessmentCounts -> assessmentCounts[0], assessmentCounts -> toLong(assessmentCounts[1])));
+        stats.setNumberOfAssessments(new DueDateStat(numberOfAssessments.getOrDefault(Boolean.TRUE, 0L), numberOfAssessments.getOrDefault(Boolean.FALSE, 0L)));
+
+        stats.setTutorLeaderboardEntries(tutorLeaderboardService.getCourseLeaderboard(course));
+        stats.setComputedAt(ZonedDateTime.now());
+
+        final CachedStats computedStats = new CachedStats(stats, courseVersions, start);
+        // Do not replace statistics whose computation started later (e.g. by a request while the statistics were recomputed in the background).
+        statsCache.merge(courseId, computedStats, (existingStats, newStats) -> newStats.startedAt >= existingStats.startedAt ? newStats : existingStats);
+        log.info("Computed the instructor dashboard statistics of course " + courseId + " in " + (System.currentTimeMillis() - start) + "ms");
+        return computedStats;
+    }
+
+    private Map<String, Long> getVersions(long courseId) {
+        // A course without a version is included with the version 0, so that the versions of the cached statistics can be compared with the current versions.
+        final String key = courseKey(courseId);
+        return Map.of(key, Optional.ofNullable(versions.get(key)).orElse(0L));
+    }
+
+    private static StatsForInstructorDashboardDTO copyOf(StatsForInstructorDashboardDTO stats) {
+        StatsForInstructorDashboardDTO copy = new StatsForInstructorDashboardDTO();
+        copy.setNumberOfStudents(stats.getNumberOfStudents());
+        copy.setNumberOfSubmissions(stats.getNumberOfSubmissions());
+        copy.setNumberOfAssessments(stats.getNumberOfAssessments());
+        copy.setNumberOfComplaints(stats.getNumberOfComplaints());
+        copy.setNumberOfOpenComplaints(stats.getNumberOfOpenComplaints());
+        copy.setNumberOfMoreFeedbackRequests(stats.getNumberOfMoreFeedbackRequests());
+        copy.setNumberOfOpenMoreFeedbackRequests(stats.getNumberOfOpenMoreFeedbackRequests());
+        copy.setTutorLeaderboardEntries(stats.getTutorLeaderboardEntries());
+        copy.setComputedAt(stats.getComputedAt());
+        return copy;
+    }
+
+    private static long toLong(Object count) {
+        // sums are null if no rows match
+        return count != null ? ((Number) count).longValue() : 0L;
+    }
+
+    private static String courseKey(long courseId) {
+        return "course-" + courseId;
+    }
+
+    private static final class CachedStats {
+
+        private final StatsForInstructorDashboardDTO stats;
+
+        private final Map<String, Long> versions;
+
+        private final long startedAt;
+
+        private CachedStats(StatsForInstructorDashboardDTO stats, Map<String, Long> versions, long startedAt) {
+            this.stats = stats;
+            this.versions = versions;
+            this.startedAt = startedAt;
+        }
+    }
+}
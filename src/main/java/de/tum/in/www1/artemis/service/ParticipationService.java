@@ -1305,6 +1305,20 @@ public class ParticipationService {
         return studentParticipationRepository.findByStudentIdAndIndividualExercisesWithEagerSubmissionsResult(studentId, exercises);
     }
 
+    /**
+     * Get all participations for the given student and individual-mode exercises with their exercises, submissions and results
+     *
+     * @param studentId   the id of the student for which the participations should be found
+     * @param exerciseIds the ids of the individual-mode exercises for which participations should be found
+     * @return student's participations
+     */
+    public List<StudentParticipation> findByStudentIdAndIndividualExerciseIdsWithEagerExerciseSubmissionsResult(Long studentId, Collection<Long> exerciseIds) {
+        if (exerciseIds.isEmpty()) {
+            return List.of();
+        }
+        return studentParticipationRepository.findByStudentIdAndIndividualExerciseIdsWithEagerExerciseSubmissionsResult(studentId, exerciseIds);
+    }
+
     /**
      * Loads the test run participation for the instructor.
      * See {@link StudentParticipation#isTestRunParticipation()}
@@ -0,0 +1,98 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+
+/**
+ * Caches the pending submissions of all student participations of a programming exercise for a short time, because the exercise dashboards request them repeatedly.
+ * <p>
+ * Every exercise has a version that is distributed between all instances by Hazelcast. The version is increased whenever a new submission is created or a new result is
+ * received for the exercise, which invalidates the cached pending submissions of the exercise on all instances.
+ */
+@Service
+public class PendingProgrammingSubmissionCache {
+
+    private final Map<Long, Long> versions;
+
+    private final Map<Long, CachedPendingSubmissions> pendingSubmissions = new ConcurrentHashMap<>();
+
+    @Value("${artemis.programming-exercise.pending-submissions-expiration:10}")
+    private long expirationInSeconds;
+
+    public PendingProgrammingSubmissionCache(HazelcastInstance hazelcastInstance) {
+        // The map will automatically be distributed between all instances by Hazelcast.
+        versions = hazelcastInstance.getMap("programming-exercise-pending-submission-versions");
+    }
+
+    /**
+     * Returns the current version of the pending submissions of the given exercise. The version has to be retrieved before the pending submissions are loaded.
+     *
+     * @param exerciseId the id of the programming exercise
+     * @return the current version
+     */
+    public long getVersion(long exerciseId) {
+        return versions.getOrDefault(exerciseId, 0L);
+    }
+
+    /**
+     * Returns the cached pending submissions of the given exercise if they are still up to date.
+     *
+     * @param exerciseId the id of the programming exercise
+     * @return the cached pending submissions by participation id or an empty optional if there are none or if they are outdated
+     */
+    public Optional<Map<Long, Optional<ProgrammingSubmission>>> get(long exerciseId) {
+        CachedPendingSubmissions cached = pendingSubmissions.get(exerciseId);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.version != getVersion(exerciseId) || System.currentTimeMillis() - cached.createdAt > expirationInSeconds * 1000) {
+            pendingSubmissions.remove(exerciseId, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached.submissions);
+    }
+
+    /**
+     * Caches the pending submissions of the given exercise, they replace older pending submissions of the same exercise.
+     *
+     * @param exerciseId  the id of the programming exercise
+     * @param version     the version that was retrieved before the pending submissions were loaded
+     * @param submissions the pending submissions by participation id
+     */
+    public void put(long exerciseId, long version, Map<Long, Optional<ProgrammingSubmission>> submissions) {
+        CachedPendingSubmissions cached = new CachedPendingSubmissions(version, submissions);
+        pendingSubmissions.merge(exerciseId, cached, (cachedSubmissions, newSubmissions) -> newSubmissions.version >= cachedSubmissions.version ? newSubmissions : cachedSubmissions);
+    }
+
+    /**
+     * Invalidates the cached pending submissions of the given exercise on all instances. Has to be called whenever a submission or a result of the exercise is created.
+     *
+     * @param exerciseId the id of the programming exercise
+     */
+    public void invalidate(long exerciseId) {
+        versions.merge(exerciseId, 1L, Long::sum);
+        pendingSubmissions.remove(exerciseId);
+    }
+
+    private static final class CachedPendingSubmissions {
+
+        private final long version;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        private final Map<Long, Optional<ProgrammingSubmission>> submissions;
+
+        private CachedPendingSubmissions(long version, Map<Long, Optional<ProgrammingSubmission>> submissions) {
+            this.version = version;
+            this.submissions = submissions;
+        }
+    }
+}
@@ -1,18 +1,74 @@
 package de.tum.in.www1.artemis.service;
 
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import net.sourceforge.plantuml.FileFormat;
 import net.sourceforge.plantuml.FileFormatOption;
 import net.sourceforge.plantuml.SourceStringReader;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import de.tum.in.www1.artemis.service.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Renders PlantUML diagrams. Rendering is expensive and the same diagrams are requested by every student who opens a problem statement, therefore the rendered diagrams are
+ * cached by the hash of their source and their format: in a size-bounded cache on the heap and optionally on the disk. Concurrent requests for the same diagram only render it
+ * once.
+ */
 @Service
 public class PlantUmlService {
 
+    private final Logger log = LoggerFactory.getLogger(PlantUmlService.class);
+
+    private final LruCache<String, byte[]> imageCache;
+
+    private final Map<String, CompletableFuture<byte[]>> renderings = new ConcurrentHashMap<>();
+
+    private final Path diskCachePath;
+
+    private final Counter heapHitCounter;
+
+    private final Counter diskHitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter coalescedCounter;
+
+    private final Timer renderTimer;
+
+    public PlantUmlService(MeterRegistry meterRegistry, @Value("${artemis.plantuml.cache.max-size:33554432}") long cacheMaxSize,
+            @Value("${artemis.plantuml.cache.path:}") String diskCachePath) {
+        this.imageCache = new LruCache<>(cacheMaxSize, image -> image.length);
+        this.diskCachePath = diskCachePath.isBlank() ? null : Paths.get(diskCachePath);
+        this.heapHitCounter = Counter.builder("artemis.plantuml.cache.hits").tag("tier", "heap").description("Number of diagrams that were found in the cache")
+                .register(meterRegistry);
+        this.diskHitCounter = Counter.builder("artemis.plantuml.cache.hits").tag("tier", "disk").description("Number of diagrams that were found in the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("artemis.plantuml.cache.misses").description("Number of diagrams that had to be rendered").register(meterRegistry);
+        this.coalescedCounter = Counter.builder("artemis.plantuml.cache.coalesced").description("Number of requests that waited for the rendering of another request")
+                .register(meterRegistry);
+        this.renderTimer = Timer.builder("artemis.plantuml.render").description("Time needed to render a diagram").register(meterRegistry);
+    }
+
     /**
      * Generate PNG diagram for given PlantUML commands
      *
@@ -21,12 +77,7 @@ public class PlantUmlService {
      * @throws IOException if generateImage can't create the PNG
      */
     public byte[] generatePng(final String plantUml) throws IOException {
-        try (final var bos = new ByteArrayOutputStream()) {
-            final var reader = new SourceStringReader(plantUml);
-
-            reader.generateImage(bos);
-            return bos.toByteArray();
-        }
+        return getImage(plantUml, FileFormat.PNG);
     }
 
     /**
@@ -37,12 +88,106 @@ public class PlantUmlService {
      * @throws IOException if generateImage can't create the SVG
      */
     public String generateSvg(final String plantUml) throws IOException {
+        return new String(getImage(plantUml, FileFormat.SVG), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the cached image of the diagram or renders it. If the same diagram is already rendered by another thread, the rendered image of the other thread is used.
+     *
+     * @param plantUml   PlantUML command(s)
+     * @param fileFormat the format of the image
+     * @return the image, it is shared between all callers and must not be modified
+     * @throws IOException if the image can't be rendered
+     */
+    private byte[] getImage(final String plantUml, final FileFormat fileFormat) throws IOException {
+        final var key = fileFormat.name().toLowerCase() + "-" + sha256Hex(plantUml);
+        var image = imageCache.get(key);
+        if (image != null) {
+            heapHitCounter.increment();
+            return image;
+        }
+        final var rendering = new CompletableFuture<byte[]>();
+        final var existingRendering = renderings.putIfAbsent(key, rendering);
+        if (existingRendering != null) {
+            coalescedCounter.increment();
+            return awaitRendering(existingRendering);
+        }
+        try {
+            image = readFromDisk(key);
+            if (image != null) {
+                diskHitCounter.increment();
+            }
+            else {
+                missCounter.increment();
+                image = render(plantUml, fileFormat);
+                writeToDisk(key, image);
+            }
+            imageCache.put(key, image);
+            rendering.complete(image);
+            return image;
+        }
+        catch (IOException | RuntimeException ex) {
+            rendering.completeExceptionally(ex);
+            throw ex;
+        }
+        finally {
+            renderings.remove(key, rendering);
+        }
+    }
+
+    private byte[] awaitRendering(final CompletableFuture<byte[]> rendering) throws IOException {
+        try {
+            return rendering.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private byte[] render(final String plantUml, final FileFormat fileFormat) throws IOException {
+        final var start = System.nanoTime();
         try (final var bos = new ByteArrayOutputStream()) {
             final var reader = new SourceStringReader(plantUml);
 
-            reader.generateImage(bos, new FileFormatOption(FileFormat.SVG));
+            reader.generateImage(bos, new FileFormatOption(fileFormat));
+            return bos.toByteArray();
+        }
+        finally {
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+    private byte[] readFromDisk(final String key) {
+        if (diskCachePath == null) {
+            return null;
+        }
+        final var file = diskCachePath.resolve(key);
+        try {
+            return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+        }
+        catch (IOException ex) {
+            log.warn("Could not read the cached diagram " + file + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(final String key, final byte[] image) {
+        if (diskCachePath == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(diskCachePath);
+            // Write to a temporary file first, so that other instances never read a partially written diagram.
+            final var temporaryFile = Files.createTempFile(diskCachePath, key, ".tmp");
+            Files.write(temporaryFile, image);
+            Files.move(temporaryFile, diskCachePath.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException ex) {
+            // The disk cache is optional, the diagram is still cached on the heap.
+            log.warn("Could not cache the diagram " + key + " on the disk: " + ex.getMessage());
         }
     }
 }
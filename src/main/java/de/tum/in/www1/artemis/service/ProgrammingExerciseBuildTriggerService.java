@@ -0,0 +1,397 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.http.HttpException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.connectors.jenkins.JenkinsException;
+import de.tum.in.www1.artemis.service.util.TokenBucket;
+import de.tum.in.www1.artemis.web.websocket.programmingSubmission.BuildRunProgressDTO;
+
+/**
+ * Triggers the builds of an instructor build run, i.e. the builds of all participations of a programming exercise.
+ * <p>
+ * The builds are triggered by a small pool of threads and the requests to the CI system are limited by a token bucket, so that the CI system is not overloaded, but short
+ * bursts (e.g. build runs of small exercises) are still triggered immediately. Builds that could not be triggered because of a communication error with the CI system are
+ * retried with an exponential backoff. The progress of a build run is sent to the instructors via websocket.
+ * <p>
+ * The state of all build runs is stored in a distributed map. If an instance stops during a build run, another instance takes over the build run and only triggers the builds
+ * of the participations that did not get a new instructor submission since the build run was started. The map is only kept in the memory of the cluster: if the last instance
+ * (e.g. the only instance of a single node setup) stops during a build run, the build run is lost and has to be started again by the instructor.
+ */
+@Service
+public class ProgrammingExerciseBuildTriggerService {
+
+    private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseBuildTriggerService.class);
+
+    private final ProgrammingSubmissionService programmingSubmissionService;
+
+    private final ProgrammingExerciseParticipationService programmingExerciseParticipationService;
+
+    private final ProgrammingSubmissionRepository programmingSubmissionRepository;
+
+    private final WebsocketMessagingService websocketMessagingService;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final IMap<Long, BuildRun> buildRuns;
+
+    private final Map<Long, LocalBuildRun> localBuildRuns = new ConcurrentHashMap<>();
+
+    @Value("${artemis.continuous-integration.build-trigger.rate:10}")
+    private double rate;
+
+    @Value("${artemis.continuous-integration.build-trigger.burst:20}")
+    private long burst;
+
+    @Value("${artemis.continuous-integration.build-trigger.concurrency:4}")
+    private int concurrency;
+
+    @Value("${artemis.continuous-integration.build-trigger.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${artemis.continuous-integration.build-trigger.retry-backoff:2000}")
+    private long retryBackoffInMilliseconds;
+
+    @Value("${artemis.continuous-integration.build-trigger.progress-interval:10}")
+    private int progressInterval;
+
+    private TokenBucket tokenBucket;
+
+    private ExecutorService executor;
+
+    public ProgrammingExerciseBuildTriggerService(@Lazy ProgrammingSubmissionService programmingSubmissionService,
+            ProgrammingExerciseParticipationService programmingExerciseParticipationService, ProgrammingSubmissionRepository programmingSubmissionRepository,
+            WebsocketMessagingService websocketMessagingService, HazelcastInstance hazelcastInstance) {
+        this.programmingSubmissionService = programmingSubmissionService;
+        this.programmingExerciseParticipationService = programmingExerciseParticipationService;
+        this.programmingSubmissionRepository = programmingSubmissionRepository;
+        this.websocketMessagingService = websocketMessagingService;
+        this.hazelcastInstance = hazelcastInstance;
+        // The map will automatically be distributed between all instances by Hazelcast.
+        this.buildRuns = hazelcastInstance.getMap("programming-exercise-build-runs");
+    }
+
+    /**
+     * Validates the configuration and creates the token bucket and the threads that trigger the builds
+     */
+    @PostConstruct
+    public void init() {
+        if (concurrency < 1 || progressInterval < 1) {
+            throw new IllegalArgumentException("The concurrency and the progress interval of the build trigger have to be positive");
+        }
+        tokenBucket = new TokenBucket(burst, rate);
+        executor = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("build-trigger-"));
+        hazelcastInstance.getCluster().addMembershipListener(new MembershipListener() {
+
+            @Override
+            public void memberAdded(MembershipEvent membershipEvent) {
+                // Nothing to do, running build runs stay on their instances.
+            }
+
+            @Override
+            public void memberRemoved(MembershipEvent membershipEvent) {
+                // The listener is called by a Hazelcast thread that must not be blocked by database queries.
+                executor.execute(() -> resumeOrphanedBuildRuns());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // The build runs of this instance stay in the distributed map, so that another instance can resume them.
+        executor.shutdownNow();
+    }
+
+    /**
+     * Resumes the build runs of instances that were stopped, when this instance is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void applicationReady() {
+        resumeOrphanedBuildRuns();
+    }
+
+    /**
+     * Starts an instructor build run for the given participations. The method returns immediately, the builds are triggered in the background. When all builds were
+     * triggered, the build run is completed with {@link ProgrammingSubmissionService#completeInstructorBuildRun(Long)}.
+     *
+     * @param exerciseId     the id of the programming exercise.
+     * @param participations the participations of the exercise for which a build should be triggered.
+     */
+    public void startBuildRun(Long exerciseId, List<ProgrammingExerciseParticipation> participations) {
+        BuildRun buildRun = new BuildRun(ZonedDateTime.now(), localMemberId(), participations.size(), 0, 0);
+        BuildRun existingBuildRun = buildRuns.putIfAbsent(exerciseId, buildRun);
+        if (existingBuildRun != null && isMemberOfCluster(existingBuildRun.getOwner())) {
+            log.warn("A build run for the programming exercise with id {} is already in progress, no new build run is started", exerciseId);
+            return;
+        }
+        else if (existingBuildRun != null) {
+            // The instance that started the previous build run does not exist anymore, the new build run replaces it.
+            buildRuns.set(exerciseId, buildRun);
+        }
+        log.info("Start build run for {} participations of the programming exercise with id {}", participations.size(), exerciseId);
+        runBuildRun(exerciseId, buildRun, participations);
+    }
+
+    /**
+     * Triggers the builds of the given participations, e.g. the failed builds selected by an instructor. Unlike a build run, the builds are triggered by the calling thread,
+     * but they share the rate limit and the retries with the build runs.
+     *
+     * @param participations the participations for which a build should be triggered.
+     */
+    public void triggerBuilds(List<ProgrammingExerciseParticipation> participations) {
+        for (int i = 0; i < participations.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("Stopped triggering the builds of the selected participations, {} builds were not triggered", participations.size() - i);
+                return;
+            }
+            triggerBuild(participations.get(i));
+        }
+    }
+
+    private void runBuildRun(Long exerciseId, BuildRun buildRun, List<ProgrammingExerciseParticipation> participations) {
+        LocalBuildRun localBuildRun = new LocalBuildRun(buildRun, participations.size());
+        localBuildRuns.put(exerciseId, localBuildRun);
+        publishProgress(exerciseId, localBuildRun);
+        if (participations.isEmpty()) {
+            completeBuildRun(exerciseId);
+            return;
+        }
+        for (ProgrammingExerciseParticipation participation : participations) {
+            executor.execute(() -> {
+                // The executor can't access the authentication object, the security checks were done before the build run was started.
+                SecurityUtils.setAuthorizationObject();
+                boolean triggered = triggerBuild(participation);
+                if (Thread.currentThread().isInterrupted()) {
+                    // The instance is shutting down, the build run will be resumed by another instance.
+                    return;
+                }
+                if (triggered) {
+                    localBuildRun.triggered.incrementAndGet();
+                }
+                else {
+                    localBuildRun.failed.incrementAndGet();
+                }
+                int remaining = localBuildRun.remaining.decrementAndGet();
+                if (remaining == 0) {
+                    completeBuildRun(exerciseId);
+                }
+                else if (remaining % progressInterval == 0) {
+                    buildRuns.set(exerciseId, localBuildRun.toBuildRun());
+                    publishProgress(exerciseId, localBuildRun);
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates an instructor submission for the participation and triggers its build. Communication errors with the CI system are retried with an exponential backoff: the
+     * Bamboo connector reports them as {@link HttpException}, the Jenkins connector wraps them into a {@link JenkinsException}.
+     *
+     * @param participation the participation for which the build should be triggered.
+     * @return true if the build was triggered, false otherwise.
+     */
+    private boolean triggerBuild(ProgrammingExerciseParticipation participation) {
+        ProgrammingSubmission submission;
+        try {
+            submission = programmingSubmissionService.createSubmissionWithLastCommitHashForParticipation(participation, SubmissionType.INSTRUCTOR);
+        }
+        catch (Exception ex) {
+            log.error("Could not create a submission for participation " + participation.getId() + " during the build run: " + ex.getMessage());
+            return false;
+        }
+        for (int attempt = 0;; attempt++) {
+            try {
+                tokenBucket.acquire();
+                programmingSubmissionService.triggerBuild(submission);
+                programmingSubmissionService.notifyUserAboutSubmission(submission);
+                return true;
+            }
+            catch (HttpException | JenkinsException ex) {
+                if (attempt >= maxRetries) {
+                    programmingSubmissionService.notifyUserAboutBuildTriggerError(submission, ex);
+                    return false;
+                }
+                long backoff = retryBackoffInMilliseconds << attempt;
+                log.warn("Trigger build failed for participation " + participation.getId() + ", retry in " + backoff + "ms: " + ex.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                }
+                catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            catch (InterruptedException ex) {
+                // The instance is shutting down, a build run will be resumed by another instance.
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            catch (Exception ex) {
+                programmingSubmissionService.notifyUserAboutBuildTriggerError(submission, ex);
+                return false;
+            }
+        }
+    }
+
+    private void completeBuildRun(Long exerciseId) {
+        LocalBuildRun localBuildRun = localBuildRuns.remove(exerciseId);
+        buildRuns.remove(exerciseId);
+        publishProgress(exerciseId, localBuildRun);
+        log.info("Completed build run of the programming exercise with id {}: {} builds triggered, {} failed", exerciseId, localBuildRun.triggered.get(),
+                localBuildRun.failed.get());
+        try {
+            SecurityUtils.setAuthorizationObject();
+            programmingSubmissionService.completeInstructorBuildRun(exerciseId);
+        }
+        catch (Exception ex) {
+            log.error("Could not complete the build run of the programming exercise with id " + exerciseId, ex);
+        }
+    }
+
+    /**
+     * Takes over the build runs of instances that are not part of the cluster anymore. Only the builds of participations without an instructor submission since the start of
+     * the build run are triggered.
+     */
+    private void resumeOrphanedBuildRuns() {
+        UUID localMemberId = localMemberId();
+        for (Map.Entry<Long, BuildRun> entry : buildRuns.entrySet()) {
+            Long exerciseId = entry.getKey();
+            BuildRun orphanedBuildRun = entry.getValue();
+            if (isMemberOfCluster(orphanedBuildRun.getOwner())) {
+                continue;
+            }
+            BuildRun buildRun = orphanedBuildRun.withOwner(localMemberId);
+            // Only one instance may take over the build run.
+            if (!buildRuns.replace(exerciseId, orphanedBuildRun, buildRun)) {
+                continue;
+            }
+            try {
+                SecurityUtils.setAuthorizationObject();
+                Set<Long> triggeredParticipationIds = programmingSubmissionRepository.findParticipationIdsByExerciseIdAndTypeAndSubmissionDateAfter(exerciseId,
+                        SubmissionType.INSTRUCTOR, buildRun.getStartedAt());
+                List<ProgrammingExerciseParticipation> participations = programmingExerciseParticipationService.findByExerciseId(exerciseId).stream()
+                        .filter(participation -> !triggeredParticipationIds.contains(participation.getId())).collect(Collectors.toList());
+                log.info("Resume build run of the programming exercise with id {} for the remaining {} participations", exerciseId, participations.size());
+                runBuildRun(exerciseId, buildRun, participations);
+            }
+            catch (Exception ex) {
+                log.error("Could not resume the build run of the programming exercise with id " + exerciseId, ex);
+                buildRuns.remove(exerciseId);
+            }
+        }
+    }
+
+    private void publishProgress(Long exerciseId, LocalBuildRun localBuildRun) {
+        var progress = new BuildRunProgressDTO(exerciseId, localBuildRun.total, localBuildRun.previouslyTriggered + localBuildRun.triggered.get(),
+                localBuildRun.previouslyFailed + localBuildRun.failed.get(), localBuildRun.remaining.get());
+        websocketMessagingService.sendMessage("/topic/programming-exercises/" + exerciseId + "/all-builds-triggered/progress", progress);
+    }
+
+    private UUID localMemberId() {
+        return hazelcastInstance.getCluster().getLocalMember().getUuid();
+    }
+
+    private boolean isMemberOfCluster(UUID memberId) {
+        return hazelcastInstance.getCluster().getMembers().stream().map(Member::getUuid).anyMatch(memberId::equals);
+    }
+
+    /**
+     * The distributed state of a build run.
+     */
+    static final class BuildRun implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ZonedDateTime startedAt;
+
+        private final UUID owner;
+
+        private final int total;
+
+        private final int triggered;
+
+        private final int failed;
+
+        BuildRun(ZonedDateTime startedAt, UUID owner, int total, int triggered, int failed) {
+            this.startedAt = startedAt;
+            this.owner = owner;
+            this.total = total;
+            this.triggered = triggered;
+            this.failed = failed;
+        }
+
+        ZonedDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        UUID getOwner() {
+            return owner;
+        }
+
+        BuildRun withOwner(UUID owner) {
+            return new BuildRun(startedAt, owner, total, triggered, failed);
+        }
+    }
+
+    /**
+     * The state of a build run on the instance that triggers its builds.
+     */
+    private static final class LocalBuildRun {
+
+        private final BuildRun buildRun;
+
+        private final int total;
+
+        private final int previouslyTriggered;
+
+        private final int previouslyFailed;
+
+        private final AtomicInteger triggered = new AtomicInteger();
+
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private final AtomicInteger remaining;
+
+        LocalBuildRun(BuildRun buildRun, int participations) {
+            this.buildRun = buildRun;
+            this.total = buildRun.total;
+            this.previouslyTriggered = buildRun.triggered;
+            this.previouslyFailed = buildRun.failed;
+            this.remaining = new AtomicInteger(participations);
+        }
+
+        BuildRun toBuildRun() {
+            return new BuildRun(buildRun.startedAt, buildRun.owner, total, previouslyTriggered + triggered.get(), previouslyFailed + failed.get());
+        }
+    }
+}
@@ -7,9 +7,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipOutputStream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -31,6 +39,7 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 import org.w3c.dom.Document;
@@ -81,12 +90,42 @@ public class ProgrammingExerciseExportService {
     private String REPO_DOWNLOAD_CLONE_PATH;
 
     /**
-     * Get participations of programming exercises of a requested list of students packed together in one zip file.
+     * The maximum number of repositories that are cloned concurrently for an export (over all exports)
+     */
+    @Value("${artemis.repo-export.clone-threads:4}")
+    private int cloneThreads;
+
+    private ExecutorService repositoryExportExecutor;
+
+    /**
+     * Creates the executor that clones the repositories for exports
+     */
+    @PostConstruct
+    public void init() {
+        repositoryExportExecutor = Executors.newFixedThreadPool(Math.max(1, cloneThreads), new CustomizableThreadFactory("repository-export-"));
+    }
+
+    /**
+     * Shuts down the executor that clones the repositories for exports
+     */
+    @PreDestroy
+    public void destroy() {
+        repositoryExportExecutor.shutdownNow();
+    }
+
+    /**
+     * Get participations of programming exercises of a requested list of students packed together in one zip file. The zip file contains one zip file per repository.
+     * <p>
+     * The repositories are cloned and zipped on a bounded number of threads (artemis.repo-export.clone-threads), so that the version control system is not overloaded. Every
+     * zipped repository is copied into the zip file as soon as it is ready, and the cloned repository and its zip file are deleted right afterwards. Therefore only the final
+     * zip file and the repositories that are currently processed need temporary disk space.
+     * <p>
+     * If the calling thread is interrupted, the export is cancelled: the remaining repositories are not cloned anymore, the incomplete zip file is deleted and null is returned.
      *
      * @param programmingExerciseId the id of the exercise entity
      * @param participations participations that should be exported
      * @param repositoryExportOptions the options that should be used for the export
-     * @return a zip file containing all requested participations
+     * @return a zip file containing all requested participations or null if no repository could be exported or the export was cancelled
      */
     public File exportStudentRepositories(long programmingExerciseId, @NotNull List<ProgrammingExerciseStudentParticipation> participations,
             RepositoryExportOptionsDTO repositoryExportOptions) {
@@ -101,60 +140,120 @@ public class ProgrammingExerciseExportService {
                     + "' of the following students or teams: " + participations.stream().map(StudentParticipation::getParticipantIdentifier).collect(Collectors.joining(", ")));
         }
 
-        List<Path> pathsToZippedRepoFiles = Collections.synchronizedList(new ArrayList<>());
-        participations.parallelStream().forEach(participation -> {
-            Repository repo = null;
-            try {
-                if (participation.getRepositoryUrlAsUrl() == null) {
-                    log.warn("Ignore participation " + participation.getId() + " for export, because its repository URL is null");
-                    return;
+        final Path zipFilePath = Paths.get(REPO_DOWNLOAD_CLONE_PATH, "zippedRepos", programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-"
+                + programmingExercise.getShortName() + "-" + System.currentTimeMillis() + ".zip");
+        final AtomicInteger processedRepositories = new AtomicInteger();
+        final AtomicInteger exportedRepositories = new AtomicInteger();
+        final List<Future<?>> exports = new ArrayList<>(participations.size());
+        boolean failed = false;
+
+        try {
+            Files.createDirectories(zipFilePath.getParent());
+            try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFilePath))) {
+                for (var participation : participations) {
+                    exports.add(repositoryExportExecutor.submit(() -> {
+                        if (exportRepositoryForParticipation(programmingExercise, participation, repositoryExportOptions, zipOutputStream)) {
+                            exportedRepositories.incrementAndGet();
+                        }
+                        int processed = processedRepositories.incrementAndGet();
+                        if (processed % 50 == 0) {
+                            log.info("Exported " + processed + " of " + participations.size() + " repositories of programming exercise " + programmingExerciseId);
+                        }
+                    }));
+                }
+                try {
+                    for (Future<?> export : exports) {
+                        export.get();
+                    }
+                }
+                finally {
+                    // stop the exports that did not start yet (e.g. if the export was cancelled), the running ones delete their repositories themselves
+                    exports.forEach(export -> export.cancel(true));
                 }
-                repo = zipRepositoryForParticipation(programmingExercise, participation, repositoryExportOptions, pathsToZippedRepoFiles);
             }
-            catch (IOException | GitException | GitAPIException | InterruptedException ex) {
-                log.error("export student repository " + participation.getRepositoryUrlAsUrl() + " in exercise '" + programmingExercise.getTitle() + "' did not work as expected: "
-                        + ex.getMessage());
+        }
+        catch (InterruptedException ex) {
+            log.info("Export of the repositories of programming exercise " + programmingExerciseId + " was cancelled");
+            failed = true;
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException | ExecutionException ex) {
+            log.error("Export students repositories for exercise '" + programmingExercise.getTitle() + "' did not work as expected: " + ex.getMessage());
+            failed = true;
+        }
+
+        if (failed || exportedRepositories.get() == 0) {
+            if (!failed) {
+                log.warn("The zip file could not be created. Ignoring the request to export repositories for exercise " + programmingExercise.getTitle());
             }
-            finally {
-                deleteTempLocalRepository(participation, repo);
+            try {
+                Files.deleteIfExists(zipFilePath);
+            }
+            catch (IOException ex) {
+                log.warn("Could not delete file " + zipFilePath + ". Error message: " + ex.getMessage());
             }
-        });
-
-        if (pathsToZippedRepoFiles.isEmpty()) {
-            log.warn("The zip file could not be created. Ignoring the request to export repositories for exercise " + programmingExercise.getTitle());
             return null;
         }
 
+        fileService.scheduleForDeletion(zipFilePath, 5);
+        return new File(zipFilePath.toString());
+    }
+
+    /**
+     * Checks out the repository of the given participation, applies the export options, zips it and copies the zipped repository into the given zip file. The checked out
+     * repository and the zipped repository are deleted afterwards.
+     *
+     * @param programmingExercise The programming exercise for the participation
+     * @param participation The participation, for which the repository should get exported
+     * @param repositoryExportOptions The options, that should get applied to the exported repo
+     * @param zipOutputStream The zip file into which the zipped repository is copied
+     * @return true if the repository was added to the zip file, false otherwise
+     */
+    private boolean exportRepositoryForParticipation(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
+            final RepositoryExportOptionsDTO repositoryExportOptions, final ZipOutputStream zipOutputStream) {
+        if (participation.getRepositoryUrlAsUrl() == null) {
+            log.warn("Ignore participation " + participation.getId() + " for export, because its repository URL is null");
+            return false;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+
+        Repository repo = null;
+        Path zippedRepoFile = null;
         try {
-            // create a large zip file with all zipped repos and provide it for download
-            return createZipWithAllRepositories(programmingExercise, pathsToZippedRepoFiles);
+            repo = prepareRepositoryForParticipation(programmingExercise, participation, repositoryExportOptions);
+            log.debug("Create temporary zip file for repository " + repo.getLocalPath().toString());
+            // the repositories are compressed in parallel, copying them into the zip file is fast and only blocks the other exports for a short time
+            zippedRepoFile = gitService.zipRepository(repo, REPO_DOWNLOAD_CLONE_PATH);
+            zipFileService.addUncompressedFileToZipFile(zipOutputStream, zippedRepoFile, zippedRepoFile.toString());
+            return true;
         }
-        catch (IOException ex) {
-            log.error("Export students repositories for exercise '" + programmingExercise.getTitle() + "' did not work as expected: " + ex.getMessage());
+        catch (IOException | GitException | GitAPIException | InterruptedException ex) {
+            log.error("export student repository " + participation.getRepositoryUrlAsUrl() + " in exercise '" + programmingExercise.getTitle() + "' did not work as expected: "
+                    + ex.getMessage());
+            return false;
         }
         finally {
-            // we do some cleanup here to prevent future errors with file handling
-            deleteTempZipRepoFiles(pathsToZippedRepoFiles);
+            deleteTempLocalRepository(participation, repo);
+            deleteTempZipRepoFile(zippedRepoFile);
         }
-
-        return null;
     }
 
     /**
-     * Delete all temporary zipped repositories created during export
+     * Delete a temporary zipped repository created during export
      *
-     * @param pathsToZipeedRepos A list of all paths to the zip files, that should be deleted
+     * @param zippedRepoFile the path to the zip file that should be deleted, nothing happens if it is null
      */
-    private void deleteTempZipRepoFiles(List<Path> pathsToZipeedRepos) {
-        log.debug("Delete all temporary zip repo files");
-        // delete the temporary zipped repo files
-        for (Path zippedRepoFile : pathsToZipeedRepos) {
-            try {
-                Files.delete(zippedRepoFile);
-            }
-            catch (Exception ex) {
-                log.warn("Could not delete file " + zippedRepoFile + ". Error message: " + ex.getMessage());
-            }
+    private void deleteTempZipRepoFile(Path zippedRepoFile) {
+        if (zippedRepoFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(zippedRepoFile);
+        }
+        catch (IOException ex) {
+            log.warn("Could not delete file " + zippedRepoFile + ". Error message: " + ex.getMessage());
         }
     }
 
@@ -275,20 +374,17 @@ public class ProgrammingExerciseExportService {
     }
 
     /**
-     * Checks out the repository fo the given participation, zips it and adds the path to the given list of already
-     * zipped repos.
+     * Checks out the repository fo the given participation and applies the given export options to it.
      *
      * @param programmingExercise The programming exercise for the participation
-     * @param participation The participation, for which the repository should get zipped
-     * @param repositoryExportOptions The options, that should get applied to the zipeed repo
-     * @param pathsToZippedRepos A list of already zipped repos. The path of the newly zip file will get added to this list
-     * @return The checked out and zipped repository
+     * @param participation The participation, for which the repository should get checked out
+     * @param repositoryExportOptions The options, that should get applied to the repo
+     * @return The checked out repository
      * @throws GitAPIException If something went wrong checking out the repo
      * @throws InterruptedException
-     * @throws IOException
      */
-    private Repository zipRepositoryForParticipation(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
-            final RepositoryExportOptionsDTO repositoryExportOptions, List<Path> pathsToZippedRepos) throws GitAPIException, InterruptedException, IOException {
+    private Repository prepareRepositoryForParticipation(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
+            final RepositoryExportOptionsDTO repositoryExportOptions) throws GitAPIException, InterruptedException {
         final var repository = gitService.getOrCheckoutRepository(participation, REPO_DOWNLOAD_CLONE_PATH);
         gitService.resetToOriginMaster(repository); // start with clean state
 
@@ -317,33 +413,12 @@ public class ProgrammingExerciseExportService {
             }
         }
 
-        log.debug("Create temporary zip file for repository " + repository.getLocalPath().toString());
-        Path zippedRepoFile = gitService.zipRepository(repository, REPO_DOWNLOAD_CLONE_PATH);
-        pathsToZippedRepos.add(zippedRepoFile);
-
         // if repository is not closed, it causes weird IO issues when trying to delete the repository again
         // java.io.IOException: Unable to delete file: ...\.git\objects\pack\...
         repository.close();
         return repository;
     }
 
-    /**
-     * Creates one single zip archive containing all zipped repositories found under the given paths
-     *
-     * @param programmingExercise The programming exercise to which all repos belong to
-     * @param pathsToZippedRepos The paths to all zipped repositories
-     * @return
-     * @throws IOException
-     */
-    private File createZipWithAllRepositories(ProgrammingExercise programmingExercise, List<Path> pathsToZippedRepos) throws IOException {
-        log.debug("Create zip file for all repositories");
-        Path zipFilePath = Paths.get(pathsToZippedRepos.get(0).getParent().toString(), programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-"
-                + programmingExercise.getShortName() + "-" + System.currentTimeMillis() + ".zip");
-        zipFileService.createZipFile(zipFilePath, pathsToZippedRepos);
-        fileService.scheduleForDeletion(zipFilePath, 5);
-        return new File(zipFilePath.toString());
-    }
-
     /**
      * Deletes the locally checked out repository.
      *
@@ -0,0 +1,75 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExerciseTestCase;
+import de.tum.in.www1.artemis.domain.StaticCodeAnalysisCategory;
+import de.tum.in.www1.artemis.domain.StaticCodeAnalysisDefaultCategory;
+
+/**
+ * The information of a programming exercise that is needed to grade its results, i.e. the active test cases and the static code analysis categories. It is loaded once and can
+ * then be used to grade multiple results of the same exercise without loading the same information again for every result.
+ * <p>
+ * Note: The context is a snapshot, it has to be created again when the test cases or the static code analysis categories of the exercise change. The version is used to detect
+ * outdated contexts, see {@link ProgrammingExerciseGradingContextCache}.
+ */
+public class ProgrammingExerciseGradingContext {
+
+    private final long exerciseId;
+
+    private final long version;
+
+    private final long createdAt;
+
+    private final Set<ProgrammingExerciseTestCase> activeTestCases;
+
+    private final double activeTestCasesWeightSum;
+
+    private final Set<StaticCodeAnalysisCategory> staticCodeAnalysisCategories;
+
+    private final List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> staticCodeAnalysisCategoriesWithMapping;
+
+    public ProgrammingExerciseGradingContext(long exerciseId, long version, Set<ProgrammingExerciseTestCase> activeTestCases,
+            Set<StaticCodeAnalysisCategory> staticCodeAnalysisCategories,
+            List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> staticCodeAnalysisCategoriesWithMapping) {
+        this.exerciseId = exerciseId;
+        this.version = version;
+        this.createdAt = System.currentTimeMillis();
+        this.activeTestCases = Collections.unmodifiableSet(activeTestCases);
+        this.activeTestCasesWeightSum = activeTestCases.stream().mapToDouble(ProgrammingExerciseTestCase::getWeight).sum();
+        this.staticCodeAnalysisCategories = Collections.unmodifiableSet(staticCodeAnalysisCategories);
+        this.staticCodeAnalysisCategoriesWithMapping = Collections.unmodifiableList(staticCodeAnalysisCategoriesWithMapping);
+    }
+
+    public long getExerciseId() {
+        return exerciseId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Set<ProgrammingExerciseTestCase> getActiveTestCases() {
+        return activeTestCases;
+    }
+
+    public double getActiveTestCasesWeightSum() {
+        return activeTestCasesWeightSum;
+    }
+
+    public Set<StaticCodeAnalysisCategory> getStaticCodeAnalysisCategories() {
+        return staticCodeAnalysisCategories;
+    }
+
+    public List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> getStaticCodeAnalysisCategoriesWithMapping() {
+        return staticCodeAnalysisCategoriesWithMapping;
+    }
+}
@@ -0,0 +1,82 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Caches the grading contexts of programming exercises, so that the test cases and static code analysis categories do not have to be loaded for every new build result.
+ * <p>
+ * Every exercise has a version that is distributed between all instances by Hazelcast. The version is increased whenever the test cases or the static code analysis categories
+ * of the exercise change, which invalidates the cached grading contexts of the exercise on all instances. The grading contexts themselves are only cached locally and expire
+ * after a while, so that changes that were not made through the services are picked up eventually.
+ */
+@Service
+public class ProgrammingExerciseGradingContextCache {
+
+    private final Map<Long, Long> versions;
+
+    private final Map<Long, ProgrammingExerciseGradingContext> gradingContexts = new ConcurrentHashMap<>();
+
+    @Value("${artemis.programming-exercise.grading-context-expiration:600}")
+    private long expirationInSeconds;
+
+    public ProgrammingExerciseGradingContextCache(HazelcastInstance hazelcastInstance) {
+        // The map will automatically be distributed between all instances by Hazelcast.
+        versions = hazelcastInstance.getMap("programming-exercise-grading-context-versions");
+    }
+
+    /**
+     * Returns the current version of the grading information of the given exercise. The version has to be retrieved before the grading context is loaded.
+     *
+     * @param exerciseId the id of the programming exercise
+     * @return the current version
+     */
+    public long getVersion(long exerciseId) {
+        return versions.getOrDefault(exerciseId, 0L);
+    }
+
+    /**
+     * Returns the cached grading context of the given exercise if it is still up to date.
+     *
+     * @param exerciseId the id of the programming exercise
+     * @return the cached grading context or an empty optional if there is none or if it is outdated
+     */
+    public Optional<ProgrammingExerciseGradingContext> get(long exerciseId) {
+        ProgrammingExerciseGradingContext gradingContext = gradingContexts.get(exerciseId);
+        if (gradingContext == null) {
+            return Optional.empty();
+        }
+        if (gradingContext.getVersion() != getVersion(exerciseId) || System.currentTimeMillis() - gradingContext.getCreatedAt() > expirationInSeconds * 1000) {
+            gradingContexts.remove(exerciseId, gradingContext);
+            return Optional.empty();
+        }
+        return Optional.of(gradingContext);
+    }
+
+    /**
+     * Caches the given grading context, it replaces an older grading context of the same exercise.
+     *
+     * @param gradingContext the grading context that should be cached
+     */
+    public void put(ProgrammingExerciseGradingContext gradingContext) {
+        gradingContexts.merge(gradingContext.getExerciseId(), gradingContext,
+                (cachedContext, newContext) -> newContext.getVersion() >= cachedContext.getVersion() ? newContext : cachedContext);
+    }
+
+    /**
+     * Invalidates the cached grading contexts of the given exercise on all instances. Has to be called whenever the test cases or the static code analysis categories of the
+     * exercise change.
+     *
+     * @param exerciseId the id of the programming exercise
+     */
+    public void invalidate(long exerciseId) {
+        versions.merge(exerciseId, 1L, Long::sum);
+        gradingContexts.remove(exerciseId);
+    }
+}
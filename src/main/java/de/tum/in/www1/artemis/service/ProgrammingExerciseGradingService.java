@@ -2,15 +2,22 @@ package de.tum.in.www1.artemis.service;
 
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.jgit.lib.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -46,9 +53,25 @@ public class ProgrammingExerciseGradingService {
 
     private StaticCodeAnalysisService staticCodeAnalysisService;
 
+    private final ProgrammingExerciseGradingContextCache gradingContextCache;
+
+    private final PendingProgrammingSubmissionCache pendingSubmissionCache;
+
+    // ObjectMapper to extract the static code analysis issues from the feedback, it is thread-safe and can be shared
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${artemis.programming-exercise.re-evaluation.threads:4}")
+    private int reEvaluationThreads;
+
+    @Value("${artemis.programming-exercise.re-evaluation.chunk-size:100}")
+    private int reEvaluationChunkSize;
+
+    private ExecutorService reEvaluationExecutor;
+
     public ProgrammingExerciseGradingService(ProgrammingExerciseTestCaseService testCaseService, ProgrammingSubmissionService programmingSubmissionService,
             ParticipationService participationService, ResultRepository resultRepository, Optional<ContinuousIntegrationService> continuousIntegrationService,
-            SimpMessageSendingOperations messagingTemplate, StaticCodeAnalysisService staticCodeAnalysisService) {
+            SimpMessageSendingOperations messagingTemplate, StaticCodeAnalysisService staticCodeAnalysisService, ProgrammingExerciseGradingContextCache gradingContextCache,
+            PendingProgrammingSubmissionCache pendingSubmissionCache) {
         this.testCaseService = testCaseService;
         this.programmingSubmissionService = programmingSubmissionService;
         this.participationService = participationService;
@@ -56,6 +79,24 @@ public class ProgrammingExerciseGradingService {
         this.resultRepository = resultRepository;
         this.messagingTemplate = messagingTemplate;
         this.staticCodeAnalysisService = staticCodeAnalysisService;
+        this.gradingContextCache = gradingContextCache;
+        this.pendingSubmissionCache = pendingSubmissionCache;
+    }
+
+    /**
+     * Creates the executor for re-evaluating the results of an exercise
+     */
+    @PostConstruct
+    public void init() {
+        reEvaluationExecutor = Executors.newFixedThreadPool(Math.max(1, reEvaluationThreads), new CustomizableThreadFactory("programming-exercise-re-evaluation-"));
+    }
+
+    /**
+     * Shuts down the executor for re-evaluating the results of an exercise
+     */
+    @PreDestroy
+    public void destroy() {
+        reEvaluationExecutor.shutdownNow();
     }
 
     /**
@@ -67,6 +108,23 @@ public class ProgrammingExerciseGradingService {
      * @return result after compilation
      */
     public Optional<Result> processNewProgrammingExerciseResult(@NotNull Participation participation, @NotNull Object requestBody) {
+        return processNewProgrammingExerciseResult(participation, requestBody, null);
+    }
+
+    /**
+     * Use the given requestBody to extract the relevant information from it. Fetch and attach the result's feedback items to it. For programming exercises the test cases are
+     * extracted from the feedbacks & the result is updated with the information from the test cases.
+     * <p>
+     * The given grading context is used to grade the result, so that multiple results of the same exercise can be graded without loading the test cases and static code
+     * analysis categories again. For solution participations, the test cases might change, therefore the given grading context is never used for them.
+     *
+     * @param participation  the participation for which the build was finished
+     * @param requestBody    RequestBody containing the build result and its feedback items
+     * @param gradingContext the grading context of the exercise of the participation, if null (or for another exercise) the cached grading context is used
+     * @return result after compilation
+     */
+    public Optional<Result> processNewProgrammingExerciseResult(@NotNull Participation participation, @NotNull Object requestBody,
+            ProgrammingExerciseGradingContext gradingContext) {
         log.debug("Received new build result (NEW) for participation " + participation.getId());
 
         if (!(participation instanceof ProgrammingExerciseParticipation)) {
@@ -91,10 +149,18 @@ public class ProgrammingExerciseGradingService {
             // When the result is from a solution participation , extract the feedback items (= test cases) and store them in our database.
             if (isSolutionParticipation) {
                 extractTestCasesFromResult(programmingExercise, result);
+                gradingContext = null;
+            }
+            if (gradingContext == null || gradingContext.getExerciseId() != programmingExercise.getId()) {
+                gradingContext = getGradingContext(programmingExercise);
             }
-            result = updateResult(result, programmingExercise, !isSolutionParticipation && !isTemplateParticipation);
+            result = updateResult(result, programmingExercise, !isSolutionParticipation && !isTemplateParticipation, gradingContext);
             result = resultRepository.save(result);
             // workaround to prevent that result.submission suddenly turns into a proxy and cannot be used any more later after returning this method
+            if (!isSolutionParticipation && !isTemplateParticipation) {
+                // The submission of the result is not pending anymore.
+                pendingSubmissionCache.invalidate(programmingExercise.getId());
+            }
 
             // If the solution participation was updated, also trigger the template participation build.
             if (isSolutionParticipation) {
@@ -171,13 +237,49 @@ public class ProgrammingExerciseGradingService {
      * @return Result with updated feedbacks, score and result string.
      */
     public Result updateResult(Result result, ProgrammingExercise exercise, boolean isStudentParticipation) {
-        Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
+        return updateResult(result, exercise, isStudentParticipation, createGradingContext(exercise));
+    }
+
+    private Result updateResult(Result result, ProgrammingExercise exercise, boolean isStudentParticipation, ProgrammingExerciseGradingContext gradingContext) {
+        Set<ProgrammingExerciseTestCase> testCases = gradingContext.getActiveTestCases();
         Set<ProgrammingExerciseTestCase> testCasesForCurrentDate = testCases;
         // We don't filter the test cases for the solution/template participation's results as they are used as indicators for the instructor!
         if (isStudentParticipation) {
             testCasesForCurrentDate = filterTestCasesForCurrentDate(exercise, testCases);
         }
-        return updateResult(testCases, testCasesForCurrentDate, result, exercise);
+        return updateResult(testCases, testCasesForCurrentDate, result, exercise, gradingContext);
+    }
+
+    /**
+     * Returns the information that is needed to grade the results of the given exercise, i.e. the active test cases and the static code analysis categories. The grading
+     * context is cached until the test cases or the static code analysis categories of the exercise change.
+     *
+     * @param exercise the programming exercise whose results should be graded
+     * @return the (cached) grading context of the exercise
+     */
+    public ProgrammingExerciseGradingContext getGradingContext(ProgrammingExercise exercise) {
+        Optional<ProgrammingExerciseGradingContext> cachedGradingContext = gradingContextCache.get(exercise.getId());
+        if (cachedGradingContext.isPresent()) {
+            return cachedGradingContext.get();
+        }
+        ProgrammingExerciseGradingContext gradingContext = createGradingContext(exercise);
+        gradingContextCache.put(gradingContext);
+        return gradingContext;
+    }
+
+    /**
+     * Loads the information that is needed to grade the results of the given exercise from the database.
+     *
+     * @param exercise the programming exercise whose results should be graded
+     * @return the new grading context of the exercise
+     */
+    private ProgrammingExerciseGradingContext createGradingContext(ProgrammingExercise exercise) {
+        // the version has to be retrieved first, otherwise a concurrent change might not invalidate the loaded grading context
+        long version = gradingContextCache.getVersion(exercise.getId());
+        Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
+        Set<StaticCodeAnalysisCategory> categories = staticCodeAnalysisService.findByExerciseId(exercise.getId());
+        var categoriesWithMapping = staticCodeAnalysisService.getCategoriesWithMappingForExercise(exercise, categories);
+        return new ProgrammingExerciseGradingContext(exercise.getId(), version, testCases, categories, categoriesWithMapping);
     }
 
     /**
@@ -188,11 +290,17 @@ public class ProgrammingExerciseGradingService {
      *
      * If there are no test cases stored in the database for the given exercise (i.e. we have a legacy exercise) or the weight has not been changed, then the result will not change
      *
+     * The student results are graded in parallel in chunks. Grading does not access the database, all updated results are saved together afterwards, so that either all or
+     * none of them are changed if an error occurs.
+     *
      * @param exercise the exercise whose results should be updated
-     * @return the results of the exercise that have been updated
+     * @return the results of the exercise that have been updated and saved
      */
     public List<Result> updateAllResults(ProgrammingExercise exercise) {
-        Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
+        // always load the latest test cases and categories, the re-evaluation is usually triggered because they have changed
+        ProgrammingExerciseGradingContext gradingContext = createGradingContext(exercise);
+        gradingContextCache.put(gradingContext);
+        Set<ProgrammingExerciseTestCase> testCases = gradingContext.getActiveTestCases();
 
         ArrayList<Result> updatedResults = new ArrayList<>();
 
@@ -200,25 +308,41 @@ public class ProgrammingExerciseGradingService {
         Result solutionResult = exercise.getSolutionParticipation().findLatestResult();
         // template and solution are always updated using ALL test cases
         if (templateResult != null) {
-            updateResult(testCases, testCases, templateResult, exercise);
+            updateResult(testCases, testCases, templateResult, exercise, gradingContext);
             updatedResults.add(templateResult);
         }
         if (solutionResult != null) {
-            updateResult(testCases, testCases, solutionResult, exercise);
+            updateResult(testCases, testCases, solutionResult, exercise, gradingContext);
             updatedResults.add(solutionResult);
         }
+
         // filter the test cases for the student results if necessary
         Set<ProgrammingExerciseTestCase> testCasesForCurrentDate = filterTestCasesForCurrentDate(exercise, testCases);
         // We only update the latest automatic results here, later manual assessments are not affected
         List<StudentParticipation> participations = participationService.findByExerciseIdWithLatestAutomaticResultAndFeedbacks(exercise.getId());
-
-        for (StudentParticipation studentParticipation : participations) {
-            Result result = studentParticipation.findLatestResult();
-            if (result != null) {
-                updateResult(testCases, testCasesForCurrentDate, result, exercise);
-                updatedResults.add(result);
+        List<Result> studentResults = participations.stream().map(StudentParticipation::findLatestResult).filter(Objects::nonNull).collect(Collectors.toList());
+
+        int chunkSize = Math.max(1, reEvaluationChunkSize);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < studentResults.size(); from += chunkSize) {
+            List<Result> chunk = studentResults.subList(from, Math.min(from + chunkSize, studentResults.size()));
+            chunks.add(CompletableFuture.runAsync(() -> chunk.forEach(result -> updateResult(testCases, testCasesForCurrentDate, result, exercise, gradingContext)),
+                    reEvaluationExecutor));
+        }
+        try {
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        }
+        catch (CompletionException ex) {
+            // the chunks that are still running do not save anything, so the results in the database stay unchanged
+            chunks.forEach(chunk -> chunk.cancel(true));
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
             }
+            throw ex;
         }
+        updatedResults.addAll(studentResults);
+        updatedResults = new ArrayList<>(resultRepository.saveAll(updatedResults));
+        log.info("Updated " + updatedResults.size() + " results of programming exercise " + exercise.getId() + " graded in " + chunks.size() + " chunks");
         return updatedResults;
     }
 
@@ -235,10 +359,11 @@ public class ProgrammingExerciseGradingService {
      * @param testCasesForCurrentDate Test cases for the exercise for the current date
      * @param result The result to be updated
      * @param exercise The current exercise
+     * @param gradingContext The grading context of the current exercise
      * @return The updated result
      */
     private Result updateResult(Set<ProgrammingExerciseTestCase> testCases, Set<ProgrammingExerciseTestCase> testCasesForCurrentDate, @NotNull Result result,
-            ProgrammingExercise exercise) {
+            ProgrammingExercise exercise, ProgrammingExerciseGradingContext gradingContext) {
 
         // Distinguish between static code analysis feedback and test case feedback
         List<Feedback> testCaseFeedback = new ArrayList<>();
@@ -257,17 +382,20 @@ public class ProgrammingExerciseGradingService {
             // Remove feedbacks that the student should not see yet because of the due date.
             removeFeedbacksForAfterDueDateTests(result, testCasesForCurrentDate);
 
-            Set<ProgrammingExerciseTestCase> successfulTestCases = testCasesForCurrentDate.stream().filter(isSuccessful(result)).collect(Collectors.toSet());
+            Set<String> successfulTestNames = result.getFeedbacks().stream().filter(feedback -> feedback.getText() != null && Boolean.TRUE.equals(feedback.isPositive()))
+                    .map(Feedback::getText).collect(Collectors.toSet());
+            Set<ProgrammingExerciseTestCase> successfulTestCases = testCasesForCurrentDate.stream().filter(testCase -> successfulTestNames.contains(testCase.getTestName()))
+                    .collect(Collectors.toSet());
 
             // Add feedbacks for tests that were not executed ("test was not executed").
             createFeedbackForNotExecutedTests(result, testCasesForCurrentDate);
 
             // Remove feedback that is in an invisible sca category
-            staticCodeAnalysisFeedback = removeInvisibleScaFeedback(result, staticCodeAnalysisFeedback, exercise);
+            staticCodeAnalysisFeedback = removeInvisibleScaFeedback(result, staticCodeAnalysisFeedback, gradingContext);
 
             // Recalculate the achieved score by including the test cases individual weight.
             // The score is always calculated from ALL test cases, regardless of the current date!
-            updateScore(result, successfulTestCases, testCases, staticCodeAnalysisFeedback, exercise);
+            updateScore(result, successfulTestCases, staticCodeAnalysisFeedback, exercise, gradingContext);
 
             // Create a new result string that reflects passed, failed & not executed test cases.
             updateResultString(result, successfulTestCases, testCasesForCurrentDate);
@@ -287,7 +415,8 @@ public class ProgrammingExerciseGradingService {
      * @param allTests of the given programming exercise.
      */
     private void createFeedbackForNotExecutedTests(Result result, Set<ProgrammingExerciseTestCase> allTests) {
-        List<Feedback> feedbacksForNotExecutedTestCases = allTests.stream().filter(wasNotExecuted(result))
+        Set<String> executedTestNames = result.getFeedbacks().stream().map(Feedback::getText).collect(Collectors.toSet());
+        List<Feedback> feedbacksForNotExecutedTestCases = allTests.stream().filter(testCase -> !executedTestNames.contains(testCase.getTestName()))
                 .map(testCase -> new Feedback().type(FeedbackType.AUTOMATIC).text(testCase.getTestName()).detailText("Test was not executed.")).collect(Collectors.toList());
         result.addFeedbacks(feedbacksForNotExecutedTestCases);
     }
@@ -299,9 +428,9 @@ public class ProgrammingExerciseGradingService {
      */
     private void removeFeedbacksForAfterDueDateTests(Result result, Set<ProgrammingExerciseTestCase> testCasesForCurrentDate) {
         // Find feedback which is not associated with test cases for the current date. Does not remove static code analysis feedback
-        List<Feedback> feedbacksToFilterForCurrentDate = result.getFeedbacks().stream().filter(
-                feedback -> !feedback.isStaticCodeAnalysisFeedback() && testCasesForCurrentDate.stream().noneMatch(testCase -> testCase.getTestName().equals(feedback.getText())))
-                .collect(Collectors.toList());
+        Set<String> testNamesForCurrentDate = testCasesForCurrentDate.stream().map(ProgrammingExerciseTestCase::getTestName).collect(Collectors.toSet());
+        List<Feedback> feedbacksToFilterForCurrentDate = result.getFeedbacks().stream()
+                .filter(feedback -> !feedback.isStaticCodeAnalysisFeedback() && !testNamesForCurrentDate.contains(feedback.getText())).collect(Collectors.toList());
         feedbacksToFilterForCurrentDate.forEach(result::removeFeedback);
         // If there are no feedbacks left after filtering those not valid for the current date, also setHasFeedback to false.
         if (result.getFeedbacks().stream().noneMatch(feedback -> Boolean.FALSE.equals(feedback.isPositive())
@@ -317,21 +446,19 @@ public class ProgrammingExerciseGradingService {
      *
      * @param result of the build run
      * @param staticCodeAnalysisFeedback List of feedback objects
-     * @param programmingExercise The current exercise
+     * @param gradingContext The grading context of the current exercise
      * @return The filtered list of feedback objects
      */
-    private List<Feedback> removeInvisibleScaFeedback(Result result, List<Feedback> staticCodeAnalysisFeedback, ProgrammingExercise programmingExercise) {
-        var categoryPairs = staticCodeAnalysisService.getCategoriesWithMappingForExercise(programmingExercise);
+    private List<Feedback> removeInvisibleScaFeedback(Result result, List<Feedback> staticCodeAnalysisFeedback, ProgrammingExerciseGradingContext gradingContext) {
+        var categoryPairs = gradingContext.getStaticCodeAnalysisCategoriesWithMapping();
 
         return staticCodeAnalysisFeedback.stream().filter(feedback -> {
-            // ObjectMapper to extract the static code analysis issue from the feedback
-            ObjectMapper mapper = new ObjectMapper();
             // the category for this feedback
             Optional<StaticCodeAnalysisCategory> category = Optional.empty();
             try {
 
                 // extract the sca issue
-                var issue = mapper.readValue(feedback.getDetailText(), StaticCodeAnalysisReportDTO.StaticCodeAnalysisIssue.class);
+                var issue = objectMapper.readValue(feedback.getDetailText(), StaticCodeAnalysisReportDTO.StaticCodeAnalysisIssue.class);
 
                 // find the category for this issue
                 for (var categoryPair : categoryPairs) {
@@ -367,13 +494,20 @@ public class ProgrammingExerciseGradingService {
      *
      * @param result of the build run.
      * @param successfulTestCases test cases with positive feedback.
-     * @param allTests of a given programming exercise.
+     * @param gradingContext the grading context with all test cases of the given programming exercise.
      */
-    private void updateScore(Result result, Set<ProgrammingExerciseTestCase> successfulTestCases, Set<ProgrammingExerciseTestCase> allTests,
-            List<Feedback> staticCodeAnalysisFeedback, ProgrammingExercise programmingExercise) {
+    private void updateScore(Result result, Set<ProgrammingExerciseTestCase> successfulTestCases, List<Feedback> staticCodeAnalysisFeedback,
+            ProgrammingExercise programmingExercise, ProgrammingExerciseGradingContext gradingContext) {
         if (successfulTestCases.size() > 0) {
 
-            double weightSum = allTests.stream().mapToDouble(ProgrammingExerciseTestCase::getWeight).sum();
+            double weightSum = gradingContext.getActiveTestCasesWeightSum();
+            // the first feedback of every test
+            Map<String, Feedback> feedbackByText = new HashMap<>();
+            for (Feedback feedback : result.getFeedbacks()) {
+                if (feedback.getText() != null) {
+                    feedbackByText.putIfAbsent(feedback.getText(), feedback);
+                }
+            }
 
             // calculate the achieved points from the passed test cases
             double successfulTestPoints = successfulTestCases.stream().mapToDouble(test -> {
@@ -381,7 +515,10 @@ public class ProgrammingExerciseGradingService {
                 double testPoints = testWeight / weightSum * programmingExercise.getMaxScore();
                 double testPointsWithBonus = testPoints + test.getBonusPoints();
                 // update credits of related feedback
-                result.getFeedbacks().stream().filter(fb -> fb.getText().equals(test.getTestName())).findFirst().ifPresent(feedback -> feedback.setCredits(testPointsWithBonus));
+                Feedback feedback = feedbackByText.get(test.getTestName());
+                if (feedback != null) {
+                    feedback.setCredits(testPointsWithBonus);
+                }
                 return testPointsWithBonus;
             }).sum();
 
@@ -400,7 +537,7 @@ public class ProgrammingExerciseGradingService {
             // if static code analysis is enabled, reduce the points by the calculated penalty
             if (Boolean.TRUE.equals(programmingExercise.isStaticCodeAnalysisEnabled())
                     && Optional.ofNullable(programmingExercise.getMaxStaticCodeAnalysisPenalty()).orElse(1) > 0) {
-                successfulTestPoints -= calculateStaticCodeAnalysisPenalty(staticCodeAnalysisFeedback, programmingExercise);
+                successfulTestPoints -= calculateStaticCodeAnalysisPenalty(staticCodeAnalysisFeedback, programmingExercise, gradingContext);
 
                 if (successfulTestPoints < 0) {
                     successfulTestPoints = 0;
@@ -421,16 +558,18 @@ public class ProgrammingExerciseGradingService {
      * Calculates the total penalty over all static code analysis issues
      * @param staticCodeAnalysisFeedback The list of static code analysis feedback
      * @param programmingExercise The current exercise
+     * @param gradingContext The grading context of the current exercise
      * @return The sum of all penalties, capped at the maximum allowed penalty
      */
-    private double calculateStaticCodeAnalysisPenalty(List<Feedback> staticCodeAnalysisFeedback, ProgrammingExercise programmingExercise) {
+    private double calculateStaticCodeAnalysisPenalty(List<Feedback> staticCodeAnalysisFeedback, ProgrammingExercise programmingExercise,
+            ProgrammingExerciseGradingContext gradingContext) {
 
         double codeAnalysisPenaltyPoints = 0;
 
         var feedbackByCategory = staticCodeAnalysisFeedback.stream()
                 .collect(Collectors.groupingBy(feedback -> feedback.getText().substring(Feedback.STATIC_CODE_ANALYSIS_FEEDBACK_IDENTIFIER.length())));
 
-        for (var category : staticCodeAnalysisService.findByExerciseId(programmingExercise.getId())) {
+        for (var category : gradingContext.getStaticCodeAnalysisCategories()) {
 
             if (!category.getState().equals(CategoryState.GRADED)) {
                 continue;
@@ -494,23 +633,4 @@ public class ProgrammingExerciseGradingService {
         result.setResultString("0 of 0 passed");
     }
 
-    /**
-     * Check if the provided test was found in the result's feedbacks with positive = true.
-     * @param result of the build run.
-     * @return true if there is a positive feedback for a given test.
-     */
-    private Predicate<ProgrammingExerciseTestCase> isSuccessful(Result result) {
-        return testCase -> result.getFeedbacks().stream()
-                .anyMatch(feedback -> feedback.getText() != null && feedback.getText().equals(testCase.getTestName()) && Boolean.TRUE.equals(feedback.isPositive()));
-    }
-
-    /**
-     * Check if the provided test was not found in the result's feedbacks.
-     * @param result of the build run.
-     * @return true if there is no feedback for a given test.
-     */
-    private Predicate<ProgrammingExerciseTestCase> wasNotExecuted(Result result) {
-        return testCase -> result.getFeedbacks().stream().noneMatch(feedback -> feedback.getText().equals(testCase.getTestName()));
-    }
-
 }
@@ -138,6 +138,10 @@ public class ProgrammingExerciseParticipationService {
         return studentParticipationRepository.findByExerciseId(exerciseId);
     }
 
+    public Set<Long> findIdsByExerciseId(Long exerciseId) {
+        return studentParticipationRepository.findIdsByExerciseId(exerciseId);
+    }
+
     public Optional<ProgrammingExerciseStudentParticipation> findByExerciseIdAndTeamId(Long exerciseId, Long teamId) {
         return studentParticipationRepository.findByExerciseIdAndTeamId(exerciseId, teamId);
     }
@@ -0,0 +1,366 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.enumeration.BuildPlanType;
+import de.tum.in.www1.artemis.domain.participation.*;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.connectors.LtiService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Processes the build results that the CI system sends to Artemis.
+ * <p>
+ * If the asynchronous processing is enabled, the results are only put into a distributed queue when they are received, so that the CI system gets an immediate response
+ * even if many builds finish at the same time (e.g. at the due date of an exercise). The results are partitioned by the project key of their build plan, so that all results of
+ * an exercise end up in the same queue. Every instance polls all queues and grades the results in batches: the results of the same exercise within a batch share the grading
+ * context, i.e. the test cases and static code analysis categories are only loaded once per batch.
+ * <p>
+ * A result that cannot be processed is put back into its queue and retried up to {@code result-queue.max-attempts} times, afterwards it is moved to the dead letter queue
+ * {@value #DEAD_LETTER_QUEUE_NAME}. The queues are only kept in the memory of the cluster: the CI system is not notified again, so results that are queued or in processing
+ * are lost if the whole cluster (or a single instance without backups) goes down. This is why the asynchronous processing is disabled by default.
+ */
+@Service
+public class ProgrammingExerciseResultQueueService {
+
+    private static final String QUEUE_NAME_PREFIX = "programming-exercise-results-";
+
+    static final String DEAD_LETTER_QUEUE_NAME = "programming-exercise-results-dead-letter";
+
+    private static final long POLL_TIMEOUT_SECONDS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseResultQueueService.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ParticipationService participationService;
+
+    private final ProgrammingExerciseGradingService programmingExerciseGradingService;
+
+    private final WebsocketMessagingService messagingService;
+
+    private final LtiService ltiService;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter processedCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer latencyTimer;
+
+    @Value("${artemis.continuous-integration.async-result-processing:false}")
+    private boolean asyncResultProcessing;
+
+    @Value("${artemis.continuous-integration.result-queue.partitions:4}")
+    private int partitions;
+
+    @Value("${artemis.continuous-integration.result-queue.batch-size:20}")
+    private int batchSize;
+
+    @Value("${artemis.continuous-integration.result-queue.max-attempts:3}")
+    private int maxAttempts;
+
+    private final List<IQueue<QueuedResult>> queues = new ArrayList<>();
+
+    private IQueue<QueuedResult> deadLetterQueue;
+
+    private ExecutorService executor;
+
+    public ProgrammingExerciseResultQueueService(ParticipationService participationService, ProgrammingExerciseGradingService programmingExerciseGradingService,
+            WebsocketMessagingService messagingService, LtiService ltiService, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.participationService = participationService;
+        this.programmingExerciseGradingService = programmingExerciseGradingService;
+        this.messagingService = messagingService;
+        this.ltiService = ltiService;
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+        this.processedCounter = Counter.builder("artemis.programming.results.processed").description("Number of processed build results").register(meterRegistry);
+        this.retriedCounter = Counter.builder("artemis.programming.results.retried").description("Number of build results that were put back into their queue after an error")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("artemis.programming.results.failed").description("Number of build results that were moved to the dead letter queue")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("artemis.programming.results.latency").description("Time between receiving a build result and the end of its processing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts one worker per queue if the asynchronous processing of build results is enabled
+     */
+    @PostConstruct
+    public void init() {
+        if (!asyncResultProcessing) {
+            return;
+        }
+        partitions = Math.max(1, partitions);
+        batchSize = Math.max(1, batchSize);
+        maxAttempts = Math.max(1, maxAttempts);
+        for (int partition = 0; partition < partitions; partition++) {
+            queues.add(hazelcastInstance.getQueue(QUEUE_NAME_PREFIX + partition));
+        }
+        deadLetterQueue = hazelcastInstance.getQueue(DEAD_LETTER_QUEUE_NAME);
+        Gauge.builder("artemis.programming.results.queued", queues, queues -> queues.stream().mapToInt(IQueue::size).sum())
+                .description("Number of build results waiting in the queues to be processed").register(meterRegistry);
+
+        executor = Executors.newFixedThreadPool(partitions, new CustomizableThreadFactory("programming-exercise-results-"));
+        for (IQueue<QueuedResult> queue : queues) {
+            executor.submit(() -> processQueue(queue));
+        }
+        log.info("Started asynchronous processing of build results with " + partitions + " queues");
+    }
+
+    /**
+     * Stops the workers, results that were not processed yet stay in the queues or are put back into them
+     */
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if the build results should be put into the queues instead of processing them immediately
+     */
+    public boolean isAsyncResultProcessing() {
+        return asyncResultProcessing;
+    }
+
+    /**
+     * Puts the build result into the queue of the project of the build plan, it will be processed by the next free worker of the queue.
+     *
+     * @param planKey     the key of the build plan of the build result
+     * @param requestBody the build result as it was sent by the CI system
+     * @throws JsonProcessingException if the build result cannot be serialized
+     */
+    public void enqueue(String planKey, Object requestBody) throws JsonProcessingException {
+        QueuedResult queuedResult = new QueuedResult(planKey, objectMapper.writeValueAsString(requestBody), System.currentTimeMillis(), 0);
+        queues.get(getPartition(planKey)).add(queuedResult);
+    }
+
+    /**
+     * Grades the build result of the participation with the given build plan and notifies the participant about the new result.
+     *
+     * @param planKey         the key of the build plan of the build result
+     * @param requestBody     the build result as it was sent by the CI system
+     * @param gradingContexts the grading contexts that can be reused mapped by the id of their exercise, a new grading context is added if there is none for the exercise yet
+     * @return false if there is no participation for the build plan, true otherwise
+     */
+    public boolean processResult(String planKey, Object requestBody, Map<Long, ProgrammingExerciseGradingContext> gradingContexts) {
+        // Try to retrieve the participation with the build plan key.
+        Optional<ProgrammingExerciseParticipation> optionalParticipation = getParticipationWithResults(planKey);
+        if (optionalParticipation.isEmpty()) {
+            log.warn("Participation is missing for notifyResultNew (PlanKey: {}).", planKey);
+            return false;
+        }
+
+        ProgrammingExerciseParticipation participation = optionalParticipation.get();
+        ProgrammingExercise exercise = participation.getProgrammingExercise();
+        ProgrammingExerciseGradingContext gradingContext = null;
+        if (participation instanceof SolutionProgrammingExerciseParticipation) {
+            // a new solution result might change the test cases, the grading service creates a new grading context after updating them
+            gradingContexts.remove(exercise.getId());
+        }
+        else {
+            gradingContext = gradingContexts.computeIfAbsent(exercise.getId(), exerciseId -> programmingExerciseGradingService.getGradingContext(exercise));
+        }
+        // Process the new result from the build result.
+        Optional<Result> result = programmingExerciseGradingService.processNewProgrammingExerciseResult((Participation) participation, requestBody, gradingContext);
+
+        // Only notify the user about the new result if the result was created successfully.
+        if (result.isPresent()) {
+            log.debug("Send result to client over websocket. Result: {}, Submission: {}, Participation: {}", result.get(), result.get().getSubmission(),
+                    result.get().getParticipation());
+            // notify user via websocket
+            messagingService.broadcastNewResult((Participation) participation, result.get());
+
+            // TODO: can we avoid to invoke this code for non LTI students? (to improve performance)
+            // if (participation.isLti()) {
+            // }
+            // handles new results and sends them to LTI consumers
+            if (participation instanceof ProgrammingExerciseStudentParticipation) {
+                ltiService.onNewResult((ProgrammingExerciseStudentParticipation) participation);
+            }
+            log.info("The new result for {} was saved successfully", planKey);
+        }
+        return true;
+    }
+
+    private void processQueue(IQueue<QueuedResult> queue) {
+        // The 'user' is not properly logged into Artemis, this leads to an issue when accessing custom repository methods.
+        // Therefore a mock auth object has to be created.
+        SecurityUtils.setAuthorizationObject();
+        List<QueuedResult> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                QueuedResult first = queue.poll(POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(queue, batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (Exception e) {
+                // e.g. the Hazelcast instance is not available, the worker has to continue anyway
+                log.error("Error while polling the build result queue " + queue.getName(), e);
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Processes the results that were taken from the given queue. Results that cause an error are put back into the queue until they reach the maximum number of attempts,
+     * afterwards they are moved to the dead letter queue. If the worker is interrupted, the results that were not processed yet are put back into the queue.
+     *
+     * @param queue the queue from which the results were taken
+     * @param batch the results that were taken from the queue
+     */
+    void processBatch(IQueue<QueuedResult> queue, List<QueuedResult> batch) {
+        // the results of the same exercise within a batch share the grading context
+        Map<Long, ProgrammingExerciseGradingContext> gradingContexts = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                queue.addAll(batch.subList(i, batch.size()));
+                log.info("Put " + (batch.size() - i) + " unprocessed build results back into the queue " + queue.getName());
+                return;
+            }
+            QueuedResult queuedResult = batch.get(i);
+            try {
+                Object requestBody = objectMapper.readValue(queuedResult.requestBody, Object.class);
+                processResult(queuedResult.planKey, requestBody, gradingContexts);
+                processedCounter.increment();
+                latencyTimer.record(System.currentTimeMillis() - queuedResult.receivedAt, TimeUnit.MILLISECONDS);
+            }
+            catch (Exception e) {
+                // the grading contexts might be outdated if the error was caused by a concurrent change of the exercise
+                gradingContexts.clear();
+                QueuedResult retry = queuedResult.nextAttempt();
+                if (retry.attempts < maxAttempts) {
+                    retriedCounter.increment();
+                    queue.add(retry);
+                    log.warn("Error while processing the build result for build plan " + queuedResult.planKey + ", attempt " + retry.attempts + " of " + maxAttempts, e);
+                }
+                else {
+                    failedCounter.increment();
+                    deadLetterQueue.add(retry);
+                    log.error("Error while processing the build result for build plan " + queuedResult.planKey + ", moved it to the queue " + DEAD_LETTER_QUEUE_NAME, e);
+                }
+            }
+        }
+    }
+
+    private int getPartition(String planKey) {
+        return Math.floorMod(getProjectKey(planKey).hashCode(), queues.size());
+    }
+
+    /**
+     * The build plan key has the format PROJECTKEY-PLANNAME, the project key is the same for all build plans of an exercise
+     */
+    private static String getProjectKey(String planKey) {
+        int separator = planKey.indexOf('-');
+        return separator < 0 ? planKey : planKey.substring(0, separator);
+    }
+
+    private Optional<ProgrammingExerciseParticipation> getParticipationWithResults(String planKey) {
+        // we have to support template, solution and student build plans here
+        if (planKey.contains(BuildPlanType.TEMPLATE.getName())) {
+            Optional<TemplateProgrammingExerciseParticipation> templateParticipation = participationService.findTemplateParticipationByBuildPlanId(planKey);
+            // we have to convert the optional type here to make Java happy
+            if (templateParticipation.isPresent()) {
+                return Optional.of(templateParticipation.get());
+            }
+            else {
+                return Optional.empty();
+            }
+        }
+        else if (planKey.contains(BuildPlanType.SOLUTION.getName())) {
+            Optional<SolutionProgrammingExerciseParticipation> solutionParticipation = participationService.findSolutionParticipationByBuildPlanId(planKey);
+            // we have to convert the optional type here to make Java happy
+            if (solutionParticipation.isPresent()) {
+                return Optional.of(solutionParticipation.get());
+            }
+            else {
+                return Optional.empty();
+            }
+        }
+        List<ProgrammingExerciseStudentParticipation> participations = participationService.findByBuildPlanIdWithEagerResults(planKey);
+        Optional<ProgrammingExerciseStudentParticipation> participation = Optional.empty();
+        if (participations.size() > 0) {
+            participation = Optional.of(participations.get(0));
+            if (participations.size() > 1) {
+                // in the rare case of multiple participations, take the latest one.
+                for (ProgrammingExerciseStudentParticipation otherParticipation : participations) {
+                    if (otherParticipation.getInitializationDate().isAfter(participation.get().getInitializationDate())) {
+                        participation = Optional.of(otherParticipation);
+                    }
+                }
+            }
+        }
+
+        // we have to convert the optional type here to make Java happy
+        if (participation.isPresent()) {
+            return Optional.of(participation.get());
+        }
+        else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A build result in the queue, the request body is stored as JSON string, so that it can be distributed in the cluster independent of its type
+     */
+    static class QueuedResult implements Serializable {
+
+        final String planKey;
+
+        final String requestBody;
+
+        final long receivedAt;
+
+        final int attempts;
+
+        QueuedResult(String planKey, String requestBody, long receivedAt, int attempts) {
+            this.planKey = planKey;
+            this.requestBody = requestBody;
+            this.receivedAt = receivedAt;
+            this.attempts = attempts;
+        }
+
+        QueuedResult nextAttempt() {
+            return new QueuedResult(planKey, requestBody, receivedAt, attempts + 1);
+        }
+    }
+}
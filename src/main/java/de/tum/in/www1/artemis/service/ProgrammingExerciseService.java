@@ -79,12 +79,14 @@ public class ProgrammingExerciseService {
 
     private final InstanceMessageSendService instanceMessageSendService;
 
+    private final ExamExerciseCache examExerciseCache;
+
     public ProgrammingExerciseService(ProgrammingExerciseRepository programmingExerciseRepository, FileService fileService, GitService gitService,
             Optional<VersionControlService> versionControlService, Optional<ContinuousIntegrationService> continuousIntegrationService,
             TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository,
             SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository, ParticipationService participationService,
             ResultRepository resultRepository, UserService userService, AuthorizationCheckService authCheckService, ResourceLoader resourceLoader,
-            GroupNotificationService groupNotificationService, InstanceMessageSendService instanceMessageSendService) {
+            GroupNotificationService groupNotificationService, InstanceMessageSendService instanceMessageSendService, ExamExerciseCache examExerciseCache) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.fileService = fileService;
         this.gitService = gitService;
@@ -99,6 +101,7 @@ public class ProgrammingExerciseService {
         this.resourceLoader = resourceLoader;
         this.groupNotificationService = groupNotificationService;
         this.instanceMessageSendService = instanceMessageSendService;
+        this.examExerciseCache = examExerciseCache;
     }
 
     /**
@@ -263,6 +266,7 @@ public class ProgrammingExerciseService {
      */
     public ProgrammingExercise updateProgrammingExercise(ProgrammingExercise programmingExercise, @Nullable String notificationText) {
         ProgrammingExercise savedProgrammingExercise = programmingExerciseRepository.save(programmingExercise);
+        examExerciseCache.invalidateExercise(savedProgrammingExercise);
 
         scheduleOperations(programmingExercise.getId());
 
@@ -579,6 +583,7 @@ public class ProgrammingExerciseService {
         }
         programmingExercise.setProblemStatement(problemStatement);
         ProgrammingExercise updatedProgrammingExercise = programmingExerciseRepository.save(programmingExercise);
+        examExerciseCache.invalidateExercise(updatedProgrammingExercise);
         if (notificationText != null) {
             groupNotificationService.notifyStudentGroupAboutExerciseUpdate(updatedProgrammingExercise, notificationText);
         }
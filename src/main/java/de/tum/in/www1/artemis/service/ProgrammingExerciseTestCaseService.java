@@ -21,11 +21,14 @@ public class ProgrammingExerciseTestCaseService {
 
     private final ProgrammingSubmissionService programmingSubmissionService;
 
+    private final ProgrammingExerciseGradingContextCache gradingContextCache;
+
     public ProgrammingExerciseTestCaseService(ProgrammingExerciseTestCaseRepository testCaseRepository, ProgrammingExerciseService programmingExerciseService,
-            ProgrammingSubmissionService programmingSubmissionService) {
+            ProgrammingSubmissionService programmingSubmissionService, ProgrammingExerciseGradingContextCache gradingContextCache) {
         this.testCaseRepository = testCaseRepository;
         this.programmingExerciseService = programmingExerciseService;
         this.programmingSubmissionService = programmingSubmissionService;
+        this.gradingContextCache = gradingContextCache;
     }
 
     /**
@@ -78,6 +81,7 @@ public class ProgrammingExerciseTestCaseService {
             updatedTests.add(matchingTestCase);
         }
         testCaseRepository.saveAll(updatedTests);
+        gradingContextCache.invalidate(exerciseId);
         // At least one test was updated with a new weight or runAfterDueDate flag. We use this flag to inform the instructor about outdated student results.
         programmingSubmissionService.setTestCasesChangedAndTriggerTestCaseUpdate(exerciseId);
         return updatedTests;
@@ -97,6 +101,7 @@ public class ProgrammingExerciseTestCaseService {
             testCase.setBonusPoints(0.0);
         }
         List<ProgrammingExerciseTestCase> updatedTestCases = testCaseRepository.saveAll(testCases);
+        gradingContextCache.invalidate(exerciseId);
         // The tests' weights were updated. We use this flag to inform the instructor about outdated student results.
         programmingSubmissionService.setTestCasesChangedAndTriggerTestCaseUpdate(exerciseId);
         return updatedTestCases;
@@ -132,6 +137,7 @@ public class ProgrammingExerciseTestCaseService {
 
         if (testCasesToSave.size() > 0) {
             testCaseRepository.saveAll(testCasesToSave);
+            gradingContextCache.invalidate(exercise.getId());
             return true;
         }
         return false;
@@ -66,12 +66,17 @@ public class ProgrammingSubmissionService extends SubmissionService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
+    private final ProgrammingExerciseBuildTriggerService programmingExerciseBuildTriggerService;
+
+    private final PendingProgrammingSubmissionCache pendingSubmissionCache;
+
     public ProgrammingSubmissionService(ProgrammingSubmissionRepository programmingSubmissionRepository, ProgrammingExerciseRepository programmingExerciseRepository,
             GroupNotificationService groupNotificationService, SubmissionRepository submissionRepository, UserService userService, AuthorizationCheckService authCheckService,
             WebsocketMessagingService websocketMessagingService, Optional<VersionControlService> versionControlService, ResultRepository resultRepository,
             Optional<ContinuousIntegrationService> continuousIntegrationService, ParticipationService participationService, SimpMessageSendingOperations messagingTemplate,
             ProgrammingExerciseParticipationService programmingExerciseParticipationService, GitService gitService, StudentParticipationRepository studentParticipationRepository,
-            CourseService courseService, ExamService examService) {
+            CourseService courseService, ExamService examService, ProgrammingExerciseBuildTriggerService programmingExerciseBuildTriggerService,
+            PendingProgrammingSubmissionCache pendingSubmissionCache) {
         super(submissionRepository, userService, authCheckService, courseService, resultRepository, examService, studentParticipationRepository, participationService);
         this.programmingSubmissionRepository = programmingSubmissionRepository;
         this.programmingExerciseRepository = programmingExerciseRepository;
@@ -84,6 +89,8 @@ public class ProgrammingSubmissionService extends SubmissionService {
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
         this.gitService = gitService;
         this.resultRepository = resultRepository;
+        this.programmingExerciseBuildTriggerService = programmingExerciseBuildTriggerService;
+        this.pendingSubmissionCache = pendingSubmissionCache;
     }
 
     /**
@@ -163,6 +170,7 @@ public class ProgrammingSubmissionService extends SubmissionService {
         programmingExerciseParticipation.addSubmissions(programmingSubmission);
 
         programmingSubmission = programmingSubmissionRepository.save(programmingSubmission);
+        invalidatePendingSubmissions(programmingExerciseParticipation);
         // NOTE: we don't need to save the participation here, this might lead to concurrency problems when doing the empty commit during resume exercise!
         return programmingSubmission;
     }
@@ -195,12 +203,26 @@ public class ProgrammingSubmissionService extends SubmissionService {
      * @return a Map of {[participationId]: ProgrammingSubmission | null}. Will contain an entry for every student participation of the exercise and a submission object if a pending submission exists or null if not.
      */
     public Map<Long, Optional<ProgrammingSubmission>> getLatestPendingSubmissionsForProgrammingExercise(Long programmingExerciseId) {
-        List<ProgrammingExerciseStudentParticipation> participations = programmingExerciseParticipationService.findByExerciseId(programmingExerciseId);
-        return participations.stream().collect(Collectors.toMap(Participation::getId, p -> findLatestPendingSubmissionForParticipation(p.getId())));
-    }
-
-    private Optional<ProgrammingSubmission> findLatestPendingSubmissionForParticipation(final long participationId) {
-        return findLatestPendingSubmissionForParticipation(participationId, false);
+        Optional<Map<Long, Optional<ProgrammingSubmission>>> cachedPendingSubmissions = pendingSubmissionCache.get(programmingExerciseId);
+        if (cachedPendingSubmissions.isPresent()) {
+            return cachedPendingSubmissions.get();
+        }
+        // The version has to be retrieved first, so that submissions and results that are created while loading invalidate the loaded pending submissions.
+        long version = pendingSubmissionCache.getVersion(programmingExerciseId);
+        Map<Long, Optional<ProgrammingSubmission>> pendingSubmissions = new HashMap<>();
+        programmingExerciseParticipationService.findIdsByExerciseId(programmingExerciseId).forEach(participationId -> pendingSubmissions.put(participationId, Optional.empty()));
+        for (ProgrammingSubmission submission : programmingSubmissionRepository.findLatestPendingSubmissionsByExerciseId(programmingExerciseId)) {
+            Long participationId = submission.getParticipation().getId();
+            // Only student participations are considered, if two submissions have the same submission date, the one that was created last is used.
+            if (pendingSubmissions.containsKey(participationId)
+                    && pendingSubmissions.get(participationId).map(pendingSubmission -> pendingSubmission.getId() < submission.getId()).orElse(true)) {
+                pendingSubmissions.put(participationId, Optional.of(submission));
+            }
+        }
+        // Remove the participation, it is not needed by the clients and the submissions are shared between all requests until they are invalidated.
+        pendingSubmissions.values().forEach(submission -> submission.ifPresent(pendingSubmission -> pendingSubmission.setParticipation(null)));
+        pendingSubmissionCache.put(programmingExerciseId, version, pendingSubmissions);
+        return pendingSubmissions;
     }
 
     private Optional<ProgrammingSubmission> findLatestPendingSubmissionForParticipation(final long participationId, final boolean isGraded) {
@@ -218,7 +240,7 @@ public class ProgrammingSubmissionService extends SubmissionService {
      * Trigger the CI of all student participations and the template participation of the given exercise.
      * The build result will become rated regardless of the due date as the submission type is INSTRUCTOR.
      *
-     * The method is async because it would timeout a calling resource method.
+     * The method is async because it would timeout a calling resource method. The builds themselves are triggered by the {@link ProgrammingExerciseBuildTriggerService}.
      *
      * @param exerciseId to identify the programming exercise.
      * @throws EntityNotFoundException if there is no programming exercise for the given exercise id.
@@ -237,25 +259,19 @@ public class ProgrammingSubmissionService extends SubmissionService {
         // Let the instructor know that a build run was triggered.
         notifyInstructorAboutStartedExerciseBuildRun(programmingExercise);
         List<ProgrammingExerciseParticipation> participations = new LinkedList<>(programmingExerciseParticipationService.findByExerciseId(exerciseId));
+        // The builds are triggered in the background with a limited rate, the build run is completed by the build trigger service once all builds were triggered.
+        programmingExerciseBuildTriggerService.startBuildRun(programmingExercise.getId(), participations);
+    }
 
-        var index = 0;
-        for (var participation : participations) {
-            // Execute requests in batches instead all at once.
-            if (index > 0 && index % EXTERNAL_SYSTEM_REQUEST_BATCH_SIZE == 0) {
-                try {
-                    log.info("Sleep for {}s during triggerBuild", EXTERNAL_SYSTEM_REQUEST_BATCH_WAIT_TIME_MS / 1000);
-                    Thread.sleep(EXTERNAL_SYSTEM_REQUEST_BATCH_WAIT_TIME_MS);
-                }
-                catch (InterruptedException ex) {
-                    log.error("Exception encountered when pausing before executing successive build for participation " + participation.getId(), ex);
-                }
-            }
-            triggerBuildAndNotifyUser(participation);
-            index++;
-        }
-
+    /**
+     * Completes the instructor build run of the given exercise: the exercise is not considered 'dirty' anymore and the instructor is notified that the build run is finished.
+     *
+     * @param exerciseId to identify the programming exercise.
+     * @throws EntityNotFoundException if there is no programming exercise for the given exercise id.
+     */
+    public void completeInstructorBuildRun(Long exerciseId) throws EntityNotFoundException {
         // When the instructor build was triggered for the programming exercise, it is not considered 'dirty' anymore.
-        setTestCasesChanged(programmingExercise.getId(), false);
+        ProgrammingExercise programmingExercise = setTestCasesChanged(exerciseId, false);
         // Let the instructor know that the build run is finished.
         notifyInstructorAboutCompletedExerciseBuildRun(programmingExercise);
     }
@@ -351,7 +367,16 @@ public class ProgrammingSubmissionService extends SubmissionService {
         ProgrammingSubmission newSubmission = (ProgrammingSubmission) new ProgrammingSubmission().commitHash(commitHash.getName()).submitted(true)
                 .submissionDate(ZonedDateTime.now()).type(submissionType);
         newSubmission.setParticipation((Participation) participation);
-        return programmingSubmissionRepository.saveAndFlush(newSubmission);
+        newSubmission = programmingSubmissionRepository.saveAndFlush(newSubmission);
+        invalidatePendingSubmissions(participation);
+        return newSubmission;
+    }
+
+    private void invalidatePendingSubmissions(ProgrammingExerciseParticipation participation) {
+        // Only the pending submissions of student participations are cached.
+        if (participation instanceof ProgrammingExerciseStudentParticipation && ((Participation) participation).getExercise() != null) {
+            pendingSubmissionCache.invalidate(((Participation) participation).getExercise().getId());
+        }
     }
 
     /**
@@ -397,24 +422,47 @@ public class ProgrammingSubmissionService extends SubmissionService {
      * @param submission ProgrammingSubmission that was just created.
      */
     public void triggerBuildAndNotifyUser(ProgrammingSubmission submission) {
-        var programmingExerciseParticipation = (ProgrammingExerciseParticipation) submission.getParticipation();
         try {
-            if (programmingExerciseParticipation instanceof ProgrammingExerciseStudentParticipation && (programmingExerciseParticipation.getBuildPlanId() == null
-                    || !programmingExerciseParticipation.getInitializationState().hasCompletedState(InitializationState.INITIALIZED))) {
-                // in this case, we first have to resume the exercise: this includes that we again setup the build plan properly before we trigger it
-                participationService.resumeExercise((ProgrammingExerciseStudentParticipation) programmingExerciseParticipation);
-                // Note: in this case we do not need an empty commit: when we trigger the build manually (below), subsequent commits will work correctly
-            }
-            continuousIntegrationService.get().triggerBuild(programmingExerciseParticipation);
+            triggerBuild(submission);
             notifyUserAboutSubmission(submission);
         }
         catch (Exception e) {
-            log.error("Trigger build failed for " + programmingExerciseParticipation.getBuildPlanId() + " with the exception " + e.getMessage());
-            BuildTriggerWebsocketError error = new BuildTriggerWebsocketError(e.getMessage(), submission.getParticipation().getId());
-            notifyUserAboutSubmissionError(submission, error);
+            notifyUserAboutBuildTriggerError(submission, e);
         }
     }
 
+    /**
+     * Triggers a build on the CI system for the participation of the given submission without notifying the user.
+     *
+     * Note: This call "resumes the exercise", i.e. re-creates the build plan if the build plan was already cleaned before
+     *
+     * @param submission ProgrammingSubmission that was just created.
+     * @throws HttpException if the communication with the CI failed.
+     */
+    public void triggerBuild(ProgrammingSubmission submission) throws HttpException {
+        var programmingExerciseParticipation = (ProgrammingExerciseParticipation) submission.getParticipation();
+        if (programmingExerciseParticipation instanceof ProgrammingExerciseStudentParticipation && (programmingExerciseParticipation.getBuildPlanId() == null
+                || !programmingExerciseParticipation.getInitializationState().hasCompletedState(InitializationState.INITIALIZED))) {
+            // in this case, we first have to resume the exercise: this includes that we again setup the build plan properly before we trigger it
+            participationService.resumeExercise((ProgrammingExerciseStudentParticipation) programmingExerciseParticipation);
+            // Note: in this case we do not need an empty commit: when we trigger the build manually (below), subsequent commits will work correctly
+        }
+        continuousIntegrationService.get().triggerBuild(programmingExerciseParticipation);
+    }
+
+    /**
+     * Sends an error object to the user in the case that the build of the given submission could not be triggered.
+     *
+     * @param submission ProgrammingSubmission for which the build could not be triggered.
+     * @param exception  the exception that was raised when triggering the build.
+     */
+    public void notifyUserAboutBuildTriggerError(ProgrammingSubmission submission, Exception exception) {
+        var programmingExerciseParticipation = (ProgrammingExerciseParticipation) submission.getParticipation();
+        log.error("Trigger build failed for " + programmingExerciseParticipation.getBuildPlanId() + " with the exception " + exception.getMessage());
+        BuildTriggerWebsocketError error = new BuildTriggerWebsocketError(exception.getMessage(), submission.getParticipation().getId());
+        notifyUserAboutSubmissionError(submission, error);
+    }
+
     /**
      * Trigger the template repository build with the given commitHash.
      *
@@ -8,21 +8,17 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.scheduled.quiz.QuizBroadcastService;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
 
 @Service
@@ -44,17 +40,17 @@ public class QuizExerciseService {
 
     private final UserService userService;
 
-    private final ObjectMapper objectMapper;
+    private final QuizBroadcastService quizBroadcastService;
 
     private QuizScheduleService quizScheduleService;
 
     private QuizStatisticService quizStatisticService;
 
-    private SimpMessageSendingOperations messagingTemplate;
+    private ExamExerciseCache examExerciseCache;
 
     public QuizExerciseService(UserService userService, QuizExerciseRepository quizExerciseRepository, DragAndDropMappingRepository dragAndDropMappingRepository,
             ShortAnswerMappingRepository shortAnswerMappingRepository, AuthorizationCheckService authCheckService, ResultRepository resultRepository,
-            QuizSubmissionRepository quizSubmissionRepository, MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter) {
+            QuizSubmissionRepository quizSubmissionRepository, QuizBroadcastService quizBroadcastService) {
         this.userService = userService;
         this.quizExerciseRepository = quizExerciseRepository;
         this.dragAndDropMappingRepository = dragAndDropMappingRepository;
@@ -62,7 +58,7 @@ public class QuizExerciseService {
         this.authCheckService = authCheckService;
         this.resultRepository = resultRepository;
         this.quizSubmissionRepository = quizSubmissionRepository;
-        this.objectMapper = mappingJackson2HttpMessageConverter.getObjectMapper();
+        this.quizBroadcastService = quizBroadcastService;
     }
 
     @Autowired
@@ -76,8 +72,9 @@ public class QuizExerciseService {
     }
 
     @Autowired
-    public void setMessagingTemplate(SimpMessageSendingOperations messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    // break the dependency cycle
+    public void setExamExerciseCache(ExamExerciseCache examExerciseCache) {
+        this.examExerciseCache = examExerciseCache;
     }
 
     /**
@@ -208,6 +205,8 @@ public class QuizExerciseService {
             // only schedule quizzes for course exercises, not for exam exercises
             quizScheduleService.scheduleQuizStart(quizExercise.getId());
         }
+        // the questions and answer options are saved without updating the exercise itself
+        examExerciseCache.invalidateExercise(quizExercise);
         return quizExercise;
     }
 
@@ -311,6 +310,8 @@ public class QuizExerciseService {
         // change existing results if an answer or and question was deleted
         List<Result> results = resultRepository.findByParticipationExerciseIdOrderByCompletionDateAsc(quizExercise.getId());
         log.debug("Found " + results.size() + " results to update for quiz re-evaluate");
+        // the answer keys of the changed quiz are compiled once for all results
+        QuizScoringModel scoringModel = QuizScoringModel.compile(quizExercise);
         List<QuizSubmission> submissions = new ArrayList<>();
         for (Result result : results) {
 
@@ -327,11 +328,11 @@ public class QuizExerciseService {
             quizSubmission.getSubmittedAnswers().removeAll(submittedAnswersToDelete);
 
             // recalculate existing score
-            quizSubmission.calculateAndUpdateScores(quizExercise);
+            quizSubmission.calculateAndUpdateScores(scoringModel);
             // update Successful-Flag in Result
             StudentParticipation studentParticipation = (StudentParticipation) result.getParticipation();
             studentParticipation.setExercise(quizExercise);
-            result.evaluateSubmission();
+            result.evaluateSubmission(scoringModel);
 
             submissions.add(quizSubmission);
         }
@@ -342,25 +343,12 @@ public class QuizExerciseService {
     }
 
     /**
-     * Sends a QuizExercise to all subscribed clients
+     * Sends a QuizExercise to all subscribed clients, every change of a version of the cached quiz exercise is only sent once (see {@link QuizBroadcastService})
      * @param quizExercise the QuizExercise which will be sent
      * @param quizChange the change that was applied to the quiz, which decides to which topic subscriptions the quiz exercise is sent
      */
     public void sendQuizExerciseToSubscribedClients(QuizExercise quizExercise, String quizChange) {
-        try {
-            long start = System.currentTimeMillis();
-            Class<?> view = viewForStudentsInQuizExercise(quizExercise);
-            byte[] payload = objectMapper.writerWithView(view).writeValueAsBytes(quizExercise);
-            // For each change we send the same message. The client needs to decide how to handle the date based on the quiz status
-            if (quizExercise.isVisibleToStudents() && quizExercise.hasCourse()) {
-                messagingTemplate.send("/topic/courses/" + quizExercise.getCourseViaExerciseGroupOrCourseMember().getId() + "/quizExercises",
-                        MessageBuilder.withPayload(payload).build());
-                log.info("Sent '{}' for quiz {} to all listening clients in {} ms", quizChange, quizExercise.getId(), System.currentTimeMillis() - start);
-            }
-        }
-        catch (JsonProcessingException e) {
-            log.error("Exception occurred while serializing quiz exercise", e);
-        }
+        quizBroadcastService.broadcastQuizExercise(quizExercise, quizChange, viewForStudentsInQuizExercise(quizExercise));
     }
 
     /**
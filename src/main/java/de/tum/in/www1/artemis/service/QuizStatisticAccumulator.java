@@ -0,0 +1,214 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
+
+/**
+ * Accumulates the changes of the statistics of one quiz exercise in memory, so that they can be written to the database with relative updates afterwards.
+ * <p>
+ * When the accumulator is created, it takes a snapshot of all counters of the quiz point statistic and the question statistics keyed by their id (i.e. by question and answer
+ * option, drop location, short answer spot or points). Added, replaced or removed results are applied directly to the statistic objects of the given quiz exercise, so that the
+ * quiz can be sent to the instructors afterwards. The changes compared to the snapshot can be retrieved with {@link #getCounterChanges()} and {@link #getStatisticChanges()}.
+ * <p>
+ * The answer keys of the quiz exercise are compiled once into a {@link QuizScoringModel} when the accumulator is created, so that the results are not scored with the scoring
+ * strategies of the questions again and again.
+ */
+public class QuizStatisticAccumulator {
+
+    /**
+     * Index of the rated value in the arrays of the counter changes
+     */
+    public static final int RATED = 0;
+
+    /**
+     * Index of the unrated value in the arrays of the counter changes
+     */
+    public static final int UNRATED = 1;
+
+    /**
+     * Index of the rated participants in the arrays of the statistic changes
+     */
+    public static final int PARTICIPANTS_RATED = 0;
+
+    /**
+     * Index of the unrated participants in the arrays of the statistic changes
+     */
+    public static final int PARTICIPANTS_UNRATED = 1;
+
+    /**
+     * Index of the rated correct counter in the arrays of the statistic changes (only question statistics)
+     */
+    public static final int RATED_CORRECT = 2;
+
+    /**
+     * Index of the unrated correct counter in the arrays of the statistic changes (only question statistics)
+     */
+    public static final int UNRATED_CORRECT = 3;
+
+    private final QuizExercise quizExercise;
+
+    private final QuizScoringModel scoringModel;
+
+    private final Map<Long, int[]> counterSnapshot = new HashMap<>();
+
+    private final Map<Long, int[]> statisticSnapshot = new HashMap<>();
+
+    public QuizStatisticAccumulator(QuizExercise quizExercise) {
+        this.quizExercise = Objects.requireNonNull(quizExercise, "quizExercise must not be null");
+        this.scoringModel = QuizScoringModel.compile(quizExercise);
+        forEachCounter(counter -> counterSnapshot.put(counter.getId(), counterValues(counter)));
+        forEachStatistic(statistic -> statisticSnapshot.put(statistic.getId(), statisticValues(statistic)));
+    }
+
+    /**
+     * Add the result to the quiz point statistic and all question statistics
+     *
+     * @param result the result which will be added, the submission must be included
+     */
+    public void addResult(Result result) {
+        changeStatistics(result, true);
+    }
+
+    /**
+     * Remove the result from the quiz point statistic and all question statistics
+     *
+     * @param result the result which will be removed, the submission must be included
+     */
+    public void removeResult(Result result) {
+        changeStatistics(result, false);
+    }
+
+    /**
+     * Replace the old result, which is presented in the statistics, by the new one
+     *
+     * @param oldResult the result which is currently presented in the statistics, can be null
+     * @param newResult the result which will be added
+     */
+    public void replaceResult(Result oldResult, Result newResult) {
+        removeResult(oldResult);
+        addResult(newResult);
+    }
+
+    /**
+     * @return the changes of the rated and unrated counters (see {@link #RATED} and {@link #UNRATED}) by the id of the counter, only counters with changes are included
+     */
+    public Map<Long, int[]> getCounterChanges() {
+        Map<Long, int[]> changes = new HashMap<>();
+        forEachCounter(counter -> putIfChanged(changes, counter.getId(), counterSnapshot.get(counter.getId()), counterValues(counter)));
+        return changes;
+    }
+
+    /**
+     * @return the changes of the participants and correct counters (see {@link #PARTICIPANTS_RATED} etc.) by the id of the statistic, only statistics with changes are included
+     */
+    public Map<Long, int[]> getStatisticChanges() {
+        Map<Long, int[]> changes = new HashMap<>();
+        forEachStatistic(statistic -> putIfChanged(changes, statistic.getId(), statisticSnapshot.get(statistic.getId()), statisticValues(statistic)));
+        return changes;
+    }
+
+    private void changeStatistics(Result result, boolean add) {
+        if (result == null) {
+            return;
+        }
+        QuizSubmission quizSubmission = (QuizSubmission) result.getSubmission();
+        if (quizExercise.getQuizPointStatistic() != null) {
+            if (add) {
+                quizExercise.getQuizPointStatistic().addResult(result.getScore(), result.isRated());
+            }
+            else {
+                quizExercise.getQuizPointStatistic().removeOldResult(result.getScore(), result.isRated());
+            }
+        }
+        if (quizSubmission == null) {
+            return;
+        }
+        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+            QuizQuestionStatistic statistic = quizQuestion.getQuizQuestionStatistic();
+            if (statistic != null) {
+                SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(quizQuestion);
+                if (add) {
+                    statistic.addResult(submittedAnswer, Boolean.TRUE.equals(result.isRated()), scoringModel);
+                }
+                else {
+                    statistic.removeOldResult(submittedAnswer, Boolean.TRUE.equals(result.isRated()), scoringModel);
+                }
+            }
+        }
+    }
+
+    private void forEachCounter(Consumer<QuizStatisticCounter> action) {
+        Consumer<QuizStatisticCounter> persistedOnly = counter -> {
+            if (counter.getId() != null) {
+                action.accept(counter);
+            }
+        };
+        if (quizExercise.getQuizPointStatistic() != null) {
+            quizExercise.getQuizPointStatistic().getPointCounters().forEach(persistedOnly);
+        }
+        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+            QuizQuestionStatistic statistic = quizQuestion.getQuizQuestionStatistic();
+            if (statistic instanceof MultipleChoiceQuestionStatistic) {
+                ((MultipleChoiceQuestionStatistic) statistic).getAnswerCounters().forEach(persistedOnly);
+            }
+            else if (statistic instanceof DragAndDropQuestionStatistic) {
+                ((DragAndDropQuestionStatistic) statistic).getDropLocationCounters().forEach(persistedOnly);
+            }
+            else if (statistic instanceof ShortAnswerQuestionStatistic) {
+                ((ShortAnswerQuestionStatistic) statistic).getShortAnswerSpotCounters().forEach(persistedOnly);
+            }
+        }
+    }
+
+    private void forEachStatistic(Consumer<QuizStatistic> action) {
+        if (quizExercise.getQuizPointStatistic() != null && quizExercise.getQuizPointStatistic().getId() != null) {
+            action.accept(quizExercise.getQuizPointStatistic());
+        }
+        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+            QuizQuestionStatistic statistic = quizQuestion.getQuizQuestionStatistic();
+            if (statistic != null && statistic.getId() != null) {
+                action.accept(statistic);
+            }
+        }
+    }
+
+    private static int[] counterValues(QuizStatisticCounter counter) {
+        return new int[] { valueOf(counter.getRatedCounter()), valueOf(counter.getUnRatedCounter()) };
+    }
+
+    private static int[] statisticValues(QuizStatistic statistic) {
+        int[] values = new int[] { valueOf(statistic.getParticipantsRated()), valueOf(statistic.getParticipantsUnrated()), 0, 0 };
+        if (statistic instanceof QuizQuestionStatistic) {
+            QuizQuestionStatistic questionStatistic = (QuizQuestionStatistic) statistic;
+            values[RATED_CORRECT] = valueOf(questionStatistic.getRatedCorrectCounter());
+            values[UNRATED_CORRECT] = valueOf(questionStatistic.getUnRatedCorrectCounter());
+        }
+        return values;
+    }
+
+    private static void putIfChanged(Map<Long, int[]> changes, Long id, int[] before, int[] after) {
+        if (before == null) {
+            // the counter or statistic was created after the snapshot, it is not persisted in the database
+            return;
+        }
+        int[] change = new int[after.length];
+        boolean changed = false;
+        for (int i = 0; i < after.length; i++) {
+            change[i] = after[i] - before[i];
+            changed |= change[i] != 0;
+        }
+        if (changed) {
+            changes.put(id, change);
+        }
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -1,44 +1,57 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import de.tum.in.www1.artemis.domain.Result;
-import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.quiz.*;
-import de.tum.in.www1.artemis.repository.QuizPointStatisticRepository;
-import de.tum.in.www1.artemis.repository.QuizQuestionStatisticRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
-import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.*;
 
 @Service
 public class QuizStatisticService {
 
     private final Logger log = LoggerFactory.getLogger(QuizStatisticService.class);
 
-    private final StudentParticipationRepository studentParticipationRepository;
-
     private final ResultRepository resultRepository;
 
     private final QuizPointStatisticRepository quizPointStatisticRepository;
 
     private final QuizQuestionStatisticRepository quizQuestionStatisticRepository;
 
+    private final QuizStatisticRepository quizStatisticRepository;
+
+    private final QuizStatisticCounterRepository quizStatisticCounterRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter statisticWebsocketWriter;
+
     private SimpMessageSendingOperations messagingTemplate;
 
-    public QuizStatisticService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository,
-            QuizPointStatisticRepository quizPointStatisticRepository, QuizQuestionStatisticRepository quizQuestionStatisticRepository) {
-        this.studentParticipationRepository = studentParticipationRepository;
+    public QuizStatisticService(ResultRepository resultRepository, QuizPointStatisticRepository quizPointStatisticRepository,
+            QuizQuestionStatisticRepository quizQuestionStatisticRepository, QuizStatisticRepository quizStatisticRepository,
+            QuizStatisticCounterRepository quizStatisticCounterRepository, TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
         this.resultRepository = resultRepository;
         this.quizPointStatisticRepository = quizPointStatisticRepository;
         this.quizQuestionStatisticRepository = quizQuestionStatisticRepository;
+        this.quizStatisticRepository = quizStatisticRepository;
+        this.quizStatisticCounterRepository = quizStatisticCounterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.statisticWebsocketWriter = objectMapper.copy().addMixIn(QuizQuestion.class, StatisticWebsocketMixin.class).addMixIn(AnswerOption.class, StatisticWebsocketMixin.class)
+                .writer();
     }
 
     @Autowired
@@ -49,6 +62,8 @@ public class QuizStatisticService {
     /**
      * 1. Go through all Results in the Participation and recalculate the score
      * 2. Recalculate the statistics of the given quizExercise
+     * <p>
+     * This rebuilds the statistics from scratch, the live updates during the quiz use {@link #updateStatistics(Set, QuizExercise)}.
      *
      * @param quizExercise the changed QuizExercise object which will be used to recalculate the existing Results and Statistics
      */
@@ -70,43 +85,35 @@ public class QuizStatisticService {
             }
         }
 
-        // add the Results in every participation of the given quizExercise to the statistics
-        for (Participation participation : studentParticipationRepository.findByExerciseId(quizExercise.getId())) {
-
-            Result latestRatedResult = null;
-            Result latestUnratedResult = null;
-
-            // update all Results of a participation
-            for (Result result : resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(participation.getId())) {
-
-                // find latest rated Result
-                if (Boolean.TRUE.equals(result.isRated()) && (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestRatedResult = result;
-                }
-                // find latest unrated Result
-                if (Boolean.FALSE.equals(result.isRated()) && (latestUnratedResult == null || latestUnratedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestUnratedResult = result;
-                }
+        // find the latest rated and unrated Result of every participation of the given quizExercise with one query
+        Map<Long, Result> latestRatedResults = new HashMap<>();
+        Map<Long, Result> latestUnratedResults = new HashMap<>();
+        for (Result result : resultRepository.findByParticipationExerciseIdOrderByCompletionDateAsc(quizExercise.getId())) {
+            if (result.getParticipation() == null || result.isRated() == null) {
+                continue;
             }
-            // update statistics with latest rated und unrated Result
-            this.addResultToAllStatistics(quizExercise, latestRatedResult);
-            this.addResultToAllStatistics(quizExercise, latestUnratedResult);
+            Map<Long, Result> latestResults = result.isRated() ? latestRatedResults : latestUnratedResults;
+            latestResults.merge(result.getParticipation().getId(), result,
+                    (latestResult, newResult) -> latestResult.getCompletionDate().isBefore(newResult.getCompletionDate()) ? newResult : latestResult);
         }
 
+        // add the latest rated und unrated Result of every participation to the statistics
+        QuizStatisticAccumulator accumulator = new QuizStatisticAccumulator(quizExercise);
+        latestRatedResults.values().forEach(accumulator::addResult);
+        latestUnratedResults.values().forEach(accumulator::addResult);
+
         // save changed Statistics
         quizPointStatisticRepository.save(quizExercise.getQuizPointStatistic());
-        quizPointStatisticRepository.flush();
-        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
-            if (quizQuestion.getQuizQuestionStatistic() != null) {
-                quizQuestionStatisticRepository.save(quizQuestion.getQuizQuestionStatistic());
-                quizQuestionStatisticRepository.flush();
-            }
-        }
+        quizQuestionStatisticRepository.saveAll(getQuizQuestionStatistics(quizExercise));
+        quizQuestionStatisticRepository.flush();
     }
 
     /**
      * 1. check for each result if it's rated -> true: check if there is an old Result -> true: remove the old Result from the statistics 2. add new Result to the
      * quiz-point-statistic and all question-statistics
+     * <p>
+     * The changes are accumulated in memory and written to the database with relative updates of the changed counters in one transaction, so that concurrent updates cannot
+     * overwrite each other.
      *
      * @param results the results, which will be added to the statistics
      * @param quiz    the quizExercise with Questions where the results should contain to
@@ -116,40 +123,94 @@ public class QuizStatisticService {
         if (results != null && quiz != null && quiz.getQuizQuestions() != null) {
             log.debug("update statistics with " + results.size() + " new results");
 
+            QuizStatisticAccumulator accumulator = new QuizStatisticAccumulator(quiz);
+            // NOTE: there is never an old Result if the new result is rated, so we only load the results of participations with unrated results
+            Map<Long, List<Result>> resultsByParticipation = findResultsOfParticipationsWithUnratedResults(results);
             for (Result result : results) {
                 // check if the result is rated
-                // NOTE: there is never an old Result if the new result is rated
                 if (Boolean.FALSE.equals(result.isRated())) {
-                    removeResultFromAllStatistics(quiz, getPreviousResult(result));
+                    accumulator.replaceResult(getPreviousResult(result, resultsByParticipation.getOrDefault(result.getParticipation().getId(), List.of())), result);
                 }
-                addResultToAllStatistics(quiz, result);
-            }
-            // save statistics
-            quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
-            List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
-            for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
-                if (quizQuestion.getQuizQuestionStatistic() != null) {
-                    quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
+                else {
+                    accumulator.addResult(result);
                 }
             }
-            quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
+            // save statistics
+            saveStatisticChanges(accumulator);
             // notify users via websocket about new results for the statistics.
-            // filters out solution information
-            quiz.filterForStatisticWebsocket();
-            messagingTemplate.convertAndSend("/topic/statistic/" + quiz.getId(), quiz);
+            sendStatisticWebsocket(quiz);
+        }
+    }
+
+    /**
+     * Sends the quiz with its statistics to the statistic websocket. The solution information is filtered out while serializing, because the given quiz might be the cached
+     * quiz exercise which is still used for evaluating submissions and must not be changed.
+     *
+     * @param quiz the quizExercise with questions and statistics
+     */
+    private void sendStatisticWebsocket(QuizExercise quiz) {
+        try {
+            byte[] payload = statisticWebsocketWriter.writeValueAsBytes(quiz);
+            messagingTemplate.send("/topic/statistic/" + quiz.getId(), MessageBuilder.withPayload(payload).build());
+        }
+        catch (JsonProcessingException e) {
+            log.error("Exception occurred while serializing the statistics of quiz exercise " + quiz.getId(), e);
         }
     }
 
+    /**
+     * Writes the accumulated changes as relative updates of the changed counters to the database within one transaction
+     *
+     * @param accumulator the accumulator containing the changes
+     */
+    private void saveStatisticChanges(QuizStatisticAccumulator accumulator) {
+        Map<Long, int[]> counterChanges = accumulator.getCounterChanges();
+        Map<Long, int[]> statisticChanges = accumulator.getStatisticChanges();
+        if (counterChanges.isEmpty() && statisticChanges.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            counterChanges.forEach((counterId, change) -> quizStatisticCounterRepository.changeCounters(counterId, change[QuizStatisticAccumulator.RATED],
+                    change[QuizStatisticAccumulator.UNRATED]));
+            statisticChanges.forEach((statisticId, change) -> {
+                if (change[QuizStatisticAccumulator.PARTICIPANTS_RATED] != 0 || change[QuizStatisticAccumulator.PARTICIPANTS_UNRATED] != 0) {
+                    quizStatisticRepository.changeParticipants(statisticId, change[QuizStatisticAccumulator.PARTICIPANTS_RATED],
+                            change[QuizStatisticAccumulator.PARTICIPANTS_UNRATED]);
+                }
+                if (change[QuizStatisticAccumulator.RATED_CORRECT] != 0 || change[QuizStatisticAccumulator.UNRATED_CORRECT] != 0) {
+                    quizQuestionStatisticRepository.changeCorrectCounters(statisticId, change[QuizStatisticAccumulator.RATED_CORRECT],
+                            change[QuizStatisticAccumulator.UNRATED_CORRECT]);
+                }
+            });
+        });
+        log.debug("Saved changes of {} statistic counters and {} statistics", counterChanges.size(), statisticChanges.size());
+    }
+
+    /**
+     * Loads all results of the participations of the given unrated results with one query
+     *
+     * @param results the new results
+     * @return all results of the participations with unrated new results mapped by the participation id
+     */
+    private Map<Long, List<Result>> findResultsOfParticipationsWithUnratedResults(Set<Result> results) {
+        Set<Long> participationIds = results.stream().filter(result -> Boolean.FALSE.equals(result.isRated())).map(result -> result.getParticipation().getId())
+                .collect(Collectors.toSet());
+        if (participationIds.isEmpty()) {
+            return Map.of();
+        }
+        return resultRepository.findAllByParticipationIdIn(participationIds).stream().collect(Collectors.groupingBy(result -> result.getParticipation().getId()));
+    }
+
     /**
      * Go through all Results in the Participation and return the latest one before the new Result,
      *
      * @param newResult the new result object which will replace the old Result in the Statistics
+     * @param allResultsForParticipation all results of the participation of the new result
      * @return the previous Result, which is presented in the Statistics (null if where is no previous Result)
      */
-    private Result getPreviousResult(Result newResult) {
+    private Result getPreviousResult(Result newResult, List<Result> allResultsForParticipation) {
         Result oldResult = null;
 
-        List<Result> allResultsForParticipation = resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(newResult.getParticipation().getId());
         for (Result result : allResultsForParticipation) {
             // find the latest Result, which is presented in the Statistics
             if (result.isRated() == newResult.isRated() && result.getCompletionDate().isBefore(newResult.getCompletionDate()) && !result.equals(newResult)
@@ -160,48 +221,21 @@ public class QuizStatisticService {
         return oldResult;
     }
 
-    /**
-     * add Result to all Statistics of the given QuizExercise
-     *
-     * @param quizExercise contains the object of the quiz, where the Results will be added
-     * @param result       the result which will be added (NOTE: add the submission to the result previously (this would improve the performance)
-     */
-    private void addResultToAllStatistics(QuizExercise quizExercise, Result result) {
-
-        // update QuizPointStatistic with the result
-        if (result != null) {
-            // check if result contains a quizSubmission if true -> it's not necessary to fetch it from the database
-            QuizSubmission quizSubmission = (QuizSubmission) result.getSubmission();
-            quizExercise.getQuizPointStatistic().addResult(result.getScore(), result.isRated());
-            for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
-                // update QuestionStatistics with the result
-                if (quizQuestion.getQuizQuestionStatistic() != null && quizSubmission != null) {
-                    quizQuestion.getQuizQuestionStatistic().addResult(quizSubmission.getSubmittedAnswerForQuestion(quizQuestion), result.isRated());
-                }
+    private List<QuizQuestionStatistic> getQuizQuestionStatistics(QuizExercise quizExercise) {
+        List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
+        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+            if (quizQuestion.getQuizQuestionStatistic() != null) {
+                quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
             }
         }
+        return quizQuestionStatistics;
     }
 
     /**
-     * remove Result from all Statistics of the given QuizExercise
-     *
-     * @param quizExercise contains the object of the quiz, where the Results will be removed
-     * @param result       the result which will be removed (NOTE: add the submission to the result previously (this would improve the performance)
+     * Filters out the same information as {@link QuizExercise#filterForStatisticWebsocket()}: the explanations and any information about correct answers of the questions and
+     * answer options.
      */
-    private void removeResultFromAllStatistics(QuizExercise quizExercise, Result result) {
-        // update QuizPointStatistic with the result
-        if (result != null) {
-            log.debug("remove result from all statistics " + result);
-            // check if result contains a quizSubmission if true -> a it's not necessary to fetch it from the database
-            QuizSubmission quizSubmission = (QuizSubmission) result.getSubmission();
-            quizExercise.getQuizPointStatistic().removeOldResult(result.getScore(), result.isRated());
-            for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
-                // update QuestionStatistics with the result
-                if (quizQuestion.getQuizQuestionStatistic() != null) {
-                    quizQuestion.getQuizQuestionStatistic().removeOldResult(quizSubmission.getSubmittedAnswerForQuestion(quizQuestion), result.isRated());
-                }
-            }
-        }
+    @JsonIgnoreProperties({ "explanation", "isCorrect", "correctMappings" })
+    private abstract static class StatisticWebsocketMixin {
     }
-
 }
@@ -3,12 +3,19 @@ package de.tum.in.www1.artemis.service;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
@@ -20,7 +27,9 @@ import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
 import de.tum.in.www1.artemis.exception.QuizSubmissionException;
 import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
+import de.tum.in.www1.artemis.service.util.CoalescingExecutor;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
@@ -40,6 +49,20 @@ public class QuizSubmissionService {
 
     private final SubmissionVersionService submissionVersionService;
 
+    /**
+     * The time in milliseconds a live save waits for newer saves of the same user before it is processed, 0 processes every save directly
+     */
+    @Value("${artemis.quiz.live-save.coalescing-window:250}")
+    private long liveSaveCoalescingWindowInMillis;
+
+    /**
+     * The number of threads that process the live saves, the saves of one user are always processed by the same thread
+     */
+    @Value("${artemis.quiz.live-save.threads:4}")
+    private int liveSaveThreads;
+
+    private CoalescingExecutor<String, LiveSave> liveSaveExecutor;
+
     public QuizSubmissionService(QuizSubmissionRepository quizSubmissionRepository, QuizScheduleService quizScheduleService, ResultRepository resultRepository,
             SubmissionVersionService submissionVersionService) {
         this.quizSubmissionRepository = quizSubmissionRepository;
@@ -48,6 +71,22 @@ public class QuizSubmissionService {
         this.submissionVersionService = submissionVersionService;
     }
 
+    /**
+     * Creates the executor for the live saves
+     */
+    @PostConstruct
+    public void init() {
+        liveSaveExecutor = new CoalescingExecutor<>("quiz-live-save-", liveSaveThreads, liveSaveCoalescingWindowInMillis, (key, liveSave) -> processLiveSave(liveSave));
+    }
+
+    /**
+     * Shuts down the executor for the live saves, the pending saves are still processed
+     */
+    @PreDestroy
+    public void destroy() {
+        liveSaveExecutor.shutdown();
+    }
+
     @Autowired
     // break the dependency cycle
     public void setQuizExerciseService(QuizExerciseService quizExerciseService) {
@@ -115,7 +154,31 @@ public class QuizSubmissionService {
     }
 
     /**
-     * Saves a quiz submission into the hash maps for live quizzes. Submitted quizzes are marked to be saved into the database in the QuizScheduleService
+     * Saves a quiz submission into the hash maps for live quizzes without waiting for the result. Saves of the same user that follow each other within a short time are
+     * coalesced, only the last one is saved. Submitted quizzes are saved without delay and marked to be saved into the database in the QuizScheduleService.
+     *
+     * @param exerciseId the exerciseID to the corresponding QuizExercise
+     * @param quizSubmission the submission which should be saved
+     * @param username the username of the user who has initiated the request
+     * @param errorHandler handles errors, e.g. when the live quiz has already ended, or when the quiz was already submitted before, it is called by the calling thread or by
+     *                     the thread of the save
+     */
+    public void saveSubmissionForLiveModeAsync(Long exerciseId, QuizSubmission quizSubmission, String username, Consumer<QuizSubmissionException> errorHandler) {
+        // the submission date is the time of the save by the user and not the time of the processing
+        quizSubmission.setSubmissionDate(ZonedDateTime.now());
+        // Saves after the end of the quiz are rejected before they are queued. A save that is queued in time is accepted, even if it is processed after the end of the quiz.
+        QuizExercise quizExercise = quizScheduleService.getQuizExercise(exerciseId);
+        if (quizExercise != null && !quizExercise.isSubmissionAllowed()) {
+            errorHandler.accept(new QuizSubmissionException("The quiz is not active"));
+            return;
+        }
+        liveSaveExecutor.offer(liveSaveKey(exerciseId, username), new LiveSave(exerciseId, quizSubmission, username, errorHandler),
+                Boolean.TRUE.equals(quizSubmission.isSubmitted()));
+    }
+
+    /**
+     * Saves a quiz submission into the hash maps for live quizzes. Submitted quizzes are marked to be saved into the database in the QuizScheduleService.
+     * A pending save of the user (see {@link #saveSubmissionForLiveModeAsync}) is discarded, it cannot overwrite the given submission.
      *
      * @param exerciseId the exerciseID to the corresponding QuizExercise
      * @param quizSubmission the submission which should be saved
@@ -126,8 +189,56 @@ public class QuizSubmissionService {
      * @throws QuizSubmissionException handles errors, e.g. when the live quiz has already ended, or when the quiz was already submitted before
      */
     public QuizSubmission saveSubmissionForLiveMode(Long exerciseId, QuizSubmission quizSubmission, String username, boolean submitted) throws QuizSubmissionException {
+        quizSubmission.setSubmissionDate(ZonedDateTime.now());
+        try {
+            return liveSaveExecutor.executeInOrder(liveSaveKey(exerciseId, username), () -> {
+                ensureAuthorizationObject();
+                return saveSubmissionForLiveModeInOrder(exerciseId, quizSubmission, username, submitted);
+            });
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QuizSubmissionException("The quiz submission could not be saved");
+        }
+    }
+
+    /**
+     * Processes the pending live saves of the given quiz directly and waits for them. This has to happen before the submissions are processed at the end of the quiz,
+     * otherwise saves that were made in time would be lost.
+     *
+     * @param exerciseId the id of the quiz exercise
+     */
+    public void flushLiveSaves(Long exerciseId) {
+        String keyPrefix = liveSaveKey(exerciseId, "");
+        try {
+            liveSaveExecutor.flush(key -> key.startsWith(keyPrefix));
+        }
+        catch (InterruptedException ex) {
+            log.warn("Flushing the live saves of quiz {} was interrupted", exerciseId);
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        // TODO: what happens if a user executes this call twice in the same moment (using 2 threads)
+    private void processLiveSave(LiveSave liveSave) {
+        ensureAuthorizationObject();
+        try {
+            saveSubmissionForLiveModeInOrder(liveSave.exerciseId, liveSave.quizSubmission, liveSave.username, false);
+        }
+        catch (QuizSubmissionException ex) {
+            liveSave.errorHandler.accept(ex);
+        }
+        catch (RuntimeException ex) {
+            // the user has to know that the save was lost, the executor would only log the exception
+            log.error("The live save of user {} in quiz {} failed: {}", liveSave.username, liveSave.exerciseId, ex.getMessage(), ex);
+            liveSave.errorHandler.accept(new QuizSubmissionException("The quiz submission could not be saved"));
+        }
+    }
+
+    /**
+     * Saves the quiz submission, the saves of one user are executed in order by the thread of the user (or directly if the live saves are not coalesced).
+     */
+    private QuizSubmission saveSubmissionForLiveModeInOrder(Long exerciseId, QuizSubmission quizSubmission, String username, boolean submitted)
+            throws QuizSubmissionException {
 
         String logText = submitted ? "submit quiz in live mode:" : "save quiz in live mode:";
 
@@ -145,7 +256,7 @@ public class QuizSubmissionService {
             quizExercise = optionalQuizExercise.get();
         }
         log.debug(logText + "Received quiz exercise for user {} in quiz {} in {} µs.", username, exerciseId, (System.nanoTime() - start) / 1000);
-        if (!quizExercise.isSubmissionAllowed()) {
+        if (!isSubmissionAllowedAt(quizExercise, quizSubmission.getSubmissionDate())) {
             throw new QuizSubmissionException("The quiz is not active");
         }
 
@@ -153,16 +264,10 @@ public class QuizSubmissionService {
         // same as the user who executes this call. This prevents injecting submissions to other users
 
         // check if user already submitted for this quiz
-        Participation participation = participationService.participationForQuizWithResult(quizExercise, username);
-        log.debug(logText + "Received participation for user {} in quiz {} in {} µs.", username, exerciseId, (System.nanoTime() - start) / 1000);
-        if (!participation.getResults().isEmpty()) {
-            log.debug("Participation for user {} in quiz {} has results", username, exerciseId);
-            // NOTE: At this point, there can only be one Result because we already checked
-            // if the quiz is active, so there is no way the student could have already practiced
-            Result result = participation.getResults().iterator().next();
-            if (result.getSubmission().isSubmitted()) {
-                throw new QuizSubmissionException("You have already submitted the quiz");
-            }
+        boolean alreadySubmitted = hasAlreadySubmitted(quizExercise, username);
+        log.debug(logText + "Checked previous submissions of user {} in quiz {} in {} µs.", username, exerciseId, (System.nanoTime() - start) / 1000);
+        if (alreadySubmitted) {
+            throw new QuizSubmissionException("You have already submitted the quiz");
         }
 
         // recreate pointers back to submission in each submitted answer
@@ -170,9 +275,6 @@ public class QuizSubmissionService {
             submittedAnswer.setSubmission(quizSubmission);
         }
 
-        // set submission date
-        quizSubmission.setSubmissionDate(ZonedDateTime.now());
-
         // save submission to HashMap
         quizScheduleService.updateSubmission(exerciseId, username, quizSubmission);
 
@@ -180,6 +282,40 @@ public class QuizSubmissionService {
         return quizSubmission;
     }
 
+    /**
+     * Checks whether the user has already submitted the quiz. Until the end of the quiz, the submitted submissions are only cached: either as submitted submission or, once
+     * they have been saved to the database, as participation. A save that is processed after the end of the quiz (see {@link #flushLiveSaves}) must not add a second
+     * submission if the cached submission of the user has already been saved to the database.
+     */
+    private boolean hasAlreadySubmitted(QuizExercise quizExercise, String username) {
+        if (quizScheduleService.getParticipation(quizExercise.getId(), username) != null) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(quizScheduleService.getQuizSubmission(quizExercise.getId(), username).isSubmitted())) {
+            return true;
+        }
+        return quizExercise.isEnded() && participationService.findOneByExerciseAndStudentLoginAnyState(quizExercise, username).isPresent();
+    }
+
+    /**
+     * Checks whether the submission was made while the quiz was active. The submission date is set when the save is received, so a coalesced save that is processed after the
+     * end of the quiz is still accepted.
+     */
+    private static boolean isSubmissionAllowedAt(QuizExercise quizExercise, ZonedDateTime submissionDate) {
+        return quizExercise.isStarted() && submissionDate.isBefore(quizExercise.getDueDate().plusSeconds(Constants.QUIZ_GRACE_PERIOD_IN_SECONDS));
+    }
+
+    private static String liveSaveKey(Long exerciseId, String username) {
+        return exerciseId + "-" + username;
+    }
+
+    private static void ensureAuthorizationObject() {
+        // Without this, custom jpa repository methods don't work in the threads of the live save executor, the calling threads keep their authentication
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            SecurityUtils.setAuthorizationObject();
+        }
+    }
+
     /**
      * Updates a submission for the exam mode
      *
@@ -217,4 +353,22 @@ public class QuizSubmissionService {
         log.debug("submit exam quiz finished: " + quizSubmission);
         return quizSubmission;
     }
+
+    private static final class LiveSave {
+
+        private final Long exerciseId;
+
+        private final QuizSubmission quizSubmission;
+
+        private final String username;
+
+        private final Consumer<QuizSubmissionException> errorHandler;
+
+        private LiveSave(Long exerciseId, QuizSubmission quizSubmission, String username, Consumer<QuizSubmissionException> errorHandler) {
+            this.exerciseId = exerciseId;
+            this.quizSubmission = quizSubmission;
+            this.username = username;
+            this.errorHandler = errorHandler;
+        }
+    }
 }
@@ -32,11 +32,15 @@ public class StaticCodeAnalysisService {
 
     ProgrammingSubmissionService programmingSubmissionService;
 
+    private final ProgrammingExerciseGradingContextCache gradingContextCache;
+
     public StaticCodeAnalysisService(StaticCodeAnalysisCategoryRepository staticCodeAnalysisCategoryRepository,
-            Map<ProgrammingLanguage, List<StaticCodeAnalysisDefaultCategory>> staticCodeAnalysisDefaultConfigurations, ProgrammingSubmissionService programmingSubmissionService) {
+            Map<ProgrammingLanguage, List<StaticCodeAnalysisDefaultCategory>> staticCodeAnalysisDefaultConfigurations, ProgrammingSubmissionService programmingSubmissionService,
+            ProgrammingExerciseGradingContextCache gradingContextCache) {
         this.staticCodeAnalysisCategoryRepository = staticCodeAnalysisCategoryRepository;
         this.staticCodeAnalysisDefaultConfigurations = staticCodeAnalysisDefaultConfigurations;
         this.programmingSubmissionService = programmingSubmissionService;
+        this.gradingContextCache = gradingContextCache;
     }
 
     /**
@@ -75,6 +79,7 @@ public class StaticCodeAnalysisService {
             newCategories.add(newCategory);
         }
         staticCodeAnalysisCategoryRepository.saveAll(newCategories);
+        gradingContextCache.invalidate(programmingExercise.getId());
     }
 
     /**
@@ -103,6 +108,7 @@ public class StaticCodeAnalysisService {
             originalCategory.setState(matchingCategory.getState());
         }
         staticCodeAnalysisCategoryRepository.saveAll(originalCategories);
+        gradingContextCache.invalidate(exerciseId);
 
         // At least one category was updated. We use this flag to inform the instructor about outdated student results.
         programmingSubmissionService.setTestCasesChangedAndTriggerTestCaseUpdate(exerciseId);
@@ -117,7 +123,17 @@ public class StaticCodeAnalysisService {
      */
     public List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> getCategoriesWithMappingForExercise(
             ProgrammingExercise programmingExercise) {
-        var categories = findByExerciseId(programmingExercise.getId());
+        return getCategoriesWithMappingForExercise(programmingExercise, findByExerciseId(programmingExercise.getId()));
+    }
+
+    /**
+     * Links the given (already loaded) categories of an exercise with the default category mappings.
+     * @param programmingExercise The programming exercise
+     * @param categories The static code analysis categories of the programming exercise
+     * @return A list of pairs of categories and their mappings.
+     */
+    public List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> getCategoriesWithMappingForExercise(
+            ProgrammingExercise programmingExercise, Collection<StaticCodeAnalysisCategory> categories) {
         var defaultCategories = staticCodeAnalysisDefaultConfigurations.get(programmingExercise.getProgrammingLanguage());
 
         List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> categoryPairsWithMapping = new ArrayList<>();
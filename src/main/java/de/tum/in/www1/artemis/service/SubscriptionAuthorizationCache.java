@@ -0,0 +1,215 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.service.util.AfterCommitInvalidation;
+import de.tum.in.www1.artemis.service.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the authorization decisions for websocket subscriptions and the users (with their groups and authorities) that are needed to make them for a short time. Clients
+ * subscribe to the same destinations again after every reconnect, e.g. thousands of students at the same time after a network problem during an exam.
+ * <p>
+ * The caches are local to every instance. The services that change the groups of users, the students of teams or the groups of courses invalidate the affected entries
+ * explicitly: once their transaction has been committed, the entries are removed locally and the invalidation is published to the other instances with a Hazelcast topic.
+ * Changes in other places (e.g. the groups that are synchronized with the external user management on login) are visible after the expiration of the entries.
+ */
+@Service
+public class SubscriptionAuthorizationCache {
+
+    // invalidates the entries of all users
+    private static final String ALL_USERS = "";
+
+    private final UserService userService;
+
+    private final ITopic<String> invalidations;
+
+    private final AfterCommitInvalidation<String> afterCommitInvalidation = new AfterCommitInvalidation<>(this::invalidateAndPublish);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter decisionHitCounter;
+
+    private final Counter decisionMissCounter;
+
+    private final Counter userHitCounter;
+
+    private final Counter userMissCounter;
+
+    private final Counter invalidationCounter;
+
+    @Value("${artemis.websocket.subscription-authorization.cache.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${artemis.websocket.subscription-authorization.cache.expiration:60}")
+    private long expirationInSeconds;
+
+    // The decisions are cached per user, so that the decisions of a user can be removed at once. The maps of the users are replaced, not changed, because the weight of a
+    // cached value (the number of decisions) must not change.
+    private LruCache<String, Map<String, CachedValue<Boolean>>> decisionCache;
+
+    private LruCache<String, CachedValue<User>> userCache;
+
+    public SubscriptionAuthorizationCache(UserService userService, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.invalidations = hazelcastInstance.getTopic("websocket-subscription-authorization-invalidations");
+        this.meterRegistry = meterRegistry;
+        this.decisionHitCounter = Counter.builder("artemis.websocket.subscription-authorization.cache.hits").tag("cache", "decision")
+                .description("Number of subscriptions whose authorization decision was found in the cache").register(meterRegistry);
+        this.decisionMissCounter = Counter.builder("artemis.websocket.subscription-authorization.cache.misses").tag("cache", "decision")
+                .description("Number of subscriptions whose authorization decision had to be made").register(meterRegistry);
+        this.userHitCounter = Counter.builder("artemis.websocket.subscription-authorization.cache.hits").tag("cache", "user")
+                .description("Number of users that were found in the cache").register(meterRegistry);
+        this.userMissCounter = Counter.builder("artemis.websocket.subscription-authorization.cache.misses").tag("cache", "user")
+                .description("Number of users that had to be loaded from the database").register(meterRegistry);
+        this.invalidationCounter = Counter.builder("artemis.websocket.subscription-authorization.cache.invalidations")
+                .description("Number of invalidations (for one or all users) received from other instances").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        decisionCache = new LruCache<>(maxEntries, Map::size);
+        userCache = new LruCache<>(maxEntries, value -> 1);
+        Gauge.builder("artemis.websocket.subscription-authorization.cache.size", decisionCache, LruCache::weight).tag("cache", "decision")
+                .description("Number of cached authorization decisions").register(meterRegistry);
+        Gauge.builder("artemis.websocket.subscription-authorization.cache.size", userCache, LruCache::size).tag("cache", "user").description("Number of cached users")
+                .register(meterRegistry);
+        invalidations.addMessageListener(message -> {
+            // the invalidations of this instance have already been applied
+            if (!message.getPublishingMember().localMember()) {
+                invalidationCounter.increment();
+                invalidateLocally(message.getMessageObject());
+            }
+        });
+    }
+
+    /**
+     * Returns whether the user is allowed to subscribe to the destination. The decision is made with the given supplier if it is not cached.
+     *
+     * @param login       the login of the user who wants to subscribe
+     * @param destination the destination to which the user wants to subscribe
+     * @param decision    makes the authorization decision, runtime exceptions are passed on and the decision is not cached
+     * @return whether the user is allowed to subscribe
+     */
+    public boolean isSubscriptionAllowed(String login, String destination, BooleanSupplier decision) {
+        final Map<String, CachedValue<Boolean>> cachedDecisions = decisionCache.get(login);
+        final CachedValue<Boolean> cachedDecision = cachedDecisions != null ? cachedDecisions.get(destination) : null;
+        if (cachedDecision != null && !cachedDecision.isExpired()) {
+            decisionHitCounter.increment();
+            return cachedDecision.value;
+        }
+        decisionMissCounter.increment();
+        final boolean allowed = decision.getAsBoolean();
+        final CachedValue<Boolean> newDecision = new CachedValue<>(allowed, expirationInSeconds);
+        decisionCache.compute(login, (key, decisions) -> withDecision(decisions, destination, newDecision));
+        return allowed;
+    }
+
+    /**
+     * Creates a copy of the cached decisions of a user without the expired decisions and with the given decision.
+     *
+     * @param decisions   the cached decisions of the user, null if there are none
+     * @param destination the destination of the new decision
+     * @param decision    the new decision
+     * @return the new decisions of the user
+     */
+    private static Map<String, CachedValue<Boolean>> withDecision(Map<String, CachedValue<Boolean>> decisions, String destination, CachedValue<Boolean> decision) {
+        final Map<String, CachedValue<Boolean>> newDecisions = new HashMap<>();
+        if (decisions != null) {
+            decisions.forEach((cachedDestination, cachedDecision) -> {
+                if (!cachedDecision.isExpired()) {
+                    newDecisions.put(cachedDestination, cachedDecision);
+                }
+            });
+        }
+        newDecisions.put(destination, decision);
+        return Collections.unmodifiableMap(newDecisions);
+    }
+
+    /**
+     * Get the user with the given login with eagerly loaded groups and authorities, see {@link UserService#getUserWithGroupsAndAuthorities(String)}. The returned user is
+     * shared and must not be modified.
+     *
+     * @param login the login of the user
+     * @return the user with groups and authorities
+     */
+    public User getUserWithGroupsAndAuthorities(String login) {
+        final CachedValue<User> cachedUser = userCache.get(login);
+        if (cachedUser != null && !cachedUser.isExpired()) {
+            userHitCounter.increment();
+            return cachedUser.value;
+        }
+        userMissCounter.increment();
+        final User user = userService.getUserWithGroupsAndAuthorities(login);
+        userCache.put(login, new CachedValue<>(user, expirationInSeconds));
+        return user;
+    }
+
+    /**
+     * Removes the cached user and the cached authorization decisions of the user on all instances after the commit of the current transaction, e.g. if the groups of the user
+     * changed.
+     *
+     * @param login the login of the user
+     */
+    public void invalidateUser(String login) {
+        afterCommitInvalidation.add(login);
+    }
+
+    /**
+     * Removes all cached users and authorization decisions on all instances after the commit of the current transaction, e.g. if the groups of a course or the students of a
+     * team changed.
+     */
+    public void invalidateAllUsers() {
+        afterCommitInvalidation.add(ALL_USERS);
+    }
+
+    private void invalidateAndPublish(Set<String> logins) {
+        // The entries are removed locally first, so that the next subscription on this instance is decided with the changed data.
+        for (String login : logins.contains(ALL_USERS) ? Set.of(ALL_USERS) : logins) {
+            invalidateLocally(login);
+            invalidations.publish(login);
+        }
+    }
+
+    private void invalidateLocally(String login) {
+        if (ALL_USERS.equals(login)) {
+            decisionCache.clear();
+            userCache.clear();
+        }
+        else {
+            userCache.remove(login);
+            decisionCache.remove(login);
+        }
+    }
+
+    private static final class CachedValue<T> {
+
+        private final T value;
+
+        private final long expiresAt;
+
+        private CachedValue(T value, long expirationInSeconds) {
+            this.value = value;
+            this.expiresAt = System.currentTimeMillis() + expirationInSeconds * 1000;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -37,15 +37,18 @@ public class TeamService {
 
     private final ParticipationService participationService;
 
+    private final SubscriptionAuthorizationCache subscriptionAuthorizationCache;
+
     public TeamService(TeamRepository teamRepository, UserRepository userRepository, AuthorizationCheckService authCheckService,
             Optional<VersionControlService> versionControlService, ProgrammingExerciseParticipationService programmingExerciseParticipationService,
-            ParticipationService participationService) {
+            ParticipationService participationService, SubscriptionAuthorizationCache subscriptionAuthorizationCache) {
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
         this.authCheckService = authCheckService;
         this.versionControlService = versionControlService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
         this.participationService = participationService;
+        this.subscriptionAuthorizationCache = subscriptionAuthorizationCache;
     }
 
     /**
@@ -169,6 +172,8 @@ public class TeamService {
             team.setLastModifiedDate(Instant.now());
         }
         team.setExercise(exercise);
+        // the previous students of the team are not known anymore
+        subscriptionAuthorizationCache.invalidateAllUsers();
         return teamRepository.save(team);
     }
 
@@ -202,6 +207,7 @@ public class TeamService {
             TeamImportStrategyType importStrategyType) {
         TeamImportStrategy teamImportStrategy = getTeamImportStrategy(importStrategyType);
         teamImportStrategy.importTeams(sourceExercise, destinationExercise);
+        subscriptionAuthorizationCache.invalidateAllUsers();
         return teamRepository.findAllByExerciseId(destinationExercise.getId());
     }
 
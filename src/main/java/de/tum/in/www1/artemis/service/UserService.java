@@ -6,6 +6,7 @@ import static de.tum.in.www1.artemis.security.AuthoritiesConstants.*;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.validation.constraints.NotNull;
@@ -92,6 +93,8 @@ public class UserService {
 
     private ArtemisAuthenticationProvider artemisAuthenticationProvider;
 
+    private SubscriptionAuthorizationCache subscriptionAuthorizationCache;
+
     public UserService(UserRepository userRepository, AuthorityRepository authorityRepository, CacheManager cacheManager, Optional<LdapUserService> ldapUserService,
             GuidedTourSettingsRepository guidedTourSettingsRepository, CourseRepository courseRepository) {
         this.userRepository = userRepository;
@@ -114,6 +117,12 @@ public class UserService {
         this.artemisAuthenticationProvider = artemisAuthenticationProvider;
     }
 
+    @Autowired
+    // break the dependency cycle
+    public void setSubscriptionAuthorizationCache(SubscriptionAuthorizationCache subscriptionAuthorizationCache) {
+        this.subscriptionAuthorizationCache = subscriptionAuthorizationCache;
+    }
+
     /**
      * find all users who do not have registration numbers: in case they are TUM users, try to retrieve their registration number and set a proper first name and last name
      */
@@ -694,6 +703,18 @@ public class UserService {
         return userRepository.findOneByLogin(login);
     }
 
+    /**
+     * Get all users for the given login strings with a single query
+     * @param logins the user login strings
+     * @return the existing users mapped by their login, logins without a user are not contained
+     */
+    public Map<String, User> getUsersByLogins(Collection<String> logins) {
+        if (logins.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllByLoginIn(logins).stream().collect(Collectors.toMap(User::getLogin, Function.identity()));
+    }
+
     /**
      * @return existing user object by current user login
      */
@@ -762,6 +783,8 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         cacheManager.getCache(User.class.getName()).evict(user.getLogin());
+        // the groups of the user might have changed
+        subscriptionAuthorizationCache.invalidateUser(user.getLogin());
     }
 
     /**
@@ -885,6 +908,7 @@ public class UserService {
             user.getGroups().remove(groupName);
         }
         userRepository.saveAll(users);
+        users.forEach(this::clearUserCaches);
     }
 
     public Long countUserInGroup(String groupName) {
@@ -905,6 +929,7 @@ public class UserService {
         else {
             artemisAuthenticationProvider.addUserToGroup(user, group);
         }
+        clearUserCaches(user);
 
     }
 
@@ -924,6 +949,7 @@ public class UserService {
         else {
             artemisAuthenticationProvider.removeUserFromGroup(user, group);
         }
+        clearUserCaches(user);
     }
 
     /**
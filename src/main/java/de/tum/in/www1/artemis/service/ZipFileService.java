@@ -1,9 +1,13 @@
 package de.tum.in.www1.artemis.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -67,6 +71,32 @@ public class ZipFileService {
         return zipFilePath;
     }
 
+    /**
+     * Add the given file uncompressed to the zip output stream, e.g. a file that is already compressed. The checksum of the file is calculated before the zip output stream is
+     * locked, so that concurrent callers only wait for each other while the file is copied.
+     *
+     * @param zipOutputStream the stream of the zip file to which the file is added, it is not closed and can be used by multiple threads
+     * @param path the path of the file that should be added
+     * @param zipEntryName the name of the file in the zip file
+     * @throws IOException if an error occurred while reading the file or writing the zip file
+     */
+    public void addUncompressedFileToZipFile(ZipOutputStream zipOutputStream, Path path, String zipEntryName) throws IOException {
+        ZipEntry zipEntry = new ZipEntry(zipEntryName);
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(Files.size(path));
+        zipEntry.setCompressedSize(Files.size(path));
+        CRC32 checksum = new CRC32();
+        try (InputStream inputStream = new CheckedInputStream(Files.newInputStream(path), checksum)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        zipEntry.setCrc(checksum.getValue());
+        synchronized (zipOutputStream) {
+            zipOutputStream.putNextEntry(zipEntry);
+            Files.copy(path, zipOutputStream);
+            zipOutputStream.closeEntry();
+        }
+    }
+
     private void copyToZipFile(ZipOutputStream zipOutputStream, Path path, ZipEntry zipEntry) {
         try {
             zipOutputStream.putNextEntry(zipEntry);
@@ -6,6 +6,7 @@ import static de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration.
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.hibernate.Hibernate;
@@ -44,30 +45,157 @@ public class CompassCalculationEngine implements CalculationEngine {
 
     private LocalDateTime lastUsed;
 
+    /**
+     * Checksums of the models in the model index, used for snapshots. Note: The key is the model submission id
+     */
+    private final Map<Long, Long> modelChecksums = new ConcurrentHashMap<>();
+
     CompassCalculationEngine(Set<ModelingSubmission> modelingSubmissions) {
+        this(modelingSubmissions, false, null);
+    }
+
+    /**
+     * Create a new calculation engine for the given submissions. If a snapshot is given, the similarity sets of all unchanged models are restored from the snapshot and only new
+     * or changed models are analyzed.
+     *
+     * @param modelingSubmissions   the submissions of the exercise
+     * @param modelIndexParityCheck verify the candidate index of the model index, see {@link ModelIndex#ModelIndex(boolean)}
+     * @param snapshot              a snapshot of an engine of the same exercise, can be null
+     */
+    CompassCalculationEngine(Set<ModelingSubmission> modelingSubmissions, boolean modelIndexParityCheck, CompassEngineSnapshot snapshot) {
         lastUsed = LocalDateTime.now();
-        modelIndex = new ModelIndex();
+        modelIndex = new ModelIndex(modelIndexParityCheck);
         assessmentIndex = new AssessmentIndex();
         automaticAssessmentController = new AutomaticAssessmentController();
         modelSelector = new ModelSelector();
 
+        List<ModelingSubmission> submissionsWithModel = new ArrayList<>();
         for (Submission submission : modelingSubmissions) {
             // We have to unproxy here as sometimes the Submission is a Hibernate proxy resulting in a cast exception
             // when iterating over the ModelingSubmissions directly (i.e. for (ModelingSubmission submission : submissions)).
             ModelingSubmission modelingSubmission = (ModelingSubmission) Hibernate.unproxy(submission);
+            if (modelingSubmission.getModel() != null) {
+                submissionsWithModel.add(modelingSubmission);
+            }
+        }
+
+        if (snapshot != null) {
+            restoreFromSnapshot(submissionsWithModel, snapshot);
+        }
 
-            String model = modelingSubmission.getModel();
-            if (model != null) {
+        for (ModelingSubmission modelingSubmission : submissionsWithModel) {
+            // only models that were not restored from the snapshot need to be built
+            if (!modelIndex.getModelMap().containsKey(modelingSubmission.getId())) {
                 buildModel(modelingSubmission);
+            }
 
-                if (hasCompletedManualAssessment(modelingSubmission)) {
-                    addManualAssessmentForSubmission(modelingSubmission);
-                }
+            if (hasCompletedManualAssessment(modelingSubmission)) {
+                addManualAssessmentForSubmission(modelingSubmission);
             }
         }
         assessModelsAutomatically();
     }
 
+    /**
+     * Restore the models of all submissions that did not change since the snapshot was taken with the similarity IDs of the snapshot. If the similarity sets cannot be restored
+     * consistently (e.g. because the representative of a similarity set changed), nothing is restored and all models are analyzed again.
+     *
+     * @param modelingSubmissions the submissions with models of the exercise
+     * @param snapshot            the snapshot of an engine of the same exercise
+     */
+    private void restoreFromSnapshot(List<ModelingSubmission> modelingSubmissions, CompassEngineSnapshot snapshot) {
+        Map<Long, UMLDiagram> restoredModels = new HashMap<>();
+        Map<Long, Map<String, UMLElement>> restoredElements = new HashMap<>();
+        Map<Long, Long> restoredChecksums = new HashMap<>();
+
+        for (ModelingSubmission modelingSubmission : modelingSubmissions) {
+            long checksum = CompassEngineSnapshot.calculateChecksum(modelingSubmission.getModel());
+            if (snapshot.getModelChecksum(modelingSubmission.getId()).filter(snapshotChecksum -> snapshotChecksum == checksum).isEmpty()) {
+                // the model is new or changed, it is analyzed again
+                continue;
+            }
+            try {
+                UMLDiagram model = UMLModelParser.buildModelFromJSON(parseString(modelingSubmission.getModel()).getAsJsonObject(), modelingSubmission.getId());
+                Map<String, Integer> similarityIds = snapshot.getSimilarityIds(modelingSubmission.getId());
+                Map<String, UMLElement> elements = new HashMap<>();
+                for (UMLElement element : model.getAllModelElements()) {
+                    Integer similarityId = similarityIds.get(element.getJSONElementID());
+                    if (similarityId == null) {
+                        throw new IOException("Element " + element.getJSONElementID() + " is missing in snapshot");
+                    }
+                    element.setSimilarityID(similarityId);
+                    elements.put(element.getJSONElementID(), element);
+                }
+                restoredModels.put(modelingSubmission.getId(), model);
+                restoredElements.put(modelingSubmission.getId(), elements);
+                restoredChecksums.put(modelingSubmission.getId(), checksum);
+            }
+            catch (IOException | RuntimeException e) {
+                log.warn("Could not restore model of submission {} from snapshot: {}", modelingSubmission.getId(), e.getMessage());
+            }
+        }
+
+        List<UMLElement> uniqueElements = new ArrayList<>();
+        for (CompassEngineSnapshot.ElementReference reference : snapshot.getUniqueElements()) {
+            UMLElement uniqueElement = restoredElements.getOrDefault(reference.modelSubmissionId, Map.of()).get(reference.jsonElementId);
+            if (uniqueElement == null || uniqueElement.getSimilarityID() != uniqueElements.size()) {
+                log.info("Cannot restore similarity sets from snapshot for exercise {}, the model of submission {} changed", snapshot.getExerciseId(), reference.modelSubmissionId);
+                return;
+            }
+            uniqueElements.add(uniqueElement);
+        }
+
+        List<UMLElement> elements = restoredElements.values().stream().flatMap(modelElements -> modelElements.values().stream()).collect(Collectors.toList());
+        if (elements.stream().anyMatch(element -> element.getSimilarityID() < 0 || element.getSimilarityID() >= uniqueElements.size())) {
+            log.info("Cannot restore similarity sets from snapshot for exercise {}, the snapshot is inconsistent", snapshot.getExerciseId());
+            return;
+        }
+        modelIndex.restoreSimilaritySets(uniqueElements, elements);
+        for (UMLDiagram model : restoredModels.values()) {
+            SimilarityDetector.setContextOfModelElements(model);
+            modelIndex.addModel(model);
+        }
+        modelChecksums.putAll(restoredChecksums);
+
+        snapshot.getAlreadyHandledModels().forEach(modelSelector::addAlreadyHandledModel);
+        snapshot.getModelsWaitingForAssessment().forEach(modelSelector::addModelWaitingForAssessment);
+        log.info("Restored {} of {} models from snapshot for exercise {}", restoredModels.size(), modelingSubmissions.size(), snapshot.getExerciseId());
+    }
+
+    /**
+     * Create a snapshot of the similarity sets and the model selection of this engine, see {@link CompassEngineSnapshot}.
+     *
+     * @param exerciseId the id of the exercise of this engine
+     * @return the snapshot or an empty optional if the engine is in an inconsistent state
+     */
+    Optional<CompassEngineSnapshot> createSnapshot(long exerciseId) {
+        CompassEngineSnapshot snapshot = new CompassEngineSnapshot(exerciseId);
+        Map<UMLElement, Long> modelSubmissionIdsOfElements = new IdentityHashMap<>();
+        for (UMLDiagram model : modelIndex.getModelCollection()) {
+            Long checksum = modelChecksums.get(model.getModelSubmissionId());
+            if (checksum == null) {
+                continue;
+            }
+            Map<String, Integer> similarityIds = new HashMap<>();
+            for (UMLElement element : model.getAllModelElements()) {
+                similarityIds.put(element.getJSONElementID(), element.getSimilarityID());
+                modelSubmissionIdsOfElements.put(element, model.getModelSubmissionId());
+            }
+            snapshot.addModel(model.getModelSubmissionId(), checksum, similarityIds);
+        }
+        for (UMLElement uniqueElement : modelIndex.getUniqueElements()) {
+            Long modelSubmissionId = modelSubmissionIdsOfElements.get(uniqueElement);
+            if (modelSubmissionId == null) {
+                log.warn("Cannot create snapshot for exercise {}, the model of unique element {} is unknown", exerciseId, uniqueElement.getJSONElementID());
+                return Optional.empty();
+            }
+            snapshot.addUniqueElement(modelSubmissionId, uniqueElement.getJSONElementID());
+        }
+        snapshot.getAlreadyHandledModels().addAll(modelSelector.getAlreadyHandledModels());
+        snapshot.getModelsWaitingForAssessment().addAll(modelSelector.getModelsWaitingForAssessment());
+        return Optional.of(snapshot);
+    }
+
     /**
      * Checks if the given modeling submission already has a completed manual assessment. The assessment is completed if the submission has a result with a completion date.
      *
@@ -89,6 +217,7 @@ public class CompassCalculationEngine implements CalculationEngine {
     private void buildModel(ModelingSubmission modelingSubmission) {
         if (modelingSubmission.getModel() != null) {
             buildModel(modelingSubmission.getId(), parseString(modelingSubmission.getModel()).getAsJsonObject());
+            modelChecksums.put(modelingSubmission.getId(), CompassEngineSnapshot.calculateChecksum(modelingSubmission.getModel()));
         }
     }
 
@@ -204,6 +333,7 @@ public class CompassCalculationEngine implements CalculationEngine {
             JsonElement jsonElement = parseString(model);
             if (jsonElement != null) {
                 buildModel(modelId, jsonElement.getAsJsonObject());
+                modelChecksums.put(modelId, CompassEngineSnapshot.calculateChecksum(model));
             }
         }
     }
@@ -0,0 +1,194 @@
+package de.tum.in.www1.artemis.service.compass;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of the state of a {@link CompassCalculationEngine} that is expensive to compute: the similarity IDs of all model elements (i.e. the state of the
+ * ModelIndex) and the state of the ModelSelector. The parsed models themselves and the assessment index are not part of the snapshot, they are cheap to rebuild from the
+ * submissions and their manual assessments.
+ * <p>
+ * Elements are identified by the id of their modeling submission and their JSON element id. For every submission, a checksum of its model is stored, so that models that were
+ * changed after the snapshot was taken can be detected and analyzed again.
+ */
+public class CompassEngineSnapshot {
+
+    /**
+     * Increase the version whenever the format changes, snapshots with another version are ignored
+     */
+    private static final int VERSION = 1;
+
+    private final long exerciseId;
+
+    /**
+     * Note: The key is the model submission id
+     */
+    private final Map<Long, Long> modelChecksums = new HashMap<>();
+
+    /**
+     * Note: The key is the model submission id, the value maps the JSON element ids to the similarity ids
+     */
+    private final Map<Long, Map<String, Integer>> similarityIds = new HashMap<>();
+
+    /**
+     * The unique element (i.e. the representative) of every similarity set in the order of the similarity ids
+     */
+    private final List<ElementReference> uniqueElements = new ArrayList<>();
+
+    private final Set<Long> alreadyHandledModels = new HashSet<>();
+
+    private final Set<Long> modelsWaitingForAssessment = new HashSet<>();
+
+    CompassEngineSnapshot(long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    /**
+     * Calculate the checksum of the given model which is used to detect changed models.
+     *
+     * @param model the model as JSON string
+     * @return the checksum of the model
+     */
+    static long calculateChecksum(String model) {
+        byte[] bytes = model.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes);
+        return ((long) bytes.length << 32) | crc32.getValue();
+    }
+
+    void addModel(long modelSubmissionId, long checksum, Map<String, Integer> elementSimilarityIds) {
+        modelChecksums.put(modelSubmissionId, checksum);
+        similarityIds.put(modelSubmissionId, elementSimilarityIds);
+    }
+
+    void addUniqueElement(long modelSubmissionId, String jsonElementId) {
+        uniqueElements.add(new ElementReference(modelSubmissionId, jsonElementId));
+    }
+
+    long getExerciseId() {
+        return exerciseId;
+    }
+
+    Optional<Long> getModelChecksum(long modelSubmissionId) {
+        return Optional.ofNullable(modelChecksums.get(modelSubmissionId));
+    }
+
+    Map<String, Integer> getSimilarityIds(long modelSubmissionId) {
+        return similarityIds.getOrDefault(modelSubmissionId, Map.of());
+    }
+
+    List<ElementReference> getUniqueElements() {
+        return uniqueElements;
+    }
+
+    Set<Long> getAlreadyHandledModels() {
+        return alreadyHandledModels;
+    }
+
+    Set<Long> getModelsWaitingForAssessment() {
+        return modelsWaitingForAssessment;
+    }
+
+    /**
+     * Write the snapshot to the given stream.
+     *
+     * @param outputStream the stream to write to, it is not closed
+     * @throws IOException if the snapshot could not be written
+     */
+    void write(OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(VERSION);
+        output.writeLong(exerciseId);
+
+        output.writeInt(modelChecksums.size());
+        for (var model : modelChecksums.entrySet()) {
+            output.writeLong(model.getKey());
+            output.writeLong(model.getValue());
+            Map<String, Integer> elementSimilarityIds = getSimilarityIds(model.getKey());
+            output.writeInt(elementSimilarityIds.size());
+            for (var element : elementSimilarityIds.entrySet()) {
+                output.writeUTF(element.getKey());
+                output.writeInt(element.getValue());
+            }
+        }
+
+        output.writeInt(uniqueElements.size());
+        for (ElementReference uniqueElement : uniqueElements) {
+            output.writeLong(uniqueElement.modelSubmissionId);
+            output.writeUTF(uniqueElement.jsonElementId);
+        }
+
+        writeIds(output, alreadyHandledModels);
+        writeIds(output, modelsWaitingForAssessment);
+        output.flush();
+    }
+
+    /**
+     * Read a snapshot from the given stream.
+     *
+     * @param inputStream the stream to read from, it is not closed
+     * @return the snapshot or an empty optional if the snapshot was written in another version
+     * @throws IOException if the snapshot could not be read
+     */
+    static Optional<CompassEngineSnapshot> read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != VERSION) {
+            return Optional.empty();
+        }
+        CompassEngineSnapshot snapshot = new CompassEngineSnapshot(input.readLong());
+
+        int numberOfModels = input.readInt();
+        for (int i = 0; i < numberOfModels; i++) {
+            long modelSubmissionId = input.readLong();
+            long checksum = input.readLong();
+            int numberOfElements = input.readInt();
+            Map<String, Integer> elementSimilarityIds = new HashMap<>(numberOfElements * 2);
+            for (int j = 0; j < numberOfElements; j++) {
+                elementSimilarityIds.put(input.readUTF(), input.readInt());
+            }
+            snapshot.addModel(modelSubmissionId, checksum, elementSimilarityIds);
+        }
+
+        int numberOfUniqueElements = input.readInt();
+        for (int i = 0; i < numberOfUniqueElements; i++) {
+            snapshot.addUniqueElement(input.readLong(), input.readUTF());
+        }
+
+        snapshot.alreadyHandledModels.addAll(readIds(input));
+        snapshot.modelsWaitingForAssessment.addAll(readIds(input));
+        return Optional.of(snapshot);
+    }
+
+    private static void writeIds(DataOutputStream output, Set<Long> ids) throws IOException {
+        output.writeInt(ids.size());
+        for (Long id : ids) {
+            output.writeLong(id);
+        }
+    }
+
+    private static List<Long> readIds(DataInputStream input) throws IOException {
+        int numberOfIds = input.readInt();
+        List<Long> ids = new ArrayList<>(numberOfIds);
+        for (int i = 0; i < numberOfIds; i++) {
+            ids.add(input.readLong());
+        }
+        return ids;
+    }
+
+    /**
+     * Reference to a model element by the id of its modeling submission and its JSON element id
+     */
+    static class ElementReference {
+
+        final long modelSubmissionId;
+
+        final String jsonElementId;
+
+        ElementReference(long modelSubmissionId, String jsonElementId) {
+            this.modelSubmissionId = modelSubmissionId;
+            this.jsonElementId = jsonElementId;
+        }
+    }
+}
@@ -2,16 +2,27 @@ package de.tum.in.www1.artemis.service.compass;
 
 import static de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -56,6 +67,18 @@ public class CompassService {
      */
     private static Map<Long, CalculationEngine> compassCalculationEngines = new ConcurrentHashMap<>();
 
+    /**
+     * If true, the similarity IDs found with the candidate index of the model index are verified by comparing the elements with all unique elements (slow)
+     */
+    @Value("${artemis.compass.model-index-parity-check:false}")
+    private boolean modelIndexParityCheck;
+
+    /**
+     * Directory (on the local disk or a shared file system) for snapshots of the calculation engines, snapshots are disabled if it is not set
+     */
+    @Value("${artemis.compass.snapshot-path:#{null}}")
+    private String snapshotPath;
+
     public CompassService(ResultRepository resultRepository, ModelingExerciseRepository modelingExerciseRepository, ModelingSubmissionRepository modelingSubmissionRepository,
             StudentParticipationRepository studentParticipationRepository) {
         this.resultRepository = resultRepository;
@@ -478,11 +501,77 @@ public class CompassService {
         log.info("Loading Compass calculation engine for exercise " + exerciseId);
 
         Set<ModelingSubmission> modelingSubmissions = getSubmissionsForExercise(exerciseId);
-        CalculationEngine calculationEngine = new CompassCalculationEngine(modelingSubmissions);
+        CompassEngineSnapshot snapshot = readSnapshot(exerciseId).orElse(null);
+        CalculationEngine calculationEngine = new CompassCalculationEngine(modelingSubmissions, modelIndexParityCheck, snapshot);
         compassCalculationEngines.put(exerciseId, calculationEngine);
+        writeSnapshot(exerciseId, calculationEngine);
         assessAllAutomatically(calculationEngine.getModelIds(), exerciseId);
     }
 
+    /**
+     * Read the snapshot of the calculation engine of the given exercise, if snapshots are enabled and there is a valid snapshot.
+     *
+     * @param exerciseId the id of the exercise
+     * @return the snapshot or an empty optional
+     */
+    private Optional<CompassEngineSnapshot> readSnapshot(long exerciseId) {
+        if (snapshotPath == null) {
+            return Optional.empty();
+        }
+        Path snapshotFile = getSnapshotFile(exerciseId);
+        if (!Files.exists(snapshotFile)) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(snapshotFile))) {
+            return CompassEngineSnapshot.read(inputStream).filter(snapshot -> snapshot.getExerciseId() == exerciseId);
+        }
+        catch (IOException e) {
+            log.warn("Could not read Compass snapshot for exercise {}: {}", exerciseId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write a snapshot of the given calculation engine, if snapshots are enabled. The snapshot is written to a temporary file first and moved afterwards, so that other nodes
+     * never read a partially written snapshot.
+     *
+     * @param exerciseId        the id of the exercise of the engine
+     * @param calculationEngine the calculation engine
+     */
+    private void writeSnapshot(long exerciseId, CalculationEngine calculationEngine) {
+        if (snapshotPath == null || !(calculationEngine instanceof CompassCalculationEngine)) {
+            return;
+        }
+        Optional<CompassEngineSnapshot> snapshot = ((CompassCalculationEngine) calculationEngine).createSnapshot(exerciseId);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        Path snapshotFile = getSnapshotFile(exerciseId);
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            Path temporaryFile = Files.createTempFile(snapshotFile.getParent(), snapshotFile.getFileName().toString(), ".tmp");
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+                snapshot.get().write(outputStream);
+            }
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            log.warn("Could not write Compass snapshot for exercise {}: {}", exerciseId, e.getMessage());
+        }
+    }
+
+    private Path getSnapshotFile(long exerciseId) {
+        return Path.of(snapshotPath, "compass-engine-" + exerciseId + ".bin.gz");
+    }
+
+    /**
+     * Write snapshots of all calculation engines before shutting down, so that the engines can be restored quickly after a restart
+     */
+    @PreDestroy
+    public void writeAllSnapshots() {
+        compassCalculationEngines.forEach(this::writeSnapshot);
+    }
+
     /**
      * Get all the modeling submissions with result and feedback of the given exercise
      *
@@ -509,12 +598,15 @@ public class CompassService {
 
     // Call every night at 2:00 am to free memory for unused calculation engines (older than 1 day)
     @Scheduled(cron = "0 0 2 * * *") // execute this every night at 2:00:00 am
-    private static void cleanUpCalculationEngines() {
-        LoggerFactory.getLogger(CompassService.class).info("Compass evaluates the need of keeping " + compassCalculationEngines.size() + " calculation engines in memory");
-        compassCalculationEngines = compassCalculationEngines.entrySet().stream()
-                .filter(map -> Duration.between(map.getValue().getLastUsedAt(), LocalDateTime.now()).toDays() < DAYS_TO_KEEP_UNUSED_ENGINE)
+    private void cleanUpCalculationEngines() {
+        log.info("Compass evaluates the need of keeping " + compassCalculationEngines.size() + " calculation engines in memory");
+        Map<Long, CalculationEngine> unusedCalculationEngines = compassCalculationEngines.entrySet().stream()
+                .filter(map -> Duration.between(map.getValue().getLastUsedAt(), LocalDateTime.now()).toDays() >= DAYS_TO_KEEP_UNUSED_ENGINE)
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        LoggerFactory.getLogger(CompassService.class).info("After evaluation, there are still " + compassCalculationEngines.size() + " calculation engines in memory");
+        // keep the state of the removed engines, so that they can be restored quickly when they are needed again
+        unusedCalculationEngines.forEach(this::writeSnapshot);
+        compassCalculationEngines.keySet().removeAll(unusedCalculationEngines.keySet());
+        log.info("After evaluation, there are still " + compassCalculationEngines.size() + " calculation engines in memory");
     }
 
     /**
@@ -1,20 +1,60 @@
 package de.tum.in.www1.artemis.service.compass.controller;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.Queue;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.util.Pair;
 
+import de.tum.in.www1.artemis.service.compass.umlmodel.Similarity;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.compass.umlmodel.activity.UMLActivity;
+import de.tum.in.www1.artemis.service.compass.umlmodel.activity.UMLActivityNode;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLAttribute;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLClass;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLPackage;
+import de.tum.in.www1.artemis.service.compass.umlmodel.component.UMLComponent;
+import de.tum.in.www1.artemis.service.compass.umlmodel.component.UMLComponentInterface;
+import de.tum.in.www1.artemis.service.compass.umlmodel.deployment.UMLArtifact;
+import de.tum.in.www1.artemis.service.compass.umlmodel.deployment.UMLNode;
+import de.tum.in.www1.artemis.service.compass.umlmodel.object.UMLObject;
+import de.tum.in.www1.artemis.service.compass.umlmodel.usecase.UMLActor;
+import de.tum.in.www1.artemis.service.compass.umlmodel.usecase.UMLSystemBoundary;
+import de.tum.in.www1.artemis.service.compass.umlmodel.usecase.UMLUseCase;
 import de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration;
 
 public class ModelIndex {
 
-    private Queue<UMLElement> uniqueModelElementList;
+    private final Logger log = LoggerFactory.getLogger(ModelIndex.class);
+
+    /**
+     * Element types whose similarity is dominated by the name, i.e. a similarity above the {@link CompassConfiguration#EQUALITY_THRESHOLD} requires a name similarity above 0.8.
+     * Two names (with at least two characters) that do not share a single bigram cannot reach that name similarity, so only elements sharing a bigram have to be compared.
+     * For all other types (e.g. relationships) the name is not relevant for the similarity and all elements of the type are compared.
+     */
+    private static final Set<Class<? extends UMLElement>> NAME_BASED_TYPES = Set.of(UMLClass.class, UMLAttribute.class, UMLPackage.class, UMLActivity.class,
+            UMLActivityNode.class, UMLObject.class, UMLComponent.class, UMLComponentInterface.class, UMLNode.class, UMLArtifact.class, UMLActor.class, UMLUseCase.class,
+            UMLSystemBoundary.class);
+
+    private static final int NGRAM_SIZE = 2;
+
+    /**
+     * The class that declares the similarity method of an element type. The similarity implementations return 0 for references that are not an instance of this class.
+     */
+    private static final Map<Class<?>, Class<?>> similarityTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Note: The index of an element is its similarity ID
+     */
+    private List<UMLElement> uniqueModelElementList;
+
+    /**
+     * Candidate index of the unique elements by their type
+     */
+    private Map<Class<?>, CandidateIndex> candidateIndices;
 
     /**
      * Note: The key is the model submission id
@@ -23,15 +63,30 @@ public class ModelIndex {
 
     private Map<UMLElement, Integer> modelElementMapping;
 
+    private final boolean parityCheck;
+
     public ModelIndex() {
+        this(false);
+    }
+
+    /**
+     * Create a new model index.
+     *
+     * @param parityCheck if true, every similarity ID retrieved with the candidate index is verified by comparing the element with all unique elements (slow, use for verification)
+     */
+    public ModelIndex(boolean parityCheck) {
+        this.parityCheck = parityCheck;
         modelElementMapping = new ConcurrentHashMap<>();
-        uniqueModelElementList = new ConcurrentLinkedQueue<>();
+        uniqueModelElementList = Collections.synchronizedList(new ArrayList<>());
+        candidateIndices = new ConcurrentHashMap<>();
         modelMap = new ConcurrentHashMap<>();
     }
 
     /**
      * Get the internal similarity ID for the given model element. If the element is similar to an existing one, they share the same similarity id, i.e. they are in the same
      * similarity set. Otherwise, the given element does not belong to an existing similarity set and a new similarity ID is created for the element.
+     * <p>
+     * Only the unique elements that can be similar to the given element (see {@link #getCandidates(UMLElement)}) are compared with it.
      *
      * @param element a model element for which the corresponding similarity ID should be retrieved
      * @return the similarity ID for the given model element, i.e. the ID of the similarity set the element belongs to
@@ -41,10 +96,64 @@ public class ModelIndex {
             return modelElementMapping.get(element);
         }
 
+        int similarityId = findBestSimilarityFit(element, getCandidates(element));
+
+        if (parityCheck) {
+            int bruteForceSimilarityId = findBestSimilarityFit(element, getUniqueElements());
+            if (bruteForceSimilarityId != similarityId) {
+                log.warn("Similarity ID {} of element {} from the candidate index does not match the similarity ID {} of the full comparison", similarityId, element,
+                        bruteForceSimilarityId);
+                similarityId = bruteForceSimilarityId;
+            }
+        }
+
+        if (similarityId != -1) {
+            modelElementMapping.put(element, similarityId);
+            return similarityId;
+        }
+
+        // element does not fit already known element / similarity set
+        synchronized (uniqueModelElementList) {
+            uniqueModelElementList.add(element);
+            similarityId = uniqueModelElementList.size() - 1;
+        }
+        candidateIndices.computeIfAbsent(element.getClass(), CandidateIndex::new).add(element, similarityId);
+        modelElementMapping.put(element, similarityId);
+        return similarityId;
+    }
+
+    /**
+     * Restore the similarity sets from a snapshot instead of analyzing the similarity of the elements again. The similarity IDs of the given elements must already be set.
+     *
+     * @param uniqueElements the unique element of every similarity set in the order of the similarity IDs, the index must be empty
+     * @param elements       all elements of the restored models
+     */
+    public void restoreSimilaritySets(List<UMLElement> uniqueElements, Collection<UMLElement> elements) {
+        if (!uniqueModelElementList.isEmpty()) {
+            throw new IllegalStateException("Similarity sets can only be restored into an empty model index");
+        }
+        for (UMLElement uniqueElement : uniqueElements) {
+            uniqueModelElementList.add(uniqueElement);
+            candidateIndices.computeIfAbsent(uniqueElement.getClass(), CandidateIndex::new).add(uniqueElement, uniqueElement.getSimilarityID());
+        }
+        for (UMLElement element : elements) {
+            modelElementMapping.put(element, element.getSimilarityID());
+        }
+    }
+
+    /**
+     * Compare the given element with the known elements and return the similarity ID of the most similar one, if the similarity is above the equality threshold. If multiple
+     * known elements have the same similarity, the first one wins.
+     *
+     * @param element       the element for which a similar element should be found
+     * @param knownElements the known elements in the order of their similarity IDs
+     * @return the similarity ID of the best fitting known element or -1 if there is no similar element
+     */
+    private int findBestSimilarityFit(UMLElement element, Collection<UMLElement> knownElements) {
         // Pair of similarity value and similarity ID
         var bestSimilarityFit = Pair.of(-1.0, -1);
 
-        for (final var knownElement : uniqueModelElementList) {
+        for (final var knownElement : knownElements) {
             final var similarity = knownElement.similarity(element);
             if (similarity > CompassConfiguration.EQUALITY_THRESHOLD && similarity > bestSimilarityFit.getFirst()) {
                 // element is similar to existing element and has a higher similarity than another element
@@ -52,15 +161,58 @@ public class ModelIndex {
             }
         }
 
-        if (bestSimilarityFit.getFirst() != -1.0) {
-            modelElementMapping.put(element, bestSimilarityFit.getSecond());
-            return bestSimilarityFit.getSecond();
+        return bestSimilarityFit.getSecond();
+    }
+
+    /**
+     * Get the unique elements that can be similar to the given element in the order of their similarity IDs: only elements of a type whose similarity accepts the type of the
+     * given element and, for name based types, only elements whose name shares an n-gram with the name of the given element.
+     *
+     * @param element the element for which the candidates should be retrieved
+     * @return the candidates for a similar element
+     */
+    private Collection<UMLElement> getCandidates(UMLElement element) {
+        SortedSet<Integer> candidateIds = new TreeSet<>();
+        for (var candidateIndex : candidateIndices.values()) {
+            if (getSimilarityType(candidateIndex.type).isInstance(element)) {
+                candidateIndex.collectCandidateIds(element, candidateIds);
+            }
+        }
+        List<UMLElement> candidates = new ArrayList<>(candidateIds.size());
+        for (Integer candidateId : candidateIds) {
+            candidates.add(uniqueModelElementList.get(candidateId));
         }
+        return candidates;
+    }
 
-        // element does not fit already known element / similarity set
-        uniqueModelElementList.add(element);
-        modelElementMapping.put(element, uniqueModelElementList.size() - 1);
-        return uniqueModelElementList.size() - 1;
+    private static Class<?> getSimilarityType(Class<?> elementType) {
+        return similarityTypes.computeIfAbsent(elementType, type -> {
+            try {
+                return type.getMethod("similarity", Similarity.class).getDeclaringClass();
+            }
+            catch (NoSuchMethodException e) {
+                // cannot happen as every element implements Similarity, compare with all elements to be on the safe side
+                return Object.class;
+            }
+        });
+    }
+
+    /**
+     * Get the lower case n-grams of the given name.
+     *
+     * @param name the name of an element, can be null
+     * @return the n-grams of the name, empty if the name is shorter than the n-gram size
+     */
+    static Set<String> getNGrams(String name) {
+        if (name == null || name.length() < NGRAM_SIZE) {
+            return Set.of();
+        }
+        String normalizedName = name.toLowerCase(Locale.ROOT);
+        Set<String> nGrams = new HashSet<>();
+        for (int i = 0; i + NGRAM_SIZE <= normalizedName.length(); i++) {
+            nGrams.add(normalizedName.substring(i, i + NGRAM_SIZE));
+        }
+        return nGrams;
     }
 
     /**
@@ -128,11 +280,65 @@ public class ModelIndex {
     }
 
     /**
-     * Get the collection of unique elements. Each unique element represents a similarity set.
+     * Get a snapshot of the unique elements. Each unique element represents a similarity set. The snapshot can be iterated while new unique elements are added concurrently.
      *
-     * @return the collection of unique elements
+     * @return the unique elements in the order of their similarity IDs
      */
-    public Collection<UMLElement> getUniqueElements() {
-        return uniqueModelElementList;
+    public List<UMLElement> getUniqueElements() {
+        // copying iterates the list, which requires the lock of the synchronized list
+        synchronized (uniqueModelElementList) {
+            return List.copyOf(uniqueModelElementList);
+        }
+    }
+
+    /**
+     * The similarity IDs of the unique elements of one type, additionally indexed by the n-grams of their names for name based types.
+     */
+    private static class CandidateIndex {
+
+        private final Class<?> type;
+
+        private final boolean nameBased;
+
+        private final Queue<Integer> similarityIds = new ConcurrentLinkedQueue<>();
+
+        private final Queue<Integer> similarityIdsWithoutNGrams = new ConcurrentLinkedQueue<>();
+
+        private final Map<String, Queue<Integer>> similarityIdsByNGram = new ConcurrentHashMap<>();
+
+        CandidateIndex(Class<?> type) {
+            this.type = type;
+            this.nameBased = NAME_BASED_TYPES.contains(type);
+        }
+
+        void add(UMLElement element, int similarityId) {
+            similarityIds.add(similarityId);
+            if (!nameBased) {
+                return;
+            }
+            Set<String> nGrams = getNGrams(element.getName());
+            if (nGrams.isEmpty()) {
+                similarityIdsWithoutNGrams.add(similarityId);
+            }
+            for (String nGram : nGrams) {
+                similarityIdsByNGram.computeIfAbsent(nGram, key -> new ConcurrentLinkedQueue<>()).add(similarityId);
+            }
+        }
+
+        void collectCandidateIds(UMLElement element, Set<Integer> candidateIds) {
+            Set<String> nGrams = nameBased && element.getClass() == type ? getNGrams(element.getName()) : Set.of();
+            if (nGrams.isEmpty()) {
+                // the name does not restrict the candidates
+                candidateIds.addAll(similarityIds);
+                return;
+            }
+            candidateIds.addAll(similarityIdsWithoutNGrams);
+            for (String nGram : nGrams) {
+                Queue<Integer> similarityIdsWithNGram = similarityIdsByNGram.get(nGram);
+                if (similarityIdsWithNGram != null) {
+                    candidateIds.addAll(similarityIdsWithNGram);
+                }
+            }
+        }
     }
 }
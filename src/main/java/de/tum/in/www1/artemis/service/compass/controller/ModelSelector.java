@@ -138,6 +138,14 @@ public class ModelSelector {
         return new ArrayList<>(modelsWaitingForAssessment);
     }
 
+    public Set<Long> getAlreadyHandledModels() {
+        return new HashSet<>(alreadyHandledModels);
+    }
+
+    public void addModelWaitingForAssessment(long modelId) {
+        modelsWaitingForAssessment.add(modelId);
+    }
+
     public void addAlreadyHandledModel(long modelId) {
         alreadyHandledModels.add(modelId);
     }
@@ -1,6 +1,8 @@
 package de.tum.in.www1.artemis.service.compass.umlmodel;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import de.tum.in.www1.artemis.service.compass.assessment.CompassResult;
 
@@ -47,6 +49,20 @@ public abstract class UMLDiagram implements Similarity<UMLDiagram> {
         return getModelElements();
     }
 
+    /**
+     * Count the model elements that are used to calculate the similarity (see {@link #getModelElements()}) per element type. As model elements of different types are never
+     * similar, this can be used to cheaply estimate the similarity of two diagrams.
+     *
+     * @return the number of model elements per element class
+     */
+    public Map<Class<?>, Integer> getModelElementTypes() {
+        Map<Class<?>, Integer> modelElementTypes = new HashMap<>();
+        for (UMLElement element : getModelElements()) {
+            modelElementTypes.merge(element.getClass(), 1, Integer::sum);
+        }
+        return modelElementTypes;
+    }
+
     /**
      * Compares this with another diagram to calculate the similarity. It iterates over all model elements and calculates the max. similarity to elements of the reference diagram.
      * The sum of the weighted single element similarity scores is the total similarity score of the two diagrams.
@@ -5,9 +5,14 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,6 +31,9 @@ public class ModelingPlagiarismDetectionService {
 
     private final Logger log = LoggerFactory.getLogger(ModelingPlagiarismDetectionService.class);
 
+    @Value("${artemis.plagiarism.modeling.threads:4}")
+    private int threads = 4;
+
     /**
      * Convenience method to extract all latest submissions from a ModelingExercise and compute pair-wise distances.
      *
@@ -53,75 +61,138 @@ public class ModelingPlagiarismDetectionService {
      */
     public List<ModelingSubmissionComparisonDTO> compareSubmissions(List<ModelingSubmission> modelingSubmissions, double minimumSimilarity, int minimumModelSize,
             int minimumScore) {
+        final List<ModelingSubmissionComparisonDTO> comparisonResults = Collections.synchronizedList(new ArrayList<>());
+        compareSubmissions(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore, comparisonResults::add);
+        log.info("Found " + comparisonResults.size() + " similar modeling submission combinations ( > " + minimumSimilarity + ")");
+        return comparisonResults;
+    }
 
-        Map<UMLDiagram, ModelingSubmission> models = new HashMap<>();
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Pairwise comparison of modeling submissions. The comparisons are distributed over a bounded number of threads and every comparison result with a similarity of at least
+     * minimumSimilarity is passed to the given consumer as soon as it is found, i.e. the consumer is called concurrently and has to be thread-safe.
+     * <p>
+     * Pairs of models whose similarity cannot reach minimumSimilarity are skipped without comparing their elements: the similarity of two diagrams is the weighted sum of the
+     * best element similarities divided by the element count of the larger diagram, and elements of different types are never similar. Therefore, the number of elements of the
+     * smaller diagram that have a counterpart type in the larger diagram divided by the element count of the larger diagram is an upper bound of the similarity.
+     * <p>
+     * If the calling thread is interrupted, the comparison is cancelled and only the results found so far have been passed to the consumer.
+     *
+     * @param modelingSubmissions List of modeling submissions
+     * @param minimumSimilarity the minimum similarity so that the result is considered
+     * @param minimumModelSize the minimum number of model elements to be considered as plagiarism
+     * @param minimumScore the minimum result score (if available) to be considered as plagiarism
+     * @param resultConsumer is called with every comparison result that should be considered
+     */
+    public void compareSubmissions(List<ModelingSubmission> modelingSubmissions, double minimumSimilarity, int minimumModelSize, int minimumScore,
+            Consumer<ModelingSubmissionComparisonDTO> resultConsumer) {
+        final List<ComparableModel> models = parseModels(modelingSubmissions, minimumModelSize);
+        log.info("Found " + models.size() + " modeling submissions with at least " + minimumModelSize + " elements to compare");
+        if (models.size() < 2) {
+            return;
+        }
 
-        for (var modelingSubmission : modelingSubmissions) {
-            if (!modelingSubmission.isEmpty(objectMapper)) {
-                try {
-                    log.debug("Build UML diagram from json");
-                    UMLDiagram model = UMLModelParser.buildModelFromJSON(parseString(modelingSubmission.getModel()).getAsJsonObject(), modelingSubmission.getId());
-                    if (model.getAllModelElements().size() >= minimumModelSize) {
-                        models.put(model, modelingSubmission);
-                    }
-                }
-                catch (IOException e) {
-                    log.error("Parsing the modeling submission " + modelingSubmission.getId() + " did throw an exception:", e);
+        final int numberOfTasks = Math.max(1, Math.min(threads, models.size() - 1));
+        final AtomicLong skippedComparisons = new AtomicLong();
+        final List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+        for (int task = 0; task < numberOfTasks; task++) {
+            final int firstRow = task;
+            tasks.add(() -> {
+                // the rows are distributed round-robin, as the first rows contain more comparisons than the last ones
+                for (int i = firstRow; i < models.size() && !Thread.currentThread().isInterrupted(); i += numberOfTasks) {
+                    skippedComparisons.addAndGet(compareRow(models, i, minimumSimilarity, minimumScore, minimumModelSize, resultConsumer));
                 }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfTasks, new CustomizableThreadFactory("modeling-plagiarism-"));
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
             }
         }
+        catch (InterruptedException e) {
+            log.info("Comparison of modeling submissions was cancelled");
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Could not compare modeling submissions", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
 
-        log.info("Found " + models.size() + " modeling submissions with at least " + minimumModelSize + " elements to compare");
+        log.debug("Skipped " + skippedComparisons.get() + " of " + ((long) models.size() * (models.size() - 1) / 2) + " modeling submission comparisons");
+    }
 
-        final List<ModelingSubmissionComparisonDTO> comparisonResults = new ArrayList<>();
+    /**
+     * Compares the model at index i with all models with a higher index, i.e. we only check the similarity between two different submissions once.
+     *
+     * @return the number of comparisons that were skipped, because their similarity could not reach the minimum similarity
+     */
+    private long compareRow(List<ComparableModel> models, int i, double minimumSimilarity, int minimumScore, int minimumModelSize,
+            Consumer<ModelingSubmissionComparisonDTO> resultConsumer) {
+        long skippedComparisons = 0;
+        var model1 = models.get(i);
+        for (int j = i + 1; j < models.size() && !Thread.currentThread().isInterrupted(); j++) {
+            var model2 = models.get(j);
+            if (model1.maximumSimilarity(model2) < minimumSimilarity) {
+                skippedComparisons++;
+                continue;
+            }
 
-        var nonEmptyModelsList = new ArrayList<>(models.keySet());
+            final double similarity = model1.diagram.similarity(model2.diagram);
+            if (similarity < minimumSimilarity) {
+                // ignore comparison results with too small similarity
+                continue;
+            }
 
-        // it is intended to use the classic for loop here, because we only want to check similarity between two different submissions once
-        for (int i = 0; i < nonEmptyModelsList.size(); i++) {
-            for (int j = i + 1; j < nonEmptyModelsList.size(); j++) {
-                var model1 = nonEmptyModelsList.get(i);
-                var model2 = nonEmptyModelsList.get(j);
-                final double similarity = model1.similarity(model2);
-                log.debug("Compare result " + i + " with " + j + ": " + similarity);
-                if (similarity < minimumSimilarity) {
-                    // ignore comparison results with too small similarity
-                    continue;
-                }
+            var submission1 = model1.submission;
+            var submission2 = model2.submission;
+            if (submission1.getResult() != null && submission1.getResult().getScore() != null && submission1.getResult().getScore() < minimumScore
+                    && submission2.getResult() != null && submission2.getResult().getScore() != null && submission2.getResult().getScore() < minimumModelSize) {
+                // ignore comparison results with too small scores
+                continue;
+            }
 
-                var submission1 = models.get(model1);
-                var submission2 = models.get(model2);
-                if (submission1.getResult() != null && submission1.getResult().getScore() != null && submission1.getResult().getScore() < minimumScore
-                        && submission2.getResult() != null && submission2.getResult().getScore() != null && submission2.getResult().getScore() < minimumModelSize) {
-                    // ignore comparison results with too small scores
-                    continue;
-                }
+            var comparisonResult = new ModelingSubmissionComparisonDTO();
+            var element1 = new ModelingSubmissionComparisonElement().submissionId(submission1.getId()).size(model1.size);
+            var element2 = new ModelingSubmissionComparisonElement().submissionId(submission2.getId()).size(model2.size);
+            element1.studentLogin(((StudentParticipation) submission1.getParticipation()).getParticipantIdentifier());
+            element2.studentLogin(((StudentParticipation) submission2.getParticipation()).getParticipantIdentifier());
+            comparisonResult.setElement1(element1);
+            comparisonResult.setElement2(element2);
+            comparisonResult.similarity(similarity);
+            if (submission1.getResult() != null) {
+                comparisonResult.getElement1().score(submission1.getResult().getScore());
+            }
+            if (submission2.getResult() != null) {
+                comparisonResult.getElement2().score(submission2.getResult().getScore());
+            }
+
+            resultConsumer.accept(comparisonResult);
+        }
+        return skippedComparisons;
+    }
 
-                log.info("Found similar models " + i + " with " + j + ": " + similarity);
-
-                var comparisonResult = new ModelingSubmissionComparisonDTO();
-                var element1 = new ModelingSubmissionComparisonElement().submissionId(submission1.getId()).size(model1.getAllModelElements().size());
-                var element2 = new ModelingSubmissionComparisonElement().submissionId(submission2.getId()).size(model2.getAllModelElements().size());
-                element1.studentLogin(((StudentParticipation) submission1.getParticipation()).getParticipantIdentifier());
-                element2.studentLogin(((StudentParticipation) submission2.getParticipation()).getParticipantIdentifier());
-                comparisonResult.setElement1(element1);
-                comparisonResult.setElement2(element2);
-                comparisonResult.similarity(similarity);
-                if (submission1.getResult() != null) {
-                    comparisonResult.getElement1().score(submission1.getResult().getScore());
+    private List<ComparableModel> parseModels(List<ModelingSubmission> modelingSubmissions, int minimumModelSize) {
+        final List<ComparableModel> models = new ArrayList<>();
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        for (var modelingSubmission : modelingSubmissions) {
+            if (!modelingSubmission.isEmpty(objectMapper)) {
+                try {
+                    UMLDiagram model = UMLModelParser.buildModelFromJSON(parseString(modelingSubmission.getModel()).getAsJsonObject(), modelingSubmission.getId());
+                    if (model.getAllModelElements().size() >= minimumModelSize) {
+                        models.add(new ComparableModel(model, modelingSubmission));
+                    }
                 }
-                if (submission2.getResult() != null) {
-                    comparisonResult.getElement2().score(submission2.getResult().getScore());
+                catch (IOException e) {
+                    log.error("Parsing the modeling submission " + modelingSubmission.getId() + " did throw an exception:", e);
                 }
-
-                comparisonResults.add(comparisonResult);
             }
         }
-
-        log.info("Found " + comparisonResults.size() + " similar modeling submission combinations ( > " + minimumSimilarity + ")");
-
-        return comparisonResults;
+        return models;
     }
 
     /**
@@ -135,4 +206,64 @@ public class ModelingPlagiarismDetectionService {
                 .map(Optional::get).filter(submission -> submission instanceof ModelingSubmission).map(submission -> (ModelingSubmission) submission).collect(toUnmodifiableList());
     }
 
+    /**
+     * A parsed model together with the information that is needed to cheaply decide whether it can be similar to another model
+     */
+    private static class ComparableModel {
+
+        /**
+         * Tolerance for rounding errors when comparing the upper bound with the minimum similarity
+         */
+        private static final double EPSILON = 1e-9;
+
+        private final UMLDiagram diagram;
+
+        private final ModelingSubmission submission;
+
+        /**
+         * The number of all model elements which is shown to the user
+         */
+        private final int size;
+
+        /**
+         * The number of model elements that are used to calculate the similarity
+         */
+        private final int elementCount;
+
+        /**
+         * The number of model elements that are used to calculate the similarity per element type
+         */
+        private final Map<Class<?>, Integer> elementTypes;
+
+        ComparableModel(UMLDiagram diagram, ModelingSubmission submission) {
+            this.diagram = diagram;
+            this.submission = submission;
+            this.size = diagram.getAllModelElements().size();
+            this.elementTypes = diagram.getModelElementTypes();
+            this.elementCount = elementTypes.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        /**
+         * Calculates an upper bound of the similarity of this model and the given model (see UMLDiagram#similarity) without comparing the model elements.
+         *
+         * @param other the model to compare this model with
+         * @return the maximum similarity the two models can have
+         */
+        double maximumSimilarity(ComparableModel other) {
+            // like UMLDiagram#similarity, the diagram with less elements is compared to the diagram with more elements
+            var smallerModel = elementCount > other.elementCount ? other : this;
+            var largerModel = smallerModel == this ? other : this;
+            if (largerModel.elementCount == 0) {
+                return 0;
+            }
+
+            int comparableElements = 0;
+            for (var elementType : smallerModel.elementTypes.entrySet()) {
+                if (largerModel.elementTypes.containsKey(elementType.getKey())) {
+                    comparableElements += elementType.getValue();
+                }
+            }
+            return (double) comparableElements / largerModel.elementCount + EPSILON;
+        }
+    }
 }
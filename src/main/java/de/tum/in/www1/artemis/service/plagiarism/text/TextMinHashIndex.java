@@ -0,0 +1,176 @@
+package de.tum.in.www1.artemis.service.plagiarism.text;
+
+import java.util.*;
+
+/**
+ * Finds candidate pairs of similar texts in near-linear time using shingling, MinHash and locality-sensitive hashing (LSH).
+ * <p>
+ * Every text is split into overlapping character shingles. For every text, a MinHash signature of bands * rows values is computed, which approximates the Jaccard similarity of
+ * the shingle sets. The signature is divided into bands of rows values and two texts become a candidate pair if all values of at least one band are equal. Two texts with a
+ * Jaccard similarity s are a candidate pair with a probability of 1 - (1 - s^rows)^bands, i.e. the threshold of the resulting S-curve is roughly (1 / bands)^(1 / rows):
+ * more bands (or less rows) increase the recall, less bands (or more rows) increase the precision.
+ */
+public class TextMinHashIndex {
+
+    /**
+     * Large prime (2^31 - 1) for the universal hash functions
+     */
+    private static final long PRIME = 2147483647L;
+
+    /**
+     * Fixed seed so that the candidates are reproducible
+     */
+    private static final long SEED = 42L;
+
+    private final int shingleSize;
+
+    private final int bands;
+
+    private final int rows;
+
+    private final long[] hashCoefficientsA;
+
+    private final long[] hashCoefficientsB;
+
+    /**
+     * Create a new index with the given parameters.
+     *
+     * @param shingleSize the number of characters of a shingle
+     * @param bands       the number of LSH bands
+     * @param rows        the number of MinHash values per band
+     */
+    public TextMinHashIndex(int shingleSize, int bands, int rows) {
+        if (shingleSize < 1 || bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("The shingle size, the number of bands and the number of rows have to be positive");
+        }
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = rows;
+
+        Random random = new Random(SEED);
+        int numberOfHashFunctions = bands * rows;
+        hashCoefficientsA = new long[numberOfHashFunctions];
+        hashCoefficientsB = new long[numberOfHashFunctions];
+        for (int i = 0; i < numberOfHashFunctions; i++) {
+            hashCoefficientsA[i] = 1 + Math.floorMod(random.nextLong(), PRIME - 1);
+            hashCoefficientsB[i] = Math.floorMod(random.nextLong(), PRIME);
+        }
+    }
+
+    /**
+     * Calculate the candidate pairs of the given texts, i.e. the pairs that share at least one LSH bucket.
+     *
+     * @param texts the texts to compare
+     * @return the candidate pairs as indices into the given list, the first index is always smaller than the second one
+     */
+    public List<int[]> findCandidatePairs(List<String> texts) {
+        final int[][] signatures = new int[texts.size()][];
+        for (int i = 0; i < texts.size(); i++) {
+            signatures[i] = signature(texts.get(i));
+        }
+
+        final Set<Long> candidatePairs = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            final Map<BandKey, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < signatures.length; i++) {
+                buckets.computeIfAbsent(new BandKey(signatures[i], band * rows, rows), key -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    for (int j = i + 1; j < bucket.size(); j++) {
+                        // the indices are added in ascending order, so bucket.get(i) < bucket.get(j)
+                        candidatePairs.add((long) bucket.get(i) * texts.size() + bucket.get(j));
+                    }
+                }
+            }
+        }
+
+        final List<int[]> result = new ArrayList<>(candidatePairs.size());
+        for (long candidatePair : candidatePairs) {
+            result.add(new int[] { (int) (candidatePair / texts.size()), (int) (candidatePair % texts.size()) });
+        }
+        return result;
+    }
+
+    /**
+     * Calculate the MinHash signature of the given text.
+     *
+     * @param text the text
+     * @return the signature with bands * rows values
+     */
+    int[] signature(String text) {
+        final int[] signature = new int[hashCoefficientsA.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles(text)) {
+            long value = Integer.toUnsignedLong(shingle);
+            for (int i = 0; i < signature.length; i++) {
+                int hash = (int) ((hashCoefficientsA[i] * (value % PRIME) + hashCoefficientsB[i]) % PRIME);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Split the normalized text into the hashes of its overlapping character shingles. Texts that are shorter than a shingle consist of a single shingle.
+     *
+     * @param text the text
+     * @return the distinct hashes of the shingles
+     */
+    Set<Integer> shingles(String text) {
+        final String normalizedText = text == null ? "" : text.toLowerCase().replaceAll("\\s+", " ").trim();
+        final Set<Integer> shingles = new HashSet<>();
+        if (normalizedText.length() <= shingleSize) {
+            shingles.add(normalizedText.hashCode());
+            return shingles;
+        }
+        for (int i = 0; i + shingleSize <= normalizedText.length(); i++) {
+            shingles.add(normalizedText.substring(i, i + shingleSize).hashCode());
+        }
+        return shingles;
+    }
+
+    /**
+     * The rows of a single band of a signature, used as key of the LSH buckets
+     */
+    private static class BandKey {
+
+        private final int[] signature;
+
+        private final int from;
+
+        private final int length;
+
+        private final int hashCode;
+
+        BandKey(int[] signature, int from, int length) {
+            this.signature = signature;
+            this.from = from;
+            this.length = length;
+            int hash = 1;
+            for (int i = from; i < from + length; i++) {
+                hash = 31 * hash + signature[i];
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof BandKey)) {
+                return false;
+            }
+            BandKey other = (BandKey) obj;
+            return hashCode == other.hashCode && Arrays.equals(signature, from, from + length, other.signature, other.from, other.from + other.length);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import jplag.options.CommandLineOptions;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
@@ -35,6 +36,24 @@ public class TextPlagiarismDetectionService {
 
     private final ZipFileService zipFileService;
 
+    @Value("${artemis.plagiarism.text.lsh.enabled:true}")
+    private boolean lshEnabled;
+
+    /**
+     * Below this number of submissions, all pairs are compared
+     */
+    @Value("${artemis.plagiarism.text.lsh.minimum-submissions:200}")
+    private int lshMinimumSubmissions;
+
+    @Value("${artemis.plagiarism.text.lsh.shingle-size:5}")
+    private int lshShingleSize;
+
+    @Value("${artemis.plagiarism.text.lsh.bands:25}")
+    private int lshBands;
+
+    @Value("${artemis.plagiarism.text.lsh.rows:4}")
+    private int lshRows;
+
     public TextPlagiarismDetectionService(FileService fileService, TextSubmissionExportService textSubmissionExportService, ZipFileService zipFileService) {
         this.fileService = fileService;
         this.textSubmissionExportService = textSubmissionExportService;
@@ -58,6 +77,11 @@ public class TextPlagiarismDetectionService {
 
     /**
      * Pairwise comparison of text submissions using a TextComparisonStrategy
+     * <p>
+     * For large numbers of submissions, not all pairs are compared: the candidate pairs are determined with MinHash and locality-sensitive hashing (see
+     * {@link TextMinHashIndex}) and only these are compared with the given strategy. The minimum similarity is still checked with the strategy, i.e. all reported pairs are
+     * similar, but pairs with a low overlap of their character shingles might be missed. The trade-off between recall and precision can be configured with the number of
+     * bands and rows.
      *
      * @param textSubmissions List of text submissions
      * @param comparisonStrategy the chosen comparison strategy
@@ -69,16 +93,19 @@ public class TextPlagiarismDetectionService {
             String comparisonStrategyName, double minimumSimilarity) {
         final Map<Set<TextSubmission>, Double> map = new HashMap<>();
 
-        // it is intended to use the classic for loop here, because we only want to check similarity between two different submissions once
-        for (int i = 0; i < textSubmissions.size(); i++) {
-            for (int j = i + 1; j < textSubmissions.size(); j++) {
-                final TextSubmission textSubmission1 = textSubmissions.get(i);
-                final TextSubmission textSubmission2 = textSubmissions.get(j);
-                final double similarity = 1 - comparisonStrategy.compare(textSubmission1, textSubmission2);
-                log.debug("Compare result " + i + " with " + j + ": " + similarity);
-                if (similarity >= minimumSimilarity) {
-                    log.info("Found similar text " + i + " with " + j + ": " + similarity + " (using strategy " + comparisonStrategyName + ")");
-                    map.put(Set.of(textSubmission1, textSubmission2), similarity);
+        if (lshEnabled && textSubmissions.size() >= lshMinimumSubmissions) {
+            final List<String> texts = textSubmissions.stream().map(TextSubmission::getText).collect(toList());
+            final List<int[]> candidatePairs = new TextMinHashIndex(lshShingleSize, lshBands, lshRows).findCandidatePairs(texts);
+            log.info("Comparing " + candidatePairs.size() + " candidate pairs of " + textSubmissions.size() + " text submissions using strategy " + comparisonStrategyName);
+            for (int[] candidatePair : candidatePairs) {
+                compare(textSubmissions.get(candidatePair[0]), textSubmissions.get(candidatePair[1]), comparisonStrategy, minimumSimilarity, map);
+            }
+        }
+        else {
+            // it is intended to use the classic for loop here, because we only want to check similarity between two different submissions once
+            for (int i = 0; i < textSubmissions.size(); i++) {
+                for (int j = i + 1; j < textSubmissions.size(); j++) {
+                    compare(textSubmissions.get(i), textSubmissions.get(j), comparisonStrategy, minimumSimilarity, map);
                 }
             }
         }
@@ -88,6 +115,14 @@ public class TextPlagiarismDetectionService {
         return map;
     }
 
+    private void compare(TextSubmission textSubmission1, TextSubmission textSubmission2, TextComparisonStrategy comparisonStrategy, double minimumSimilarity,
+            Map<Set<TextSubmission>, Double> map) {
+        final double similarity = 1 - comparisonStrategy.compare(textSubmission1, textSubmission2);
+        if (similarity >= minimumSimilarity) {
+            map.put(Set.of(textSubmission1, textSubmission2), similarity);
+        }
+    }
+
     /**
      * Reduce a TextExercise Object to a list of latest text submissions. Filters the empty ones because they do not need to be compared
      *
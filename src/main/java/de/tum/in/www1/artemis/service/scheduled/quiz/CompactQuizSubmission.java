@@ -0,0 +1,365 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import de.tum.in.www1.artemis.config.Constants;
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * The compact representation of a live quiz submission in the submissions map of the {@link QuizExerciseCache}.
+ * <p>
+ * Instead of the entity graph sent by the client (including the questions, answer options, drag items, ...), only the ids of the selected answer options, mappings and spots
+ * are stored in primitive arrays. This keeps the Hazelcast serialization cheap, because the submission of every student is written on every save during a quiz.
+ * The submission is decoded with the {@link QuizExercise} when it is needed, which only happens on a reconnect of the student and when the submission is saved to the
+ * database.
+ * <p>
+ * Hazelcast writes the submission with the {@link CompactQuizSubmissionStreamSerializer} instead of the Java serialization, which would add the class descriptors to
+ * every serialized submission.
+ */
+final class CompactQuizSubmission implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte MULTIPLE_CHOICE = 0;
+
+    private static final byte DRAG_AND_DROP = 1;
+
+    private static final byte SHORT_ANSWER = 2;
+
+    private static final byte NO_TYPE = -1;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final boolean submitted;
+
+    private final byte type;
+
+    private final long submissionDate;
+
+    /**
+     * The question id of every submitted answer
+     */
+    private final long[] questionIds;
+
+    /**
+     * The type of every submitted answer, see {@link #MULTIPLE_CHOICE}, {@link #DRAG_AND_DROP} and {@link #SHORT_ANSWER}
+     */
+    private final byte[] answerTypes;
+
+    /**
+     * The (exclusive) end of the selections of every submitted answer in {@link #selections}, the selections of an answer start at the end of the previous answer
+     */
+    private final int[] selectionEnds;
+
+    /**
+     * The ids of the selected answer options (multiple choice), the pairs of drag item and drop location ids (drag and drop) or the spot ids (short answer)
+     */
+    private final long[] selections;
+
+    /**
+     * The submitted texts at the same index as their spot ids in {@link #selections}, null if there are no short answer questions
+     */
+    private final String[] texts;
+
+    private CompactQuizSubmission(boolean submitted, byte type, long submissionDate, long[] questionIds, byte[] answerTypes, int[] selectionEnds, long[] selections,
+            String[] texts) {
+        this.submitted = submitted;
+        this.type = type;
+        this.submissionDate = submissionDate;
+        this.questionIds = questionIds;
+        this.answerTypes = answerTypes;
+        this.selectionEnds = selectionEnds;
+        this.selections = selections;
+        this.texts = texts;
+    }
+
+    /**
+     * Encodes the given submission. Submitted answers without question and references without id are left out, as they cannot be assigned to the quiz anyway.
+     *
+     * @param quizSubmission the submission sent by the client
+     * @return the compact representation of the submission
+     */
+    static CompactQuizSubmission of(QuizSubmission quizSubmission) {
+        int numberOfAnswers = quizSubmission.getSubmittedAnswers().size();
+        long[] questionIds = new long[numberOfAnswers];
+        byte[] answerTypes = new byte[numberOfAnswers];
+        int[] selectionEnds = new int[numberOfAnswers];
+        long[] selections = new long[8];
+        String[] texts = null;
+        int answerIndex = 0;
+        int selectionIndex = 0;
+        for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+            if (submittedAnswer.getQuizQuestion() == null || submittedAnswer.getQuizQuestion().getId() == null) {
+                continue;
+            }
+            questionIds[answerIndex] = submittedAnswer.getQuizQuestion().getId();
+            if (submittedAnswer instanceof MultipleChoiceSubmittedAnswer) {
+                answerTypes[answerIndex] = MULTIPLE_CHOICE;
+                var selectedOptions = ((MultipleChoiceSubmittedAnswer) submittedAnswer).getSelectedOptions();
+                selections = ensureCapacity(selections, selectionIndex + (selectedOptions == null ? 0 : selectedOptions.size()));
+                if (selectedOptions != null) {
+                    for (AnswerOption answerOption : selectedOptions) {
+                        if (answerOption != null && answerOption.getId() != null) {
+                            selections[selectionIndex++] = answerOption.getId();
+                        }
+                    }
+                }
+            }
+            else if (submittedAnswer instanceof DragAndDropSubmittedAnswer) {
+                answerTypes[answerIndex] = DRAG_AND_DROP;
+                var mappings = ((DragAndDropSubmittedAnswer) submittedAnswer).getMappings();
+                selections = ensureCapacity(selections, selectionIndex + (mappings == null ? 0 : 2 * mappings.size()));
+                if (mappings != null) {
+                    for (DragAndDropMapping mapping : mappings) {
+                        if (mapping != null && mapping.getDragItem() != null && mapping.getDragItem().getId() != null && mapping.getDropLocation() != null
+                                && mapping.getDropLocation().getId() != null) {
+                            selections[selectionIndex++] = mapping.getDragItem().getId();
+                            selections[selectionIndex++] = mapping.getDropLocation().getId();
+                        }
+                    }
+                }
+            }
+            else if (submittedAnswer instanceof ShortAnswerSubmittedAnswer) {
+                answerTypes[answerIndex] = SHORT_ANSWER;
+                var submittedTexts = ((ShortAnswerSubmittedAnswer) submittedAnswer).getSubmittedTexts();
+                selections = ensureCapacity(selections, selectionIndex + (submittedTexts == null ? 0 : submittedTexts.size()));
+                texts = texts == null ? new String[selections.length] : Arrays.copyOf(texts, selections.length);
+                if (submittedTexts != null) {
+                    for (ShortAnswerSubmittedText submittedText : submittedTexts) {
+                        if (submittedText != null && submittedText.getSpot() != null && submittedText.getSpot().getId() != null) {
+                            texts[selectionIndex] = submittedText.getText();
+                            selections[selectionIndex++] = submittedText.getSpot().getId();
+                        }
+                    }
+                }
+            }
+            else {
+                continue;
+            }
+            selectionEnds[answerIndex++] = selectionIndex;
+        }
+        byte type = quizSubmission.getType() != null ? (byte) quizSubmission.getType().ordinal() : NO_TYPE;
+        long submissionDate = quizSubmission.getSubmissionDate() != null ? quizSubmission.getSubmissionDate().toInstant().toEpochMilli() : NO_DATE;
+        return new CompactQuizSubmission(Boolean.TRUE.equals(quizSubmission.isSubmitted()), type, submissionDate, Arrays.copyOf(questionIds, answerIndex),
+                Arrays.copyOf(answerTypes, answerIndex), Arrays.copyOf(selectionEnds, answerIndex), Arrays.copyOf(selections, selectionIndex),
+                texts == null ? null : Arrays.copyOf(texts, selectionIndex));
+    }
+
+    /**
+     * Whether the student has pressed the submit button, this does not require to decode the submission.
+     *
+     * @return true if the submission was submitted by the student
+     */
+    boolean isSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Decodes the submission. The questions, answer options, drop locations, drag items and spots of the decoded submission are new objects with the ids of the stored
+     * references. The attributes of drag items and spots that the client needs to display the answers are copied from the given quiz exercise.
+     *
+     * @param quizExercise the quiz exercise the submission belongs to (with its questions), can be null
+     * @return a new submission object with its submitted answers
+     */
+    QuizSubmission toQuizSubmission(QuizExercise quizExercise) {
+        QuizSubmission quizSubmission = new QuizSubmission();
+        quizSubmission.setSubmitted(submitted);
+        quizSubmission.setType(type != NO_TYPE ? SubmissionType.values()[type] : null);
+        quizSubmission.setSubmissionDate(submissionDate != NO_DATE ? ZonedDateTime.ofInstant(Instant.ofEpochMilli(submissionDate), ZoneId.systemDefault()) : null);
+        int selectionStart = 0;
+        for (int answerIndex = 0; answerIndex < questionIds.length; answerIndex++) {
+            QuizQuestion quizQuestion = quizExercise != null ? quizExercise.findQuestionById(questionIds[answerIndex]) : null;
+            int selectionEnd = selectionEnds[answerIndex];
+            SubmittedAnswer submittedAnswer;
+            if (answerTypes[answerIndex] == MULTIPLE_CHOICE) {
+                var answer = new MultipleChoiceSubmittedAnswer();
+                answer.setQuizQuestion(withId(new MultipleChoiceQuestion(), questionIds[answerIndex]));
+                for (int i = selectionStart; i < selectionEnd; i++) {
+                    answer.addSelectedOptions(withId(new AnswerOption(), selections[i]));
+                }
+                submittedAnswer = answer;
+            }
+            else if (answerTypes[answerIndex] == DRAG_AND_DROP) {
+                var answer = new DragAndDropSubmittedAnswer();
+                answer.setQuizQuestion(withId(new DragAndDropQuestion(), questionIds[answerIndex]));
+                for (int i = selectionStart; i < selectionEnd; i += 2) {
+                    var mapping = new DragAndDropMapping();
+                    mapping.setDragItem(dragItem(quizQuestion, selections[i]));
+                    mapping.setDropLocation(withId(new DropLocation(), selections[i + 1]));
+                    answer.addMappings(mapping);
+                }
+                submittedAnswer = answer;
+            }
+            else {
+                var answer = new ShortAnswerSubmittedAnswer();
+                answer.setQuizQuestion(withId(new ShortAnswerQuestion(), questionIds[answerIndex]));
+                for (int i = selectionStart; i < selectionEnd; i++) {
+                    var submittedText = new ShortAnswerSubmittedText();
+                    submittedText.setText(texts[i]);
+                    submittedText.setSpot(spot(quizQuestion, selections[i]));
+                    answer.addSubmittedTexts(submittedText);
+                }
+                submittedAnswer = answer;
+            }
+            quizSubmission.addSubmittedAnswers(submittedAnswer);
+            selectionStart = selectionEnd;
+        }
+        return quizSubmission;
+    }
+
+    private static DragItem dragItem(QuizQuestion quizQuestion, long dragItemId) {
+        DragItem dragItem = withId(new DragItem(), dragItemId);
+        if (quizQuestion instanceof DragAndDropQuestion) {
+            for (DragItem originalDragItem : ((DragAndDropQuestion) quizQuestion).getDragItems()) {
+                if (dragItem.equals(originalDragItem)) {
+                    dragItem.setText(originalDragItem.getText());
+                    dragItem.setPictureFilePath(originalDragItem.getPictureFilePath());
+                    dragItem.setInvalid(originalDragItem.isInvalid());
+                    break;
+                }
+            }
+        }
+        return dragItem;
+    }
+
+    private static ShortAnswerSpot spot(QuizQuestion quizQuestion, long spotId) {
+        ShortAnswerSpot spot = withId(new ShortAnswerSpot(), spotId);
+        if (quizQuestion instanceof ShortAnswerQuestion) {
+            for (ShortAnswerSpot originalSpot : ((ShortAnswerQuestion) quizQuestion).getSpots()) {
+                if (spot.equals(originalSpot)) {
+                    spot.setSpotNr(originalSpot.getSpotNr());
+                    spot.setWidth(originalSpot.getWidth());
+                    spot.setInvalid(originalSpot.isInvalid());
+                    break;
+                }
+            }
+        }
+        return spot;
+    }
+
+    private static <T extends DomainObject> T withId(T domainObject, long id) {
+        domainObject.setId(id);
+        return domainObject;
+    }
+
+    private static long[] ensureCapacity(long[] array, int minCapacity) {
+        return minCapacity <= array.length ? array : Arrays.copyOf(array, Math.max(minCapacity, 2 * array.length));
+    }
+
+    /**
+     * A serializer and deserializer for compact quiz submissions, required for objects distributed via Hazelcast.
+     * <p>
+     * The ids are written as variable-length numbers (7 bits per byte), because database ids are much smaller than the maximum long value, and the texts are only written
+     * for the spots of short answer questions. Every serialized submission starts with the version of its format. A new format needs a new version, and the serializer has
+     * to be able to read the submissions of the previous version, because members with the old and the new version can be part of the cluster at the same time.
+     */
+    static class CompactQuizSubmissionStreamSerializer implements StreamSerializer<CompactQuizSubmission> {
+
+        static final byte VERSION = 1;
+
+        @Override
+        public int getTypeId() {
+            return Constants.HAZELCAST_COMPACT_QUIZ_SUBMISSION_SERIALIZER_ID;
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, CompactQuizSubmission quizSubmission) throws IOException {
+            out.writeByte(VERSION);
+            out.writeBoolean(quizSubmission.submitted);
+            out.writeByte(quizSubmission.type);
+            out.writeLong(quizSubmission.submissionDate);
+            writeVarLong(out, quizSubmission.questionIds.length);
+            int selectionStart = 0;
+            for (int answerIndex = 0; answerIndex < quizSubmission.questionIds.length; answerIndex++) {
+                int selectionEnd = quizSubmission.selectionEnds[answerIndex];
+                writeVarLong(out, quizSubmission.questionIds[answerIndex]);
+                out.writeByte(quizSubmission.answerTypes[answerIndex]);
+                writeVarLong(out, selectionEnd - selectionStart);
+                for (int i = selectionStart; i < selectionEnd; i++) {
+                    writeVarLong(out, quizSubmission.selections[i]);
+                    if (quizSubmission.answerTypes[answerIndex] == SHORT_ANSWER) {
+                        out.writeUTF(quizSubmission.texts[i]);
+                    }
+                }
+                selectionStart = selectionEnd;
+            }
+        }
+
+        @Override
+        public CompactQuizSubmission read(ObjectDataInput in) throws IOException {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of a serialized compact quiz submission");
+            }
+            boolean submitted = in.readBoolean();
+            byte type = in.readByte();
+            long submissionDate = in.readLong();
+            int numberOfAnswers = (int) readVarLong(in);
+            long[] questionIds = new long[numberOfAnswers];
+            byte[] answerTypes = new byte[numberOfAnswers];
+            int[] selectionEnds = new int[numberOfAnswers];
+            long[] selections = new long[8];
+            String[] texts = null;
+            int selectionIndex = 0;
+            for (int answerIndex = 0; answerIndex < numberOfAnswers; answerIndex++) {
+                questionIds[answerIndex] = readVarLong(in);
+                answerTypes[answerIndex] = in.readByte();
+                int numberOfSelections = (int) readVarLong(in);
+                selections = ensureCapacity(selections, selectionIndex + numberOfSelections);
+                if (answerTypes[answerIndex] == SHORT_ANSWER) {
+                    texts = texts == null ? new String[selections.length] : Arrays.copyOf(texts, selections.length);
+                }
+                for (int i = 0; i < numberOfSelections; i++) {
+                    selections[selectionIndex] = readVarLong(in);
+                    if (answerTypes[answerIndex] == SHORT_ANSWER) {
+                        texts[selectionIndex] = in.readUTF();
+                    }
+                    selectionIndex++;
+                }
+                selectionEnds[answerIndex] = selectionIndex;
+            }
+            return new CompactQuizSubmission(submitted, type, submissionDate, questionIds, answerTypes, selectionEnds, Arrays.copyOf(selections, selectionIndex),
+                    texts == null ? null : Arrays.copyOf(texts, selectionIndex));
+        }
+
+        private static void writeVarLong(ObjectDataOutput out, long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        private static long readVarLong(ObjectDataInput in) throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = in.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length number in a serialized compact quiz submission");
+        }
+    }
+
+    static void registerSerializer(Config config) {
+        SerializerConfig serializerConfig = new SerializerConfig();
+        serializerConfig.setTypeClass(CompactQuizSubmission.class);
+        serializerConfig.setImplementation(new CompactQuizSubmissionStreamSerializer());
+        config.getSerializationConfig().addSerializerConfig(serializerConfig);
+    }
+}
@@ -11,7 +11,6 @@ import com.hazelcast.scheduledexecutor.ScheduledTaskHandler;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
-import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 
 /**
  * Empty cache object representing a cache miss.
@@ -43,7 +42,7 @@ final class EmptyQuizExerciseCache extends QuizExerciseCache {
     }
 
     @Override
-    Map<String, QuizSubmission> getSubmissions() {
+    Map<String, CompactQuizSubmission> getSubmissions() {
         return Map.of();
     }
 
@@ -62,6 +61,21 @@ final class EmptyQuizExerciseCache extends QuizExerciseCache {
         return Map.of();
     }
 
+    @Override
+    long getExerciseVersion() {
+        return 0;
+    }
+
+    @Override
+    Map<String, byte[]> getBroadcastPayloads() {
+        return Map.of();
+    }
+
+    @Override
+    Map<String, String> getBroadcasts() {
+        return Map.of();
+    }
+
     @Override
     void setExercise(QuizExercise newExercise) {
         log.error("EmptyQuizExerciseCache cannot have an exercise set");
@@ -74,6 +88,12 @@ final class EmptyQuizExerciseCache extends QuizExerciseCache {
         throwModificationAttemptException();
     }
 
+    @Override
+    void setExerciseVersion(long exerciseVersion) {
+        log.error("EmptyQuizExerciseCache cannot have the exercise version set");
+        throwModificationAttemptException();
+    }
+
     @Override
     void clear() {
         log.error("EmptyQuizExerciseCache cannot be cleared");
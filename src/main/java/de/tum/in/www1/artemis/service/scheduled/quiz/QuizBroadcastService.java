@@ -0,0 +1,131 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Sends the changes of a quiz exercise (e.g. the quiz start) to all students of the course who are subscribed to the quiz exercises of the course.
+ * <p>
+ * Every update of the cached quiz exercise creates a new version of it, see {@link QuizCache#updateQuizExercise(QuizExercise)}. The student view of a version is only
+ * serialized once and stored in the {@link QuizExerciseCache}, so all broadcasts of that version can reuse it. A change of a version is published by exactly one cluster
+ * member: the member that claims the broadcast first in the quiz cache sends it, all other members (e.g. executing the same quiz start) skip it.
+ */
+@Service
+public class QuizBroadcastService {
+
+    private final Logger log = LoggerFactory.getLogger(QuizBroadcastService.class);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final SimpUserRegistry simpUserRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final QuizScheduleService quizScheduleService;
+
+    private final String localMemberId;
+
+    private final Counter serializedCounter;
+
+    private final Counter skippedCounter;
+
+    public QuizBroadcastService(SimpMessageSendingOperations messagingTemplate, SimpUserRegistry simpUserRegistry, MappingJackson2HttpMessageConverter springMvcJacksonConverter,
+            MeterRegistry meterRegistry, QuizScheduleService quizScheduleService, HazelcastInstance hazelcastInstance) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.objectMapper = springMvcJacksonConverter.getObjectMapper();
+        this.meterRegistry = meterRegistry;
+        this.quizScheduleService = quizScheduleService;
+        this.localMemberId = hazelcastInstance.getCluster().getLocalMember().getUuid().toString();
+        this.serializedCounter = Counter.builder("artemis.quiz.broadcast.serialized").description("Number of quiz exercises serialized for a broadcast to the students")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("artemis.quiz.broadcast.skipped").description("Number of quiz broadcasts skipped because they were already published")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the quiz exercise to all students of its course who are subscribed to the quiz exercises of the course, if the quiz exercise is visible to students.
+     * <p>
+     * The broadcast is skipped if the same change of the current version of the quiz exercise has already been published by any cluster member.
+     *
+     * @param quizExercise the quiz exercise with questions and statistics, it has to be the current version of the cached quiz exercise
+     * @param quizChange   the change that was applied to the quiz, e.g. "start-now"
+     * @param view         the view for students with which the quiz exercise is serialized
+     * @return true if this member sent the quiz exercise, false otherwise
+     */
+    public boolean broadcastQuizExercise(QuizExercise quizExercise, String quizChange, Class<?> view) {
+        // The students only receive visible quiz exercises of courses, so the other ones are neither claimed nor serialized
+        if (!quizExercise.isVisibleToStudents() || !quizExercise.hasCourse()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        QuizExerciseCache quizExerciseCache = quizScheduleService.getQuizCache().getTransientWriteCacheFor(quizExercise.getId());
+        long version = quizExerciseCache.getExerciseVersion();
+        String broadcastKey = quizChange + "-" + version;
+        String publishingMemberId = quizExerciseCache.getBroadcasts().putIfAbsent(broadcastKey, localMemberId);
+        if (publishingMemberId != null) {
+            skippedCounter.increment();
+            log.info("Skipped '{}' for quiz {} in version {}, it was already sent by member {}", quizChange, quizExercise.getId(), version, publishingMemberId);
+            return false;
+        }
+        byte[] payload;
+        try {
+            payload = getOrSerializePayload(quizExerciseCache, quizExercise, view, version);
+        }
+        catch (JsonProcessingException e) {
+            // release the claim, so that the change can be sent again
+            quizExerciseCache.getBroadcasts().remove(broadcastKey);
+            log.error("Exception occurred while serializing quiz exercise", e);
+            return false;
+        }
+        // For each change we send the same message. The client needs to decide how to handle the date based on the quiz status
+        String courseId = String.valueOf(quizExercise.getCourseViaExerciseGroupOrCourseMember().getId());
+        String destination = "/topic/courses/" + courseId + "/quizExercises";
+        messagingTemplate.send(destination, MessageBuilder.withPayload(payload).build());
+        long duration = System.nanoTime() - start;
+        recordBroadcast(courseId, quizChange, destination, payload.length, duration);
+        log.info("Sent '{}' for quiz {} to all listening clients in {} ms", quizChange, quizExercise.getId(), TimeUnit.NANOSECONDS.toMillis(duration));
+        return true;
+    }
+
+    private byte[] getOrSerializePayload(QuizExerciseCache quizExerciseCache, QuizExercise quizExercise, Class<?> view, long version) throws JsonProcessingException {
+        String payloadKey = view.getName() + "-" + version;
+        byte[] payload = quizExerciseCache.getBroadcastPayloads().get(payloadKey);
+        if (payload == null) {
+            payload = objectMapper.writerWithView(view).writeValueAsBytes(quizExercise);
+            serializedCounter.increment();
+            quizExerciseCache.getBroadcastPayloads().put(payloadKey, payload);
+        }
+        return payload;
+    }
+
+    private void recordBroadcast(String courseId, String quizChange, String destination, int payloadSize, long durationInNanos) {
+        // The subscriptions are only known for the members the user registry knows about, in a cluster without a user registry broadcast these are the local ones
+        int recipients = simpUserRegistry.findSubscriptions(subscription -> destination.equals(subscription.getDestination())).size();
+        DistributionSummary.builder("artemis.quiz.broadcast.size").baseUnit("bytes").tag("course", courseId).description("Size of the quiz exercises sent to the students")
+                .register(meterRegistry).record(payloadSize);
+        DistributionSummary.builder("artemis.quiz.broadcast.recipients").tag("course", courseId).description("Number of subscriptions a quiz exercise was sent to")
+                .register(meterRegistry).record(recipients);
+        Timer.builder("artemis.quiz.broadcast").tag("course", courseId).tag("change", quizChange).description("Time to serialize and send a quiz exercise to the students")
+                .register(meterRegistry).record(durationInNanos, TimeUnit.NANOSECONDS);
+    }
+}
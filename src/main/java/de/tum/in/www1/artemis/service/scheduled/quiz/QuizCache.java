@@ -81,6 +81,16 @@ final class QuizCache {
         return cachedQuizExercises.keySet();
     }
 
+    /**
+     * Returns the ids of the cached quiz exercises that are owned by this cluster member.
+     *
+     * @return a snapshot of the ids of the cached quiz exercises whose partition is owned by this member, cannot be modified
+     * @implNote This is the {@linkplain IMap#localKeySet() local key set} of the map of this cache.
+     */
+    Set<Long> getAllLocallyOwnedQuizExerciseIds() {
+        return cachedQuizExercises.localKeySet();
+    }
+
     /**
      * Returns all the {@link QuizExerciseCache} that are currently in the cache.
      *
@@ -246,11 +256,21 @@ final class QuizCache {
 
     /**
      * Updates the cached {@link QuizExercise} object, mainly to prevent load on the DB.
+     * <p>
+     * Every update creates a new version of the cached exercise, the broadcasts and serialized payloads of the previous versions are discarded.
      *
      * @param quizExercise the new quiz exercise object
      */
     void updateQuizExercise(QuizExercise quizExercise) {
         Objects.requireNonNull(quizExercise, "quizExercise must not be null");
+        performCacheWrite(quizExercise.getId(), quizExerciseCache -> {
+            quizExerciseCache.setExerciseVersion(quizExerciseCache.getExerciseVersion() + 1);
+            quizExerciseCache.getBroadcastPayloads().clear();
+            quizExerciseCache.getBroadcasts().clear();
+            // The exercise is part of the written cache object, so members that reload the cache object after the write do not get the previous exercise
+            quizExerciseCache.setExercise(quizExercise);
+            return quizExerciseCache;
+        });
         // Send every instance (including itself) a message to update the quizExercise of the corresponding QuizExerciseCache locally
         cachedQuizExerciseUpdates.publish(quizExercise);
     }
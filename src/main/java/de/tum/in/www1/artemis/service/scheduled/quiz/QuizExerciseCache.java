@@ -11,7 +11,6 @@ import com.hazelcast.scheduledexecutor.ScheduledTaskHandler;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
-import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 
 /**
  * Represents the cache for one specific quiz exercise.
@@ -39,9 +38,9 @@ abstract class QuizExerciseCache {
     abstract QuizExercise getExercise();
 
     /**
-     * QuizSubmissions by user name
+     * QuizSubmissions in their compact representation by user name
      */
-    abstract Map<String, QuizSubmission> getSubmissions();
+    abstract Map<String, CompactQuizSubmission> getSubmissions();
 
     /**
      * StudentParticipations by user name
@@ -58,6 +57,21 @@ abstract class QuizExerciseCache {
      */
     abstract Map<Long, Result> getResults();
 
+    /**
+     * The version of the cached exercise, it is increased with every update of the exercise
+     */
+    abstract long getExerciseVersion();
+
+    /**
+     * The serialized student views of the exercise by view and exercise version, see {@link QuizBroadcastService}
+     */
+    abstract Map<String, byte[]> getBroadcastPayloads();
+
+    /**
+     * The members that published a change of the exercise by change and exercise version, see {@link QuizBroadcastService}
+     */
+    abstract Map<String, String> getBroadcasts();
+
     /**
      * Set the cached {@link QuizExercise} object
      */
@@ -68,6 +82,11 @@ abstract class QuizExerciseCache {
      */
     abstract void setQuizStart(List<ScheduledTaskHandler> quizStart);
 
+    /**
+     * Set the version of the cached exercise
+     */
+    abstract void setExerciseVersion(long exerciseVersion);
+
     /**
      * Releases all (Hazelcast) resources, all cached objects will be lost.
      * <p>
@@ -109,5 +128,6 @@ abstract class QuizExerciseCache {
 
     static void registerSerializers(Config config) {
         QuizExerciseDistributedCache.registerSerializer(config);
+        CompactQuizSubmission.registerSerializer(config);
     }
 }
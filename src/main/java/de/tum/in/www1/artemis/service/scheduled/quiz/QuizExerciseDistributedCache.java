@@ -23,7 +23,6 @@ import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
-import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 
 /**
  * This class represents the cache for a single quiz exercise.
@@ -41,6 +40,10 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
 
     private static final String HAZELCAST_CACHE_RESULTS = "-results";
 
+    private static final String HAZELCAST_CACHE_BROADCAST_PAYLOADS = "-broadcast-payloads";
+
+    private static final String HAZELCAST_CACHE_BROADCASTS = "-broadcasts";
+
     /**
      * All {@link List} classes that are supported by Hazelcast {@link SerializationServiceV1}
      */
@@ -56,28 +59,38 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
      */
     private transient QuizExercise exercise;
 
+    /**
+     * The version of the {@link QuizExercise}, it is distributed and only changed with {@link QuizCache#performCacheWrite(Long, java.util.function.UnaryOperator)}
+     */
+    private long exerciseVersion;
+
     /*
-     * All three IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
+     * All IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
      */
 
     private transient IMap<String, StudentParticipation> participations;
 
-    private transient IMap<String, QuizSubmission> submissions;
+    private transient IMap<String, CompactQuizSubmission> submissions;
 
     /**
      * Must be a Map because Hazelcast uses serialized objects for set operations and not hashCode()/equals()
      */
     private transient IMap<Long, Result> results;
 
-    QuizExerciseDistributedCache(Long exerciseId, List<ScheduledTaskHandler> quizStart, QuizExercise exercise) {
+    private transient IMap<String, byte[]> broadcastPayloads;
+
+    private transient IMap<String, String> broadcasts;
+
+    QuizExerciseDistributedCache(Long exerciseId, List<ScheduledTaskHandler> quizStart, QuizExercise exercise, long exerciseVersion) {
         super(Objects.requireNonNull(exerciseId, "exerciseId must not be null"));
         setQuizStart(quizStart);
         setExercise(exercise);
+        setExerciseVersion(exerciseVersion);
         log.debug("Creating new QuizExerciseDistributedCache, id {}", getExerciseId());
     }
 
     QuizExerciseDistributedCache(Long exerciseId, List<ScheduledTaskHandler> quizStart) {
-        this(exerciseId, quizStart, null);
+        this(exerciseId, quizStart, null, 0);
     }
 
     QuizExerciseDistributedCache(Long exerciseId) {
@@ -90,7 +103,7 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
     }
 
     @Override
-    Map<String, QuizSubmission> getSubmissions() {
+    Map<String, CompactQuizSubmission> getSubmissions() {
         return submissions;
     }
 
@@ -109,6 +122,21 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         return results;
     }
 
+    @Override
+    long getExerciseVersion() {
+        return exerciseVersion;
+    }
+
+    @Override
+    Map<String, byte[]> getBroadcastPayloads() {
+        return broadcastPayloads;
+    }
+
+    @Override
+    Map<String, String> getBroadcasts() {
+        return broadcasts;
+    }
+
     @Override
     void setExercise(QuizExercise newExercise) {
         this.exercise = newExercise;
@@ -125,6 +153,11 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         }
     }
 
+    @Override
+    void setExerciseVersion(long exerciseVersion) {
+        this.exerciseVersion = exerciseVersion;
+    }
+
     @Override
     void clear() {
         int participationsSize = participations.size();
@@ -142,6 +175,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations.destroy();
         submissions.destroy();
         results.destroy();
+        broadcastPayloads.destroy();
+        broadcasts.destroy();
         exercise = null;
     }
 
@@ -154,6 +189,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_PARTICIPATIONS);
         submissions = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_SUBMISSIONS);
         results = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_RESULTS);
+        broadcastPayloads = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_BROADCAST_PAYLOADS);
+        broadcasts = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_BROADCASTS);
     }
 
     /**
@@ -174,6 +211,7 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
             out.writeLong(exerciseCacheImpl.getExerciseId());
             out.writeObject(exerciseCacheImpl.quizStart);
             out.writeObject(exerciseCacheImpl.exercise);
+            out.writeLong(exerciseCacheImpl.exerciseVersion);
         }
 
         @Override
@@ -181,7 +219,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
             Long exerciseId = in.readLong();
             List<ScheduledTaskHandler> quizStart = in.readObject();
             QuizExercise exercise = in.readObject();
-            return new QuizExerciseDistributedCache(exerciseId, quizStart, exercise);
+            long exerciseVersion = in.readLong();
+            return new QuizExerciseDistributedCache(exerciseId, quizStart, exercise, exerciseVersion);
         }
     }
 
@@ -0,0 +1,181 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Sends the results of an ended quiz to the participating students via websocket.
+ * <p>
+ * The deliveries are executed on a dedicated executor with a bounded queue. If the queue is full, the calling thread sends the result itself (like a caller-runs policy),
+ * which slows down the producer instead of piling up messages for the broker. The quiz exercise is the same for all participations of a quiz, so it is only serialized once
+ * per quiz and then embedded into the (small) payload of every participation.
+ */
+@Service
+public class QuizResultDeliveryService {
+
+    private final Logger log = LoggerFactory.getLogger(QuizResultDeliveryService.class);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter queuedCounter;
+
+    private final Counter sentCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer sendTimer;
+
+    @Value("${artemis.quiz.result-delivery.threads:8}")
+    private int threads;
+
+    @Value("${artemis.quiz.result-delivery.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    public QuizResultDeliveryService(SimpMessageSendingOperations messagingTemplate, MappingJackson2HttpMessageConverter springMvcJacksonConverter, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = springMvcJacksonConverter.getObjectMapper();
+        this.meterRegistry = meterRegistry;
+        this.queuedCounter = Counter.builder("artemis.quiz.results.queued").description("Number of quiz results queued for sending to the students").register(meterRegistry);
+        this.sentCounter = Counter.builder("artemis.quiz.results.sent").description("Number of quiz results sent to the students").register(meterRegistry);
+        this.failedCounter = Counter.builder("artemis.quiz.results.failed").description("Number of quiz results that could not be sent to the students").register(meterRegistry);
+        this.sendTimer = Timer.builder("artemis.quiz.results.send").description("Time to prepare and send a quiz result to a student").register(meterRegistry);
+    }
+
+    /**
+     * Creates the executor for sending the quiz results
+     */
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("quiz-result-delivery-"), (delivery, pool) -> {
+                    // back-pressure: if the queue is full, the calling thread sends the result itself
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Quiz result delivery has been shut down");
+                    }
+                    delivery.run();
+                });
+        Gauge.builder("artemis.quiz.results.pending", executor, pool -> pool.getQueue().size()).description("Number of quiz results waiting in the queue to be sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Shuts down the executor for sending the quiz results
+     */
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sends the participations including their result to the corresponding students and waits until all of them have been sent.
+     * <p>
+     * Note: the participations are modified, unnecessary objects are removed before sending them.
+     *
+     * @param quizExercise   the ended quiz exercise with questions, it is sent as part of every participation and is not modified
+     * @param participations the participations with results that should be sent, mapped by the login of the student
+     * @param onSent         is called with the login of the student after the participation was sent successfully
+     * @return the number of participations that were sent successfully
+     */
+    public int sendQuizResults(QuizExercise quizExercise, Map<String, StudentParticipation> participations, Consumer<String> onSent) {
+        if (participations.isEmpty()) {
+            return 0;
+        }
+        final RawValue exercise = serializeExercise(quizExercise);
+        final String destination = "/topic/exercise/" + quizExercise.getId() + "/participation";
+        List<CompletableFuture<Boolean>> deliveries = new ArrayList<>(participations.size());
+        participations.forEach((login, participation) -> {
+            queuedCounter.increment();
+            deliveries.add(CompletableFuture.supplyAsync(() -> sendQuizResult(login, participation, destination, exercise, onSent), executor));
+        });
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).join();
+        return (int) deliveries.stream().filter(CompletableFuture::join).count();
+    }
+
+    private boolean sendQuizResult(String login, StudentParticipation participation, String destination, RawValue exercise, Consumer<String> onSent) {
+        long start = System.nanoTime();
+        try {
+            var user = participation.getParticipantIdentifier();
+            removeUnnecessaryObjectsBeforeSendingToClient(participation);
+            ObjectNode payload = objectMapper.valueToTree(participation);
+            payload.putRawValue("exercise", exercise);
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+            sentCounter.increment();
+            onSent.accept(login);
+            return true;
+        }
+        catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Could not send quiz result to user {}: {}", login, e.getMessage());
+            return false;
+        }
+        finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private RawValue serializeExercise(QuizExercise quizExercise) {
+        ObjectNode exercise = objectMapper.valueToTree(quizExercise);
+        // we do not need the course and lectures
+        exercise.remove(List.of("course", "studentParticipations"));
+        try {
+            return new RawValue(objectMapper.writeValueAsString(exercise));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize quiz exercise " + quizExercise.getId(), e);
+        }
+    }
+
+    private void removeUnnecessaryObjectsBeforeSendingToClient(StudentParticipation participation) {
+        // the exercise is the same for all participations and added to the payload separately
+        participation.setExercise(null);
+        // submissions are part of results, so we do not need them twice
+        participation.setSubmissions(null);
+        participation.setParticipant(null);
+        if (participation.getResults() != null && participation.getResults().size() > 0) {
+            QuizSubmission quizSubmission = (QuizSubmission) participation.getResults().iterator().next().getSubmission();
+            if (quizSubmission != null && quizSubmission.getSubmittedAnswers() != null) {
+                for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+                    if (submittedAnswer.getQuizQuestion() != null) {
+                        // we do not need all information of the questions again, they are already stored in the exercise
+                        var question = submittedAnswer.getQuizQuestion();
+                        submittedAnswer.setQuizQuestion(question.copyQuestionId());
+                    }
+                }
+            }
+        }
+    }
+}
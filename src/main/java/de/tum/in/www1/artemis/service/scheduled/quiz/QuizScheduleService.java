@@ -6,21 +6,25 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
-import com.hazelcast.cp.IAtomicReference;
 import com.hazelcast.scheduledexecutor.*;
 
 import de.tum.in.www1.artemis.config.Constants;
@@ -33,11 +37,13 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
 import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
 import de.tum.in.www1.artemis.service.QuizExerciseService;
 import de.tum.in.www1.artemis.service.QuizStatisticService;
+import de.tum.in.www1.artemis.service.QuizSubmissionService;
 import de.tum.in.www1.artemis.service.UserService;
 
 @Service
@@ -45,11 +51,24 @@ public class QuizScheduleService {
 
     private static final Logger log = LoggerFactory.getLogger(QuizScheduleService.class);
 
-    private static final String HAZELCAST_PROCESS_CACHE_HANDLER = QuizProcessCacheTask.HAZELCAST_PROCESS_CACHE_TASK + "-handler";
-
     private volatile IScheduledExecutorService threadPoolTaskScheduler;
 
-    private IAtomicReference<ScheduledTaskHandler> scheduledProcessQuizSubmissions;
+    /**
+     * Local scheduler for processing the cached quiz submissions, every member processes the quizzes it owns
+     */
+    private ScheduledExecutorService processCacheScheduler;
+
+    /**
+     * Local executor to process the cached submissions of different quizzes concurrently
+     */
+    private ExecutorService processCacheExecutor;
+
+    private ScheduledFuture<?> scheduledProcessQuizSubmissions;
+
+    /**
+     * The ids of all quizzes that were processed by this member in the last run, all other quizzes are new on this member and need a fresh exercise from the database
+     */
+    private final Set<Long> locallyProcessedQuizExerciseIds = ConcurrentHashMap.newKeySet();
 
     private final StudentParticipationRepository studentParticipationRepository;
 
@@ -63,18 +82,35 @@ public class QuizScheduleService {
 
     private QuizStatisticService quizStatisticService;
 
-    private SimpMessageSendingOperations messagingTemplate;
+    private QuizSubmissionService quizSubmissionService;
+
+    private final QuizResultDeliveryService quizResultDeliveryService;
 
     private QuizCache quizCache;
 
-    public QuizScheduleService(SimpMessageSendingOperations messagingTemplate, StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository,
-            UserService userService, QuizSubmissionRepository quizSubmissionRepository, HazelcastInstance hazelcastInstance) {
-        this.messagingTemplate = messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The number of submissions that are saved within one transaction when processing the cached submissions, 1 saves every submission individually
+     */
+    @Value("${artemis.quiz.persistence-chunk-size:100}")
+    private int persistenceChunkSize;
+
+    /**
+     * The maximum number of quizzes whose cached submissions are processed concurrently on this member
+     */
+    @Value("${artemis.quiz.processing-threads:4}")
+    private int processingThreads;
+
+    public QuizScheduleService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository, UserService userService,
+            QuizSubmissionRepository quizSubmissionRepository, HazelcastInstance hazelcastInstance, TransactionTemplate transactionTemplate,
+            QuizResultDeliveryService quizResultDeliveryService) {
+        this.quizResultDeliveryService = quizResultDeliveryService;
+        this.transactionTemplate = transactionTemplate;
         this.studentParticipationRepository = studentParticipationRepository;
         this.resultRepository = resultRepository;
         this.userService = userService;
         this.quizSubmissionRepository = quizSubmissionRepository;
-        this.scheduledProcessQuizSubmissions = hazelcastInstance.getCPSubsystem().getAtomicReference(HAZELCAST_PROCESS_CACHE_HANDLER);
         this.threadPoolTaskScheduler = hazelcastInstance.getScheduledExecutorService(Constants.HAZELCAST_QUIZ_SCHEDULER);
         this.quizCache = new QuizCache(hazelcastInstance);
     }
@@ -90,6 +126,24 @@ public class QuizScheduleService {
         config.getScheduledExecutorConfig(Constants.HAZELCAST_QUIZ_SCHEDULER).setPoolSize(16).setCapacity(1000).setDurability(1);
     }
 
+    /**
+     * Creates the local executors for processing the cached quiz submissions
+     */
+    @PostConstruct
+    public void init() {
+        processCacheScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("quiz-process-cache-scheduler-"));
+        processCacheExecutor = Executors.newFixedThreadPool(Math.max(1, processingThreads), new CustomizableThreadFactory("quiz-process-cache-"));
+    }
+
+    /**
+     * Shuts down the local executors for processing the cached quiz submissions
+     */
+    @PreDestroy
+    public void destroy() {
+        processCacheScheduler.shutdownNow();
+        processCacheExecutor.shutdownNow();
+    }
+
     @EventListener(ApplicationReadyEvent.class)
     public void applicationReady() {
         // activate Quiz Schedule Service
@@ -108,8 +162,14 @@ public class QuizScheduleService {
         this.quizStatisticService = quizStatisticService;
     }
 
+    @Autowired
+    // break the dependency cycle
+    public void setQuizSubmissionService(QuizSubmissionService quizSubmissionService) {
+        this.quizSubmissionService = quizSubmissionService;
+    }
+
     /**
-     * add a quizSubmission to the submissionHashMap
+     * add a quizSubmission to the submissionHashMap, only the ids of the selected answers are stored (see {@link CompactQuizSubmission})
      *
      * @param quizExerciseId the quizExerciseId of the quiz the submission belongs to (first Key)
      * @param username       the username of the user, who submitted the submission (second Key)
@@ -117,7 +177,7 @@ public class QuizScheduleService {
      */
     public void updateSubmission(Long quizExerciseId, String username, QuizSubmission quizSubmission) {
         if (quizSubmission != null && quizExerciseId != null && username != null) {
-            quizCache.getTransientWriteCacheFor(quizExerciseId).getSubmissions().put(username, quizSubmission);
+            quizCache.getTransientWriteCacheFor(quizExerciseId).getSubmissions().put(username, CompactQuizSubmission.of(quizSubmission));
         }
     }
 
@@ -159,9 +219,9 @@ public class QuizScheduleService {
         if (quizExerciseId == null || username == null) {
             return null;
         }
-        QuizSubmission quizSubmission = quizCache.getReadCacheFor(quizExerciseId).getSubmissions().get(username);
+        CompactQuizSubmission quizSubmission = quizCache.getReadCacheFor(quizExerciseId).getSubmissions().get(username);
         if (quizSubmission != null) {
-            return quizSubmission;
+            return quizSubmission.toQuizSubmission(getQuizExercise(quizExerciseId));
         }
         // return an empty quizSubmission if the maps contain no mapping for the keys
         return new QuizSubmission().submittedAnswers(new HashSet<>());
@@ -215,17 +275,11 @@ public class QuizScheduleService {
      *
      * @param delayInMillis gap for which the QuizScheduleService should run repeatedly
      */
-    public void startSchedule(long delayInMillis) {
-        if (scheduledProcessQuizSubmissions.isNull()) {
-            try {
-                var scheduledFuture = threadPoolTaskScheduler.scheduleAtFixedRate(new QuizProcessCacheTask(), 0, delayInMillis, TimeUnit.MILLISECONDS);
-                scheduledProcessQuizSubmissions.set(scheduledFuture.getHandler());
-                log.info("QuizScheduleService was started to run repeatedly with {} second delay.", delayInMillis / 1000.0);
-            }
-            catch (@SuppressWarnings("unused") DuplicateTaskException e) {
-                log.debug("Quiz process cache task already redistered");
-                // this is expected if we run on multiple nodes
-            }
+    public synchronized void startSchedule(long delayInMillis) {
+        if (scheduledProcessQuizSubmissions == null) {
+            // every member processes the quizzes it owns, so the processing is scheduled locally on every member
+            scheduledProcessQuizSubmissions = processCacheScheduler.scheduleAtFixedRate(this::processCachedQuizSubmissions, 0, delayInMillis, TimeUnit.MILLISECONDS);
+            log.info("QuizScheduleService was started to run repeatedly with {} second delay.", delayInMillis / 1000.0);
 
             // schedule quiz start for all existing quizzes that are planned to start in the future
             List<QuizExercise> quizExercises = quizExerciseService.findAllPlannedToStartInTheFuture();
@@ -246,21 +300,12 @@ public class QuizScheduleService {
     /**
      * stop scheduler
      */
-    public void stopSchedule() {
-        if (!scheduledProcessQuizSubmissions.isNull()) {
+    public synchronized void stopSchedule() {
+        if (scheduledProcessQuizSubmissions != null) {
             log.info("Try to stop quiz schedule service");
-            var scheduledFuture = threadPoolTaskScheduler.getScheduledFuture(scheduledProcessQuizSubmissions.get());
-            try {
-                // if the task has been disposed, this will throw a StaleTaskException
-                boolean cancelSuccess = scheduledFuture.cancel(false);
-                scheduledFuture.dispose();
-                scheduledProcessQuizSubmissions.set(null);
-                log.info("Stop Quiz Schedule Service was successful: {}", cancelSuccess);
-            }
-            catch (@SuppressWarnings("unused") StaleTaskException e) {
-                log.info("Stop Quiz Schedule Service already disposed/cancelled");
-                // has already been disposed (sadly there is no method to check that)
-            }
+            boolean cancelSuccess = scheduledProcessQuizSubmissions.cancel(false);
+            scheduledProcessQuizSubmissions = null;
+            log.info("Stop Quiz Schedule Service was successful: {}", cancelSuccess);
             for (QuizExerciseCache cachedQuiz : quizCache.getAllQuizExerciseCaches()) {
                 if (cachedQuiz.getQuizStart() != null)
                     cancelScheduledQuizStart(cachedQuiz.getExerciseId());
@@ -344,11 +389,24 @@ public class QuizScheduleService {
             return quizExerciseCache;
         });
         log.debug("Sending quiz {} start", quizExerciseId);
-        QuizExercise quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExerciseId);
-        updateQuizExercise(quizExercise);
+        // the cached quiz exercise is updated with every change of the quiz, so it only needs to be loaded from the database if it is not cached (anymore)
+        QuizExercise quizExercise = getQuizExercise(quizExerciseId);
+        if (quizExercise == null) {
+            log.warn("Quiz {} could not be started because it does not exist anymore", quizExerciseId);
+            return;
+        }
         quizExerciseService.sendQuizExerciseToSubscribedClients(quizExercise, "start-now");
     }
 
+    /**
+     * The quiz cache is shared with the {@link QuizBroadcastService}, which stores the serialized quiz exercises in it
+     *
+     * @return the quiz cache of this member
+     */
+    QuizCache getQuizCache() {
+        return quizCache;
+    }
+
     /**
      * Clears all cached quiz data for all quiz exercises for quizzes.
      * <p>
@@ -385,104 +443,149 @@ public class QuizScheduleService {
         log.debug("Process cached quiz submissions");
         // global try-catch for error logging
         try {
-            for (QuizExerciseCache cachedQuiz : quizCache.getAllQuizExerciseCaches()) {
-                // this way near cache is used (values will deserialize new objects)
-                Long quizExerciseId = cachedQuiz.getExerciseId();
-                // Get fresh QuizExercise from DB
-                QuizExercise quizExercise = quizExerciseService.findOne(quizExerciseId);
-                // check if quiz has been deleted
-                if (quizExercise == null) {
-                    log.debug("Remove quiz " + quizExerciseId + " from resultHashMap");
-                    quizCache.removeAndClear(quizExerciseId);
-                    continue;
-                }
+            // only process the quizzes owned by this member, the other members process theirs
+            Set<Long> localQuizExerciseIds = quizCache.getAllLocallyOwnedQuizExerciseIds();
+            List<Callable<Void>> processingTasks = new ArrayList<>(localQuizExerciseIds.size());
+            for (Long quizExerciseId : localQuizExerciseIds) {
+                processingTasks.add(() -> {
+                    processCachedQuizSubmissions(quizExerciseId);
+                    return null;
+                });
+            }
+            // process different quizzes concurrently, but wait until all of them are done to avoid overlapping runs
+            processCacheExecutor.invokeAll(processingTasks);
+            // forget quizzes that are not owned by this member anymore, they need a fresh exercise if they are migrated back later
+            locallyProcessedQuizExerciseIds.retainAll(localQuizExerciseIds);
+        }
+        catch (InterruptedException e) {
+            log.warn("Processing cached quiz submissions was interrupted");
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception e) {
+            log.error("Exception in Quiz Schedule: {}", e.getMessage(), e);
+        }
+    }
 
-                // (Boolean wrapper is safe to auto-unbox here)
-                boolean hasEnded = quizExercise.isEnded();
-                // Note that those might not be true later on due to concurrency and a distributed system,
-                // do not rely on that for actions upon the whole set, such as clear()
-                boolean hasNewSubmissions = !cachedQuiz.getSubmissions().isEmpty();
-                boolean hasNewParticipations = !cachedQuiz.getParticipations().isEmpty();
-                boolean hasNewResults = !cachedQuiz.getResults().isEmpty();
-
-                // Skip quizzes with no cached changes
-                if (!hasNewSubmissions && !hasNewParticipations && !hasNewResults) {
-                    // Remove quiz if it has ended
-                    if (hasEnded) {
-                        removeCachedQuiz(cachedQuiz);
-                    }
-                    continue;
+    /**
+     * Processes the cached submissions, participations and results of one quiz exercise, see {@link #processCachedQuizSubmissions()}
+     *
+     * @param quizExerciseId the id of the quiz exercise owned by this member
+     */
+    private void processCachedQuizSubmissions(Long quizExerciseId) {
+        // try-catch per quiz, so that an error in one quiz does not affect other quizzes
+        try {
+            // this way near cache is used (values will deserialize new objects)
+            QuizExerciseCache cachedQuiz = quizCache.getCacheFor(quizExerciseId);
+            if (cachedQuiz == null) {
+                // the quiz was removed concurrently
+                return;
+            }
+            // Get the (cheap) QuizExercise without questions from DB to check the end of the quiz
+            QuizExercise quizExerciseWithoutQuestions = quizExerciseService.findOne(quizExerciseId);
+            // check if quiz has been deleted
+            if (quizExerciseWithoutQuestions == null) {
+                log.debug("Remove quiz " + quizExerciseId + " from resultHashMap");
+                quizCache.removeAndClear(quizExerciseId);
+                locallyProcessedQuizExerciseIds.remove(quizExerciseId);
+                return;
+            }
+            // (Boolean wrapper is safe to auto-unbox here)
+            boolean hasEnded = quizExerciseWithoutQuestions.isEnded();
+            if (hasEnded) {
+                // the saves that were received before the end of the quiz may still wait for their coalescing window
+                quizSubmissionService.flushLiveSaves(quizExerciseId);
+            }
+            // Note that those might not be true later on due to concurrency and a distributed system,
+            // do not rely on that for actions upon the whole set, such as clear()
+            boolean hasNewSubmissions = !cachedQuiz.getSubmissions().isEmpty();
+            boolean hasNewParticipations = !cachedQuiz.getParticipations().isEmpty();
+            boolean hasNewResults = !cachedQuiz.getResults().isEmpty();
+
+            // Skip quizzes with no cached changes
+            if (!hasNewSubmissions && !hasNewParticipations && !hasNewResults) {
+                // Remove quiz if it has ended
+                if (hasEnded) {
+                    removeCachedQuiz(cachedQuiz);
                 }
+                return;
+            }
 
-                // Update cached exercise object (use the expensive operation upfront)
+            // Reuse the cached exercise including questions and statistics, it is updated on all members whenever the quiz changes. Only if the quiz is new on this member
+            // (e.g. after a migration of its partition), we get a fresh QuizExercise from the DB (this is relatively expensive), so that the statistics are up to date
+            QuizExercise quizExercise = cachedQuiz.getExercise();
+            if (quizExercise == null || !locallyProcessedQuizExerciseIds.contains(quizExerciseId)) {
                 quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExerciseId);
+                if (quizExercise == null) {
+                    return;
+                }
+                cachedQuiz.setExercise(quizExercise);
+                locallyProcessedQuizExerciseIds.add(quizExerciseId);
+            }
 
-                // Save cached Submissions (this will also generate results and participations and place them in the cache)
-                long start = System.nanoTime();
-
-                // TODO avoid some distribution?
+            // Save cached Submissions (this will also generate results and participations and place them in the cache)
+            long start = System.nanoTime();
+
+            if (hasNewSubmissions) {
+                // Create Participations and Results if the submission was submitted or if the quiz has ended and save them to Database (DB Write)
+                Map<String, CompactQuizSubmission> submissions = cachedQuiz.getSubmissions();
+                // This call will remove the processed Submission map entries itself
+                int numberOfSubmittedSubmissions = saveQuizSubmissionWithParticipationAndResultToDatabase(quizExercise, submissions);
+                // .. and likely generate new participations and results
+                if (numberOfSubmittedSubmissions > 0) {
+                    // .. so we set the boolean variables here again if some were submitted
+                    hasNewParticipations = true;
+                    hasNewResults = true;
+
+                    log.info("Saved {} submissions to database in {} in quiz {}", numberOfSubmittedSubmissions, formatDurationFrom(start), quizExercise.getTitle());
+                }
+            }
 
-                if (hasNewSubmissions) {
-                    // Create Participations and Results if the submission was submitted or if the quiz has ended and save them to Database (DB Write)
-                    Map<String, QuizSubmission> submissions = cachedQuiz.getSubmissions();
-                    // This call will remove the processed Submission map entries itself
-                    int numberOfSubmittedSubmissions = saveQuizSubmissionWithParticipationAndResultToDatabase(quizExercise, submissions);
-                    // .. and likely generate new participations and results
-                    if (numberOfSubmittedSubmissions > 0) {
-                        // .. so we set the boolean variables here again if some were submitted
-                        hasNewParticipations = true;
-                        hasNewResults = true;
+            // Send out Participations from ParticipationHashMap to each user if the quiz has ended
+            start = System.nanoTime();
 
-                        log.info("Saved {} submissions to database in {} in quiz {}", numberOfSubmittedSubmissions, formatDurationFrom(start), quizExercise.getTitle());
+            if (hasNewParticipations && hasEnded) {
+                // Send the participation with containing result and quiz back to the users via websocket and remove the participation from the ParticipationHashMap
+                Map<String, StudentParticipation> finishedParticipations = new HashMap<>();
+                for (Entry<String, StudentParticipation> entry : cachedQuiz.getParticipations().entrySet()) {
+                    StudentParticipation participation = entry.getValue();
+                    if (participation.getParticipant() == null || participation.getParticipantIdentifier() == null) {
+                        log.error("Participation is missing student (or student is missing username): {}", participation);
                     }
-                }
-
-                // Send out Participations from ParticipationHashMap to each user if the quiz has ended
-                start = System.nanoTime();
-
-                if (hasNewParticipations && hasEnded) {
-                    // Send the participation with containing result and quiz back to the users via websocket and remove the participation from the ParticipationHashMap
-                    Collection<Entry<String, StudentParticipation>> finishedParticipations = cachedQuiz.getParticipations().entrySet();
-                    // TODO maybe find a better way to optimize the performance (use an executor service with e.g. X parallel threads)
-                    finishedParticipations.parallelStream().forEach(entry -> {
-                        StudentParticipation participation = entry.getValue();
-                        if (participation.getParticipant() == null || participation.getParticipantIdentifier() == null) {
-                            log.error("Participation is missing student (or student is missing username): {}", participation);
-                        }
-                        else {
-                            sendQuizResultToUser(quizExerciseId, participation);
-                            cachedQuiz.getParticipations().remove(entry.getKey());
-                        }
-                    });
-                    if (finishedParticipations.size() > 0) {
-                        log.info("Sent out {} participations in {} for quiz {}", finishedParticipations.size(), formatDurationFrom(start), quizExercise.getTitle());
+                    else {
+                        finishedParticipations.put(entry.getKey(), participation);
                     }
                 }
+                int numberOfSentParticipations = quizResultDeliveryService.sendQuizResults(quizExercise, finishedParticipations, cachedQuiz.getParticipations()::remove);
+                if (finishedParticipations.size() > 0) {
+                    log.info("Sent out {} of {} participations in {} for quiz {}", numberOfSentParticipations, finishedParticipations.size(), formatDurationFrom(start),
+                            quizExercise.getTitle());
+                }
+            }
 
-                // Update Statistics with Results (DB Read and DB Write) and remove the results from the cache
-                start = System.nanoTime();
-
-                if (hasNewResults) {
-                    // Fetch a new quiz exercise here including deeper attribute paths (this is relatively expensive, so we only do that if necessary)
-                    try {
-                        // Get a Set because QuizStatisticService needs one (currently)
-                        Set<Result> newResultsForQuiz = Set.copyOf(cachedQuiz.getResults().values());
-                        // Update the statistics
-                        quizStatisticService.updateStatistics(newResultsForQuiz, quizExercise);
-                        log.info("Updated statistics with {} new results in {} for quiz {}", newResultsForQuiz.size(), formatDurationFrom(start), quizExercise.getTitle());
-                        // Remove only processed results
-                        for (Result result : newResultsForQuiz) {
-                            cachedQuiz.getResults().remove(result.getId());
-                        }
-                    }
-                    catch (Exception e) {
-                        log.error("Exception in StatisticService.updateStatistics(): {}", e.getMessage(), e);
+            // Update Statistics with Results (DB Read and DB Write) and remove the results from the cache
+            start = System.nanoTime();
+
+            if (hasNewResults) {
+                try {
+                    // Get a Set because QuizStatisticService needs one (currently)
+                    Set<Result> newResultsForQuiz = Set.copyOf(cachedQuiz.getResults().values());
+                    // Update the statistics (of the cached exercise, so that they are accumulated over all runs)
+                    quizStatisticService.updateStatistics(newResultsForQuiz, quizExercise);
+                    log.info("Updated statistics with {} new results in {} for quiz {}", newResultsForQuiz.size(), formatDurationFrom(start), quizExercise.getTitle());
+                    // Remove only processed results
+                    for (Result result : newResultsForQuiz) {
+                        cachedQuiz.getResults().remove(result.getId());
                     }
                 }
+                catch (Exception e) {
+                    log.error("Exception in StatisticService.updateStatistics(): {}", e.getMessage(), e);
+                    // the cached statistics might be inconsistent now, so we get them again from the database in the next run
+                    locallyProcessedQuizExerciseIds.remove(quizExerciseId);
+                }
             }
         }
         catch (Exception e) {
-            log.error("Exception in Quiz Schedule: {}", e.getMessage(), e);
+            log.error("Exception in Quiz Schedule for quiz {}: {}", quizExerciseId, e.getMessage(), e);
         }
     }
 
@@ -491,119 +594,207 @@ public class QuizScheduleService {
         quizCache.remove(cachedQuiz.getExerciseId());
     }
 
-    private void sendQuizResultToUser(long quizExerciseId, StudentParticipation participation) {
-        var user = participation.getParticipantIdentifier();
-        removeUnnecessaryObjectsBeforeSendingToClient(participation);
-        messagingTemplate.convertAndSendToUser(user, "/topic/exercise/" + quizExerciseId + "/participation", participation);
-    }
-
-    private void removeUnnecessaryObjectsBeforeSendingToClient(StudentParticipation participation) {
-        if (participation.getExercise() != null) {
-            var quizExercise = (QuizExercise) participation.getExercise();
-            // we do not need the course and lectures
-            quizExercise.setCourse(null);
-            // students should not see statistics
-            // TODO: this would be useful, but leads to problems when the quiz schedule service wants to access the statistics again later on
-            // quizExercise.setQuizPointStatistic(null);
-            // quizExercise.getQuizQuestions().forEach(quizQuestion -> quizQuestion.setQuizQuestionStatistic(null));
-        }
-        // submissions are part of results, so we do not need them twice
-        participation.setSubmissions(null);
-        participation.setParticipant(null);
-        if (participation.getResults() != null && participation.getResults().size() > 0) {
-            QuizSubmission quizSubmission = (QuizSubmission) participation.getResults().iterator().next().getSubmission();
-            if (quizSubmission != null && quizSubmission.getSubmittedAnswers() != null) {
-                for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
-                    if (submittedAnswer.getQuizQuestion() != null) {
-                        // we do not need all information of the questions again, they are already stored in the exercise
-                        var question = submittedAnswer.getQuizQuestion();
-                        submittedAnswer.setQuizQuestion(question.copyQuestionId());
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * check if the user submitted the submission or if the quiz has ended: if true: -> Create Participation and Result and save to Database (DB Write) Remove processed Submissions
      * from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
+     * <p>
+     * The users of all processed submissions are resolved in bulk and the submissions are saved in chunks of {@link #persistenceChunkSize} within one transaction per chunk.
+     * If a chunk fails (e.g. due to a duplicated key), it is rolled back and its submissions are saved individually, so that one bad submission cannot destroy the answers of
+     * other students. The answer keys of the quiz are compiled once into a {@link QuizScoringModel} to score all processed submissions.
      *
      * @param quizExercise      the quiz which should be checked
      * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
      * @return                  the number of processed submissions (submit or timeout)
      */
-    private int saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap) {
-
-        int count = 0;
+    private int saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, CompactQuizSubmission> userSubmissionMap) {
 
+        // collect all submissions that were submitted by the user or for which the quiz has ended
+        Map<String, QuizSubmission> submissionsToSave = new LinkedHashMap<>();
         for (String username : userSubmissionMap.keySet()) {
-            try {
-                // first case: the user submitted the quizSubmission
-                QuizSubmission quizSubmission = userSubmissionMap.get(username);
-                if (quizSubmission.isSubmitted()) {
-                    if (quizSubmission.getType() == null) {
-                        quizSubmission.setType(SubmissionType.MANUAL);
-                    }
-                } // second case: the quiz has ended
-                else if (quizExercise.isEnded()) {
-                    quizSubmission.setSubmitted(true);
-                    quizSubmission.setType(SubmissionType.TIMEOUT);
-                    quizSubmission.setSubmissionDate(ZonedDateTime.now());
-                }
-                else {
-                    // the quiz is running and the submission was not yet submitted.
-                    continue;
+            QuizSubmission quizSubmission = decodeSubmissionToSave(quizExercise, userSubmissionMap.get(username));
+            if (quizSubmission != null && prepareSubmissionForSave(quizExercise, quizSubmission)) {
+                submissionsToSave.put(username, quizSubmission);
+            }
+        }
+
+        if (submissionsToSave.isEmpty()) {
+            return 0;
+        }
+        QuizScoringModel scoringModel = QuizScoringModel.compile(quizExercise);
+
+        List<String> usernames = new ArrayList<>(submissionsToSave.keySet());
+        int chunkSize = Math.max(1, persistenceChunkSize);
+        for (int chunkStart = 0; chunkStart < usernames.size(); chunkStart += chunkSize) {
+            List<String> chunk = usernames.subList(chunkStart, Math.min(chunkStart + chunkSize, usernames.size()));
+            Map<String, User> users = userService.getUsersByLogins(chunk);
+            if (chunk.size() == 1 || !saveQuizSubmissionChunkToDatabase(quizExercise, scoringModel, chunk, submissionsToSave, users, userSubmissionMap)) {
+                for (String username : chunk) {
+                    saveSingleQuizSubmissionToDatabase(quizExercise, scoringModel, username, users.get(username), userSubmissionMap);
                 }
+            }
+        }
+        return submissionsToSave.size();
+    }
+
+    /**
+     * Saves the participations, submissions and results for the given chunk of users within one transaction.
+     *
+     * @param quizExercise      the quiz the submissions belong to
+     * @param scoringModel      the compiled scoring model of the quiz
+     * @param usernames         the usernames of the chunk
+     * @param submissionsToSave the prepared submissions mapped by the username
+     * @param users             the already resolved users mapped by their login
+     * @param userSubmissionMap the cached submissions from which the saved submissions are removed
+     * @return true if the chunk was saved, false if the transaction was rolled back
+     */
+    private boolean saveQuizSubmissionChunkToDatabase(QuizExercise quizExercise, QuizScoringModel scoringModel, List<String> usernames,
+            Map<String, QuizSubmission> submissionsToSave, Map<String, User> users, Map<String, CompactQuizSubmission> userSubmissionMap) {
+        List<Result> results = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            results.add(createParticipationAndResult(quizExercise, scoringModel, submissionsToSave.get(username), users.get(username)));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // the order is important: submissions reference participations and results reference both
+                studentParticipationRepository.saveAll(results.stream().map(result -> (StudentParticipation) result.getParticipation()).collect(Collectors.toList()));
+                quizSubmissionRepository.saveAll(results.stream().map(result -> (QuizSubmission) result.getSubmission()).collect(Collectors.toList()));
+                resultRepository.saveAll(results);
+            });
+        }
+        catch (Exception e) {
+            log.warn("Saving a chunk of {} submissions failed in quiz {}, falling back to saving them individually: {}", usernames.size(), quizExercise.getId(), e.getMessage());
+            return false;
+        }
+        for (int i = 0; i < usernames.size(); i++) {
+            Result result = results.get(i);
+            finishSavedQuizSubmission(quizExercise, usernames.get(i), (StudentParticipation) result.getParticipation(), result, userSubmissionMap);
+        }
+        return true;
+    }
 
-                count++;
-                // Create Participation and Result and save to Database (DB Write)
-                // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
-
-                StudentParticipation participation = new StudentParticipation();
-                // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
-                participation.setInitializationDate(quizSubmission.getSubmissionDate());
-                Optional<User> user = userService.getUserByLogin(username);
-                user.ifPresent(participation::setParticipant);
-                // add the quizExercise to the participation
-                participation.setExercise(quizExercise);
-                participation.setInitializationState(InitializationState.FINISHED);
-
-                // create new result
-                Result result = new Result().participation(participation).submission(quizSubmission);
-                result.setRated(true);
-                result.setAssessmentType(AssessmentType.AUTOMATIC);
-                result.setCompletionDate(quizSubmission.getSubmissionDate());
-                result.setSubmission(quizSubmission);
-
-                // calculate scores and update result and submission accordingly
-                quizSubmission.calculateAndUpdateScores(quizExercise);
-                result.evaluateSubmission();
-
-                // add result to participation
-                participation.addResult(result);
-
-                // add submission to participation
-                participation.addSubmissions(quizSubmission);
-
-                // NOTE: we save participation, submission and result here individually so that one exception (e.g. duplicated key) cannot destroy multiple student answers
-                participation = studentParticipationRepository.save(participation);
-                quizSubmissionRepository.save(quizSubmission);
-                result = resultRepository.save(result);
-
-                // add the participation to the participationHashMap for the send out at the end of the quiz
-                addParticipation(quizExercise.getId(), participation);
-
-                // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
-                // the same user
-                userSubmissionMap.remove(username);
-
-                // add the result of the participation resultHashMap for the statistic-Update
-                addResultForStatisticUpdate(quizExercise.getId(), result);
+    /**
+     * Saves the participation, submission and result of one user individually, so that one exception (e.g. duplicated key) cannot destroy multiple student answers.
+     * <p>
+     * The submission is read again from the cache and decoded into a fresh copy that is not affected by a rolled back chunk transaction (e.g. no ids are set).
+     *
+     * @param quizExercise      the quiz the submission belongs to
+     * @param scoringModel      the compiled scoring model of the quiz
+     * @param username          the username of the user who submitted the submission
+     * @param user              the already resolved user, can be null
+     * @param userSubmissionMap the cached submissions from which the saved submission is removed
+     */
+    private void saveSingleQuizSubmissionToDatabase(QuizExercise quizExercise, QuizScoringModel scoringModel, String username, User user,
+            Map<String, CompactQuizSubmission> userSubmissionMap) {
+        try {
+            QuizSubmission quizSubmission = decodeSubmissionToSave(quizExercise, userSubmissionMap.get(username));
+            if (quizSubmission == null || !prepareSubmissionForSave(quizExercise, quizSubmission)) {
+                return;
             }
-            catch (Exception e) {
-                log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), e.getMessage(), e);
+            Result result = createParticipationAndResult(quizExercise, scoringModel, quizSubmission, user);
+
+            // NOTE: we save participation, submission and result here individually so that one exception (e.g. duplicated key) cannot destroy multiple student answers
+            StudentParticipation participation = studentParticipationRepository.save((StudentParticipation) result.getParticipation());
+            quizSubmissionRepository.save(quizSubmission);
+            result = resultRepository.save(result);
+
+            finishSavedQuizSubmission(quizExercise, username, participation, result, userSubmissionMap);
+        }
+        catch (Exception e) {
+            log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes the cached submission only if it will be saved, the submissions of a running quiz that were not yet submitted stay in their compact representation.
+     *
+     * @param quizExercise   the quiz the submission belongs to
+     * @param quizSubmission the cached submission, can be null
+     * @return the decoded submission or null if the submission should stay in the cache
+     */
+    private QuizSubmission decodeSubmissionToSave(QuizExercise quizExercise, CompactQuizSubmission quizSubmission) {
+        if (quizSubmission == null || (!quizSubmission.isSubmitted() && !quizExercise.isEnded())) {
+            return null;
+        }
+        return quizSubmission.toQuizSubmission(quizExercise);
+    }
+
+    /**
+     * Marks the submission as submitted (manual or timeout) if it should be saved to the database.
+     *
+     * @param quizExercise   the quiz the submission belongs to
+     * @param quizSubmission the cached submission
+     * @return true if the user submitted the submission or if the quiz has ended, false if the submission should stay in the cache
+     */
+    private boolean prepareSubmissionForSave(QuizExercise quizExercise, QuizSubmission quizSubmission) {
+        // first case: the user submitted the quizSubmission
+        if (quizSubmission.isSubmitted()) {
+            if (quizSubmission.getType() == null) {
+                quizSubmission.setType(SubmissionType.MANUAL);
             }
+            return true;
+        } // second case: the quiz has ended
+        else if (quizExercise.isEnded()) {
+            quizSubmission.setSubmitted(true);
+            quizSubmission.setType(SubmissionType.TIMEOUT);
+            quizSubmission.setSubmissionDate(ZonedDateTime.now());
+            return true;
+        }
+        // the quiz is running and the submission was not yet submitted.
+        return false;
+    }
+
+    /**
+     * Creates the (unsaved) participation and result for the given submission and calculates the scores.
+     *
+     * @param quizExercise   the quiz the submission belongs to
+     * @param scoringModel   the compiled scoring model of the quiz
+     * @param quizSubmission the submitted submission
+     * @param user           the user who submitted the submission, can be null
+     * @return the new result which references the new participation and the submission
+     */
+    private Result createParticipationAndResult(QuizExercise quizExercise, QuizScoringModel scoringModel, QuizSubmission quizSubmission, User user) {
+        StudentParticipation participation = new StudentParticipation();
+        // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
+        participation.setInitializationDate(quizSubmission.getSubmissionDate());
+        if (user != null) {
+            participation.setParticipant(user);
         }
-        return count;
+        // add the quizExercise to the participation
+        participation.setExercise(quizExercise);
+        participation.setInitializationState(InitializationState.FINISHED);
+
+        // create new result
+        Result result = new Result().participation(participation).submission(quizSubmission);
+        result.setRated(true);
+        result.setAssessmentType(AssessmentType.AUTOMATIC);
+        result.setCompletionDate(quizSubmission.getSubmissionDate());
+        result.setSubmission(quizSubmission);
+
+        // calculate scores and update result and submission accordingly
+        quizSubmission.calculateAndUpdateScores(scoringModel);
+        result.evaluateSubmission(scoringModel);
+
+        // add result to participation
+        participation.addResult(result);
+
+        // add submission to participation
+        participation.addSubmissions(quizSubmission);
+        return result;
+    }
+
+    /**
+     * Write the saved participation and result into the cache and remove the processed submission.
+     */
+    private void finishSavedQuizSubmission(QuizExercise quizExercise, String username, StudentParticipation participation, Result result,
+            Map<String, CompactQuizSubmission> userSubmissionMap) {
+        // add the participation to the participationHashMap for the send out at the end of the quiz
+        addParticipation(quizExercise.getId(), participation);
+
+        // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
+        // the same user
+        userSubmissionMap.remove(username);
+
+        // add the result of the participation resultHashMap for the statistic-Update
+        addResultForStatisticUpdate(quizExercise.getId(), result);
     }
 }
@@ -0,0 +1,72 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the keys of cached values that have to be invalidated because of changes in the current transaction and invalidates them together once the transaction has been
+ * committed. If the transaction is rolled back, nothing is invalidated. Without a transaction (e.g. when called after the commit), the keys are invalidated immediately.
+ * <p>
+ * Invalidating the keys before the commit would allow a concurrent request to cache the old data again under the new version.
+ *
+ * @param <K> the type of the keys
+ */
+public class AfterCommitInvalidation<K> {
+
+    private final Consumer<Set<K>> invalidation;
+
+    /**
+     * @param invalidation invalidates the given keys, it is called at most once per transaction
+     */
+    public AfterCommitInvalidation(Consumer<Set<K>> invalidation) {
+        this.invalidation = invalidation;
+    }
+
+    /**
+     * Invalidates the given key after the commit of the current transaction.
+     *
+     * @param key the key to invalidate
+     */
+    public void add(K key) {
+        addAll(Set.of(key));
+    }
+
+    /**
+     * Invalidates the given keys after the commit of the current transaction.
+     *
+     * @param keys the keys to invalidate
+     */
+    public void addAll(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.accept(new HashSet<>(keys));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<K> pendingKeys = (Set<K>) TransactionSynchronizationManager.getResource(this);
+        if (pendingKeys == null) {
+            pendingKeys = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pendingKeys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(int status) {
+                    @SuppressWarnings("unchecked")
+                    Set<K> keysOfTransaction = (Set<K>) TransactionSynchronizationManager.unbindResource(AfterCommitInvalidation.this);
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        invalidation.accept(keysOfTransaction);
+                    }
+                }
+            });
+        }
+        pendingKeys.addAll(keys);
+    }
+}
@@ -0,0 +1,214 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Processes values by key with a fixed number of single-threaded executors. All values and tasks of one key are always processed by the same thread, therefore they are
+ * processed in order and never concurrently without the need for locks.
+ * <p>
+ * Values of the same key that are offered within the coalescing window are coalesced: only the last value is processed (last write wins). A coalescing window of 0 disables
+ * the executors, then all values and tasks are processed directly by the calling thread (e.g. for tests).
+ *
+ * @param <K> the type of the keys, e.g. the user
+ * @param <V> the type of the values
+ */
+public class CoalescingExecutor<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingExecutor.class);
+
+    private final ConcurrentHashMap<K, V> pendingValues = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService[] executors;
+
+    private final long coalescingWindowInMillis;
+
+    private final BiConsumer<K, V> processor;
+
+    private final LongAdder coalescedValues = new LongAdder();
+
+    /**
+     * A task that is executed in order with the values of its key.
+     *
+     * @param <T> the type of the result
+     * @param <E> the type of the exception the task can throw
+     */
+    @FunctionalInterface
+    public interface Task<T, E extends Throwable> {
+
+        T call() throws E;
+    }
+
+    /**
+     * Creates a new executor with its threads.
+     *
+     * @param threadNamePrefix         the prefix of the names of the threads
+     * @param threads                  the number of threads, the keys are distributed between them by their hash code
+     * @param coalescingWindowInMillis the time in milliseconds a value waits for newer values of the same key before it is processed, 0 processes the values directly
+     * @param processor                processes the last value of a key, it is called by the thread of the key
+     */
+    public CoalescingExecutor(String threadNamePrefix, int threads, long coalescingWindowInMillis, BiConsumer<K, V> processor) {
+        if (threads < 1 || coalescingWindowInMillis < 0) {
+            throw new IllegalArgumentException("The number of threads has to be positive and the coalescing window must not be negative");
+        }
+        this.coalescingWindowInMillis = coalescingWindowInMillis;
+        this.processor = processor;
+        if (coalescingWindowInMillis > 0) {
+            ThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+            executors = new ScheduledExecutorService[threads];
+            for (int i = 0; i < threads; i++) {
+                executors[i] = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            }
+        }
+        else {
+            executors = new ScheduledExecutorService[0];
+        }
+    }
+
+    /**
+     * Offers a new value for the key, it replaces the pending value of the key if there is one. The caller does not wait for the processing.
+     *
+     * @param key         the key of the value
+     * @param value       the new value
+     * @param immediately whether the value should be processed without waiting for the coalescing window, e.g. because it is the final value of the key
+     * @return true if the value replaced a pending value, false if there was no pending value
+     */
+    public boolean offer(K key, V value, boolean immediately) {
+        if (executors.length == 0) {
+            processor.accept(key, value);
+            return false;
+        }
+        // The pending value is removed right before it is processed. If there is a pending value, it will be processed after the put, so no new processing is scheduled.
+        boolean replaced = pendingValues.put(key, value) != null;
+        if (replaced) {
+            coalescedValues.increment();
+        }
+        if (immediately) {
+            executorFor(key).execute(() -> processPendingValue(key));
+        }
+        else if (!replaced) {
+            executorFor(key).schedule(() -> processPendingValue(key), coalescingWindowInMillis, TimeUnit.MILLISECONDS);
+        }
+        return replaced;
+    }
+
+    /**
+     * Executes the task with the thread of the key and waits for its result. The pending value of the key is discarded before, e.g. because the task saves the final value.
+     *
+     * @param key  the key the task belongs to
+     * @param task the task to execute
+     * @param <T>  the type of the result
+     * @param <E>  the type of the exception the task can throw
+     * @return the result of the task
+     * @throws E                    the exception thrown by the task
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the task
+     */
+    public <T, E extends Throwable> T executeInOrder(K key, Task<T, E> task) throws E, InterruptedException {
+        if (executors.length == 0) {
+            return task.call();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executorFor(key).execute(() -> {
+            pendingValues.remove(key);
+            try {
+                result.complete(task.call());
+            }
+            catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        try {
+            return result.get();
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            // the task can only throw checked exceptions of the type E
+            @SuppressWarnings("unchecked")
+            E cause = (E) ex.getCause();
+            throw cause;
+        }
+    }
+
+    /**
+     * Processes the pending values of the matching keys without waiting for the end of their coalescing window and waits until they are processed, e.g. because no values
+     * are accepted after a deadline. The values are processed by the threads of their keys, so they are still processed in order with the other values and tasks of the keys.
+     *
+     * @param keyFilter selects the keys whose pending values should be processed
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the processing
+     */
+    public void flush(Predicate<K> keyFilter) throws InterruptedException {
+        List<Future<?>> processings = new ArrayList<>();
+        for (K key : pendingValues.keySet()) {
+            if (keyFilter.test(key)) {
+                processings.add(executorFor(key).submit(() -> processPendingValue(key)));
+            }
+        }
+        for (Future<?> processing : processings) {
+            try {
+                processing.get();
+            }
+            catch (ExecutionException ex) {
+                // processPendingValue catches and logs the exceptions of the processor, this only happens for errors
+                log.error("Flushing a pending value failed: {}", ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * The number of values that replaced a pending value since the executor was created.
+     *
+     * @return the number of coalesced values
+     */
+    public long getCoalescedValues() {
+        return coalescedValues.sum();
+    }
+
+    /**
+     * The number of keys whose value waits to be processed.
+     *
+     * @return the number of pending values
+     */
+    public int getPendingValues() {
+        return pendingValues.size();
+    }
+
+    /**
+     * Shuts down the threads, the pending values are still processed, but new values are rejected.
+     */
+    public void shutdown() {
+        for (ScheduledExecutorService executor : executors) {
+            executor.shutdown();
+        }
+    }
+
+    private void processPendingValue(K key) {
+        V value = pendingValues.remove(key);
+        if (value == null) {
+            // the value was processed already, e.g. by an immediate processing or a task
+            return;
+        }
+        try {
+            processor.accept(key, value);
+        }
+        catch (RuntimeException ex) {
+            log.error("Processing the value of {} failed: {}", key, ex.getMessage(), ex);
+        }
+    }
+
+    private ScheduledExecutorService executorFor(K key) {
+        return executors[Math.floorMod(key.hashCode(), executors.length)];
+    }
+}
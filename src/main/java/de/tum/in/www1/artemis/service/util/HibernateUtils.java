@@ -1,6 +1,9 @@
 package de.tum.in.www1.artemis.service.util;
 
 import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
 
 public class HibernateUtils {
 
@@ -19,4 +22,17 @@ public class HibernateUtils {
         // It doesn't really matter if we throw the exception here, or in the calling block if the cast fails, the result is the same.
         return (T) Hibernate.unproxy(proxy);
     }
+
+    /**
+     * Returns the id of the given entity without initializing it if it is an uninitialized {@link HibernateProxy}, e.g. while the changes of a session are flushed.
+     *
+     * @param entity the entity or the proxy of the entity
+     * @return the id of the entity or null if the entity is null
+     */
+    public static Long getId(DomainObject entity) {
+        if (entity instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) entity).getHibernateLazyInitializer().getIdentifier();
+        }
+        return entity != null ? entity.getId() : null;
+    }
 }
@@ -0,0 +1,144 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache that is bounded by the total weight (e.g. the size in bytes) of its values. If a new value exceeds the maximum weight, the least recently used values are
+ * evicted. Values that are heavier than the maximum weight are never cached.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class LruCache<K, V> {
+
+    private final long maxWeight;
+
+    private final ToLongFunction<V> weigher;
+
+    // The access order of the map is used to find the least recently used values.
+    private final LinkedHashMap<K, V> values = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param maxWeight the maximum total weight of all cached values
+     * @param weigher   calculates the weight of a value, the weight of a value must not change while it is cached
+     */
+    public LruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("The maximum weight of a cache must not be negative");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached value for the given key and marks it as recently used.
+     *
+     * @param key the key of the value
+     * @return the cached value or null if there is none
+     */
+    public synchronized V get(K key) {
+        return values.get(key);
+    }
+
+    /**
+     * Caches the given value and evicts the least recently used values if the maximum weight is exceeded. A value that is heavier than the maximum weight is not cached, but it
+     * still replaces the previous value of the key.
+     *
+     * @param key   the key of the value
+     * @param value the value that should be cached
+     */
+    public synchronized void put(K key, V value) {
+        remove(key);
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        values.put(key, value);
+        weight += valueWeight;
+        Iterator<Map.Entry<K, V>> iterator = values.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= weigher.applyAsLong(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Computes the value for the given key from its cached value atomically, like {@link Map#compute(Object, BiFunction)}. The computed value is cached like with
+     * {@link #put(Object, Object)}, if it is null the cached value is removed.
+     *
+     * @param key               the key of the value
+     * @param remappingFunction computes the new value from the key and the cached value (null if there is none)
+     * @return the computed value
+     */
+    public synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        V value = remappingFunction.apply(key, values.get(key));
+        if (value == null) {
+            remove(key);
+        }
+        else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the cached value for the given key.
+     *
+     * @param key the key of the value
+     * @return the removed value or null if there was none
+     */
+    public synchronized V remove(K key) {
+        V value = values.remove(key);
+        if (value != null) {
+            weight -= weigher.applyAsLong(value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the cached values whose keys match the given predicate.
+     *
+     * @param keyPredicate returns true for the keys whose values should be removed
+     */
+    public synchronized void removeIf(Predicate<K> keyPredicate) {
+        Iterator<Map.Entry<K, V>> iterator = values.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, V> entry = iterator.next();
+            if (keyPredicate.test(entry.getKey())) {
+                weight -= weigher.applyAsLong(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public synchronized void clear() {
+        values.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the number of cached values
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * @return the total weight of all cached values
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+}
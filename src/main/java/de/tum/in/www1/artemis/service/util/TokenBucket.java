@@ -0,0 +1,74 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe token bucket to limit the rate of requests to an external system. The bucket holds at most capacity tokens and is refilled continuously with the given rate.
+ * Every request takes one token, if no token is available, the caller has to wait until the bucket has been refilled.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+
+    private final double tokensPerNano;
+
+    private final LongSupplier nanoClock;
+
+    private double availableTokens;
+
+    private long lastRefill;
+
+    /**
+     * Creates a new, full token bucket.
+     *
+     * @param capacity        the maximum number of tokens, i.e. the maximum number of requests in a burst
+     * @param tokensPerSecond the number of tokens that are added per second, i.e. the sustained rate of requests
+     */
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        this(capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double tokensPerSecond, LongSupplier nanoClock) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("The capacity and the rate of a token bucket have to be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.availableTokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the time in nano seconds until the next token will be available
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (availableTokens >= 1) {
+            availableTokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - availableTokens) / tokensPerNano);
+    }
+
+    /**
+     * Takes a token and waits until one is available if necessary.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitTime;
+        while ((waitTime = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitTime);
+        }
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        availableTokens = Math.min(capacity, availableTokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
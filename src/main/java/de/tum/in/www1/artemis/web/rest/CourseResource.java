@@ -26,14 +26,11 @@ import org.springframework.web.bind.annotation.*;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
-import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
 import de.tum.in.www1.artemis.domain.enumeration.ExerciseMode;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.participation.TutorParticipation;
 import de.tum.in.www1.artemis.exception.ArtemisAuthenticationException;
 import de.tum.in.www1.artemis.exception.GroupAlreadyExistsException;
-import de.tum.in.www1.artemis.repository.ComplaintRepository;
-import de.tum.in.www1.artemis.repository.ComplaintResponseRepository;
 import de.tum.in.www1.artemis.repository.CourseRepository;
 import de.tum.in.www1.artemis.security.ArtemisAuthenticationProvider;
 import de.tum.in.www1.artemis.service.*;
@@ -66,7 +63,7 @@ public class CourseResource {
 
     private final CourseService courseService;
 
-    private final ParticipationService participationService;
+    private final CourseDashboardCache courseDashboardCache;
 
     private final AuthorizationCheckService authCheckService;
 
@@ -78,10 +75,6 @@ public class CourseResource {
 
     private final TutorParticipationService tutorParticipationService;
 
-    private final ComplaintRepository complaintRepository;
-
-    private final ComplaintResponseRepository complaintResponseRepository;
-
     private final SubmissionService submissionService;
 
     private final ResultService resultService;
@@ -94,28 +87,30 @@ public class CourseResource {
 
     private final TutorDashboardService tutorDashboardService;
 
+    private final InstructorDashboardStatsService instructorDashboardStatsService;
+
+    private final SubscriptionAuthorizationCache subscriptionAuthorizationCache;
+
     private final AuditEventRepository auditEventRepository;
 
     private final Optional<VcsUserManagementService> vcsUserManagementService;
 
     private final Environment env;
 
-    public CourseResource(UserService userService, CourseService courseService, ParticipationService participationService, CourseRepository courseRepository,
+    public CourseResource(UserService userService, CourseService courseService, CourseDashboardCache courseDashboardCache, CourseRepository courseRepository,
             ExerciseService exerciseService, AuthorizationCheckService authCheckService, TutorParticipationService tutorParticipationService, Environment env,
-            ArtemisAuthenticationProvider artemisAuthenticationProvider, ComplaintRepository complaintRepository, ComplaintResponseRepository complaintResponseRepository,
-            SubmissionService submissionService, ResultService resultService, ComplaintService complaintService, TutorLeaderboardService tutorLeaderboardService,
-            ProgrammingExerciseService programmingExerciseService, AuditEventRepository auditEventRepository, Optional<VcsUserManagementService> vcsUserManagementService,
-            TutorDashboardService tutorDashboardService) {
+            ArtemisAuthenticationProvider artemisAuthenticationProvider, SubmissionService submissionService, ResultService resultService, ComplaintService complaintService,
+            TutorLeaderboardService tutorLeaderboardService, ProgrammingExerciseService programmingExerciseService, AuditEventRepository auditEventRepository,
+            Optional<VcsUserManagementService> vcsUserManagementService, TutorDashboardService tutorDashboardService,
+            InstructorDashboardStatsService instructorDashboardStatsService, SubscriptionAuthorizationCache subscriptionAuthorizationCache) {
         this.userService = userService;
         this.courseService = courseService;
-        this.participationService = participationService;
+        this.courseDashboardCache = courseDashboardCache;
         this.courseRepository = courseRepository;
         this.exerciseService = exerciseService;
         this.authCheckService = authCheckService;
         this.tutorParticipationService = tutorParticipationService;
         this.artemisAuthenticationProvider = artemisAuthenticationProvider;
-        this.complaintRepository = complaintRepository;
-        this.complaintResponseRepository = complaintResponseRepository;
         this.submissionService = submissionService;
         this.resultService = resultService;
         this.complaintService = complaintService;
@@ -125,6 +120,8 @@ public class CourseResource {
         this.auditEventRepository = auditEventRepository;
         this.env = env;
         this.tutorDashboardService = tutorDashboardService;
+        this.instructorDashboardStatsService = instructorDashboardStatsService;
+        this.subscriptionAuthorizationCache = subscriptionAuthorizationCache;
     }
 
     /**
@@ -277,7 +274,14 @@ public class CourseResource {
         // users no longer have TA or instructor rights in the related exercise repositories.
         final var oldInstructorGroup = existingCourse.get().getInstructorGroupName();
         final var oldTeachingAssistantGroup = existingCourse.get().getTeachingAssistantGroupName();
+        final var groupsChanged = !Objects.equals(existingCourse.get().getStudentGroupName(), updatedCourse.getStudentGroupName())
+                || !Objects.equals(oldTeachingAssistantGroup, updatedCourse.getTeachingAssistantGroupName())
+                || !Objects.equals(oldInstructorGroup, updatedCourse.getInstructorGroupName());
         Course result = courseService.save(updatedCourse);
+        if (groupsChanged) {
+            // the cached authorization decisions of all users in the previous and the new groups are outdated
+            subscriptionAuthorizationCache.invalidateAllUsers();
+        }
         vcsUserManagementService.ifPresent(userManagementService -> userManagementService.updateCoursePermissions(result, oldInstructorGroup, oldTeachingAssistantGroup));
         return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, updatedCourse.getTitle())).body(result);
     }
@@ -441,18 +445,8 @@ public class CourseResource {
             return;
         }
 
-        // Note: we need two database calls here, because of performance reasons: the entity structure for team is significantly different and a combined database call
-        // would lead to a SQL statement that cannot be optimized
-
-        // 1st: fetch participations, submissions and results for individual exercises
-        List<StudentParticipation> individualParticipations = participationService.findByStudentIdAndIndividualExercisesWithEagerSubmissionsResult(user.getId(),
-                activeIndividualExercises);
-
-        // 2nd: fetch participations, submissions and results for team exercises
-        List<StudentParticipation> teamParticipations = participationService.findByStudentIdAndTeamExercisesWithEagerSubmissionsResult(user.getId(), activeTeamExercises);
-
-        // 3rd: merge both into one list for further processing
-        List<StudentParticipation> participations = Stream.concat(individualParticipations.stream(), teamParticipations.stream()).collect(Collectors.toList());
+        // The participations are cached per user and course, only the participations of courses that are not cached (or that changed) are loaded from the database
+        List<StudentParticipation> participations = courseDashboardCache.findParticipationsWithSubmissionsAndResults(courses, user);
 
         for (Course course : courses) {
             boolean isStudent = !authCheckService.isAtLeastTeachingAssistantInCourse(course, user);
@@ -691,38 +685,13 @@ public class CourseResource {
             throw new AccessForbiddenException("You are not allowed to access this resource");
         }
 
-        StatsForInstructorDashboardDTO stats = new StatsForInstructorDashboardDTO();
-
-        final long numberOfComplaints = complaintRepository.countByResult_Participation_Exercise_Course_IdAndComplaintType(courseId, ComplaintType.COMPLAINT);
-        stats.setNumberOfComplaints(numberOfComplaints);
-        final long numberOfComplaintResponses = complaintResponseRepository.countByComplaint_Result_Participation_Exercise_Course_Id_AndComplaint_ComplaintType(courseId,
-                ComplaintType.COMPLAINT);
-        stats.setNumberOfOpenComplaints(numberOfComplaints - numberOfComplaintResponses);
-
-        final long numberOfMoreFeedbackRequests = complaintRepository.countByResult_Participation_Exercise_Course_IdAndComplaintType(courseId, ComplaintType.MORE_FEEDBACK);
-        stats.setNumberOfMoreFeedbackRequests(numberOfMoreFeedbackRequests);
-        final long numberOfMoreFeedbackComplaintResponses = complaintResponseRepository
-                .countByComplaint_Result_Participation_Exercise_Course_Id_AndComplaint_ComplaintType(courseId, ComplaintType.MORE_FEEDBACK);
-        stats.setNumberOfOpenMoreFeedbackRequests(numberOfMoreFeedbackRequests - numberOfMoreFeedbackComplaintResponses);
-
-        stats.setNumberOfStudents(courseService.countNumberOfStudentsForCourse(course));
-
-        final long numberOfInTimeSubmissions = submissionService.countInTimeSubmissionsForCourse(courseId)
-                + programmingExerciseService.countSubmissionsByCourseIdSubmitted(courseId);
-        final long numberOfLateSubmissions = submissionService.countLateSubmissionsForCourse(courseId);
-
-        stats.setNumberOfSubmissions(new DueDateStat(numberOfInTimeSubmissions, numberOfLateSubmissions));
-        stats.setNumberOfAssessments(resultService.countNumberOfAssessments(courseId));
+        // The statistics are cached and might be slightly outdated, the time of their computation is included
+        StatsForInstructorDashboardDTO stats = instructorDashboardStatsService.getStatsForInstructorDashboard(course);
 
+        // The assessment locks are not cached, because they depend on the user
         final long numberOfAssessmentLocks = submissionService.countSubmissionLocks(courseId);
         stats.setNumberOfAssessmentLocks(numberOfAssessmentLocks);
 
-        final long startT = System.currentTimeMillis();
-        List<TutorLeaderboardDTO> leaderboardEntries = tutorLeaderboardService.getCourseLeaderboard(course);
-        stats.setTutorLeaderboardEntries(leaderboardEntries);
-
-        log.info("Finished TutorLeaderboard in " + (System.currentTimeMillis() - startT) + "ms");
-
         log.info("Finished /courses/" + courseId + "/stats-for-instructor-dashboard call in " + (System.currentTimeMillis() - start) + "ms");
         return ResponseEntity.ok(stats);
     }
@@ -18,6 +18,7 @@ import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.ResourcePatternUtils;
@@ -105,7 +106,7 @@ public class FileResource {
      */
     @GetMapping("/files/temp/{filename:.+}")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR', 'TA')")
-    public ResponseEntity<byte[]> getTempFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getTempFile(@PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getTempFilepath() + filename);
     }
@@ -134,7 +135,7 @@ public class FileResource {
      */
     @GetMapping("/files/markdown/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getMarkdownFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getMarkdownFile(@PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getMarkdownFilepath() + filename);
     }
@@ -174,7 +175,7 @@ public class FileResource {
      */
     @GetMapping("/files/drag-and-drop/backgrounds/{questionId}/{filename:.+}")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<byte[]> getDragAndDropBackgroundFile(@PathVariable Long questionId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getDragAndDropBackgroundFile(@PathVariable Long questionId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getDragAndDropBackgroundFilepath() + filename);
     }
@@ -188,7 +189,7 @@ public class FileResource {
      */
     @GetMapping("/files/drag-and-drop/drag-items/{dragItemId}/{filename:.+}")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<byte[]> getDragItemFile(@PathVariable Long dragItemId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getDragItemFile(@PathVariable Long dragItemId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getDragItemFilepath() + filename);
     }
@@ -204,7 +205,7 @@ public class FileResource {
      */
     @GetMapping("/files/file-upload-exercises/{exerciseId}/submissions/{submissionId}/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getFileUploadSubmission(@PathVariable Long exerciseId, @PathVariable Long submissionId, @PathVariable String filename,
+    public ResponseEntity<Resource> getFileUploadSubmission(@PathVariable Long exerciseId, @PathVariable Long submissionId, @PathVariable String filename,
             @RequestParam("access_token") String temporaryAccessToken) {
         log.debug("REST request to get file : {}", filename);
         Optional<FileUploadSubmission> optionalSubmission = fileUploadSubmissionRepository.findById(submissionId);
@@ -215,7 +216,7 @@ public class FileResource {
         if (!validateTemporaryAccessToken(temporaryAccessToken, filename)) {
             // NOTE: this is a special case, because we like to show this error message directly in the browser (without the angular client being active)
             String errorMessage = "You don't have the access rights for this file! Please login to Artemis and download the file in the corresponding exercise";
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorMessage.getBytes());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ByteArrayResource(errorMessage.getBytes()));
         }
         return buildFileResponse(FileUploadSubmission.buildFilePath(optionalFileUploadExercise.get().getId(), optionalSubmission.get().getId()), filename);
     }
@@ -229,7 +230,7 @@ public class FileResource {
      */
     @GetMapping("/files/course/icons/{courseId}/{filename:.+}")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<byte[]> getCourseIcon(@PathVariable Long courseId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getCourseIcon(@PathVariable Long courseId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getCourseIconFilepath() + filename);
     }
@@ -261,7 +262,7 @@ public class FileResource {
      */
     @GetMapping("files/attachments/lecture/{lectureId}/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getLectureAttachment(@PathVariable Long lectureId, @PathVariable String filename, @RequestParam("access_token") String temporaryAccessToken) {
+    public ResponseEntity<Resource> getLectureAttachment(@PathVariable Long lectureId, @PathVariable String filename, @RequestParam("access_token") String temporaryAccessToken) {
         log.debug("REST request to get file : {}", filename);
         Optional<Lecture> optionalLecture = lectureRepository.findById(lectureId);
         if (optionalLecture.isEmpty()) {
@@ -270,7 +271,7 @@ public class FileResource {
         if (!validateTemporaryAccessToken(temporaryAccessToken, filename)) {
             // NOTE: this is a special case, because we like to show this error message directly in the browser (without the angular client being active)
             String errorMessage = "You don't have the access rights for this file! Please login to Artemis and download the attachment in the corresponding lecture";
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorMessage.getBytes());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ByteArrayResource(errorMessage.getBytes()));
         }
         return buildFileResponse(FilePathService.getLectureAttachmentFilepath() + optionalLecture.get().getId(), filename);
     }
@@ -378,9 +379,9 @@ public class FileResource {
      * @param filename the name of the file
      * @return response entity
      */
-    private ResponseEntity<byte[]> buildFileResponse(String path, String filename) {
+    private ResponseEntity<Resource> buildFileResponse(String path, String filename) {
         try {
-            var file = fileService.getFileForPath(path + '/' + filename);
+            var file = fileService.getResourceForPath(path + '/' + filename);
             if (file == null) {
                 return ResponseEntity.notFound().build();
             }
@@ -388,16 +389,7 @@ public class FileResource {
             ContentDisposition contentDisposition = ContentDisposition.builder("inline").filename(filename).build();
             HttpHeaders headers = new HttpHeaders();
             headers.setContentDisposition(contentDisposition);
-            FileNameMap fileNameMap = URLConnection.getFileNameMap();
-            String mimeType = fileNameMap.getContentTypeFor(filename);
-
-            // If we were unable to find mimeType with previous method, try another one, which returns application/octet-stream mime type,
-            // if it also can't determine mime type
-            if (mimeType == null) {
-                MimetypesFileTypeMap fileTypeMap = new MimetypesFileTypeMap();
-                mimeType = fileTypeMap.getContentType(filename);
-            }
-            return ResponseEntity.ok().headers(headers).contentType(MediaType.parseMediaType(mimeType)).header("filename", filename).body(file);
+            return fileResponse(file, filename).headers(headers).header("filename", filename).body(file);
         }
         catch (IOException ex) {
             log.error("Download of file: " + filename + "on path: " + path + " let to the following exception", ex);
@@ -411,13 +403,13 @@ public class FileResource {
      * @param path the path for the file to read
      * @return ResponseEntity with status 200 and the file as byte stream, status 404 if the file doesn't exist, or status 500 if there is an error while reading the file
      */
-    private ResponseEntity<byte[]> responseEntityForFilePath(String path) {
+    private ResponseEntity<Resource> responseEntityForFilePath(String path) {
         try {
-            var file = fileService.getFileForPath(path);
+            var file = fileService.getResourceForPath(path);
             if (file == null) {
                 return ResponseEntity.notFound().build();
             }
-            return ResponseEntity.ok(file);
+            return fileResponse(file, file.getFilename()).body(file);
         }
         catch (IOException e) {
             e.printStackTrace();
@@ -425,4 +417,28 @@ public class FileResource {
         }
     }
 
+    /**
+     * Creates the response for a file, the file is streamed to the client instead of being loaded into memory. Spring answers range requests with the requested parts of the
+     * file and conditional requests with 304 (not modified) based on the ETag and the last modification date of the file.
+     *
+     * @param file     the file that should be sent to the client
+     * @param filename the name of the file, it is used to determine the content type
+     * @return the response builder with the content type and the caching headers
+     * @throws IOException if the file can't be accessed.
+     */
+    private ResponseEntity.BodyBuilder fileResponse(Resource file, String filename) throws IOException {
+        FileNameMap fileNameMap = URLConnection.getFileNameMap();
+        String mimeType = fileNameMap.getContentTypeFor(filename);
+
+        // If we were unable to find mimeType with previous method, try another one, which returns application/octet-stream mime type,
+        // if it also can't determine mime type
+        if (mimeType == null) {
+            MimetypesFileTypeMap fileTypeMap = new MimetypesFileTypeMap();
+            mimeType = fileTypeMap.getContentType(filename);
+        }
+        long lastModified = file.lastModified();
+        // The browser has to revalidate the file on every request, but it only gets the file again if it was changed.
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(mimeType)).lastModified(lastModified)
+                .eTag(Long.toHexString(lastModified) + "-" + Long.toHexString(file.contentLength())).cacheControl(CacheControl.noCache().cachePrivate());
+    }
 }
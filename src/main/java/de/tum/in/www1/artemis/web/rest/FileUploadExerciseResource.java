@@ -62,9 +62,12 @@ public class FileUploadExerciseResource {
 
     private final FileUploadSubmissionExportService fileUploadSubmissionExportService;
 
+    private final ExamExerciseCache examExerciseCache;
+
     public FileUploadExerciseResource(FileUploadExerciseService fileUploadExerciseService, FileUploadExerciseRepository fileUploadExerciseRepository, UserService userService,
             AuthorizationCheckService authCheckService, CourseService courseService, GroupNotificationService groupNotificationService, ExerciseService exerciseService,
-            FileUploadSubmissionExportService fileUploadSubmissionExportService, GradingCriterionService gradingCriterionService, ExerciseGroupService exerciseGroupService) {
+            FileUploadSubmissionExportService fileUploadSubmissionExportService, GradingCriterionService gradingCriterionService, ExerciseGroupService exerciseGroupService,
+            ExamExerciseCache examExerciseCache) {
         this.fileUploadExerciseService = fileUploadExerciseService;
         this.fileUploadExerciseRepository = fileUploadExerciseRepository;
         this.userService = userService;
@@ -75,6 +78,7 @@ public class FileUploadExerciseResource {
         this.gradingCriterionService = gradingCriterionService;
         this.exerciseGroupService = exerciseGroupService;
         this.fileUploadSubmissionExportService = fileUploadSubmissionExportService;
+        this.examExerciseCache = examExerciseCache;
     }
 
     /**
@@ -179,6 +183,7 @@ public class FileUploadExerciseResource {
         exerciseService.checkForConversionBetweenExamAndCourseExercise(fileUploadExercise, fileUploadExerciseBeforeUpdate, ENTITY_NAME);
 
         FileUploadExercise result = fileUploadExerciseRepository.save(fileUploadExercise);
+        examExerciseCache.invalidateExercise(result);
 
         // Only notify students about changes if a regular exercise was updated
         if (notificationText != null && fileUploadExercise.hasCourse()) {
@@ -11,7 +11,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import de.tum.in.www1.artemis.domain.*;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.service.*;
 
 /**
@@ -38,17 +37,14 @@ public class ProgrammingExerciseGradingResource {
 
     private final UserService userService;
 
-    private final ResultRepository resultRepository;
-
     public ProgrammingExerciseGradingResource(ProgrammingExerciseGradingService programmingExerciseGradingService,
             ProgrammingExerciseTestCaseService programmingExerciseTestCaseService, ProgrammingExerciseService programmingExerciseService,
-            AuthorizationCheckService authCheckService, UserService userService, ResultRepository resultRepository) {
+            AuthorizationCheckService authCheckService, UserService userService) {
         this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.programmingExerciseTestCaseService = programmingExerciseTestCaseService;
         this.programmingExerciseService = programmingExerciseService;
         this.authCheckService = authCheckService;
         this.userService = userService;
-        this.resultRepository = resultRepository;
     }
 
     /**
@@ -91,7 +87,6 @@ public class ProgrammingExerciseGradingResource {
         }
 
         List<Result> updatedResults = programmingExerciseGradingService.updateAllResults(programmingExercise);
-        resultRepository.saveAll(updatedResults);
         return ResponseEntity.ok(updatedResults.size());
     }
 }
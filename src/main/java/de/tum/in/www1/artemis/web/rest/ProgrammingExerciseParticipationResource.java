@@ -5,7 +5,6 @@ import static de.tum.in.www1.artemis.web.rest.util.ResponseUtil.notFound;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -179,14 +178,8 @@ public class ProgrammingExerciseParticipationResource {
         if (!authCheckService.isAtLeastTeachingAssistantForExercise(programmingExercise)) {
             return forbidden();
         }
+        // The participations of the submissions are already removed to make the response smaller (exercise, student of participation).
         Map<Long, Optional<ProgrammingSubmission>> pendingSubmissions = submissionService.getLatestPendingSubmissionsForProgrammingExercise(exerciseId);
-        // Remove unnecessary data to make response smaller (exercise, student of participation).
-        pendingSubmissions = pendingSubmissions.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
-            Optional<ProgrammingSubmission> submissionOpt = entry.getValue();
-            // Remove participation, is not needed in the response.
-            submissionOpt.ifPresent(submission -> submission.setParticipation(null));
-            return submissionOpt;
-        }));
         return ResponseEntity.ok(pendingSubmissions);
     }
 
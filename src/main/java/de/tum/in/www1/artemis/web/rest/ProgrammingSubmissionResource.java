@@ -1,7 +1,5 @@
 package de.tum.in.www1.artemis.web.rest;
 
-import static de.tum.in.www1.artemis.config.Constants.EXTERNAL_SYSTEM_REQUEST_BATCH_SIZE;
-import static de.tum.in.www1.artemis.config.Constants.EXTERNAL_SYSTEM_REQUEST_BATCH_WAIT_TIME_MS;
 import static de.tum.in.www1.artemis.web.rest.util.ResponseUtil.*;
 
 import java.util.LinkedList;
@@ -59,10 +57,13 @@ public class ProgrammingSubmissionResource {
 
     private final UserService userService;
 
+    private final ProgrammingExerciseBuildTriggerService programmingExerciseBuildTriggerService;
+
     public ProgrammingSubmissionResource(ProgrammingSubmissionService programmingSubmissionService, ExerciseService exerciseService,
             ProgrammingExerciseService programmingExerciseService, AuthorizationCheckService authCheckService,
             ProgrammingExerciseParticipationService programmingExerciseParticipationService, ResultService resultService, Optional<VersionControlService> versionControlService,
-            UserService userService, Optional<ContinuousIntegrationService> continuousIntegrationService) {
+            UserService userService, Optional<ContinuousIntegrationService> continuousIntegrationService,
+            ProgrammingExerciseBuildTriggerService programmingExerciseBuildTriggerService) {
         this.programmingSubmissionService = programmingSubmissionService;
         this.exerciseService = exerciseService;
         this.programmingExerciseService = programmingExerciseService;
@@ -72,6 +73,7 @@ public class ProgrammingSubmissionResource {
         this.versionControlService = versionControlService;
         this.userService = userService;
         this.continuousIntegrationService = continuousIntegrationService;
+        this.programmingExerciseBuildTriggerService = programmingExerciseBuildTriggerService;
     }
 
     /**
@@ -249,22 +251,8 @@ public class ProgrammingSubmissionResource {
                 programmingExercise.getId());
         List<ProgrammingExerciseParticipation> participations = new LinkedList<>(
                 programmingExerciseParticipationService.findByExerciseAndParticipationIds(exerciseId, participationIds));
-
-        var index = 0;
-        for (var participation : participations) {
-            // Execute requests in batches instead all at once.
-            if (index > 0 && index % EXTERNAL_SYSTEM_REQUEST_BATCH_SIZE == 0) {
-                try {
-                    log.info("Sleep for {}s during triggerBuild", EXTERNAL_SYSTEM_REQUEST_BATCH_WAIT_TIME_MS / 1000);
-                    Thread.sleep(EXTERNAL_SYSTEM_REQUEST_BATCH_WAIT_TIME_MS);
-                }
-                catch (InterruptedException ex) {
-                    log.error("Exception encountered when pausing before executing successive build for participation " + participation.getId(), ex);
-                }
-            }
-            programmingSubmissionService.triggerBuildAndNotifyUser(participation);
-            index++;
-        }
+        // The requests to the CI system share the rate limit of the instructor build runs.
+        programmingExerciseBuildTriggerService.triggerBuilds(participations);
 
         return ResponseEntity.ok().build();
     }
@@ -6,6 +6,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -18,9 +19,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
-import de.tum.in.www1.artemis.domain.enumeration.BuildPlanType;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.participation.*;
@@ -29,7 +31,6 @@ import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
-import de.tum.in.www1.artemis.service.connectors.LtiService;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -69,20 +70,16 @@ public class ResultResource {
 
     private final ProgrammingExerciseParticipationService programmingExerciseParticipationService;
 
-    private final WebsocketMessagingService messagingService;
-
-    private final LtiService ltiService;
-
     private final ProgrammingSubmissionService programmingSubmissionService;
 
     private final AssessmentService assessmentService;
 
-    private ProgrammingExerciseGradingService programmingExerciseGradingService;
+    private final ProgrammingExerciseResultQueueService programmingExerciseResultQueueService;
 
     public ResultResource(ProgrammingExerciseParticipationService programmingExerciseParticipationService, ParticipationService participationService, ResultService resultService,
-            ExerciseService exerciseService, AuthorizationCheckService authCheckService, Optional<ContinuousIntegrationService> continuousIntegrationService, LtiService ltiService,
-            ResultRepository resultRepository, WebsocketMessagingService messagingService, ProgrammingSubmissionService programmingSubmissionService, UserService userService,
-            AssessmentService assessmentService, ExamService examService, ProgrammingExerciseGradingService programmingExerciseGradingService) {
+            ExerciseService exerciseService, AuthorizationCheckService authCheckService, Optional<ContinuousIntegrationService> continuousIntegrationService,
+            ResultRepository resultRepository, ProgrammingSubmissionService programmingSubmissionService, UserService userService, AssessmentService assessmentService,
+            ExamService examService, ProgrammingExerciseResultQueueService programmingExerciseResultQueueService) {
         this.resultRepository = resultRepository;
         this.participationService = participationService;
         this.resultService = resultService;
@@ -90,13 +87,11 @@ public class ResultResource {
         this.authCheckService = authCheckService;
         this.continuousIntegrationService = continuousIntegrationService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
-        this.messagingService = messagingService;
-        this.ltiService = ltiService;
         this.programmingSubmissionService = programmingSubmissionService;
         this.assessmentService = assessmentService;
         this.userService = userService;
         this.examService = examService;
-        this.programmingExerciseGradingService = programmingExerciseGradingService;
+        this.programmingExerciseResultQueueService = programmingExerciseResultQueueService;
     }
 
     /**
@@ -106,6 +101,7 @@ public class ResultResource {
      * - Assign the result to an existing submission OR create a new submission if needed
      * - Update the result's score based on the exercise's test cases (weights, etc.)
      * - Update the exercise's test cases if the build is from a solution participation
+     * If the asynchronous result processing is enabled, the build result is only queued and processed later, see {@link ProgrammingExerciseResultQueueService}.
      *
      * @param token CI auth token
      * @param requestBody build result of CI system
@@ -135,80 +131,21 @@ public class ResultResource {
         }
         log.info("Artemis received a new result for build plan {}", planKey);
 
-        // Try to retrieve the participation with the build plan key.
-        Optional<ProgrammingExerciseParticipation> optionalParticipation = getParticipationWithResults(planKey);
-        if (optionalParticipation.isEmpty()) {
-            log.warn("Participation is missing for notifyResultNew (PlanKey: {}).", planKey);
-            return notFound();
-        }
-
-        ProgrammingExerciseParticipation participation = optionalParticipation.get();
-        Optional<Result> result;
-        // Process the new result from the build result.
-        result = programmingExerciseGradingService.processNewProgrammingExerciseResult((Participation) participation, requestBody);
-
-        // Only notify the user about the new result if the result was created successfully.
-        if (result.isPresent()) {
-            log.debug("Send result to client over websocket. Result: {}, Submission: {}, Participation: {}", result.get(), result.get().getSubmission(),
-                    result.get().getParticipation());
-            // notify user via websocket
-            messagingService.broadcastNewResult((Participation) participation, result.get());
-
-            // TODO: can we avoid to invoke this code for non LTI students? (to improve performance)
-            // if (participation.isLti()) {
-            // }
-            // handles new results and sends them to LTI consumers
-            if (participation instanceof ProgrammingExerciseStudentParticipation) {
-                ltiService.onNewResult((ProgrammingExerciseStudentParticipation) participation);
-            }
-            log.info("The new result for {} was saved successfully", planKey);
-        }
-        return ResponseEntity.ok().build();
-    }
-
-    private Optional<ProgrammingExerciseParticipation> getParticipationWithResults(String planKey) {
-        // we have to support template, solution and student build plans here
-        if (planKey.contains(BuildPlanType.TEMPLATE.getName())) {
-            Optional<TemplateProgrammingExerciseParticipation> templateParticipation = participationService.findTemplateParticipationByBuildPlanId(planKey);
-            // we have to convert the optional type here to make Java happy
-            if (templateParticipation.isPresent()) {
-                return Optional.of(templateParticipation.get());
-            }
-            else {
-                return Optional.empty();
+        if (programmingExerciseResultQueueService.isAsyncResultProcessing()) {
+            try {
+                programmingExerciseResultQueueService.enqueue(planKey, requestBody);
             }
-        }
-        else if (planKey.contains(BuildPlanType.SOLUTION.getName())) {
-            Optional<SolutionProgrammingExerciseParticipation> solutionParticipation = participationService.findSolutionParticipationByBuildPlanId(planKey);
-            // we have to convert the optional type here to make Java happy
-            if (solutionParticipation.isPresent()) {
-                return Optional.of(solutionParticipation.get());
-            }
-            else {
-                return Optional.empty();
-            }
-        }
-        List<ProgrammingExerciseStudentParticipation> participations = participationService.findByBuildPlanIdWithEagerResults(planKey);
-        Optional<ProgrammingExerciseStudentParticipation> participation = Optional.empty();
-        if (participations.size() > 0) {
-            participation = Optional.of(participations.get(0));
-            if (participations.size() > 1) {
-                // in the rare case of multiple participations, take the latest one.
-                for (ProgrammingExerciseStudentParticipation otherParticipation : participations) {
-                    if (otherParticipation.getInitializationDate().isAfter(participation.get().getInitializationDate())) {
-                        participation = Optional.of(otherParticipation);
-                    }
-                }
+            catch (JsonProcessingException ex) {
+                log.error("Exception encountered when trying to queue a new programming exercise result: {}, {}", ex, requestBody);
+                return badRequest();
             }
+            return ResponseEntity.ok().build();
         }
 
-        // we have to convert the optional type here to make Java happy
-        if (participation.isPresent()) {
-            return Optional.of(participation.get());
-        }
-        else {
-            return Optional.empty();
+        if (!programmingExerciseResultQueueService.processResult(planKey, requestBody, new HashMap<>())) {
+            return notFound();
         }
+        return ResponseEntity.ok().build();
     }
 
     /**
@@ -6,6 +6,8 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -26,6 +28,8 @@ import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.util.HttpRequestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * REST controller for managing ExerciseGroup.
@@ -56,9 +60,14 @@ public class StudentExamResource {
 
     private final AuthorizationCheckService authorizationCheckService;
 
+    private final ExamExerciseCache examExerciseCache;
+
+    private final Timer conductionTimer;
+
     public StudentExamResource(ExamAccessService examAccessService, StudentExamService studentExamService, StudentExamAccessService studentExamAccessService,
             UserService userService, StudentExamRepository studentExamRepository, ExamSessionService examSessionService, ParticipationService participationService,
-            QuizExerciseService quizExerciseService, ExamRepository examRepository, AuthorizationCheckService authorizationCheckService) {
+            QuizExerciseService quizExerciseService, ExamRepository examRepository, AuthorizationCheckService authorizationCheckService, ExamExerciseCache examExerciseCache,
+            MeterRegistry meterRegistry) {
         this.examAccessService = examAccessService;
         this.studentExamService = studentExamService;
         this.studentExamAccessService = studentExamAccessService;
@@ -69,6 +78,10 @@ public class StudentExamResource {
         this.quizExerciseService = quizExerciseService;
         this.examRepository = examRepository;
         this.authorizationCheckService = authorizationCheckService;
+        this.examExerciseCache = examExerciseCache;
+        // the histogram shows how long the students have to wait for their student exam, e.g. at the start of an exam
+        this.conductionTimer = Timer.builder("artemis.exam.conduction.student-exam").description("Time needed to prepare a student exam for its conduction")
+                .publishPercentileHistogram().register(meterRegistry);
     }
 
     /**
@@ -213,8 +226,8 @@ public class StudentExamResource {
         User currentUser = userService.getUserWithGroupsAndAuthorities();
         log.debug("REST request to get the student exam of user {} for exam {}", currentUser.getLogin(), examId);
 
-        // 1st: load the studentExam with all associated exercises
-        Optional<StudentExam> optionalStudentExam = studentExamRepository.findWithExercisesByUserIdAndExamId(currentUser.getId(), examId);
+        // 1st: load the studentExam without its exercises, they are shared between the student exams and taken from the cache
+        Optional<StudentExam> optionalStudentExam = studentExamRepository.findByExamIdAndUserId(examId, currentUser.getId());
         if (optionalStudentExam.isEmpty()) {
             return notFound();
         }
@@ -226,8 +239,12 @@ public class StudentExamResource {
             return courseAndExamAccessFailure.get();
         }
 
-        prepareStudentExamForConduction(request, currentUser, studentExam);
+        prepareStudentExamForConduction(request, currentUser, studentExam, () -> {
+            List<Long> exerciseIds = studentExamRepository.findExerciseIdsById(studentExam.getId());
+            studentExam.setExercises(examExerciseCache.getExercisesForConduction(exerciseIds, !studentExam.areResultsPublishedYet()));
+        });
 
+        conductionTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
         log.info("getStudentExamForConduction done in " + (System.currentTimeMillis() - start) + "ms for " + studentExam.getExercises().size() + " exercises for user "
                 + currentUser.getLogin());
         return ResponseEntity.ok(studentExam);
@@ -268,7 +285,7 @@ public class StudentExamResource {
             return courseAndExamAccessFailure.get();
         }
 
-        prepareStudentExamForConduction(request, currentUser, testRun);
+        prepareStudentExamForConduction(request, currentUser, testRun, () -> loadExercisesForStudentExam(testRun));
 
         log.info("getTestRunForConduction done in " + (System.currentTimeMillis() - start) + "ms for " + testRun.getExercises().size() + " exercises for user "
                 + currentUser.getLogin());
@@ -396,10 +413,9 @@ public class StudentExamResource {
      * @param request the http request for the conduction
      * @param currentUser the current user
      * @param studentExam the student exam to be prepared
+     * @param exerciseLoader loads the exercises of the student exam after it was saved, the exercises are not saved
      */
-    private void prepareStudentExamForConduction(HttpServletRequest request, User currentUser, StudentExam studentExam) {
-        loadExercisesForStudentExam(studentExam);
-
+    private void prepareStudentExamForConduction(HttpServletRequest request, User currentUser, StudentExam studentExam, Runnable exerciseLoader) {
         // 2nd: mark the student exam as started
         studentExam.setStarted(true);
         if (studentExam.getStartedDate() == null) {
@@ -407,6 +423,8 @@ public class StudentExamResource {
         }
         studentExamRepository.save(studentExam);
 
+        exerciseLoader.run();
+
         // 3rd fetch participations, submissions and results and connect them to the studentExam
         fetchParticipationsSubmissionsAndResultsForStudentExam(studentExam, currentUser);
 
@@ -432,8 +450,9 @@ public class StudentExamResource {
     private void fetchParticipationsSubmissionsAndResultsForStudentExam(StudentExam studentExam, User currentUser) {
         // fetch participations, submissions and results for these exercises, note: exams only contain individual exercises for now
         // fetching all participations at once is more effective
-        List<StudentParticipation> participations = participationService.findByStudentIdAndIndividualExercisesWithEagerSubmissionsResult(currentUser.getId(),
-                studentExam.getExercises());
+        List<Long> exerciseIds = studentExam.getExercises().stream().map(Exercise::getId).collect(Collectors.toList());
+        List<StudentParticipation> participations = participationService.findByStudentIdAndIndividualExerciseIdsWithEagerExerciseSubmissionsResult(currentUser.getId(),
+                exerciseIds);
 
         boolean isAtLeastInstructor = authorizationCheckService.isAtLeastInstructorInCourse(studentExam.getExam().getCourse(), currentUser);
 
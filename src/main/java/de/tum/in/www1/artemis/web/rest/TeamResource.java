@@ -65,9 +65,11 @@ public class TeamResource {
 
     private final AuditEventRepository auditEventRepository;
 
+    private final SubscriptionAuthorizationCache subscriptionAuthorizationCache;
+
     public TeamResource(TeamRepository teamRepository, TeamService teamService, TeamWebsocketService teamWebsocketService, CourseService courseService,
             ExerciseService exerciseService, UserService userService, AuthorizationCheckService authCheckService, ParticipationService participationService,
-            SubmissionService submissionService, AuditEventRepository auditEventRepository) {
+            SubmissionService submissionService, AuditEventRepository auditEventRepository, SubscriptionAuthorizationCache subscriptionAuthorizationCache) {
         this.teamRepository = teamRepository;
         this.teamService = teamService;
         this.teamWebsocketService = teamWebsocketService;
@@ -78,6 +80,7 @@ public class TeamResource {
         this.participationService = participationService;
         this.submissionService = submissionService;
         this.auditEventRepository = auditEventRepository;
+        this.subscriptionAuthorizationCache = subscriptionAuthorizationCache;
     }
 
     /**
@@ -267,6 +270,7 @@ public class TeamResource {
         // Delete all participations of the team first and then the team itself
         participationService.deleteAllByTeamId(id, false, false);
         teamRepository.delete(team);
+        team.getStudents().forEach(student -> subscriptionAuthorizationCache.invalidateUser(student.getLogin()));
 
         teamWebsocketService.sendTeamAssignmentUpdate(exercise, team, null);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, Long.toString(id))).build();
@@ -1,5 +1,6 @@
 package de.tum.in.www1.artemis.web.rest.dto;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 
 public class StatsForInstructorDashboardDTO {
@@ -24,6 +25,8 @@ public class StatsForInstructorDashboardDTO {
 
     private List<TutorLeaderboardDTO> tutorLeaderboardEntries;
 
+    private ZonedDateTime computedAt;
+
     public StatsForInstructorDashboardDTO() {
     }
 
@@ -106,4 +109,12 @@ public class StatsForInstructorDashboardDTO {
     public void setTutorLeaderboardEntries(List<TutorLeaderboardDTO> tutorLeaderboardEntries) {
         this.tutorLeaderboardEntries = tutorLeaderboardEntries;
     }
+
+    public ZonedDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(ZonedDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
 }
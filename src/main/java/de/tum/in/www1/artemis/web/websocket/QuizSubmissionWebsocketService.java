@@ -11,7 +11,6 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Controller;
 
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
-import de.tum.in.www1.artemis.exception.QuizSubmissionException;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.QuizExerciseService;
@@ -43,7 +42,7 @@ public class QuizSubmissionWebsocketService {
     // to the user. Then we also could find out how long students work on the quiz on average
 
     /**
-     * Saves a quiz submission into the hash maps. Submitted quizzes are marked to be saved into the database in the QuizScheduleService
+     * Saves a quiz submission into the hash maps asynchronously. Submitted quizzes are marked to be saved into the database in the QuizScheduleService
      *
      * @param exerciseId     the exerciseID to the corresponding QuizExercise
      * @param quizSubmission the submission which should be saved
@@ -54,18 +53,14 @@ public class QuizSubmissionWebsocketService {
         // Without this, custom jpa repository methods don't work in websocket channel.
         SecurityUtils.setAuthorizationObject();
         String username = principal.getName();
-        try {
-            QuizSubmission updatedQuizSubmission = quizSubmissionService.saveSubmissionForLiveMode(exerciseId, quizSubmission, username, false);
-            // send updated submission over websocket (use a thread to prevent that the outbound channel blocks the inbound channel (e.g. due a slow client))
-            // to improve the performance, this is currently deactivated: slow clients might lead to bottlenecks so that more important messages can not be distributed any more
-            // new Thread(() -> sendSubmissionToUser(username, exerciseId, quizSubmission)).start();
-
-            // log.info("WS.Inbound: Sent quiz submission (async) back to user {} in quiz {} after {} µs ", principal.getName(), exerciseId, (System.nanoTime() - start) / 1000);
-        }
-        catch (QuizSubmissionException ex) {
-            // send error message over websocket (use a thread to prevent that the outbound channel blocks the inbound channel (e.g. due a slow client))
+        // the inbound channel does not wait for the save, rapid successive saves of the same user are coalesced and only the last one is saved
+        quizSubmissionService.saveSubmissionForLiveModeAsync(exerciseId, quizSubmission, username, ex -> {
+            // send error message over websocket (use a thread to prevent that the outbound channel blocks the live saves of other users (e.g. due a slow client))
             new Thread(() -> messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", new WebsocketError(ex.getMessage()))).start();
-        }
+        });
+        // send updated submission over websocket (use a thread to prevent that the outbound channel blocks the inbound channel (e.g. due a slow client))
+        // to improve the performance, this is currently deactivated: slow clients might lead to bottlenecks so that more important messages can not be distributed any more
+        // new Thread(() -> sendSubmissionToUser(username, exerciseId, quizSubmission)).start();
     }
 
     /**
@@ -0,0 +1,65 @@
+package de.tum.in.www1.artemis.web.websocket.programmingSubmission;
+
+/**
+ * A websocket dto for informing the instructors about the progress of a build run, i.e. how many builds of the participations of a programming exercise were triggered.
+ */
+public class BuildRunProgressDTO {
+
+    private Long exerciseId;
+
+    private int total;
+
+    private int triggered;
+
+    private int failed;
+
+    private int queued;
+
+    public BuildRunProgressDTO(Long exerciseId, int total, int triggered, int failed, int queued) {
+        this.exerciseId = exerciseId;
+        this.total = total;
+        this.triggered = triggered;
+        this.failed = failed;
+        this.queued = queued;
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(Long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getTriggered() {
+        return triggered;
+    }
+
+    public void setTriggered(int triggered) {
+        this.triggered = triggered;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+}
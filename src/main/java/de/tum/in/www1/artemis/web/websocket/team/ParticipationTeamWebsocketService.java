@@ -48,9 +48,12 @@ public class ParticipationTeamWebsocketService {
 
     private final Map<String, String> destinationTracker;
 
-    private final Map<String, Instant> lastTypingTracker;
+    /**
+     * The timestamps are stored as epoch milliseconds, Hazelcast writes them with its built-in serializer for longs instead of the Java serialization of {@link Instant}
+     */
+    private final Map<String, Long> lastTypingTracker;
 
-    private final Map<String, Instant> lastActionTracker;
+    private final Map<String, Long> lastActionTracker;
 
     private final UserService userService;
 
@@ -76,9 +79,9 @@ public class ParticipationTeamWebsocketService {
         this.modelingSubmissionService = modelingSubmissionService;
         this.hazelcastInstance = hazelcastInstance;
 
-        // participationId-username -> timestamp
+        // participationId-username -> epoch milliseconds
         this.lastTypingTracker = hazelcastInstance.getMap("lastTypingTracker");
-        // participationId-username -> timestamp
+        // participationId-username -> epoch milliseconds
         this.lastActionTracker = hazelcastInstance.getMap("lastActionTracker");
         // sessionId -> destination
         this.destinationTracker = hazelcastInstance.getMap("destinationTracker");
@@ -203,7 +206,7 @@ public class ParticipationTeamWebsocketService {
         final String destination = getDestination(participationId);
 
         final List<OnlineTeamStudentDTO> onlineTeamStudents = getSubscriberPrincipals(destination, exceptSessionID).stream()
-                .map(login -> new OnlineTeamStudentDTO(login, getValue(lastTypingTracker, participationId, login), lastActionTracker.get(participationId + "-" + login)))
+                .map(login -> new OnlineTeamStudentDTO(login, getValue(lastTypingTracker, participationId, login), getValue(lastActionTracker, participationId, login)))
                 .collect(Collectors.toList());
 
         messagingTemplate.convertAndSend(destination, onlineTeamStudents);
@@ -309,11 +312,12 @@ public class ParticipationTeamWebsocketService {
         this.destinationTracker.clear();
     }
 
-    private void updateValue(Map<String, Instant> map, long participationId, String username) {
-        map.put(participationId + "-" + username, Instant.now());
+    private void updateValue(Map<String, Long> map, long participationId, String username) {
+        map.put(participationId + "-" + username, Instant.now().toEpochMilli());
     }
 
-    private Instant getValue(Map<String, Instant> map, long participationId, String username) {
-        return map.get(participationId + "-" + username);
+    private Instant getValue(Map<String, Long> map, long participationId, String username) {
+        Long epochMilli = map.get(participationId + "-" + username);
+        return epochMilli != null ? Instant.ofEpochMilli(epochMilli) : null;
     }
 }
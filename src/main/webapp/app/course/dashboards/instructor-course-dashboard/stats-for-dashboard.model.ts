@@ -1,3 +1,4 @@
+import { Moment } from 'moment';
 import { TutorLeaderboardElement } from 'app/shared/dashboards/tutor-leaderboard/tutor-leaderboard.model';
 import { DueDateStat } from 'app/course/dashboards/instructor-course-dashboard/due-date-stat.model';
 
@@ -14,6 +15,9 @@ export class StatsForDashboard {
 
     public tutorLeaderboardEntries: TutorLeaderboardElement[] = [];
 
+    // the time at which the statistics were computed on the server, they are cached and might be slightly outdated
+    public computedAt?: Moment;
+
     constructor() {}
 
     /**
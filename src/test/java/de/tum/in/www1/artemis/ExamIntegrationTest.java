@@ -30,6 +30,7 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.repository.ParticipationTestRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.ExamService;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.ldap.LdapUserDto;
 import de.tum.in.www1.artemis.util.DatabaseUtilService;
@@ -85,6 +86,9 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
     @Autowired
     ParticipationTestRepository participationTestRepository;
 
+    @Autowired
+    ExamService examService;
+
     // Tolerated absolute difference for floating-point number comparisons
     private final Double EPSILON = 0000.1;
 
@@ -1078,6 +1082,7 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
         Long resultScore = 75L;
 
         // Assign results to participations and submissions
+        List<Result> savedResults = new ArrayList<>();
         for (var exercise : exercisesInExam) {
             for (var participation : exercise.getStudentParticipations()) {
                 Submission submission;
@@ -1097,7 +1102,7 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
                 var result = new Result().score(resultScore).rated(true).resultString("Good").completionDate(ZonedDateTime.now().minusMinutes(5));
                 result.setParticipation(participation);
                 result.setSubmission(submission);
-                resultRepository.save(result);
+                savedResults.add(resultRepository.save(result));
             }
         }
         // explicitly set the user again to prevent issues in the following server call due to the use of SecurityUtils.setAuthorizationObject();
@@ -1197,12 +1202,44 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
             }
         }
 
+        // The cached scores must not be affected by modifications of the returned scores
+        ExamScoresDTO scores = examService.getExamScore(exam.getId());
+        scores.studentResults.clear();
+        assertThat(examService.getExamScore(exam.getId()).studentResults).hasSize(registeredStudents.size());
+
+        // Two score changes that cancel each other out in a sum of the result ids weighted with the scores must still be detected
+        Result firstResult = savedResults.get(0);
+        Result secondResult = savedResults.get(1);
+        firstResult.setScore(resultScore + secondResult.getId());
+        secondResult.setScore(resultScore - firstResult.getId());
+        resultRepository.save(firstResult);
+        resultRepository.save(secondResult);
+        scores = examService.getExamScore(exam.getId());
+        assertThat(getExerciseResult(scores, firstResult).achievedScore).isEqualTo(resultScore + secondResult.getId());
+        assertThat(getExerciseResult(scores, secondResult).achievedScore).isEqualTo(resultScore - firstResult.getId());
+
+        // A changed submission must be detected as well, the submission date is updated whenever a student saves a submission
+        Result textResult = savedResults.stream().filter(result -> result.getSubmission() instanceof TextSubmission).findFirst().get();
+        TextSubmission textSubmission = (TextSubmission) textResult.getSubmission();
+        textSubmission.setText("An answer");
+        textSubmission.setSubmissionDate(ZonedDateTime.now());
+        submissionRepository.save(textSubmission);
+        assertThat(getExerciseResult(examService.getExamScore(exam.getId()), textResult).hasNonEmptySubmission).isTrue();
+
         // change back to instructor user
         database.changeUser("instructor1");
         // Make sure delete also works if so many objects have been created before
         request.delete("/api/courses/" + course.getId() + "/exams/" + exam.getId(), HttpStatus.OK);
     }
 
+    private ExamScoresDTO.ExerciseResult getExerciseResult(ExamScoresDTO scores, Result result) {
+        StudentParticipation participation = (StudentParticipation) result.getParticipation();
+        ExamScoresDTO.StudentResult studentResult = scores.studentResults.stream()
+                .filter(student -> student.userId.equals(participation.getStudent().get().getId())).findFirst().get();
+        return studentResult.exerciseGroupIdToExerciseResult.values().stream().filter(exerciseResult -> exerciseResult.exerciseId.equals(participation.getExercise().getId()))
+                .findFirst().get();
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     public void testLatestExamEndDate_noStartDate_notFound() throws Exception {
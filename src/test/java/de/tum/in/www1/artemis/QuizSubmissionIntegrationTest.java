@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -19,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.Course;
@@ -26,10 +28,12 @@ import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.quiz.*;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.QuizExerciseService;
+import de.tum.in.www1.artemis.service.QuizSubmissionService;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
 import de.tum.in.www1.artemis.util.DatabaseUtilService;
 import de.tum.in.www1.artemis.util.RequestUtilService;
 import de.tum.in.www1.artemis.web.websocket.QuizSubmissionWebsocketService;
+import de.tum.in.www1.artemis.web.websocket.WebsocketError;
 
 public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
@@ -56,6 +60,9 @@ public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBamb
     @Autowired
     QuizSubmissionWebsocketService quizSubmissionWebsocketService;
 
+    @Autowired
+    QuizSubmissionService quizSubmissionService;
+
     @Autowired
     QuizSubmissionRepository quizSubmissionRepository;
 
@@ -79,6 +86,7 @@ public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBamb
 
     @AfterEach
     public void tearDown() {
+        setLiveSaveCoalescingWindow(0);
         quizScheduleService.clearAllQuizData();
         database.resetDatabase();
     }
@@ -506,4 +514,64 @@ public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBamb
         // no submissions were marked as submitted and saved
         assertThat(quizSubmissionRepository.count()).isZero();
     }
+
+    @Test
+    public void testCoalescedLiveSaveIsProcessedAtQuizEnd() {
+        setLiveSaveCoalescingWindow(60_000);
+        QuizExercise quizExercise = createRunningQuiz();
+        final Principal principal = () -> "student1";
+
+        // the first save is replaced by the second one (which answers all questions correctly), the window is long enough that it is only processed at the end of the quiz
+        quizSubmissionWebsocketService.saveSubmission(quizExercise.getId(), database.generateSubmissionForThreeQuestions(quizExercise, 1, false, null), principal);
+        quizSubmissionWebsocketService.saveSubmission(quizExercise.getId(), database.generateSubmissionForThreeQuestions(quizExercise, 12, false, null), principal);
+        ZonedDateTime saveDate = ZonedDateTime.now();
+        assertThat(quizScheduleService.getQuizSubmission(quizExercise.getId(), "student1").getSubmittedAnswers()).isEmpty();
+
+        // the save was made in time, so it is accepted although the quiz has ended when it is processed
+        endQuiz(quizExercise, saveDate.plusSeconds(1));
+        await().until(() -> quizExerciseService.findOne(quizExercise.getId()).isEnded());
+        quizScheduleService.processCachedQuizSubmissions();
+
+        assertThat(quizSubmissionRepository.count()).isEqualTo(1);
+        List<Result> results = resultRepository.findAll();
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getScore()).isEqualTo(100L);
+    }
+
+    @Test
+    public void testLiveSaveAfterQuizEndIsRejected() {
+        setLiveSaveCoalescingWindow(60_000);
+        QuizExercise quizExercise = createRunningQuiz();
+        endQuiz(quizExercise, ZonedDateTime.now().minusSeconds(1));
+
+        quizSubmissionWebsocketService.saveSubmission(quizExercise.getId(), database.generateSubmissionForThreeQuestions(quizExercise, 1, false, null), () -> "student1");
+
+        // the save is rejected before it is queued, the error is sent by another thread
+        verify(messagingTemplate, timeout(2000)).convertAndSendToUser(eq("student1"), eq("/topic/quizExercise/" + quizExercise.getId() + "/submission"), any(WebsocketError.class));
+        quizScheduleService.processCachedQuizSubmissions();
+        assertThat(quizSubmissionRepository.count()).isZero();
+    }
+
+    private QuizExercise createRunningQuiz() {
+        Course course = database.addEmptyCourse();
+        QuizExercise quizExercise = database.createQuiz(course, ZonedDateTime.now().minusSeconds(10), null);
+        quizExercise.duration(60);
+        quizExercise.setIsPlannedToStart(true);
+        quizExercise.setIsVisibleBeforeStart(true);
+        return quizExerciseService.save(quizExercise);
+    }
+
+    private void endQuiz(QuizExercise quizExercise, ZonedDateTime endOfGracePeriod) {
+        quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExercise.getId());
+        quizExercise.setDuration((int) Duration.between(quizExercise.getReleaseDate(), endOfGracePeriod).getSeconds() - Constants.QUIZ_GRACE_PERIOD_IN_SECONDS);
+        exerciseRepository.saveAndFlush(quizExercise);
+        quizScheduleService.updateQuizExercise(quizExerciseService.findOneWithQuestionsAndStatistics(quizExercise.getId()));
+    }
+
+    private void setLiveSaveCoalescingWindow(long coalescingWindowInMillis) {
+        // the test configuration processes every live save directly, see application-artemis.yml
+        quizSubmissionService.destroy();
+        ReflectionTestUtils.setField(quizSubmissionService, "liveSaveCoalescingWindowInMillis", coalescingWindowInMillis);
+        quizSubmissionService.init();
+    }
 }
@@ -0,0 +1,295 @@
+package de.tum.in.www1.artemis.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringModel;
+
+/**
+ * Checks that the compiled {@link QuizScoringModel} calculates the same scores as the scoring strategies of the questions for randomly generated quizzes and submissions.
+ */
+public class QuizScoringModelTest {
+
+    private static final int NUMBER_OF_QUIZZES = 200;
+
+    private static final int SUBMISSIONS_PER_QUIZ = 50;
+
+    private static final String[] WORDS = { "is", "long", "answer", "text", "quiz" };
+
+    // a fixed seed makes failures reproducible
+    private final Random random = new Random(42);
+
+    private long nextId;
+
+    @BeforeEach
+    public void resetIds() {
+        nextId = 1;
+    }
+
+    @Test
+    public void testScoresAreEqualToScoringStrategies() {
+        for (int quiz = 0; quiz < NUMBER_OF_QUIZZES; quiz++) {
+            QuizExercise quizExercise = generateQuizExercise();
+            QuizScoringModel scoringModel = QuizScoringModel.compile(quizExercise);
+            for (int i = 0; i < SUBMISSIONS_PER_QUIZ; i++) {
+                QuizSubmission quizSubmission = generateSubmission(quizExercise);
+                for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+                    SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(quizQuestion);
+                    if (submittedAnswer == null) {
+                        continue;
+                    }
+                    double expectedScore = quizQuestion.scoreForAnswer(submittedAnswer);
+                    List<Boolean> expectedCorrectTexts = correctTexts(submittedAnswer);
+                    resetCorrectTexts(submittedAnswer);
+
+                    assertThat(scoringModel.calculateScore(quizQuestion, submittedAnswer)).as("score of %s", quizQuestion).isEqualTo(expectedScore);
+                    assertThat(correctTexts(submittedAnswer)).as("correct texts of %s", quizQuestion).isEqualTo(expectedCorrectTexts);
+                    assertThat(scoringModel.isAnswerCorrect(quizQuestion, submittedAnswer)).isEqualTo(quizQuestion.isAnswerCorrect(submittedAnswer));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSubmissionAndResultAreEqualToScoringStrategies() {
+        for (int quiz = 0; quiz < NUMBER_OF_QUIZZES; quiz++) {
+            QuizExercise quizExercise = generateQuizExercise();
+            QuizScoringModel scoringModel = QuizScoringModel.compile(quizExercise);
+            for (int i = 0; i < SUBMISSIONS_PER_QUIZ; i++) {
+                QuizSubmission quizSubmission = generateSubmission(quizExercise);
+                Result result = resultFor(quizExercise, quizSubmission);
+                quizSubmission.calculateAndUpdateScores(quizExercise);
+                result.evaluateSubmission();
+                Double expectedScoreInPoints = quizSubmission.getScoreInPoints();
+                Long expectedScore = result.getScore();
+                String expectedResultString = result.getResultString();
+
+                quizSubmission.setScoreInPoints(null);
+                Result compiledResult = resultFor(quizExercise, quizSubmission);
+                quizSubmission.calculateAndUpdateScores(scoringModel);
+                compiledResult.evaluateSubmission(scoringModel);
+
+                assertThat(quizSubmission.getScoreInPoints()).isEqualTo(expectedScoreInPoints);
+                assertThat(compiledResult.getScore()).isEqualTo(expectedScore);
+                assertThat(compiledResult.getResultString()).isEqualTo(expectedResultString);
+            }
+        }
+    }
+
+    @Test
+    public void testQuestionsOfOtherQuizzesAreScoredWithScoringStrategy() {
+        QuizScoringModel scoringModel = QuizScoringModel.compile(generateQuizExercise());
+        QuizExercise otherQuizExercise = generateQuizExercise();
+        QuizSubmission quizSubmission = generateSubmission(otherQuizExercise);
+        for (QuizQuestion quizQuestion : otherQuizExercise.getQuizQuestions()) {
+            SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(quizQuestion);
+            if (submittedAnswer != null) {
+                assertThat(scoringModel.calculateScore(quizQuestion, submittedAnswer)).isEqualTo(quizQuestion.scoreForAnswer(submittedAnswer));
+            }
+        }
+    }
+
+    private QuizExercise generateQuizExercise() {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(nextId++);
+        quizExercise.addQuestions(generateMultipleChoiceQuestion());
+        quizExercise.addQuestions(generateDragAndDropQuestion());
+        quizExercise.addQuestions(generateShortAnswerQuestion());
+        return quizExercise;
+    }
+
+    private MultipleChoiceQuestion generateMultipleChoiceQuestion() {
+        MultipleChoiceQuestion question = withQuestionAttributes(new MultipleChoiceQuestion());
+        for (int i = 1 + random.nextInt(5); i > 0; i--) {
+            AnswerOption answerOption = new AnswerOption().text("option").isCorrect(random.nextBoolean());
+            answerOption.setId(nextId++);
+            answerOption.setInvalid(random.nextInt(8) == 0);
+            question.getAnswerOptions().add(answerOption);
+        }
+        return question;
+    }
+
+    private DragAndDropQuestion generateDragAndDropQuestion() {
+        DragAndDropQuestion question = withQuestionAttributes(new DragAndDropQuestion());
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+            DropLocation dropLocation = new DropLocation();
+            dropLocation.setId(nextId++);
+            dropLocation.setInvalid(random.nextInt(8) == 0);
+            question.addDropLocation(dropLocation);
+        }
+        for (int i = 1 + random.nextInt(5); i > 0; i--) {
+            DragItem dragItem = new DragItem().text("item");
+            dragItem.setId(nextId++);
+            dragItem.setInvalid(random.nextInt(8) == 0);
+            question.addDragItem(dragItem);
+        }
+        for (DropLocation dropLocation : question.getDropLocations()) {
+            // drop locations without correct drag items are meant to stay empty
+            for (int i = random.nextInt(3); i > 0; i--) {
+                question.addCorrectMapping(new DragAndDropMapping().dragItem(randomElement(question.getDragItems())).dropLocation(dropLocation));
+            }
+        }
+        return question;
+    }
+
+    private ShortAnswerQuestion generateShortAnswerQuestion() {
+        ShortAnswerQuestion question = withQuestionAttributes(new ShortAnswerQuestion());
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            ShortAnswerSpot spot = new ShortAnswerSpot().spotNr(i).width(1);
+            spot.setId(nextId++);
+            spot.setInvalid(random.nextInt(8) == 0);
+            question.getSpots().add(spot);
+        }
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+            ShortAnswerSolution solution = new ShortAnswerSolution().text(randomElement(List.of(WORDS)));
+            solution.setId(nextId++);
+            question.addSolution(solution);
+        }
+        for (ShortAnswerSpot spot : question.getSpots()) {
+            // solutions can be correct for multiple spots, but every solution can only be used once in an answer
+            for (int i = 1 + random.nextInt(2); i > 0; i--) {
+                question.addCorrectMapping(new ShortAnswerMapping().spot(spot).solution(randomElement(question.getSolutions())));
+            }
+        }
+        return question;
+    }
+
+    private <T extends QuizQuestion> T withQuestionAttributes(T question) {
+        question.setId(nextId++);
+        question.score(1 + random.nextInt(5));
+        question.setScoringType(random.nextBoolean() ? ScoringType.ALL_OR_NOTHING : ScoringType.PROPORTIONAL_WITH_PENALTY);
+        question.setInvalid(random.nextInt(10) == 0);
+        return question;
+    }
+
+    private QuizSubmission generateSubmission(QuizExercise quizExercise) {
+        QuizSubmission quizSubmission = new QuizSubmission();
+        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+            if (random.nextInt(10) == 0) {
+                // the question was not answered
+                continue;
+            }
+            SubmittedAnswer submittedAnswer;
+            if (quizQuestion instanceof MultipleChoiceQuestion) {
+                submittedAnswer = generateMultipleChoiceAnswer((MultipleChoiceQuestion) quizQuestion);
+            }
+            else if (quizQuestion instanceof DragAndDropQuestion) {
+                submittedAnswer = generateDragAndDropAnswer((DragAndDropQuestion) quizQuestion);
+            }
+            else {
+                submittedAnswer = generateShortAnswerAnswer((ShortAnswerQuestion) quizQuestion);
+            }
+            quizSubmission.addSubmittedAnswers(submittedAnswer);
+        }
+        return quizSubmission;
+    }
+
+    private MultipleChoiceSubmittedAnswer generateMultipleChoiceAnswer(MultipleChoiceQuestion question) {
+        var submittedAnswer = new MultipleChoiceSubmittedAnswer();
+        submittedAnswer.setQuizQuestion(copy(new MultipleChoiceQuestion(), question));
+        for (AnswerOption answerOption : question.getAnswerOptions()) {
+            if (random.nextBoolean()) {
+                submittedAnswer.addSelectedOptions(copy(new AnswerOption(), answerOption));
+            }
+        }
+        if (random.nextInt(10) == 0) {
+            // an answer option that is not part of the question
+            submittedAnswer.addSelectedOptions(withId(new AnswerOption(), -nextId++));
+        }
+        return submittedAnswer;
+    }
+
+    private DragAndDropSubmittedAnswer generateDragAndDropAnswer(DragAndDropQuestion question) {
+        var submittedAnswer = new DragAndDropSubmittedAnswer();
+        submittedAnswer.setQuizQuestion(copy(new DragAndDropQuestion(), question));
+        for (DropLocation dropLocation : question.getDropLocations()) {
+            // some drop locations are left empty, others get multiple drag items
+            for (int i = random.nextInt(3); i > 0; i--) {
+                DragItem dragItem = random.nextInt(10) == 0 ? withId(new DragItem(), -nextId++) : copy(new DragItem(), randomElement(question.getDragItems()));
+                submittedAnswer.addMappings(new DragAndDropMapping().dragItem(dragItem).dropLocation(copy(new DropLocation(), dropLocation)));
+            }
+        }
+        return submittedAnswer;
+    }
+
+    private ShortAnswerSubmittedAnswer generateShortAnswerAnswer(ShortAnswerQuestion question) {
+        var submittedAnswer = new ShortAnswerSubmittedAnswer();
+        submittedAnswer.setQuizQuestion(copy(new ShortAnswerQuestion(), question));
+        for (ShortAnswerSpot spot : question.getSpots()) {
+            if (random.nextInt(5) == 0) {
+                continue;
+            }
+            var submittedText = new ShortAnswerSubmittedText();
+            submittedText.setSpot(copy(new ShortAnswerSpot(), spot));
+            submittedText.setText(randomText());
+            submittedAnswer.addSubmittedTexts(submittedText);
+        }
+        return submittedAnswer;
+    }
+
+    private String randomText() {
+        String word = randomElement(List.of(WORDS));
+        switch (random.nextInt(6)) {
+        case 0:
+            return " " + word.toUpperCase() + "  ";
+        case 1:
+            // a typo that is still accepted for long words
+            return word.substring(1);
+        case 2:
+            return word + "s";
+        case 3:
+            return "";
+        default:
+            return word;
+        }
+    }
+
+    private Result resultFor(QuizExercise quizExercise, QuizSubmission quizSubmission) {
+        StudentParticipation participation = new StudentParticipation();
+        participation.setExercise(quizExercise);
+        return new Result().participation(participation).submission(quizSubmission);
+    }
+
+    /**
+     * Creates the copy of a quiz element with the same id (and the same invalid flag), like the elements of a submission sent by the client.
+     */
+    private static <T extends DomainObject> T copy(T copy, DomainObject original) {
+        copy.setId(original.getId());
+        if (original instanceof DragItem) {
+            ((DragItem) copy).setInvalid(((DragItem) original).isInvalid());
+        }
+        return copy;
+    }
+
+    private static <T extends DomainObject> T withId(T domainObject, long id) {
+        domainObject.setId(id);
+        return domainObject;
+    }
+
+    private <T> T randomElement(List<T> elements) {
+        return elements.get(random.nextInt(elements.size()));
+    }
+
+    private static List<Boolean> correctTexts(SubmittedAnswer submittedAnswer) {
+        List<Boolean> correctTexts = new ArrayList<>();
+        if (submittedAnswer instanceof ShortAnswerSubmittedAnswer) {
+            ((ShortAnswerSubmittedAnswer) submittedAnswer).getSubmittedTexts().forEach(submittedText -> correctTexts.add(submittedText.isIsCorrect()));
+        }
+        return correctTexts;
+    }
+
+    private static void resetCorrectTexts(SubmittedAnswer submittedAnswer) {
+        if (submittedAnswer instanceof ShortAnswerSubmittedAnswer) {
+            ((ShortAnswerSubmittedAnswer) submittedAnswer).getSubmittedTexts().forEach(submittedText -> submittedText.setIsCorrect(null));
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Feedback;
@@ -510,6 +511,68 @@ public class ProgrammingExerciseGradingServiceTest extends AbstractSpringIntegra
         }
     }
 
+    @Test
+    public void shouldReEvaluateResultsInParallelChunks() {
+        programmingExercise = database.addTemplateParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = database.addSolutionParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = programmingExerciseService.findWithTemplateAndSolutionParticipationWithResultsById(programmingExercise.getId());
+
+        var testCases = testCaseService.findByExerciseId(programmingExercise.getId()).stream()
+                .collect(Collectors.toMap(ProgrammingExerciseTestCase::getTestName, Function.identity()));
+        testCases.get("test1").active(true).afterDueDate(false).setWeight(1.);
+        testCases.get("test2").active(true).afterDueDate(false).setWeight(1.);
+        testCases.get("test3").active(true).afterDueDate(false).setWeight(2.);
+        testCaseRepository.saveAll(testCases.values());
+
+        var testParticipations = createTestParticipations();
+
+        testCases.get("test1").setWeight(0.);
+        testCases.get("test2").setWeight(1.);
+        testCases.get("test3").setWeight(3.);
+        testCaseRepository.saveAll(testCases.values());
+
+        // every student result is graded in its own chunk
+        ReflectionTestUtils.setField(gradingService, "reEvaluationChunkSize", 1);
+        List<Result> updatedResults;
+        try {
+            programmingExercise = programmingExerciseService.findWithTemplateAndSolutionParticipationWithResultsById(programmingExercise.getId());
+            updatedResults = gradingService.updateAllResults(programmingExercise);
+        }
+        finally {
+            ReflectionTestUtils.setField(gradingService, "reEvaluationChunkSize", 100);
+        }
+
+        assertThat(updatedResults).hasSize(6).allMatch(updatedResult -> updatedResult.getId() != null);
+        var scores = new ArrayList<Long>();
+        for (int i : new int[] { 0, 1, 3, 4 }) {
+            var participation = studentParticipationRepository.findWithEagerResultsAndFeedbackById(testParticipations[i].getId()).get();
+            scores.add(participation.getResults().stream().filter(result -> result.getAssessmentType() == AssessmentType.AUTOMATIC).findAny().get().getScore());
+        }
+        assertThat(scores).containsExactly(25L, 75L, 100L, 0L);
+    }
+
+    @Test
+    public void shouldInvalidateGradingContextWhenTestCasesChange() {
+        var gradingContext = gradingService.getGradingContext(programmingExercise);
+        assertThat(gradingService.getGradingContext(programmingExercise)).isSameAs(gradingContext);
+
+        // the same test cases do not change the grading context
+        var feedbacks = new ArrayList<Feedback>();
+        for (var testCase : gradingContext.getActiveTestCases()) {
+            feedbacks.add(new Feedback().text(testCase.getTestName()).positive(true).type(FeedbackType.AUTOMATIC));
+        }
+        assertThat(testCaseService.generateTestCasesFromFeedbacks(feedbacks, programmingExercise)).isFalse();
+        assertThat(gradingService.getGradingContext(programmingExercise)).isSameAs(gradingContext);
+
+        // a new test case invalidates the cached grading context
+        feedbacks.add(new Feedback().text("test4").positive(true).type(FeedbackType.AUTOMATIC));
+        assertThat(testCaseService.generateTestCasesFromFeedbacks(feedbacks, programmingExercise)).isTrue();
+        var updatedGradingContext = gradingService.getGradingContext(programmingExercise);
+        assertThat(updatedGradingContext).isNotSameAs(gradingContext);
+        assertThat(updatedGradingContext.getVersion()).isGreaterThan(gradingContext.getVersion());
+        assertThat(updatedGradingContext.getActiveTestCases()).extracting(ProgrammingExerciseTestCase::getTestName).contains("test4");
+    }
+
     private Result updateAndSaveAutomaticResult(Result result, boolean test1Passes, boolean test2Passes, boolean test3Passes) {
         var feedback1 = new Feedback().result(result).text("test1").positive(test1Passes).type(FeedbackType.AUTOMATIC);
         result.addFeedback(feedback1);
@@ -21,10 +21,14 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.Git;
@@ -239,8 +243,8 @@ class ProgrammingExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
         final var path = ROOT + EXPORT_SUBMISSIONS_BY_PARTICIPATIONS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participationIds}",
                 String.join(",", participationIds));
         downloadedFile = request.postWithResponseBodyFile(path, getOptions(), HttpStatus.OK);
-        assertThat(downloadedFile.exists());
-        // TODO: unzip the files and add some checks
+        assertThat(downloadedFile).exists();
+        assertThat(getZippedRepositoryNames(downloadedFile)).anyMatch(name -> name.endsWith(getZippedRepositoryName(participation1)));
     }
 
     @Test
@@ -271,8 +275,34 @@ class ProgrammingExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
         final var path = ROOT
                 + EXPORT_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "student1,student2");
         downloadedFile = request.postWithResponseBodyFile(path, getOptions(), HttpStatus.OK);
-        assertThat(downloadedFile.exists());
-        // TODO: unzip the files and add some checks
+        assertThat(downloadedFile).exists();
+        assertThat(getZippedRepositoryNames(downloadedFile)).anyMatch(name -> name.endsWith(getZippedRepositoryName(participation1)));
+    }
+
+    /**
+     * Checks that the exported zip file contains one zip file per repository with the content of the repository and returns their names.
+     */
+    private List<String> getZippedRepositoryNames(File zipFile) throws IOException {
+        List<String> zippedRepositoryNames = new ArrayList<>();
+        try (ZipFile exportedZipFile = new ZipFile(zipFile)) {
+            for (ZipEntry entry : Collections.list(exportedZipFile.entries())) {
+                assertThat(entry.getName()).endsWith(".zip");
+                List<String> repositoryFiles = new ArrayList<>();
+                try (ZipInputStream zippedRepository = new ZipInputStream(exportedZipFile.getInputStream(entry))) {
+                    for (ZipEntry repositoryFile = zippedRepository.getNextEntry(); repositoryFile != null; repositoryFile = zippedRepository.getNextEntry()) {
+                        repositoryFiles.add(repositoryFile.getName());
+                    }
+                }
+                assertThat(repositoryFiles).as("files of " + entry.getName()).anyMatch(file -> file.startsWith(".git"));
+                zippedRepositoryNames.add(entry.getName());
+            }
+        }
+        return zippedRepositoryNames;
+    }
+
+    private String getZippedRepositoryName(ProgrammingExerciseParticipation participation) {
+        String[] repositoryUrlComponents = participation.getRepositoryUrl().split(File.separator);
+        return course.getShortName().replaceAll("\\s", "") + "-" + repositoryUrlComponents[repositoryUrlComponents.length - 1] + ".zip";
     }
 
     private RepositoryExportOptionsDTO getOptions() {
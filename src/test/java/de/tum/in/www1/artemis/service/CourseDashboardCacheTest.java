@@ -0,0 +1,145 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.Language;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.util.DatabaseUtilService;
+import de.tum.in.www1.artemis.util.ModelFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class CourseDashboardCacheTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    DatabaseUtilService database;
+
+    @Autowired
+    CourseDashboardCache courseDashboardCache;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    ResultRepository resultRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private User student;
+
+    private Course course;
+
+    private Result result;
+
+    @BeforeEach
+    public void init() {
+        database.addUsers(1, 0, 0);
+        student = database.getUserByLogin("student1");
+        course = database.addCourseWithModelingAndTextExercise();
+        TextExercise textExercise = findExercise(TextExercise.class);
+        TextSubmission submission = database.addTextSubmission(textExercise, ModelFactory.generateTextSubmission("text", Language.ENGLISH, true), "student1");
+        result = database.addResultToParticipation(submission.getParticipation(), submission);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testCachedParticipationsAreCopies() {
+        List<StudentParticipation> loadedParticipations = findParticipations();
+        double hits = hits();
+
+        List<StudentParticipation> cachedParticipations = findParticipations();
+        assertThat(hits()).isEqualTo(hits + 1);
+        assertThat(cachedParticipations).hasSize(1);
+        StudentParticipation participation = cachedParticipations.get(0);
+        assertThat(participation).isNotSameAs(loadedParticipations.get(0));
+        assertThat(participation.getExercise()).isInstanceOf(TextExercise.class);
+        assertThat(participation.getStudent()).hasValueSatisfying(user -> assertThat(user.getLogin()).isEqualTo("student1"));
+        assertThat(participation.getSubmissions()).hasSize(1);
+        Submission submission = participation.getSubmissions().iterator().next();
+        assertThat(submission).isInstanceOf(TextSubmission.class);
+        assertThat(submission.getParticipation()).isSameAs(participation);
+        assertThat(submission.getResult().getId()).isEqualTo(result.getId());
+        assertThat(submission.getResult().getSubmission()).isSameAs(submission);
+        assertThat(submission.getResult().getParticipation()).isSameAs(participation);
+
+        // the course dashboard modifies the participations, this must not change the cached participations
+        participation.getSubmissions().clear();
+        assertThat(findParticipations().get(0).getSubmissions()).hasSize(1);
+    }
+
+    @Test
+    public void testCommittedResultInvalidatesCachedParticipations() {
+        findParticipations();
+        result.setScore(50L);
+        resultRepository.save(result);
+        double misses = misses();
+
+        List<StudentParticipation> participations = findParticipations();
+        assertThat(misses()).isEqualTo(misses + 1);
+        assertThat(participations.get(0).getSubmissions().iterator().next().getResult().getScore()).isEqualTo(50L);
+    }
+
+    @Test
+    public void testRolledBackResultDoesNotInvalidateCachedParticipations() {
+        findParticipations();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            result.setScore(50L);
+            resultRepository.saveAndFlush(result);
+            status.setRollbackOnly();
+        });
+        double hits = hits();
+
+        List<StudentParticipation> participations = findParticipations();
+        assertThat(hits()).isEqualTo(hits + 1);
+        assertThat(participations.get(0).getSubmissions().iterator().next().getResult().getScore()).isEqualTo(100L);
+    }
+
+    @Test
+    public void testNewParticipationInvalidatesCachedParticipations() {
+        findParticipations();
+        database.addParticipationForExercise(findExercise(ModelingExercise.class), "student1");
+        double misses = misses();
+
+        List<StudentParticipation> participations = findParticipations();
+        assertThat(misses()).isEqualTo(misses + 1);
+        assertThat(participations).hasSize(2);
+    }
+
+    private List<StudentParticipation> findParticipations() {
+        return courseDashboardCache.findParticipationsWithSubmissionsAndResults(List.of(courseRepository.findWithEagerExercisesById(course.getId())), student);
+    }
+
+    private <T extends Exercise> T findExercise(Class<T> exerciseType) {
+        return courseRepository.findWithEagerExercisesById(course.getId()).getExercises().stream().filter(exerciseType::isInstance).map(exerciseType::cast).findFirst()
+                .orElseThrow();
+    }
+
+    private double hits() {
+        return meterRegistry.counter("artemis.course-dashboard.cache.hits").count();
+    }
+
+    private double misses() {
+        return meterRegistry.counter("artemis.course-dashboard.cache.misses").count();
+    }
+}
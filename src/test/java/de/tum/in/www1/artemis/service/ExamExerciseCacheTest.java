@@ -0,0 +1,110 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.util.DatabaseUtilService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class ExamExerciseCacheTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    DatabaseUtilService database;
+
+    @Autowired
+    ExamExerciseCache examExerciseCache;
+
+    @Autowired
+    QuizExerciseService quizExerciseService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private QuizExercise quizExercise;
+
+    @BeforeEach
+    public void init() {
+        ExerciseGroup exerciseGroup = database.addExerciseGroupWithExamAndCourse(true);
+        quizExercise = quizExerciseService.save(database.createQuizForExam(exerciseGroup));
+        // the ids of the exercises are reused after the database has been reset
+        examExerciseCache.invalidateExercise(quizExercise.getId());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testCachedExercisesAreCopies() {
+        QuizExercise loadedExercise = getQuizExercise();
+        double hits = hits();
+
+        QuizExercise cachedExercise = getQuizExercise();
+        assertThat(hits()).isEqualTo(hits + 1);
+        assertThat(cachedExercise).isNotSameAs(loadedExercise);
+        assertThat(cachedExercise.getQuizQuestions()).hasSize(3);
+
+        // the student exams modify the exercises, this must not change the cached exercise
+        cachedExercise.getQuizQuestions().clear();
+        assertThat(getQuizExercise().getQuizQuestions()).hasSize(3);
+    }
+
+    @Test
+    public void testChangedQuestionInvalidatesCachedExercise() {
+        getQuizExercise();
+        QuizExercise changedExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExercise.getId());
+        changedExercise.getQuizQuestions().get(0).setTitle("changed");
+        quizExerciseService.save(changedExercise);
+        double misses = misses();
+
+        QuizExercise cachedExercise = getQuizExercise();
+        assertThat(misses()).isEqualTo(misses + 1);
+        assertThat(cachedExercise.getQuizQuestions().get(0).getTitle()).isEqualTo("changed");
+    }
+
+    @Test
+    public void testRolledBackChangeDoesNotInvalidateCachedExercise() {
+        String title = getQuizExercise().getQuizQuestions().get(0).getTitle();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            QuizExercise changedExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExercise.getId());
+            changedExercise.getQuizQuestions().get(0).setTitle("changed");
+            quizExerciseService.save(changedExercise);
+            status.setRollbackOnly();
+        });
+        double hits = hits();
+
+        QuizExercise cachedExercise = getQuizExercise();
+        assertThat(hits()).isEqualTo(hits + 1);
+        assertThat(cachedExercise.getQuizQuestions().get(0).getTitle()).isEqualTo(title);
+    }
+
+    private QuizExercise getQuizExercise() {
+        List<Exercise> exercises = examExerciseCache.getExercisesForConduction(List.of(quizExercise.getId()), false);
+        assertThat(exercises).hasSize(1);
+        return (QuizExercise) exercises.get(0);
+    }
+
+    private double hits() {
+        return meterRegistry.counter("artemis.exam.exercise-cache.hits").count();
+    }
+
+    private double misses() {
+        return meterRegistry.counter("artemis.exam.exercise-cache.misses").count();
+    }
+}
@@ -121,4 +121,27 @@ public class FileServiceTest extends AbstractSpringIntegrationBambooBitbucketJir
         charset = fileService.detectCharset(FileUtils.readFileToByteArray(new File("./exportTest/EncodingISO_8559_1.java")));
         assertThat(charset).isEqualTo(StandardCharsets.UTF_8);
     }
+
+    @Test
+    public void evictCachedFile() throws IOException {
+        writeFile("attachment.txt", "version 1");
+        File file = new File("./exportTest/attachment.txt");
+        long lastModified = file.lastModified();
+        assertThat(readResource(file.getPath())).isEqualTo("version 1");
+
+        // the cache cannot detect a new file with the same size and modification date
+        writeFile("attachment.txt", "version 2");
+        assertThat(file.setLastModified(lastModified)).isTrue();
+        assertThat(readResource(file.getPath())).isEqualTo("version 1");
+
+        // the path is normalized, so it does not need to be the same string that was used to load the file
+        fileService.evictCachedFile("./exportTest/../exportTest/attachment.txt");
+        assertThat(readResource(file.getPath())).isEqualTo("version 2");
+    }
+
+    private String readResource(String path) throws IOException {
+        try (var inputStream = fileService.getResourceForPath(path).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.util.DatabaseUtilService;
+import de.tum.in.www1.artemis.web.rest.dto.StatsForInstructorDashboardDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class InstructorDashboardStatsServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    DatabaseUtilService database;
+
+    @Autowired
+    InstructorDashboardStatsService instructorDashboardStatsService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Course course;
+
+    private Course otherCourse;
+
+    private StudentParticipation participation;
+
+    @BeforeEach
+    public void init() {
+        database.addUsers(1, 0, 0);
+        course = database.addCourseWithOneReleasedTextExercise();
+        otherCourse = database.addCourseWithOneReleasedTextExercise();
+        participation = database.addParticipationForExercise(course.getExercises().iterator().next(), "student1");
+        // the other tests expect up-to-date statistics, see application-artemis.yml
+        ReflectionTestUtils.setField(instructorDashboardStatsService, "maxStaleInSeconds", 600L);
+        // the ids of the courses are reused after the database has been reset
+        ((Map<?, ?>) ReflectionTestUtils.getField(instructorDashboardStatsService, "statsCache")).clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(instructorDashboardStatsService, "maxStaleInSeconds", 0L);
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testReturnCachedStats() {
+        StatsForInstructorDashboardDTO stats = instructorDashboardStatsService.getStatsForInstructorDashboard(course);
+        double hits = count("hits");
+
+        StatsForInstructorDashboardDTO cachedStats = instructorDashboardStatsService.getStatsForInstructorDashboard(course);
+        assertThat(count("hits")).isEqualTo(hits + 1);
+        assertThat(cachedStats).isNotSameAs(stats);
+        assertThat(cachedStats.getComputedAt()).isEqualTo(stats.getComputedAt());
+    }
+
+    @Test
+    public void testComplaintInvalidatesOnlyStatsOfItsCourse() {
+        StatsForInstructorDashboardDTO stats = instructorDashboardStatsService.getStatsForInstructorDashboard(course);
+        StatsForInstructorDashboardDTO otherStats = instructorDashboardStatsService.getStatsForInstructorDashboard(otherCourse);
+        assertThat(stats.getNumberOfComplaints()).isEqualTo(0L);
+
+        database.addComplaints("student1", participation, 1, ComplaintType.COMPLAINT);
+        double hits = count("hits");
+        double stale = count("stale");
+
+        assertThat(instructorDashboardStatsService.getStatsForInstructorDashboard(otherCourse).getComputedAt()).isEqualTo(otherStats.getComputedAt());
+        assertThat(count("hits")).isEqualTo(hits + 1);
+        // the outdated statistics are returned while they are recomputed in the background
+        assertThat(instructorDashboardStatsService.getStatsForInstructorDashboard(course).getNumberOfComplaints()).isEqualTo(0L);
+        assertThat(count("stale")).isEqualTo(stale + 1);
+        await().untilAsserted(() -> assertThat(instructorDashboardStatsService.getStatsForInstructorDashboard(course).getNumberOfComplaints()).isEqualTo(1L));
+    }
+
+    @Test
+    public void testInvalidateCourseOfParticipation() {
+        instructorDashboardStatsService.getStatsForInstructorDashboard(course);
+        double stale = count("stale");
+
+        instructorDashboardStatsService.invalidateCourseOfParticipation(participation.getId());
+
+        instructorDashboardStatsService.getStatsForInstructorDashboard(course);
+        assertThat(count("stale")).isEqualTo(stale + 1);
+    }
+
+    private double count(String type) {
+        return meterRegistry.counter("artemis.instructor-dashboard.stats.cache." + type).count();
+    }
+}
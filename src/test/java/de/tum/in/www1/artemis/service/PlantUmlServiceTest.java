@@ -0,0 +1,40 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PlantUmlServiceTest {
+
+    private static final String UML_DIAGRAM_STRING = "@startuml\nclass Foo\nclass Bar\nFoo --> Bar\n@enduml";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testRenderDiagramOnlyOnce() throws Exception {
+        PlantUmlService plantUmlService = new PlantUmlService(meterRegistry, 1024 * 1024, "");
+
+        String svg = plantUmlService.generateSvg(UML_DIAGRAM_STRING);
+        assertThat(svg).contains("<svg");
+        assertThat(plantUmlService.generateSvg(UML_DIAGRAM_STRING)).isEqualTo(svg);
+
+        assertThat(meterRegistry.counter("artemis.plantuml.cache.misses").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("artemis.plantuml.cache.hits", "tier", "heap").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUseDiskCache(@TempDir Path diskCachePath) throws Exception {
+        String svg = new PlantUmlService(meterRegistry, 1024 * 1024, diskCachePath.toString()).generateSvg(UML_DIAGRAM_STRING);
+        // A new service (e.g. after a restart) does not have to render the diagram again.
+        assertThat(new PlantUmlService(meterRegistry, 1024 * 1024, diskCachePath.toString()).generateSvg(UML_DIAGRAM_STRING)).isEqualTo(svg);
+
+        assertThat(meterRegistry.counter("artemis.plantuml.cache.misses").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("artemis.plantuml.cache.hits", "tier", "disk").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,182 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.http.HttpException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.cluster.Cluster;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+import de.tum.in.www1.artemis.service.ProgrammingExerciseBuildTriggerService.BuildRun;
+import de.tum.in.www1.artemis.service.connectors.jenkins.JenkinsException;
+
+public class ProgrammingExerciseBuildTriggerServiceTest {
+
+    private static final long EXERCISE_ID = 1L;
+
+    private static final long RETRY_BACKOFF = 50;
+
+    private final ProgrammingSubmissionService programmingSubmissionService = mock(ProgrammingSubmissionService.class);
+
+    private final ProgrammingExerciseParticipationService programmingExerciseParticipationService = mock(ProgrammingExerciseParticipationService.class);
+
+    private final ProgrammingSubmissionRepository programmingSubmissionRepository = mock(ProgrammingSubmissionRepository.class);
+
+    private final Cluster cluster = mock(Cluster.class);
+
+    @SuppressWarnings("unchecked")
+    private final IMap<Long, BuildRun> buildRuns = mock(IMap.class);
+
+    private ProgrammingExerciseBuildTriggerService buildTriggerService;
+
+    private ProgrammingExerciseStudentParticipation participation1;
+
+    private ProgrammingExerciseStudentParticipation participation2;
+
+    @BeforeEach
+    public void init() {
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        Member localMember = mock(Member.class);
+        when(localMember.getUuid()).thenReturn(UUID.randomUUID());
+        when(cluster.getLocalMember()).thenReturn(localMember);
+        when(cluster.getMembers()).thenReturn(Set.of(localMember));
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+        doReturn(buildRuns).when(hazelcastInstance).getMap("programming-exercise-build-runs");
+
+        buildTriggerService = new ProgrammingExerciseBuildTriggerService(programmingSubmissionService, programmingExerciseParticipationService,
+                programmingSubmissionRepository, mock(WebsocketMessagingService.class), hazelcastInstance);
+        ReflectionTestUtils.setField(buildTriggerService, "rate", 1000.0);
+        ReflectionTestUtils.setField(buildTriggerService, "burst", 1000L);
+        ReflectionTestUtils.setField(buildTriggerService, "concurrency", 2);
+        ReflectionTestUtils.setField(buildTriggerService, "maxRetries", 2);
+        ReflectionTestUtils.setField(buildTriggerService, "retryBackoffInMilliseconds", RETRY_BACKOFF);
+        ReflectionTestUtils.setField(buildTriggerService, "progressInterval", 10);
+        buildTriggerService.init();
+
+        ProgrammingExercise exercise = new ProgrammingExercise();
+        exercise.setId(EXERCISE_ID);
+        participation1 = createParticipation(exercise, 11L);
+        participation2 = createParticipation(exercise, 12L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        buildTriggerService.destroy();
+    }
+
+    @Test
+    public void testRetryBambooCommunicationErrorsWithBackoff() throws Exception {
+        doThrow(new HttpException("Bamboo is not available")).doThrow(new HttpException("Bamboo is not available")).doNothing().when(programmingSubmissionService)
+                .triggerBuild(any());
+
+        long start = System.currentTimeMillis();
+        buildTriggerService.triggerBuilds(List.of(participation1));
+
+        // the backoff doubles with every retry
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(RETRY_BACKOFF + 2 * RETRY_BACKOFF);
+        verify(programmingSubmissionService, times(3)).triggerBuild(any());
+        verify(programmingSubmissionService).notifyUserAboutSubmission(any());
+        verify(programmingSubmissionService, never()).notifyUserAboutBuildTriggerError(any(), any());
+    }
+
+    @Test
+    public void testRetryJenkinsCommunicationErrors() throws Exception {
+        doThrow(new JenkinsException("Error triggering build", new IOException("Jenkins is not available"))).doNothing().when(programmingSubmissionService)
+                .triggerBuild(any());
+
+        buildTriggerService.triggerBuilds(List.of(participation1));
+
+        verify(programmingSubmissionService, times(2)).triggerBuild(any());
+        verify(programmingSubmissionService).notifyUserAboutSubmission(any());
+        verify(programmingSubmissionService, never()).notifyUserAboutBuildTriggerError(any(), any());
+    }
+
+    @Test
+    public void testNotifyUserAfterLastRetry() throws Exception {
+        doThrow(new HttpException("Bamboo is not available")).when(programmingSubmissionService).triggerBuild(any());
+
+        buildTriggerService.triggerBuilds(List.of(participation1));
+
+        verify(programmingSubmissionService, times(3)).triggerBuild(any());
+        verify(programmingSubmissionService).notifyUserAboutBuildTriggerError(any(), any(HttpException.class));
+        verify(programmingSubmissionService, never()).notifyUserAboutSubmission(any());
+    }
+
+    @Test
+    public void testDoNotRetryOtherErrors() throws Exception {
+        doThrow(new IllegalStateException("Invalid build plan")).when(programmingSubmissionService).triggerBuild(any());
+
+        buildTriggerService.triggerBuilds(List.of(participation1));
+
+        verify(programmingSubmissionService, times(1)).triggerBuild(any());
+        verify(programmingSubmissionService).notifyUserAboutBuildTriggerError(any(), any(IllegalStateException.class));
+    }
+
+    @Test
+    public void testResumeBuildRunOfRemovedMember() throws Exception {
+        ArgumentCaptor<MembershipListener> membershipListener = ArgumentCaptor.forClass(MembershipListener.class);
+        verify(cluster).addMembershipListener(membershipListener.capture());
+
+        // the build run of the removed member already triggered the build of the first participation
+        ZonedDateTime startedAt = ZonedDateTime.now().minusMinutes(1);
+        BuildRun orphanedBuildRun = new BuildRun(startedAt, UUID.randomUUID(), 2, 1, 0);
+        when(buildRuns.entrySet()).thenReturn(Set.of(Map.entry(EXERCISE_ID, orphanedBuildRun)));
+        when(buildRuns.replace(eq(EXERCISE_ID), eq(orphanedBuildRun), any())).thenReturn(true);
+        when(programmingSubmissionRepository.findParticipationIdsByExerciseIdAndTypeAndSubmissionDateAfter(EXERCISE_ID, SubmissionType.INSTRUCTOR, startedAt))
+                .thenReturn(Set.of(participation1.getId()));
+        when(programmingExerciseParticipationService.findByExerciseId(EXERCISE_ID)).thenReturn(List.of(participation1, participation2));
+
+        membershipListener.getValue().memberRemoved(mock(MembershipEvent.class));
+
+        verify(programmingSubmissionService, timeout(5000)).completeInstructorBuildRun(EXERCISE_ID);
+        verify(programmingSubmissionService).createSubmissionWithLastCommitHashForParticipation(participation2, SubmissionType.INSTRUCTOR);
+        verify(programmingSubmissionService, never()).createSubmissionWithLastCommitHashForParticipation(participation1, SubmissionType.INSTRUCTOR);
+        verify(buildRuns).remove(EXERCISE_ID);
+    }
+
+    @Test
+    public void testDoNotResumeBuildRunOfActiveMember() {
+        ArgumentCaptor<MembershipListener> membershipListener = ArgumentCaptor.forClass(MembershipListener.class);
+        verify(cluster).addMembershipListener(membershipListener.capture());
+        BuildRun buildRun = new BuildRun(ZonedDateTime.now(), cluster.getLocalMember().getUuid(), 2, 0, 0);
+        when(buildRuns.entrySet()).thenReturn(Set.of(Map.entry(EXERCISE_ID, buildRun)));
+
+        membershipListener.getValue().memberRemoved(mock(MembershipEvent.class));
+
+        verify(buildRuns, after(200).never()).replace(anyLong(), any(), any());
+        verifyNoInteractions(programmingExerciseParticipationService);
+    }
+
+    private ProgrammingExerciseStudentParticipation createParticipation(ProgrammingExercise exercise, Long id) {
+        ProgrammingExerciseStudentParticipation participation = new ProgrammingExerciseStudentParticipation();
+        participation.setId(id);
+        participation.setExercise(exercise);
+        ProgrammingSubmission submission = new ProgrammingSubmission();
+        submission.setParticipation(participation);
+        when(programmingSubmissionService.createSubmissionWithLastCommitHashForParticipation(participation, SubmissionType.INSTRUCTOR)).thenReturn(submission);
+        return participation;
+    }
+}
@@ -0,0 +1,166 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.service.ProgrammingExerciseResultQueueService.QueuedResult;
+import de.tum.in.www1.artemis.service.connectors.LtiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ProgrammingExerciseResultQueueServiceTest {
+
+    private static final String PLAN_KEY_1 = "PROJECT-STUDENT1";
+
+    private static final String PLAN_KEY_2 = "PROJECT-STUDENT2";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ParticipationService participationService = mock(ParticipationService.class);
+
+    private final ProgrammingExerciseGradingService gradingService = mock(ProgrammingExerciseGradingService.class);
+
+    private final ProgrammingExerciseGradingContext gradingContext = mock(ProgrammingExerciseGradingContext.class);
+
+    @SuppressWarnings("unchecked")
+    private final IQueue<QueuedResult> deadLetterQueue = mock(IQueue.class);
+
+    private ProgrammingExerciseResultQueueService resultQueueService;
+
+    @BeforeEach
+    public void init() {
+        resultQueueService = new ProgrammingExerciseResultQueueService(participationService, gradingService, mock(WebsocketMessagingService.class), mock(LtiService.class),
+                mock(HazelcastInstance.class), meterRegistry);
+        ReflectionTestUtils.setField(resultQueueService, "deadLetterQueue", deadLetterQueue);
+        ReflectionTestUtils.setField(resultQueueService, "maxAttempts", 2);
+
+        ProgrammingExercise exercise = new ProgrammingExercise();
+        exercise.setId(1L);
+        for (String planKey : List.of(PLAN_KEY_1, PLAN_KEY_2)) {
+            ProgrammingExerciseStudentParticipation participation = new ProgrammingExerciseStudentParticipation();
+            participation.setBuildPlanId(planKey);
+            participation.setInitializationDate(ZonedDateTime.now());
+            participation.setExercise(exercise);
+            when(participationService.findByBuildPlanIdWithEagerResults(planKey)).thenReturn(List.of(participation));
+        }
+        when(gradingService.getGradingContext(exercise)).thenReturn(gradingContext);
+        when(gradingService.processNewProgrammingExerciseResult(any(Participation.class), any(), any())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // processBatch checks the interrupted flag of the current thread
+        Thread.interrupted();
+    }
+
+    @Test
+    public void testEnqueueResultsOfTheSameExerciseIntoTheSameQueue() throws Exception {
+        List<IQueue<QueuedResult>> queues = getQueues();
+        for (int partition = 0; partition < 4; partition++) {
+            queues.add(mockQueue());
+        }
+
+        resultQueueService.enqueue(PLAN_KEY_1, Map.of("plan", PLAN_KEY_1));
+        resultQueueService.enqueue(PLAN_KEY_2, Map.of("plan", PLAN_KEY_2));
+
+        List<IQueue<QueuedResult>> usedQueues = queues.stream().filter(queue -> !mockingDetails(queue).getInvocations().isEmpty())
+                .collect(Collectors.toList());
+        assertThat(usedQueues).hasSize(1);
+        ArgumentCaptor<QueuedResult> queuedResults = ArgumentCaptor.forClass(QueuedResult.class);
+        verify(usedQueues.get(0), times(2)).add(queuedResults.capture());
+        assertThat(queuedResults.getAllValues()).extracting(queuedResult -> queuedResult.planKey).containsExactly(PLAN_KEY_1, PLAN_KEY_2);
+        assertThat(queuedResults.getAllValues()).allMatch(queuedResult -> queuedResult.attempts == 0 && queuedResult.requestBody.contains("\"plan\""));
+    }
+
+    @Test
+    public void testProcessBatchSharesGradingContext() {
+        IQueue<QueuedResult> queue = mockQueue();
+
+        resultQueueService.processBatch(queue, List.of(queuedResult(PLAN_KEY_1, 0), queuedResult(PLAN_KEY_2, 0)));
+
+        verify(gradingService, times(1)).getGradingContext(any());
+        verify(gradingService, times(2)).processNewProgrammingExerciseResult(any(Participation.class), any(), eq(gradingContext));
+        verifyNoInteractions(queue, deadLetterQueue);
+        assertThat(meterRegistry.counter("artemis.programming.results.processed").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testProcessBatchRetriesFailedResult() {
+        IQueue<QueuedResult> queue = mockQueue();
+        when(gradingService.processNewProgrammingExerciseResult(any(Participation.class), any(), any())).thenThrow(new IllegalStateException("database not available"))
+                .thenReturn(Optional.empty());
+
+        resultQueueService.processBatch(queue, List.of(queuedResult(PLAN_KEY_1, 0), queuedResult(PLAN_KEY_2, 0)));
+
+        // the failed result is put back into its queue, the other result is processed anyway
+        ArgumentCaptor<QueuedResult> retried = ArgumentCaptor.forClass(QueuedResult.class);
+        verify(queue).add(retried.capture());
+        assertThat(retried.getValue().planKey).isEqualTo(PLAN_KEY_1);
+        assertThat(retried.getValue().attempts).isEqualTo(1);
+        verifyNoInteractions(deadLetterQueue);
+        assertThat(meterRegistry.counter("artemis.programming.results.retried").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("artemis.programming.results.processed").count()).isEqualTo(1);
+        // the grading context might be outdated after the error
+        verify(gradingService, times(2)).getGradingContext(any());
+    }
+
+    @Test
+    public void testProcessBatchMovesResultToDeadLetterQueueAfterLastAttempt() {
+        IQueue<QueuedResult> queue = mockQueue();
+        when(gradingService.processNewProgrammingExerciseResult(any(Participation.class), any(), any())).thenThrow(new IllegalStateException("invalid build result"));
+
+        resultQueueService.processBatch(queue, List.of(queuedResult(PLAN_KEY_1, 1)));
+
+        ArgumentCaptor<QueuedResult> deadLetter = ArgumentCaptor.forClass(QueuedResult.class);
+        verify(deadLetterQueue).add(deadLetter.capture());
+        assertThat(deadLetter.getValue().planKey).isEqualTo(PLAN_KEY_1);
+        assertThat(deadLetter.getValue().attempts).isEqualTo(2);
+        verifyNoInteractions(queue);
+        assertThat(meterRegistry.counter("artemis.programming.results.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testProcessBatchPutsResultsBackWhenInterrupted() {
+        IQueue<QueuedResult> queue = mockQueue();
+        List<QueuedResult> batch = List.of(queuedResult(PLAN_KEY_1, 0), queuedResult(PLAN_KEY_2, 0));
+
+        Thread.currentThread().interrupt();
+        resultQueueService.processBatch(queue, batch);
+
+        verify(queue).addAll(batch);
+        verify(gradingService, never()).processNewProgrammingExerciseResult(any(Participation.class), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private IQueue<QueuedResult> mockQueue() {
+        return mock(IQueue.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IQueue<QueuedResult>> getQueues() {
+        return (List<IQueue<QueuedResult>>) ReflectionTestUtils.getField(resultQueueService, "queues");
+    }
+
+    private static QueuedResult queuedResult(String planKey, int attempts) {
+        return new QueuedResult(planKey, "{\"plan\":\"" + planKey + "\"}", System.currentTimeMillis(), attempts);
+    }
+}
@@ -0,0 +1,117 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+public class QuizStatisticAccumulatorTest {
+
+    private QuizExercise quizExercise;
+
+    private MultipleChoiceQuestion question;
+
+    private AnswerOption correctOption;
+
+    private AnswerOption wrongOption;
+
+    @BeforeEach
+    public void initQuiz() {
+        quizExercise = new QuizExercise();
+        question = (MultipleChoiceQuestion) new MultipleChoiceQuestion().title("MC").score(4).text("Q1");
+        question.setId(1L);
+        question.setScoringType(ScoringType.ALL_OR_NOTHING);
+        correctOption = new AnswerOption().text("A").isCorrect(true);
+        correctOption.setId(11L);
+        wrongOption = new AnswerOption().text("B").isCorrect(false);
+        wrongOption.setId(12L);
+        question.getAnswerOptions().add(correctOption);
+        question.getAnswerOptions().add(wrongOption);
+        quizExercise.addQuestions(question);
+
+        var questionStatistic = new MultipleChoiceQuestionStatistic();
+        questionStatistic.setId(21L);
+        questionStatistic.setQuizQuestion(question);
+        question.setQuizQuestionStatistic(questionStatistic);
+        questionStatistic.addAnswerOption(correctOption);
+        questionStatistic.addAnswerOption(wrongOption);
+        long counterId = 31L;
+        for (AnswerCounter answerCounter : questionStatistic.getAnswerCounters()) {
+            answerCounter.setId(counterId++);
+        }
+
+        var pointStatistic = new QuizPointStatistic();
+        pointStatistic.setId(41L);
+        pointStatistic.setQuiz(quizExercise);
+        quizExercise.setQuizPointStatistic(pointStatistic);
+        pointStatistic.addScore(0.0);
+        pointStatistic.addScore(4.0);
+        for (PointCounter pointCounter : pointStatistic.getPointCounters()) {
+            pointCounter.setId(pointCounter.getPoints() > 0 ? 51L : 52L);
+        }
+    }
+
+    @Test
+    public void testAddRatedResult() {
+        var accumulator = new QuizStatisticAccumulator(quizExercise);
+        accumulator.addResult(result(correctOption, 100L, true));
+
+        var counterChanges = accumulator.getCounterChanges();
+        assertThat(counterChanges).containsOnlyKeys(counterIdFor(correctOption), 51L);
+        assertThat(counterChanges.get(counterIdFor(correctOption))).containsExactly(1, 0);
+        assertThat(counterChanges.get(51L)).containsExactly(1, 0);
+
+        var statisticChanges = accumulator.getStatisticChanges();
+        assertThat(statisticChanges.get(21L)).containsExactly(1, 0, 1, 0);
+        assertThat(statisticChanges.get(41L)).containsExactly(1, 0, 0, 0);
+    }
+
+    @Test
+    public void testReplaceUnratedResult() {
+        var accumulator = new QuizStatisticAccumulator(quizExercise);
+        accumulator.replaceResult(result(wrongOption, 0L, false), result(correctOption, 100L, false));
+
+        var counterChanges = accumulator.getCounterChanges();
+        assertThat(counterChanges.get(counterIdFor(correctOption))).containsExactly(0, 1);
+        assertThat(counterChanges.get(counterIdFor(wrongOption))).containsExactly(0, -1);
+        assertThat(counterChanges.get(51L)).containsExactly(0, 1);
+        assertThat(counterChanges.get(52L)).containsExactly(0, -1);
+
+        // the number of participants does not change when a result is replaced
+        var statisticChanges = accumulator.getStatisticChanges();
+        assertThat(statisticChanges).containsOnlyKeys(21L);
+        assertThat(statisticChanges.get(21L)).containsExactly(0, 0, 0, 1);
+    }
+
+    @Test
+    public void testNoChanges() {
+        var accumulator = new QuizStatisticAccumulator(quizExercise);
+        var result = result(correctOption, 100L, true);
+        accumulator.addResult(result);
+        accumulator.removeResult(result);
+        accumulator.replaceResult(null, null);
+
+        assertThat(accumulator.getCounterChanges()).isEmpty();
+        assertThat(accumulator.getStatisticChanges()).isEmpty();
+    }
+
+    private Result result(AnswerOption selectedOption, long score, boolean rated) {
+        var submittedAnswer = new MultipleChoiceSubmittedAnswer();
+        submittedAnswer.setQuizQuestion(question);
+        submittedAnswer.addSelectedOptions(selectedOption);
+        var submission = new QuizSubmission();
+        submission.addSubmittedAnswers(submittedAnswer);
+        var result = new Result().submission(submission).score(score);
+        result.setRated(rated);
+        return result;
+    }
+
+    private Long counterIdFor(AnswerOption answerOption) {
+        var statistic = (MultipleChoiceQuestionStatistic) question.getQuizQuestionStatistic();
+        return statistic.getAnswerCounters().stream().filter(counter -> answerOption.equals(counter.getAnswer())).findFirst().orElseThrow().getId();
+    }
+}
@@ -0,0 +1,82 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.quiz.AnswerOption;
+import de.tum.in.www1.artemis.domain.quiz.MultipleChoiceQuestion;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.util.DatabaseUtilService;
+
+public class QuizStatisticServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    DatabaseUtilService database;
+
+    @Autowired
+    QuizStatisticService quizStatisticService;
+
+    @Autowired
+    QuizExerciseService quizExerciseService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private QuizExercise quizExercise;
+
+    @BeforeEach
+    public void init() {
+        Course course = database.addEmptyCourse();
+        QuizExercise newQuizExercise = quizExerciseService.save(database.createQuiz(course, ZonedDateTime.now().minusMinutes(1), null));
+        quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(newQuizExercise.getId());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStatisticWebsocketFiltersSolutionsWithoutChangingQuiz() throws Exception {
+        quizStatisticService.updateStatistics(Set.of(), quizExercise);
+
+        ArgumentCaptor<Message<byte[]>> message = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/statistic/" + quizExercise.getId()), message.capture());
+        JsonNode quiz = objectMapper.readTree(message.getValue().getPayload());
+        assertThat(quiz.get("quizPointStatistic")).isNotNull();
+        for (JsonNode question : quiz.get("quizQuestions")) {
+            assertThat(question.get("quizQuestionStatistic")).isNotNull();
+            assertThat(question.has("explanation")).isFalse();
+            assertThat(question.has("correctMappings")).isFalse();
+            if (question.has("answerOptions")) {
+                for (JsonNode answerOption : question.get("answerOptions")) {
+                    assertThat(answerOption.has("explanation")).isFalse();
+                    assertThat(answerOption.has("isCorrect")).isFalse();
+                }
+            }
+        }
+
+        // the given quiz might be the cached quiz exercise, which still needs the solutions for evaluating submissions
+        MultipleChoiceQuestion multipleChoiceQuestion = quizExercise.getQuizQuestions().stream().filter(question -> question instanceof MultipleChoiceQuestion)
+                .map(question -> (MultipleChoiceQuestion) question).findFirst().orElseThrow();
+        assertThat(multipleChoiceQuestion.getExplanation()).isEqualTo("Explanation");
+        assertThat(multipleChoiceQuestion.getAnswerOptions()).extracting(AnswerOption::isIsCorrect).containsExactlyInAnyOrder(true, false);
+    }
+}
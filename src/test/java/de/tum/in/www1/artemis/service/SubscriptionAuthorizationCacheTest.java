@@ -0,0 +1,99 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.config.websocket.WebsocketConfiguration;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.util.DatabaseUtilService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class SubscriptionAuthorizationCacheTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    DatabaseUtilService database;
+
+    @Autowired
+    WebsocketConfiguration websocketConfiguration;
+
+    @Autowired
+    SubscriptionAuthorizationCache subscriptionAuthorizationCache;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private WebsocketConfiguration.TopicSubscriptionInterceptor interceptor;
+
+    private String resultDestination;
+
+    @BeforeEach
+    public void init() {
+        database.addUsers(0, 2, 0);
+        Course course = database.addCourseWithOneReleasedTextExercise();
+        resultDestination = "/topic/exercise/" + course.getExercises().iterator().next().getId() + "/newResults";
+        interceptor = websocketConfiguration.new TopicSubscriptionInterceptor();
+        // the ids of the exercises are reused after the database has been reset
+        subscriptionAuthorizationCache.invalidateAllUsers();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testCacheSubscriptionDecision() {
+        assertThat(subscribe("tutor1", resultDestination)).isNotNull();
+        double hits = meterRegistry.counter("artemis.websocket.subscription-authorization.cache.hits", "cache", "decision").count();
+
+        assertThat(subscribe("tutor1", resultDestination)).isNotNull();
+        assertThat(meterRegistry.counter("artemis.websocket.subscription-authorization.cache.hits", "cache", "decision").count()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void testDenySubscriptionAfterGroupWasRemoved() {
+        assertThat(subscribe("tutor1", resultDestination)).isNotNull();
+
+        userService.removeGroupFromUsers("tutor");
+
+        assertThat(subscribe("tutor1", resultDestination)).isNull();
+    }
+
+    @Test
+    public void testInvalidateOnlyDecisionsOfUser() {
+        assertThat(subscribe("tutor1", resultDestination)).isNotNull();
+        assertThat(subscribe("tutor2", resultDestination)).isNotNull();
+        double hits = decisionCount("hits");
+        double misses = decisionCount("misses");
+
+        subscriptionAuthorizationCache.invalidateUser("tutor1");
+
+        assertThat(subscribe("tutor1", resultDestination)).isNotNull();
+        assertThat(decisionCount("misses")).isEqualTo(misses + 1);
+        assertThat(subscribe("tutor2", resultDestination)).isNotNull();
+        assertThat(decisionCount("hits")).isEqualTo(hits + 1);
+    }
+
+    private double decisionCount(String type) {
+        return meterRegistry.counter("artemis.websocket.subscription-authorization.cache." + type, "cache", "decision").count();
+    }
+
+    private Message<?> subscribe(String login, String destination) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headerAccessor.setUser(() -> login);
+        headerAccessor.setDestination(destination);
+        return interceptor.preSend(MessageBuilder.createMessage(new byte[0], headerAccessor.getMessageHeaders()), null);
+    }
+}
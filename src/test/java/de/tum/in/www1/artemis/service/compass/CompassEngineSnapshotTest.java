@@ -0,0 +1,43 @@
+package de.tum.in.www1.artemis.service.compass;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CompassEngineSnapshotTest {
+
+    @Test
+    void writeAndReadSnapshot() throws IOException {
+        CompassEngineSnapshot snapshot = new CompassEngineSnapshot(42L);
+        snapshot.addModel(1L, CompassEngineSnapshot.calculateChecksum("model1"), Map.of("class1", 0, "attribute1", 1));
+        snapshot.addModel(2L, CompassEngineSnapshot.calculateChecksum("model2"), Map.of("class2", 0));
+        snapshot.addUniqueElement(1L, "class1");
+        snapshot.addUniqueElement(1L, "attribute1");
+        snapshot.getAlreadyHandledModels().add(1L);
+        snapshot.getModelsWaitingForAssessment().add(2L);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        snapshot.write(outputStream);
+        CompassEngineSnapshot readSnapshot = CompassEngineSnapshot.read(new ByteArrayInputStream(outputStream.toByteArray())).orElseThrow();
+
+        assertThat(readSnapshot.getExerciseId()).isEqualTo(42L);
+        assertThat(readSnapshot.getModelChecksum(1L)).contains(CompassEngineSnapshot.calculateChecksum("model1"));
+        assertThat(readSnapshot.getModelChecksum(3L)).isEmpty();
+        assertThat(readSnapshot.getSimilarityIds(1L)).containsOnly(Map.entry("class1", 0), Map.entry("attribute1", 1));
+        assertThat(readSnapshot.getSimilarityIds(2L)).containsOnly(Map.entry("class2", 0));
+        assertThat(readSnapshot.getUniqueElements()).extracting(reference -> reference.jsonElementId).containsExactly("class1", "attribute1");
+        assertThat(readSnapshot.getAlreadyHandledModels()).containsExactly(1L);
+        assertThat(readSnapshot.getModelsWaitingForAssessment()).containsExactly(2L);
+    }
+
+    @Test
+    void calculateChecksum() {
+        assertThat(CompassEngineSnapshot.calculateChecksum("model")).isEqualTo(CompassEngineSnapshot.calculateChecksum("model"));
+        assertThat(CompassEngineSnapshot.calculateChecksum("model")).isNotEqualTo(CompassEngineSnapshot.calculateChecksum("model2"));
+    }
+}
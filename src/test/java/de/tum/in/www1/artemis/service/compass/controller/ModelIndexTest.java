@@ -4,6 +4,9 @@ import static de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration.
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLClass;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLPackage;
 
 @ExtendWith(MockitoExtension.class)
 class ModelIndexTest {
@@ -94,4 +99,55 @@ class ModelIndexTest {
     private void mockSimilarityBetweenElements(UMLElement element1, UMLElement element2, double similarity) {
         when(element2.similarity(element1)).thenReturn(similarity);
     }
+
+    @Test
+    void retrieveSimilarityId_candidateIndexMatchesFullComparison() {
+        List<UMLElement> elements = createElements();
+        List<UMLElement> referenceElements = createElements();
+        ModelIndex referenceModelIndex = new ModelIndex(true);
+
+        for (int i = 0; i < elements.size(); i++) {
+            int similarityId = modelIndex.retrieveSimilarityId(elements.get(i));
+            elements.get(i).setSimilarityID(similarityId);
+            int referenceSimilarityId = referenceModelIndex.retrieveSimilarityId(referenceElements.get(i));
+            referenceElements.get(i).setSimilarityID(referenceSimilarityId);
+
+            assertThat(similarityId).as("similarity id of " + elements.get(i)).isEqualTo(referenceSimilarityId);
+        }
+        assertThat(modelIndex.getNumberOfUniqueElements()).isEqualTo(referenceModelIndex.getNumberOfUniqueElements());
+    }
+
+    @Test
+    void getUniqueElements_isSnapshot() {
+        modelIndex.retrieveSimilarityId(umlElement1);
+        List<UMLElement> uniqueElements = modelIndex.getUniqueElements();
+
+        // adding a unique element while the snapshot is iterated must not fail
+        for (UMLElement ignored : uniqueElements) {
+            modelIndex.retrieveSimilarityId(umlElement2);
+        }
+
+        assertThat(uniqueElements).containsExactly(umlElement1);
+        assertThat(modelIndex.getUniqueElements()).containsExactly(umlElement1, umlElement2);
+    }
+
+    @Test
+    void getNGrams() {
+        assertThat(ModelIndex.getNGrams(null)).isEmpty();
+        assertThat(ModelIndex.getNGrams("A")).isEmpty();
+        assertThat(ModelIndex.getNGrams("Car")).containsExactlyInAnyOrder("ca", "ar");
+    }
+
+    private List<UMLElement> createElements() {
+        String[] names = { "Car", "Cars", "car", "Vehicle", "Vehicles", "Engine", "Engines", "Motor", "Wheel", "Wheels", "A", "B", "", null, "CarEngine", "EngineCar" };
+        List<UMLElement> elements = new ArrayList<>();
+        int id = 0;
+        for (String name : names) {
+            elements.add(new UMLClass(name, List.of(), List.of(), "class" + id, UMLClass.UMLClassType.CLASS));
+            elements.add(new UMLClass(name, List.of(), List.of(), "abstractClass" + id, UMLClass.UMLClassType.ABSTRACT_CLASS));
+            elements.add(new UMLPackage(name, List.of(), "package" + id));
+            id++;
+        }
+        return elements;
+    }
 }
@@ -0,0 +1,45 @@
+package de.tum.in.www1.artemis.service.plagiarism.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TextMinHashIndexTest {
+
+    private static final String TEXT = "The observer pattern defines a one-to-many dependency between objects so that when one object changes state, all its dependents are notified.";
+
+    @Test
+    public void testSimilarTextsAreCandidates() {
+        var index = new TextMinHashIndex(5, 25, 4);
+        var texts = List.of(TEXT, "A completely different answer that talks about the adapter pattern and how it converts interfaces.", TEXT.toUpperCase(),
+                TEXT.replace("all its dependents", "all of its dependents"));
+
+        var candidatePairs = index.findCandidatePairs(texts);
+
+        assertThat(candidatePairs).anySatisfy(pair -> assertThat(pair).containsExactly(0, 2));
+        assertThat(candidatePairs).anySatisfy(pair -> assertThat(pair).containsExactly(0, 3));
+        assertThat(candidatePairs).anySatisfy(pair -> assertThat(pair).containsExactly(2, 3));
+        assertThat(candidatePairs).noneSatisfy(pair -> assertThat(pair).contains(1));
+    }
+
+    @Test
+    public void testSignatureIsDeterministic() {
+        assertThat(new TextMinHashIndex(5, 10, 2).signature(TEXT)).hasSize(20).containsExactly(new TextMinHashIndex(5, 10, 2).signature(TEXT));
+    }
+
+    @Test
+    public void testShortTexts() {
+        var index = new TextMinHashIndex(5, 10, 2);
+        assertThat(index.shingles("abc")).hasSize(1);
+        assertThat(index.shingles(null)).hasSize(1);
+        assertThat(index.findCandidatePairs(List.of("abc", "abc", "xyz"))).hasSize(1).first().satisfies(pair -> assertThat(pair).containsExactly(0, 1));
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TextMinHashIndex(5, 0, 2));
+    }
+}
@@ -0,0 +1,154 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * Compares the serialization of compact quiz submissions with the {@link CompactQuizSubmission.CompactQuizSubmissionStreamSerializer} to the Java serialization, which
+ * Hazelcast uses without the serializer.
+ */
+public class CompactQuizSubmissionSerializerTest {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Random random = new Random(42);
+
+    private InternalSerializationService javaSerialization;
+
+    private InternalSerializationService streamSerialization;
+
+    @BeforeEach
+    public void initSerializationServices() {
+        javaSerialization = new DefaultSerializationServiceBuilder().build();
+        Config config = new Config();
+        QuizExerciseCache.registerSerializers(config);
+        streamSerialization = new DefaultSerializationServiceBuilder().setConfig(config.getSerializationConfig()).build();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (int i = 0; i < 100; i++) {
+            CompactQuizSubmission quizSubmission = CompactQuizSubmission.of(generateSubmission(i % 2 == 0));
+            CompactQuizSubmission deserialized = streamSerialization.toObject(streamSerialization.toData(quizSubmission));
+            assertThat(deserialized).usingRecursiveComparison().isEqualTo(quizSubmission);
+        }
+    }
+
+    @Test
+    public void testRoundTripOfEmptySubmission() {
+        CompactQuizSubmission quizSubmission = CompactQuizSubmission.of(new QuizSubmission());
+        CompactQuizSubmission deserialized = streamSerialization.toObject(streamSerialization.toData(quizSubmission));
+        assertThat(deserialized).usingRecursiveComparison().isEqualTo(quizSubmission);
+        assertThat(deserialized.isSubmitted()).isFalse();
+    }
+
+    @Test
+    public void testUnsupportedVersionIsRejected() throws IOException {
+        var out = streamSerialization.createObjectDataOutput();
+        out.writeByte(CompactQuizSubmission.CompactQuizSubmissionStreamSerializer.VERSION + 1);
+        var in = streamSerialization.createObjectDataInput(out.toByteArray());
+        assertThatThrownBy(() -> new CompactQuizSubmission.CompactQuizSubmissionStreamSerializer().read(in)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testPayloadSizeAndSerializationTime() {
+        List<CompactQuizSubmission> quizSubmissions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            quizSubmissions.add(CompactQuizSubmission.of(generateSubmission(true)));
+        }
+        long javaSize = quizSubmissions.stream().mapToLong(quizSubmission -> javaSerialization.toData(quizSubmission).totalSize()).sum();
+        long streamSize = quizSubmissions.stream().mapToLong(quizSubmission -> streamSerialization.toData(quizSubmission).totalSize()).sum();
+        // the best of several runs reduces the influence of the JIT compilation
+        long javaTime = measureSerialization(javaSerialization, quizSubmissions, 5);
+        long streamTime = measureSerialization(streamSerialization, quizSubmissions, 5);
+        log.info("Java serialization: {} bytes per submission, {} µs for {} submissions", javaSize / quizSubmissions.size(), javaTime / 1000, quizSubmissions.size());
+        log.info("Stream serialization: {} bytes per submission, {} µs for {} submissions", streamSize / quizSubmissions.size(), streamTime / 1000, quizSubmissions.size());
+
+        assertThat(streamSize).as("the stream serializer writes less than half of the bytes").isLessThan(javaSize / 2);
+    }
+
+    private long measureSerialization(InternalSerializationService serializationService, List<CompactQuizSubmission> quizSubmissions, int runs) {
+        long bestTime = Long.MAX_VALUE;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            for (CompactQuizSubmission quizSubmission : quizSubmissions) {
+                CompactQuizSubmission deserialized = serializationService.toObject(serializationService.toData(quizSubmission));
+                assertThat(deserialized).isNotNull();
+            }
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+        return bestTime;
+    }
+
+    /**
+     * Generates a submission for a quiz with 10 multiple choice, 3 drag and drop and 2 short answer questions (if requested)
+     */
+    private QuizSubmission generateSubmission(boolean withShortAnswers) {
+        QuizSubmission quizSubmission = new QuizSubmission();
+        quizSubmission.setSubmitted(random.nextBoolean());
+        quizSubmission.setType(SubmissionType.MANUAL);
+        quizSubmission.setSubmissionDate(ZonedDateTime.now());
+        // ids in the range of a production database
+        long id = 100_000;
+        for (int question = 0; question < 10; question++) {
+            var answer = new MultipleChoiceSubmittedAnswer();
+            answer.setQuizQuestion(withId(new MultipleChoiceQuestion(), id++));
+            for (int option = 0; option < 4; option++) {
+                AnswerOption answerOption = withId(new AnswerOption(), id++);
+                if (random.nextBoolean()) {
+                    answer.addSelectedOptions(answerOption);
+                }
+            }
+            quizSubmission.addSubmittedAnswers(answer);
+        }
+        for (int question = 0; question < 3; question++) {
+            var answer = new DragAndDropSubmittedAnswer();
+            answer.setQuizQuestion(withId(new DragAndDropQuestion(), id++));
+            for (int mapping = 0; mapping < 4; mapping++) {
+                var dragAndDropMapping = new DragAndDropMapping();
+                dragAndDropMapping.setDragItem(withId(new DragItem(), id++));
+                dragAndDropMapping.setDropLocation(withId(new DropLocation(), id++));
+                answer.addMappings(dragAndDropMapping);
+            }
+            quizSubmission.addSubmittedAnswers(answer);
+        }
+        if (withShortAnswers) {
+            for (int question = 0; question < 2; question++) {
+                var answer = new ShortAnswerSubmittedAnswer();
+                answer.setQuizQuestion(withId(new ShortAnswerQuestion(), id++));
+                for (int spot = 0; spot < 3; spot++) {
+                    var submittedText = new ShortAnswerSubmittedText();
+                    submittedText.setSpot(withId(new ShortAnswerSpot(), id++));
+                    submittedText.setText(random.nextBoolean() ? "answer " + random.nextInt(100) : null);
+                    answer.addSubmittedTexts(submittedText);
+                }
+                quizSubmission.addSubmittedAnswers(answer);
+            }
+        }
+        return quizSubmission;
+    }
+
+    private static <T extends DomainObject> T withId(T domainObject, long id) {
+        domainObject.setId(id);
+        return domainObject;
+    }
+}
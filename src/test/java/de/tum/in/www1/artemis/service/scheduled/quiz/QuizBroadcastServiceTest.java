@@ -0,0 +1,124 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.view.QuizView;
+import de.tum.in.www1.artemis.service.QuizExerciseService;
+import de.tum.in.www1.artemis.util.DatabaseUtilService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class QuizBroadcastServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    DatabaseUtilService database;
+
+    @Autowired
+    QuizBroadcastService quizBroadcastService;
+
+    @Autowired
+    QuizScheduleService quizScheduleService;
+
+    @Autowired
+    QuizExerciseService quizExerciseService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private ObjectMapper objectMapper;
+
+    private QuizExercise quizExercise;
+
+    private String destination;
+
+    @BeforeEach
+    public void init() {
+        objectMapper = (ObjectMapper) ReflectionTestUtils.getField(quizBroadcastService, "objectMapper");
+        Course course = database.addEmptyCourse();
+        QuizExercise newQuizExercise = database.createQuiz(course, ZonedDateTime.now().plusHours(1), null);
+        newQuizExercise.duration(60);
+        newQuizExercise.setIsPlannedToStart(true);
+        newQuizExercise.setIsVisibleBeforeStart(true);
+        quizExercise = updateCachedQuizExercise(quizExerciseService.save(newQuizExercise).getId());
+        destination = "/topic/courses/" + course.getId() + "/quizExercises";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(quizBroadcastService, "objectMapper", objectMapper);
+        quizScheduleService.clearAllQuizData();
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testSkipBroadcastOfSameVersion() {
+        assertThat(broadcast()).isTrue();
+        double skipped = count("skipped");
+
+        assertThat(broadcast()).isFalse();
+        assertThat(count("skipped")).isEqualTo(skipped + 1);
+        verify(messagingTemplate, times(1)).send(eq(destination), any(Message.class));
+    }
+
+    @Test
+    public void testBroadcastNewVersionAfterUpdate() {
+        assertThat(broadcast()).isTrue();
+        double serialized = count("serialized");
+
+        quizExercise = updateCachedQuizExercise(quizExercise.getId());
+
+        assertThat(broadcast()).isTrue();
+        // the payload of the previous version must not be reused
+        assertThat(count("serialized")).isEqualTo(serialized + 1);
+        verify(messagingTemplate, times(2)).send(eq(destination), any(Message.class));
+    }
+
+    @Test
+    public void testReleaseClaimWhenSerializationFails() throws Exception {
+        ObjectMapper failingObjectMapper = mock(ObjectMapper.class);
+        ObjectWriter failingObjectWriter = mock(ObjectWriter.class);
+        when(failingObjectMapper.writerWithView(any())).thenReturn(failingObjectWriter);
+        when(failingObjectWriter.writeValueAsBytes(any())).thenThrow(new JsonMappingException(null, "serialization failed"));
+        ReflectionTestUtils.setField(quizBroadcastService, "objectMapper", failingObjectMapper);
+
+        assertThat(broadcast()).isFalse();
+        verify(messagingTemplate, never()).send(eq(destination), any(Message.class));
+
+        // the failed broadcast did not claim the change, so it is sent once the serialization works again
+        ReflectionTestUtils.setField(quizBroadcastService, "objectMapper", objectMapper);
+        assertThat(broadcast()).isTrue();
+        verify(messagingTemplate, times(1)).send(eq(destination), any(Message.class));
+    }
+
+    private QuizExercise updateCachedQuizExercise(Long quizExerciseId) {
+        QuizExercise quizExerciseWithQuestions = quizExerciseService.findOneWithQuestionsAndStatistics(quizExerciseId);
+        quizScheduleService.updateQuizExercise(quizExerciseWithQuestions);
+        return quizExerciseWithQuestions;
+    }
+
+    private boolean broadcast() {
+        return quizBroadcastService.broadcastQuizExercise(quizExercise, "start-now", QuizView.Before.class);
+    }
+
+    private double count(String type) {
+        return meterRegistry.counter("artemis.quiz.broadcast." + type).count();
+    }
+}
@@ -0,0 +1,60 @@
+package de.tum.in.www1.artemis.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AfterCommitInvalidationTest {
+
+    private final List<Set<String>> invalidations = new ArrayList<>();
+
+    private final AfterCommitInvalidation<String> afterCommitInvalidation = new AfterCommitInvalidation<>(invalidations::add);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testInvalidateImmediatelyWithoutTransaction() {
+        afterCommitInvalidation.add("a");
+        assertThat(invalidations).containsExactly(Set.of("a"));
+    }
+
+    @Test
+    public void testInvalidateOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        afterCommitInvalidation.add("a");
+        afterCommitInvalidation.addAll(List.of("a", "b"));
+        assertThat(invalidations).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(invalidations).containsExactly(Set.of("a", "b"));
+        assertThat(TransactionSynchronizationManager.getResource(afterCommitInvalidation)).isNull();
+    }
+
+    @Test
+    public void testDoNotInvalidateAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        afterCommitInvalidation.add("a");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(invalidations).isEmpty();
+        assertThat(TransactionSynchronizationManager.getResource(afterCommitInvalidation)).isNull();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,108 @@
+package de.tum.in.www1.artemis.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingExecutorTest {
+
+    private final BlockingQueue<String> processedValues = new LinkedBlockingQueue<>();
+
+    private CoalescingExecutor<String, Integer> executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testValuesWithinWindowAreCoalesced() throws Exception {
+        executor = new CoalescingExecutor<>("test-", 2, 200, (key, value) -> processedValues.add(key + "=" + value));
+        assertThat(executor.offer("student1", 1, false)).isFalse();
+        assertThat(executor.offer("student1", 2, false)).isTrue();
+        assertThat(executor.offer("student2", 1, false)).isFalse();
+        assertThat(executor.offer("student1", 3, false)).isTrue();
+
+        assertThat(List.of(takeProcessedValue(), takeProcessedValue())).containsExactlyInAnyOrder("student1=3", "student2=1");
+        assertThat(processedValues.poll(300, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(executor.getCoalescedValues()).isEqualTo(2);
+        assertThat(executor.getPendingValues()).isZero();
+    }
+
+    @Test
+    public void testImmediateValueIsProcessedWithoutWaiting() throws Exception {
+        executor = new CoalescingExecutor<>("test-", 1, 60_000, (key, value) -> processedValues.add(key + "=" + value));
+        executor.offer("student1", 1, false);
+        executor.offer("student1", 2, true);
+
+        assertThat(takeProcessedValue()).isEqualTo("student1=2");
+        assertThat(executor.getPendingValues()).isZero();
+    }
+
+    @Test
+    public void testTaskDiscardsPendingValue() throws Exception {
+        executor = new CoalescingExecutor<>("test-", 1, 60_000, (key, value) -> processedValues.add(key + "=" + value));
+        executor.offer("student1", 1, false);
+
+        assertThat(executor.executeInOrder("student1", () -> Thread.currentThread().getName())).startsWith("test-");
+        assertThat(executor.getPendingValues()).isZero();
+
+        executor.offer("student1", 2, true);
+        assertThat(takeProcessedValue()).isEqualTo("student1=2");
+        assertThat(processedValues).isEmpty();
+    }
+
+    @Test
+    public void testFlushProcessesMatchingPendingValues() throws Exception {
+        executor = new CoalescingExecutor<>("test-", 2, 60_000, (key, value) -> processedValues.add(key + "=" + value));
+        executor.offer("quiz1-student1", 1, false);
+        executor.offer("quiz1-student1", 2, false);
+        executor.offer("quiz2-student1", 1, false);
+
+        executor.flush(key -> key.startsWith("quiz1-"));
+        assertThat(processedValues).containsExactly("quiz1-student1=2");
+        assertThat(executor.getPendingValues()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTaskPassesOnExceptions() {
+        executor = new CoalescingExecutor<>("test-", 1, 100, (key, value) -> processedValues.add(key + "=" + value));
+        assertThatThrownBy(() -> executor.executeInOrder("student1", () -> {
+            throw new IOException("checked");
+        })).isInstanceOf(IOException.class).hasMessage("checked");
+        assertThatThrownBy(() -> executor.executeInOrder("student1", () -> {
+            throw new IllegalStateException("unchecked");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("unchecked");
+    }
+
+    @Test
+    public void testWithoutWindowValuesAreProcessedDirectly() throws Exception {
+        executor = new CoalescingExecutor<>("test-", 1, 0, (key, value) -> processedValues.add(key + "=" + value + "@" + Thread.currentThread().getName()));
+        String caller = Thread.currentThread().getName();
+        executor.offer("student1", 1, false);
+        executor.offer("student1", 2, false);
+
+        assertThat(processedValues).containsExactly("student1=1@" + caller, "student1=2@" + caller);
+        assertThat(executor.executeInOrder("student1", () -> Thread.currentThread().getName())).isEqualTo(caller);
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThatThrownBy(() -> new CoalescingExecutor<String, Integer>("test-", 0, 100, (key, value) -> {})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CoalescingExecutor<String, Integer>("test-", 1, -1, (key, value) -> {})).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String takeProcessedValue() throws InterruptedException {
+        String value = processedValues.poll(5, TimeUnit.SECONDS);
+        assertThat(value).as("value was processed in time").isNotNull();
+        return value;
+    }
+}
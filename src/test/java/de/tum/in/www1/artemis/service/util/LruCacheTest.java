@@ -0,0 +1,77 @@
+package de.tum.in.www1.artemis.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTest {
+
+    private final LruCache<String, byte[]> cache = new LruCache<>(10, value -> value.length);
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        // "a" is now used more recently than "b"
+        assertThat(cache.get("a")).isNotNull();
+        cache.put("c", new byte[4]);
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(cache.weight()).isEqualTo(8);
+    }
+
+    @Test
+    public void testReplaceValue() {
+        cache.put("a", new byte[4]);
+        cache.put("a", new byte[6]);
+
+        assertThat(cache.get("a")).hasSize(6);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(6);
+    }
+
+    @Test
+    public void testDoNotCacheValuesHeavierThanMaxWeight() {
+        cache.put("a", new byte[4]);
+        cache.put("a", new byte[11]);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    public void testComputeValue() {
+        cache.put("a", new byte[4]);
+
+        assertThat(cache.compute("a", (key, value) -> new byte[value.length + 2])).hasSize(6);
+        assertThat(cache.compute("b", (key, value) -> value == null ? new byte[2] : value)).hasSize(2);
+        assertThat(cache.weight()).isEqualTo(8);
+
+        assertThat(cache.compute("a", (key, value) -> null)).isNull();
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.weight()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+
+        assertThat(cache.remove("a")).hasSize(4);
+        assertThat(cache.remove("a")).isNull();
+        assertThat(cache.weight()).isEqualTo(4);
+
+        cache.put("a", new byte[2]);
+        cache.put("c", new byte[2]);
+        cache.removeIf(key -> !key.equals("c"));
+        assertThat(cache.get("c")).hasSize(2);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(2);
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+    }
+}
@@ -0,0 +1,50 @@
+package de.tum.in.www1.artemis.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+    private long now = 0;
+
+    @Test
+    public void testBurstIsLimitedByCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, () -> now);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testRefillWithRate() {
+        TokenBucket bucket = new TokenBucket(1, 2, () -> now);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+
+        now += TimeUnit.MILLISECONDS.toNanos(250);
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+
+        now += TimeUnit.MILLISECONDS.toNanos(250);
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+
+    @Test
+    public void testRefillDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, () -> now);
+        now += TimeUnit.MINUTES.toNanos(1);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}